@@ -0,0 +1,70 @@
+package fr.univamu.solver;
+
+/**
+ * Recherche guidée par l'activité (Michel et Van Hentenryck).
+ * L'activité d'une variable croît chaque fois que la propagation réduit son domaine et
+ * décroît à chaque noeud ; on choisit la variable de plus forte activité par valeur.
+ * La décroissance est appliquée en augmentant l'incrément plutôt qu'en touchant chaque
+ * activité, et toutes sont réduites ensemble quand l'incrément devient trop grand.
+ */
+public class ActivityStrategy extends HeuristicStrategy {
+
+    private static final double RESCALE = 1e100;
+
+    private final double decay;
+    private double[] activities = new double[0];
+    private double increment = 1.0;
+
+    public ActivityStrategy() {
+        this(0.95);
+    }
+
+    /**
+     * @param decay factor applied to all activities at each node, in (0, 1].
+     */
+    public ActivityStrategy(double decay) {
+        if (!(decay > 0 && decay <= 1)) {
+            throw new IllegalArgumentException("decay must be in (0, 1]: " + decay);
+        }
+        this.decay = decay;
+    }
+
+    @Override
+    protected void start(Solver solver) {
+        activities = new double[solver.getStore().size()];
+        increment = 1.0;
+    }
+
+    @Override
+    protected double score(Variable v) {
+        return -activities[v.getId()] / v.getSize();
+    }
+
+    @Override
+    protected void learn(Solver solver, boolean consistent, Variable decision,
+                         int[] modified, int count, double[] shrink) {
+        for (int i = 0; i < count; i++) {
+            int id = modified[i];
+            if (decision == null || id != decision.getId()) {
+                activities[id] += increment;
+            }
+        }
+        increment /= decay;
+        if (increment > RESCALE) {
+            for (int id = 0; id < activities.length; id++) {
+                activities[id] /= RESCALE;
+            }
+            increment /= RESCALE;
+            rescale(1 / RESCALE);
+        }
+    }
+
+    public double getActivity(Variable v) {
+        return activities[v.getId()];
+    }
+
+    @Override
+    protected HeuristicStrategy fresh() {
+        return new ActivityStrategy(decay);
+    }
+}
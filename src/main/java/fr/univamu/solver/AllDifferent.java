@@ -0,0 +1,427 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale "toutes différentes".
+ * La cohérence de bornes utilise l'algorithme des intervalles de Hall de López-Ortiz
+ * et al. (2003) ; la cohérence de domaine, un couplage maximum dans le graphe
+ * variables/valeurs et ses composantes fortement connexes (Régin, 1994).
+ */
+public class AllDifferent extends GlobalConstraint {
+
+    /** Above this many (variable, value) pairs, domain consistency falls back to bounds. */
+    static final int MAX_DOMAIN_EDGES = 1 << 16;
+
+    private final boolean domainConsistency;
+
+    // bornes : intervalles [min, max + 1) triés par min et par max
+    private final int n;
+    private final int[] ivMin;
+    private final int[] ivMax;
+    private final int[] minRank;
+    private final int[] maxRank;
+    private final Integer[] minSorted;
+    private final Integer[] maxSorted;
+    private final int[] bounds;
+    private int nb;
+    private final int[] t;
+    private final int[] d;
+    private final int[] h;
+
+    public AllDifferent(Variable[] vars, boolean domainConsistency) {
+        super(vars);
+        this.domainConsistency = domainConsistency;
+        this.n = vars.length;
+        ivMin = new int[n];
+        ivMax = new int[n];
+        minRank = new int[n];
+        maxRank = new int[n];
+        minSorted = new Integer[n];
+        maxSorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            minSorted[i] = i;
+            maxSorted[i] = i;
+        }
+        bounds = new int[2 * n + 2];
+        t = new int[2 * n + 2];
+        d = new int[2 * n + 2];
+        h = new int[2 * n + 2];
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.ALLDIFF;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new AllDifferent(vars, domainConsistency);
+    }
+
+    public boolean isDomainConsistency() {
+        return domainConsistency;
+    }
+
+    @Override
+    public boolean reduce() {
+        if (n < 2) return false;
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        boolean modified = removeFixedValues();
+        if (isWipedOut()) return true;
+        modified = reduceBounds() || modified;
+        if (domainConsistency && !isWipedOut()) {
+            modified = reduceDomains() || modified;
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean check() {
+        int[] fixed = new int[n];
+        int count = 0;
+        for (Variable v : vars) {
+            if (v.isOneValue()) fixed[count++] = v.getMin();
+        }
+        Arrays.sort(fixed, 0, count);
+        for (int i = 1; i < count; i++) {
+            if (fixed[i] == fixed[i - 1]) return false;
+        }
+        return true;
+    }
+
+    private boolean isWipedOut() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return true;
+        }
+        return false;
+    }
+
+    private void fail() {
+        vars[0].reduce(1, -1);
+    }
+
+    /*
+     * Retire la valeur de chaque variable fixée des autres domaines.
+     */
+    private boolean removeFixedValues() {
+        boolean modified = false;
+        for (int i = 0; i < n; i++) {
+            if (!vars[i].isOneValue()) continue;
+            int value = vars[i].getMin();
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                if (vars[j].isOneValue() && vars[j].getMin() == value) {
+                    fail();
+                    return true;
+                }
+                modified = vars[j].reduceExcept(value) || modified;
+            }
+        }
+        return modified;
+    }
+
+    // ---------------------------------------------------------------------
+    // Bounds consistency
+    // ---------------------------------------------------------------------
+
+    private boolean reduceBounds() {
+        for (int i = 0; i < n; i++) {
+            ivMin[i] = vars[i].getMin();
+            ivMax[i] = vars[i].getMax() + 1;
+        }
+        sortIntervals();
+        if (!filterLower() || !filterUpper()) {
+            fail();
+            return true;
+        }
+        boolean modified = false;
+        for (int i = 0; i < n; i++) {
+            modified = vars[i].reduce(ivMin[i], ivMax[i] - 1) || modified;
+        }
+        return modified;
+    }
+
+    private void sortIntervals() {
+        Arrays.sort(minSorted, (a, b) -> Integer.compare(ivMin[a], ivMin[b]));
+        Arrays.sort(maxSorted, (a, b) -> Integer.compare(ivMax[a], ivMax[b]));
+        int min = ivMin[minSorted[0]];
+        int max = ivMax[maxSorted[0]];
+        int last = min - 2;
+        int nb = 0;
+        bounds[0] = last;
+        int i = 0;
+        int j = 0;
+        while (true) {
+            if (i < n && min <= max) {
+                if (min != last) bounds[++nb] = last = min;
+                minRank[minSorted[i]] = nb;
+                if (++i < n) min = ivMin[minSorted[i]];
+            } else {
+                if (max != last) bounds[++nb] = last = max;
+                maxRank[maxSorted[j]] = nb;
+                if (++j == n) break;
+                max = ivMax[maxSorted[j]];
+            }
+        }
+        this.nb = nb;
+        bounds[nb + 1] = bounds[nb] + 2;
+    }
+
+    private boolean filterLower() {
+        for (int i = 1; i <= nb + 1; i++) {
+            t[i] = h[i] = i - 1;
+            d[i] = bounds[i] - bounds[i - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            int iv = maxSorted[i];
+            int x = minRank[iv];
+            int y = maxRank[iv];
+            int z = pathMax(t, x + 1);
+            int j = t[z];
+            if (--d[z] == 0) {
+                t[z] = z + 1;
+                z = pathMax(t, t[z]);
+                t[z] = j;
+            }
+            pathSet(t, x + 1, z, z);
+            if (d[z] < bounds[z] - bounds[y]) return false;
+            if (h[x] > x) {
+                int w = pathMax(h, h[x]);
+                ivMin[iv] = bounds[w];
+                pathSet(h, x, w, w);
+            }
+            if (d[z] == bounds[z] - bounds[y]) {
+                pathSet(h, h[y], j - 1, y);
+                h[y] = j - 1;
+            }
+        }
+        return true;
+    }
+
+    private boolean filterUpper() {
+        for (int i = 0; i <= nb; i++) {
+            t[i] = h[i] = i + 1;
+            d[i] = bounds[i + 1] - bounds[i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int iv = minSorted[i];
+            int x = maxRank[iv];
+            int y = minRank[iv];
+            int z = pathMin(t, x - 1);
+            int j = t[z];
+            if (--d[z] == 0) {
+                t[z] = z - 1;
+                z = pathMin(t, t[z]);
+                t[z] = j;
+            }
+            pathSet(t, x - 1, z, z);
+            if (d[z] < bounds[y] - bounds[z]) return false;
+            if (h[x] < x) {
+                int w = pathMin(h, h[x]);
+                ivMax[iv] = bounds[w];
+                pathSet(h, x, w, w);
+            }
+            if (d[z] == bounds[y] - bounds[z]) {
+                pathSet(h, h[y], j + 1, y);
+                h[y] = j + 1;
+            }
+        }
+        return true;
+    }
+
+    private static void pathSet(int[] t, int start, int end, int to) {
+        int k;
+        int l = start;
+        while ((k = l) != end) {
+            l = t[k];
+            t[k] = to;
+        }
+    }
+
+    private static int pathMin(int[] t, int i) {
+        while (t[i] < i) i = t[i];
+        return i;
+    }
+
+    private static int pathMax(int[] t, int i) {
+        while (t[i] > i) i = t[i];
+        return i;
+    }
+
+    // ---------------------------------------------------------------------
+    // Domain consistency
+    // ---------------------------------------------------------------------
+
+    private boolean reduceDomains() {
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        long edges = 0;
+        for (Variable v : vars) {
+            lo = Math.min(lo, v.getMin());
+            hi = Math.max(hi, v.getMax());
+            edges += v.getSize();
+        }
+        if (edges > MAX_DOMAIN_EDGES || (long) hi - lo >= MAX_DOMAIN_EDGES) return false;
+        int m = hi - lo + 1;
+
+        // couplage maximum variables -> valeurs
+        int[] varToVal = new int[n];
+        int[] valToVar = new int[m];
+        Arrays.fill(varToVal, -1);
+        Arrays.fill(valToVar, -1);
+        int[] seen = new int[m];
+        int round = 0;
+        for (int x = 0; x < n; x++) {
+            round++;
+            if (!augment(x, lo, varToVal, valToVar, seen, round)) {
+                fail();
+                return true;
+            }
+        }
+
+        // variables de chaque valeur k : adjacent[start[k]..start[k+1]-1]
+        int[] start = new int[m + 1];
+        for (Variable v : vars) {
+            for (int value = v.getMin(); value <= v.getMax(); value++) {
+                if (v.contains(value)) start[value - lo + 1]++;
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            start[k + 1] += start[k];
+        }
+        int[] adjacent = new int[start[m]];
+        int[] next = Arrays.copyOf(start, m);
+        for (int x = 0; x < n; x++) {
+            Variable v = vars[x];
+            for (int value = v.getMin(); value <= v.getMax(); value++) {
+                if (v.contains(value)) adjacent[next[value - lo]++] = x;
+            }
+        }
+
+        // composantes fortement connexes : noeuds 0..n-1 variables, n..n+m-1 valeurs, n+m puits
+        // arcs : variable -> valeur couplée, valeur -> variables (arêtes non couplées),
+        //        valeur couplée -> puits, puits -> valeurs libres
+        int nodes = n + m + 1;
+        int[] index = new int[nodes];
+        int[] low = new int[nodes];
+        int[] comp = new int[nodes];
+        boolean[] onStack = new boolean[nodes];
+        Arrays.fill(index, -1);
+        int[] stack = new int[nodes];
+        int[] callStack = new int[nodes];
+        int[] edgeCursor = new int[nodes];
+        int[] counters = new int[3]; // index, stack size, component count
+        for (int s = 0; s < nodes; s++) {
+            if (index[s] < 0) {
+                tarjan(s, m, varToVal, valToVar, start, adjacent, index, low, comp, onStack, stack, callStack,
+                        edgeCursor, counters);
+            }
+        }
+
+        boolean modified = false;
+        for (int x = 0; x < n; x++) {
+            Variable v = vars[x];
+            int min = v.getMin();
+            int max = v.getMax();
+            for (int value = min; value <= max; value++) {
+                if (!v.contains(value) || varToVal[x] == value - lo) continue;
+                if (comp[x] != comp[n + value - lo]) {
+                    modified = v.reduceExcept(value) || modified;
+                }
+            }
+        }
+        return modified;
+    }
+
+    private boolean augment(int x, int lo, int[] varToVal, int[] valToVar, int[] seen, int round) {
+        Variable v = vars[x];
+        for (int value = v.getMin(); value <= v.getMax(); value++) {
+            if (!v.contains(value)) continue;
+            int k = value - lo;
+            if (seen[k] == round) continue;
+            seen[k] = round;
+            if (valToVar[k] < 0 || augment(valToVar[k], lo, varToVal, valToVar, seen, round)) {
+                varToVal[x] = k;
+                valToVar[k] = x;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Successeur suivant du noeud {@code u}, ou -1 s'il n'y en a plus. edgeCursor[u],
+     * nul à la découverte de u, avance avec les arcs rendus, si bien que chaque arc
+     * n'est parcouru qu'une fois : pour le puits c'est la prochaine valeur à examiner,
+     * pour une valeur 1 + la prochaine position dans adjacent, après l'arc vers le puits.
+     */
+    private int successor(int u, int m, int[] varToVal, int[] valToVar, int[] start, int[] adjacent,
+                          int[] edgeCursor) {
+        int sink = n + m;
+        if (u < n) {
+            return (edgeCursor[u]++ == 0) ? n + varToVal[u] : -1;
+        }
+        if (u == sink) {
+            // puits -> valeurs libres
+            while (edgeCursor[u] < m) {
+                int k = edgeCursor[u]++;
+                if (valToVar[k] < 0) return n + k;
+            }
+            return -1;
+        }
+        int k = u - n;
+        if (edgeCursor[u] == 0) {
+            edgeCursor[u] = 1;
+            if (valToVar[k] >= 0) return sink;
+        }
+        while (start[k] + edgeCursor[u] - 1 < start[k + 1]) {
+            int x = adjacent[start[k] + edgeCursor[u]++ - 1];
+            if (x != valToVar[k]) return x;
+        }
+        return -1;
+    }
+
+    private void tarjan(int root, int m, int[] varToVal, int[] valToVar, int[] start, int[] adjacent,
+                        int[] index, int[] low, int[] comp, boolean[] onStack,
+                        int[] stack, int[] callStack, int[] edgeCursor, int[] counters) {
+        int depth = 0;
+        callStack[depth++] = root;
+        edgeCursor[root] = 0;
+        index[root] = low[root] = counters[0]++;
+        stack[counters[1]++] = root;
+        onStack[root] = true;
+        while (depth > 0) {
+            int u = callStack[depth - 1];
+            int w = successor(u, m, varToVal, valToVar, start, adjacent, edgeCursor);
+            if (w >= 0) {
+                if (index[w] < 0) {
+                    index[w] = low[w] = counters[0]++;
+                    stack[counters[1]++] = w;
+                    onStack[w] = true;
+                    edgeCursor[w] = 0;
+                    callStack[depth++] = w;
+                } else if (onStack[w]) {
+                    low[u] = Math.min(low[u], index[w]);
+                }
+                continue;
+            }
+            depth--;
+            if (depth > 0) {
+                int parent = callStack[depth - 1];
+                low[parent] = Math.min(low[parent], low[u]);
+            }
+            if (low[u] == index[u]) {
+                int c = counters[2]++;
+                int x;
+                do {
+                    x = stack[--counters[1]];
+                    onStack[x] = false;
+                    comp[x] = c;
+                } while (x != u);
+            }
+        }
+    }
+}
@@ -3,18 +3,33 @@ package fr.univamu.solver;
 
 public class AlwaysReduceStrategy implements IStrategy {
 
-    private Backup backup;
+    private Branching branching;
+
+    /**
+     * Uses {@code branching} to cut the domain of the chosen variable, null to go back
+     * to slices of {@link #step} values.
+     */
+    public void setBranching(Branching branching) {
+        this.branching = branching;
+    }
+
+    public Branching getBranching() {
+        return branching;
+    }
+
+    @Override
+    public int[] branches(Solver solver, Variable v) {
+        return (branching == null) ? null : branching.branches(solver, v);
+    }
 
     @Override
     public boolean before(Solver solver) {
-        solver.reduce();
-        return solver.checkConstraints();
+        return solver.reduce() && solver.checkConstraints();
     }
 
     @Override
     public boolean check(Solver solver) {
-        solver.reduce();
-        return solver.checkConstraints();
+        return solver.reduce() && solver.checkConstraints();
     }
 
     @Override
@@ -26,16 +41,4 @@ public class AlwaysReduceStrategy implements IStrategy {
     public int step(Variable v) {
         return 1;
     }
-
-    @Override
-    public void backup(Solver solver) {
-        backup = new Backup(solver.variables);
-    }
-
-    @Override
-    public void restore(Solver solver) {
-        if (backup != null) {
-            backup.restore();
-        }
-    }
 }
@@ -0,0 +1,313 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale d'affectation avec coût.
+ * Sur des cases 0/1 x[t][a], chaque tâche t reçoit exactement un agent a, chaque agent
+ * au plus une tâche, et la variable de coût vaut Σ costs[t][a]·x[t][a]. La propagation
+ * résout par l'algorithme hongrois le problème d'affectation restreint aux cases qui
+ * peuvent encore valoir 1 (des tâches fictives de coût 0 complètent les lignes pour que
+ * le problème soit carré) ; le coût optimal minore la variable de coût. Le surcoût d'une
+ * case est son coût réduit plus le plus court chemin alternant qui donne un autre agent
+ * à la tâche à laquelle elle prend le sien ; une case dont le surcoût porterait la borne
+ * au-delà du maximum de la variable de coût est mise à 0. Le couplage et les potentiels
+ * sont gardés d'un appel à l'autre : seules les tâches dont la case couplée a été
+ * retirée, ou dont les potentiels ont été invalidés par un retour arrière, sont
+ * couplées de nouveau.
+ */
+public class AssignmentCost extends GlobalConstraint {
+
+    private final int[][] costs;
+    private final int tasks;
+    private final int agents;
+    private final Variable cost;
+
+    // problème carré : lignes 0..tasks-1 les tâches, puis les tâches fictives
+    private final boolean[][] allowed;
+    private final long[] u;
+    private final long[] v;
+    private final int[] rowMatch;
+    private final int[] colMatch;
+    // chemins augmentants
+    private final long[] minv;
+    private final int[] way;
+    private final boolean[] used;
+    private final long[] dist;
+
+    /**
+     * @param costs the cost of each (task, agent) cell.
+     * @param cells the 0/1 variables of the cells, row by row (one row per task).
+     * @param cost  the total cost.
+     */
+    public AssignmentCost(int[][] costs, Variable[] cells, Variable cost) {
+        super(variables(cells, cost));
+        this.tasks = costs.length;
+        this.agents = (tasks == 0) ? 0 : costs[0].length;
+        for (int[] row : costs) {
+            if (row.length != agents) throw new IllegalArgumentException("rows of different lengths");
+        }
+        if (cells.length != tasks * agents) {
+            throw new IllegalArgumentException("one cell per task and agent expected");
+        }
+        this.costs = costs;
+        this.cost = cost;
+        int n = Math.max(tasks, agents);
+        allowed = new boolean[n][agents];
+        u = new long[n];
+        v = new long[agents];
+        rowMatch = new int[n];
+        colMatch = new int[agents];
+        Arrays.fill(rowMatch, -1);
+        Arrays.fill(colMatch, -1);
+        minv = new long[agents];
+        way = new int[agents];
+        used = new boolean[agents];
+        dist = new long[agents];
+    }
+
+    private static Variable[] variables(Variable[] cells, Variable cost) {
+        Variable[] vars = Arrays.copyOf(cells, cells.length + 1);
+        vars[cells.length] = cost;
+        return vars;
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.ASSIGNMENT;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new AssignmentCost(costs, Arrays.copyOf(vars, vars.length - 1), vars[vars.length - 1]);
+    }
+
+    public int[][] getCosts() {
+        return costs;
+    }
+
+    public int getTasks() {
+        return tasks;
+    }
+
+    public int getAgents() {
+        return agents;
+    }
+
+    private Variable cell(int t, int a) {
+        return vars[t * agents + a];
+    }
+
+    private long cellCost(int row, int a) {
+        return (row < tasks) ? costs[row][a] : 0;
+    }
+
+    @Override
+    public boolean reduce() {
+        for (Variable x : vars) {
+            if (x.isEmpty()) return false;
+        }
+        if (tasks > agents || !computeAllowed()) {
+            fail();
+            return true;
+        }
+        int n = allowed.length;
+        // on garde ce qui est encore valide de la dernière affectation
+        for (int row = 0; row < n; row++) {
+            int a = rowMatch[row];
+            if (a >= 0 && !(allowed[row][a] && reducedCost(row, a) == 0 && feasible(row))) {
+                rowMatch[row] = -1;
+                colMatch[a] = -1;
+            }
+        }
+        for (int row = 0; row < n; row++) {
+            if (rowMatch[row] < 0 && !augment(row)) {
+                fail();
+                return true;
+            }
+        }
+        long bound = 0;
+        for (int t = 0; t < tasks; t++) {
+            bound += costs[t][rowMatch[t]];
+        }
+        if (bound > cost.getMax()) {
+            fail();
+            return true;
+        }
+        boolean modified = (bound > cost.getMin()) && cost.reduce((int) bound, cost.getMax());
+        // filtrage : coût supplémentaire exact de chaque cellule libre
+        long slack = cost.getMax() - bound;
+        for (int a = 0; a < agents; a++) {
+            boolean distances = false;
+            for (int t = 0; t < tasks; t++) {
+                if (!allowed[t][a] || rowMatch[t] == a || cell(t, a).isOneValue()) continue;
+                long rc = reducedCost(t, a);
+                if (rc <= slack) {
+                    if (!distances) {
+                        shortestPaths(a);
+                        distances = true;
+                    }
+                    if (dist[rowMatch[t]] != Long.MAX_VALUE && rc + dist[rowMatch[t]] <= slack) continue;
+                }
+                modified = cell(t, a).reduce(0, 0) || modified;
+            }
+        }
+        return modified;
+    }
+
+    /*
+     * Cellules qui peuvent encore valoir 1 ; une cellule à 1 exclut les autres de sa ligne
+     * et de sa colonne. Faux si deux cellules à 1 se contredisent.
+     */
+    private boolean computeAllowed() {
+        int[] forcedCol = new int[tasks];
+        int[] forcedRow = new int[agents];
+        Arrays.fill(forcedCol, -1);
+        Arrays.fill(forcedRow, -1);
+        for (int t = 0; t < tasks; t++) {
+            for (int a = 0; a < agents; a++) {
+                if (cell(t, a).getMin() != 1) continue;
+                if (forcedCol[t] >= 0 || forcedRow[a] >= 0) return false;
+                forcedCol[t] = a;
+                forcedRow[a] = t;
+            }
+        }
+        for (int row = 0; row < allowed.length; row++) {
+            for (int a = 0; a < agents; a++) {
+                boolean free = (row < tasks) ? cell(row, a).contains(1) && (forcedCol[row] < 0 || forcedCol[row] == a)
+                        : true;
+                allowed[row][a] = free && (forcedRow[a] < 0 || forcedRow[a] == row);
+            }
+        }
+        return true;
+    }
+
+    private long reducedCost(int row, int a) {
+        return cellCost(row, a) - u[row] - v[a];
+    }
+
+    /* Vrai si aucune cellule permise de la ligne n'a un coût réduit négatif. */
+    private boolean feasible(int row) {
+        for (int a = 0; a < agents; a++) {
+            if (allowed[row][a] && reducedCost(row, a) < 0) return false;
+        }
+        return true;
+    }
+
+    /*
+     * Chemin augmentant de coût réduit minimum depuis une ligne libre (Kuhn-Munkres,
+     * version en O(n²) par ligne) ; les potentiels restent réalisables et serrés sur
+     * le couplage. Faux si la ligne ne peut plus être couplée.
+     */
+    private boolean augment(int start) {
+        Arrays.fill(minv, Long.MAX_VALUE);
+        Arrays.fill(used, false);
+        Arrays.fill(way, -1);
+        // la ligne de départ peut avoir des coûts réduits négatifs : son potentiel est recalculé
+        long first = Long.MAX_VALUE;
+        for (int a = 0; a < agents; a++) {
+            if (allowed[start][a]) first = Math.min(first, cellCost(start, a) - v[a]);
+        }
+        if (first == Long.MAX_VALUE) return false;
+        u[start] = first;
+        int row = start;
+        int col = -1;
+        while (true) {
+            long delta = Long.MAX_VALUE;
+            int next = -1;
+            for (int a = 0; a < agents; a++) {
+                if (used[a]) continue;
+                if (allowed[row][a]) {
+                    long rc = reducedCost(row, a);
+                    if (rc < minv[a]) {
+                        minv[a] = rc;
+                        way[a] = col;
+                    }
+                }
+                if (minv[a] < delta) {
+                    delta = minv[a];
+                    next = a;
+                }
+            }
+            if (next < 0) return false;
+            // mise à jour des potentiels de l'arbre
+            u[start] += delta;
+            for (int a = 0; a < agents; a++) {
+                if (used[a]) {
+                    u[colMatch[a]] += delta;
+                    v[a] -= delta;
+                } else if (minv[a] != Long.MAX_VALUE) {
+                    minv[a] -= delta;
+                }
+            }
+            used[next] = true;
+            col = next;
+            if (colMatch[col] < 0) break;
+            row = colMatch[col];
+        }
+        // inversion du chemin
+        while (col >= 0) {
+            int previous = way[col];
+            int r = (previous < 0) ? start : colMatch[previous];
+            colMatch[col] = r;
+            rowMatch[r] = col;
+            col = previous;
+        }
+        return true;
+    }
+
+    /*
+     * Donner l'agent a à la tâche t libère l'agent de t et prive de a la ligne qui
+     * l'avait : le surcoût est le coût réduit de (t, a) plus le plus court chemin
+     * alterné de cette ligne vers l'agent de t, sans passer par a. Dijkstra sur les
+     * coûts réduits, tous positifs ; dist[c] est la distance de chaque agent c.
+     */
+    private void shortestPaths(int a) {
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(used, false);
+        used[a] = true;
+        int row = colMatch[a];
+        long base = 0;
+        while (true) {
+            for (int c = 0; c < agents; c++) {
+                if (!used[c] && allowed[row][c]) {
+                    dist[c] = Math.min(dist[c], base + reducedCost(row, c));
+                }
+            }
+            int next = -1;
+            for (int c = 0; c < agents; c++) {
+                if (!used[c] && dist[c] != Long.MAX_VALUE && (next < 0 || dist[c] < dist[next])) next = c;
+            }
+            if (next < 0) return;
+            used[next] = true;
+            base = dist[next];
+            row = colMatch[next];
+        }
+    }
+
+    private void fail() {
+        cost.reduce(1, -1);
+    }
+
+    @Override
+    public boolean check() {
+        long fixed = 0;
+        int[] ones = new int[agents];
+        for (int t = 0; t < tasks; t++) {
+            int count = 0;
+            boolean possible = false;
+            for (int a = 0; a < agents; a++) {
+                Variable x = cell(t, a);
+                if (x.isEmpty()) return false;
+                if (x.getMin() == 1) {
+                    count++;
+                    fixed += costs[t][a];
+                    if (++ones[a] > 1) return false;
+                }
+                possible |= x.contains(1);
+            }
+            if (count > 1 || !possible) return false;
+        }
+        return !cost.isEmpty() && fixed <= cost.getMax();
+    }
+}
@@ -0,0 +1,167 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/*
+ * Recherche en profondeur avec retour arrière dirigé par les conflits.
+ * Un noeud en échec donne l'ensemble des niveaux de décision qui l'expliquent : les
+ * raisons de la contrainte en échec, ou de l'objectif quand sa borne est atteinte, ou
+ * tous les niveaux faute de mieux. La recherche remonte directement au plus profond
+ * d'entre eux ; les points de choix intermédiaires sont abandonnés avec leurs branches
+ * restantes, qui échoueraient toutes pour la même raison. Les autres niveaux de
+ * l'ensemble sont gardés pour le point de choix atteint, et transmis plus haut quand
+ * toutes ses branches ont échoué. Une solution dépend de toutes les décisions : elle ne
+ * fait jamais sauter la recherche.
+ */
+final class BackjumpSearch {
+
+    private final Solver solver;
+    private final Trail trail;
+    private final Explanations explanations;
+    private long backjumps = 0;
+    private long skipped = 0;
+
+    // pile des points de choix : variable, branches, position de la branche courante
+    // et niveaux responsables des échecs des branches déjà essayées
+    private Variable[] vars = new Variable[16];
+    private int[][] branches = new int[16][];
+    private int[] positions = new int[16];
+    private BitSet[] conflicts = new BitSet[16];
+    private int depth = 0;
+
+    BackjumpSearch(Solver solver, Explanations explanations) {
+        this.solver = solver;
+        this.trail = solver.getTrail();
+        this.explanations = explanations;
+    }
+
+    /* Nombre de sauts par-dessus au moins un point de choix. */
+    long getBackjumps() {
+        return backjumps;
+    }
+
+    /* Branches abandonnées par les sauts, jamais visitées. */
+    long getSkipped() {
+        return skipped;
+    }
+
+    /*
+     * Le niveau de la racine est déjà empilé et la stratégie préparée par before().
+     */
+    void run() {
+        boolean visit = true;
+        while (visit) {
+            long solutions = solver.getSolutionsCounter();
+            var v = solver.visitNode();
+            if (v != null && push(v)) {
+                continue;
+            }
+            BitSet conflict;
+            if (solver.getSolutionsCounter() != solutions || v != null) {
+                conflict = all();
+            } else {
+                conflict = conflict();
+            }
+            visit = backtrack(conflict);
+        }
+    }
+
+    private boolean push(Variable v) {
+        int[] choices = solver.branches(v);
+        if (choices.length == 0) {
+            return false;
+        }
+        if (depth == vars.length) {
+            int capacity = depth * 2;
+            vars = Arrays.copyOf(vars, capacity);
+            branches = Arrays.copyOf(branches, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            conflicts = Arrays.copyOf(conflicts, capacity);
+        }
+        vars[depth] = v;
+        branches[depth] = choices;
+        positions[depth] = 0;
+        if (conflicts[depth] == null) {
+            conflicts[depth] = new BitSet();
+        } else {
+            conflicts[depth].clear();
+        }
+        depth++;
+        trail.push();
+        explanations.push();
+        decide(v, choices[0], choices[1]);
+        return true;
+    }
+
+    private void decide(Variable v, int min, int max) {
+        explanations.decide();
+        v.init(min, max);
+        explanations.endDecision();
+    }
+
+    /*
+     * Remonte au niveau le plus profond du conflit et y passe à la branche suivante.
+     * Renvoie false quand la recherche est terminée.
+     */
+    private boolean backtrack(BitSet conflict) {
+        while (depth > 0) {
+            int deepest = conflict.length() - 1;
+            if (deepest < depth) {
+                // aucune décision entre deepest et depth n'y est pour rien
+                long abandoned = 0;
+                while (depth > Math.max(deepest, 0)) {
+                    abandoned += (branches[depth - 1].length - positions[depth - 1]) / 2 - 1;
+                    trail.pop();
+                    explanations.pop();
+                    depth--;
+                }
+                if (abandoned > 0) {
+                    backjumps++;
+                    skipped += abandoned;
+                }
+                if (depth == 0) {
+                    return false;
+                }
+            }
+            int top = depth - 1;
+            conflict.clear(depth);
+            conflicts[top].or(conflict);
+            trail.undo();
+            explanations.undo();
+            int next = positions[top] + 2;
+            if (next < branches[top].length) {
+                positions[top] = next;
+                decide(vars[top], branches[top][next], branches[top][next + 1]);
+                return true;
+            }
+            // toutes les branches ont échoué : le noeud au-dessus échoue pour ces raisons
+            conflict = (BitSet) conflicts[top].clone();
+            trail.pop();
+            explanations.pop();
+            depth--;
+        }
+        return false;
+    }
+
+    /*
+     * Niveaux responsables de l'échec du noeud courant.
+     */
+    private BitSet conflict() {
+        int failure = solver.getLastFailure();
+        if (failure >= 0) {
+            return explanations.reasons(solver.getConstraints().get(failure).scope());
+        }
+        if (solver.getStrategy() instanceof OptimizationStrategy optimization
+                && optimization.getTarget().getMin() > optimization.getBestValue()) {
+            return explanations.reasons(optimization.getTarget());
+        }
+        return all();
+    }
+
+    private BitSet all() {
+        BitSet set = new BitSet();
+        set.set(1, depth + 1);
+        return set;
+    }
+}
@@ -0,0 +1,194 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Découpage du domaine de la variable choisie en branches.
+ * Un branchement énumère les valeurs du domaine, ou le coupe en deux moitiés, chacune
+ * propagée comme un noeud à part entière ; l'énumération se rabat sur la bissection
+ * quand le domaine a plus de {@link #MAX_ENUMERATION} valeurs, si bien que les grands
+ * domaines sont découpés en O(log taille) niveaux. L'ordre des valeurs décide de la
+ * valeur ou de la moitié explorée en premier.
+ */
+public final class Branching {
+
+    /** Widest domain whose values are enumerated one by one. */
+    public static final int MAX_ENUMERATION = 1000;
+
+    public enum Order {
+        /** Smallest values first. */
+        MIN,
+        /** Largest values first. */
+        MAX,
+        /** Middle value first, then the values closest to it. */
+        MEDIAN,
+        /** Uniformly shuffled, from the seed of the branching. */
+        RANDOM,
+        /**
+         * Values that leave the smallest lower bound for the objective first, as found
+         * by propagating each branch; branches that fail are dropped. Without an
+         * optimization strategy, same as {@link #MIN}.
+         */
+        OBJECTIVE
+    }
+
+    private final boolean bisect;
+    private final Order order;
+    private final long seed;
+    private final Random random;
+
+    private Branching(boolean bisect, Order order, long seed) {
+        this.bisect = bisect;
+        this.order = order;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /** One branch per value, in the given order. */
+    public static Branching enumerate(Order order) {
+        return new Branching(false, order, 0);
+    }
+
+    /** Two branches per node, the lower and upper halves of the domain. */
+    public static Branching bisect(Order order) {
+        return new Branching(true, order, 0);
+    }
+
+    /** Same branching with another seed for {@link Order#RANDOM}. */
+    public Branching withSeed(long seed) {
+        return new Branching(bisect, order, seed);
+    }
+
+    /** Same branching with its random generator back at the start, for another search. */
+    public Branching copy() {
+        return withSeed(seed);
+    }
+
+    public boolean isBisection() {
+        return bisect;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Branches below the current node, as consecutive {@code min, max} pairs.
+     */
+    public int[] branches(Solver solver, Variable v) {
+        int[] branches = (bisect || v.getSize() > MAX_ENUMERATION) ? halves(v) : values(v);
+        if (order == Order.OBJECTIVE && solver.getStrategy() instanceof OptimizationStrategy optimization
+                && optimization.getTarget() != v) {
+            return byObjective(solver, v, branches, optimization.getTarget());
+        }
+        return branches;
+    }
+
+    private int[] halves(Variable v) {
+        int min = v.getMin();
+        int max = v.getMax();
+        int mid = (int) Math.floorDiv((long) min + max, 2);
+        boolean upperFirst = switch (order) {
+            case MAX -> true;
+            case RANDOM -> random.nextBoolean();
+            default -> false;
+        };
+        return upperFirst ? new int[] {mid + 1, max, min, mid} : new int[] {min, mid, mid + 1, max};
+    }
+
+    private int[] values(Variable v) {
+        int size = v.getSize();
+        int[] values = new int[size];
+        int n = 0;
+        for (int value = v.getMin(); value <= v.getMax() && n < size; value = v.next(value)) {
+            values[n++] = value;
+        }
+        int[] branches = new int[2 * n];
+        switch (order) {
+            case MAX -> {
+                for (int i = 0; i < n; i++) {
+                    branches[2 * i] = branches[2 * i + 1] = values[n - 1 - i];
+                }
+            }
+            case MEDIAN -> {
+                // valeur du milieu, puis alternativement au-dessus et en dessous
+                int mid = (n - 1) / 2;
+                for (int i = 0; i < n; i++) {
+                    int k = (i % 2 == 1) ? mid + (i + 1) / 2 : mid - i / 2;
+                    branches[2 * i] = branches[2 * i + 1] = values[k];
+                }
+            }
+            case RANDOM -> {
+                for (int i = n - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int t = values[i];
+                    values[i] = values[j];
+                    values[j] = t;
+                }
+                for (int i = 0; i < n; i++) {
+                    branches[2 * i] = branches[2 * i + 1] = values[i];
+                }
+            }
+            default -> {
+                for (int i = 0; i < n; i++) {
+                    branches[2 * i] = branches[2 * i + 1] = values[i];
+                }
+            }
+        }
+        return branches;
+    }
+
+    /*
+     * Propage chaque branche et les range par borne inférieure de l'objectif ;
+     * à égalité l'ordre croissant est gardé, les branches qui échouent disparaissent.
+     */
+    private static int[] byObjective(Solver solver, Variable v, int[] branches, Variable target) {
+        int n = branches.length / 2;
+        long[] keys = new long[n];
+        int kept = 0;
+        Trail trail = solver.getTrail();
+        for (int i = 0; i < n; i++) {
+            trail.push();
+            v.init(branches[2 * i], branches[2 * i + 1]);
+            boolean consistent = !v.isEmpty() && solver.reduce();
+            if (consistent) {
+                // borne dans les 32 bits de poids fort, rang dans ceux de poids faible
+                keys[kept++] = ((long) target.getMin() << 32) | i;
+            }
+            trail.pop();
+        }
+        Arrays.sort(keys, 0, kept);
+        int[] result = new int[2 * kept];
+        for (int k = 0; k < kept; k++) {
+            int i = (int) keys[k];
+            result[2 * k] = branches[2 * i];
+            result[2 * k + 1] = branches[2 * i + 1];
+        }
+        return result;
+    }
+
+    /*
+     * Découpage historique : tranches de largeur step, la valeur suivante du domaine
+     * quand step vaut 1.
+     */
+    static int[] slices(Variable v, int step) {
+        int max = v.getMax();
+        int[] branches = new int[(step == 1) ? 2 * Math.min(v.getSize(), MAX_ENUMERATION + 1) : 8];
+        int n = 0;
+        for (int value = v.getMin(); value <= max; value = (step == 1) ? v.next(value) : value + step) {
+            if (n == branches.length) {
+                branches = Arrays.copyOf(branches, Math.max(8, 2 * n));
+            }
+            branches[n++] = value;
+            branches[n++] = Math.min(value + step - 1, max);
+            if (value > max - step) break;
+        }
+        return (n == branches.length) ? branches : Arrays.copyOf(branches, n);
+    }
+
+    @Override
+    public String toString() {
+        return (bisect ? "bisect " : "enumerate ") + order;
+    }
+}
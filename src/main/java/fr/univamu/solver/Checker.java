@@ -4,83 +4,169 @@ import java.util.List;
 
 public class Checker {
     private final List<Constraint> constraints;
-
-    public Checker(List<Constraint> constraints) {
+    private final DomainStore store;
+
+    // contraintes compilées : identifiants des variables (-1 si absente)
+    private ConstraintType[] types = new ConstraintType[0];
+    private int[] results = new int[0];
+    private int[] vars1 = new int[0];
+    private int[] vars2 = new int[0];
+    private GlobalConstraint[] globals = new GlobalConstraint[0];
+    // contraintes portant sur une vue, vérifiées à partir des bornes de la vue
+    private Constraint[] viewed = new Constraint[0];
+    private final int[] viewMins = new int[3];
+    private final int[] viewMaxs = new int[3];
+    private int lastFailure = -1;
+
+    public Checker(List<Constraint> constraints, DomainStore store) {
         this.constraints = constraints;
+        this.store = store;
     }
 
     public boolean checkAll() {
-        for (Constraint c : constraints) {
-            if (!check(c)) return false;
+        if (types.length != constraints.size()) {
+            compile();
+        }
+        final int[] mins = store.mins;
+        final int[] maxs = store.maxs;
+        for (int i = 0; i < types.length; i++) {
+            boolean ok;
+            if (globals[i] != null) {
+                ok = globals[i].check();
+            } else if (viewed[i] != null) {
+                ok = checkView(viewed[i]);
+            } else {
+                ok = check(types[i], results[i], vars1[i], vars2[i], mins, maxs, store);
+            }
+            if (!ok) {
+                lastFailure = i;
+                return false;
+            }
         }
+        lastFailure = -1;
         return true;
     }
 
+    /** Index of the constraint violated at the last {@link #checkAll}, or -1. */
+    public int getLastFailure() {
+        return lastFailure;
+    }
+
+    private void compile() {
+        int n = constraints.size();
+        types = new ConstraintType[n];
+        results = new int[n];
+        vars1 = new int[n];
+        vars2 = new int[n];
+        globals = new GlobalConstraint[n];
+        viewed = new Constraint[n];
+        int i = 0;
+        for (Constraint c : constraints) {
+            types[i] = c.type();
+            globals[i] = c.global();
+            for (Variable v : c.scope()) {
+                idOf(v);
+                if (v instanceof View && c.global() == null) viewed[i] = c;
+            }
+            results[i] = idOf(c.result());
+            vars1[i] = idOf(c.var1());
+            vars2[i] = idOf(c.var2());
+            i++;
+        }
+    }
+
+    private int idOf(Variable v) {
+        if (v == null) return -1;
+        if (v.getStore() != store) {
+            throw new IllegalArgumentException("variable not in solver: " + v.getName());
+        }
+        return v.getId();
+    }
+
+    private boolean checkView(Constraint c) {
+        if (c.type() == ConstraintType.EQ) {
+            Variable[] scope = c.scope();
+            if (scope.length < 2) return true;
+            Variable x = scope[0];
+            Variable y = scope[1];
+            if (x.isOneValue()) return y.contains(x.getMin());
+            if (y.isOneValue()) return x.contains(y.getMin());
+            return intervalsOverlap(x.getMin(), x.getMax(), y.getMin(), y.getMax());
+        }
+        Variable[] operands = {c.result(), c.var1(), c.var2()};
+        for (int k = 0; k < 3; k++) {
+            if (operands[k] != null) {
+                viewMins[k] = operands[k].getMin();
+                viewMaxs[k] = operands[k].getMax();
+            }
+        }
+        return check(c.type(), (c.result() == null) ? -1 : 0, (c.var1() == null) ? -1 : 1,
+                (c.var2() == null) ? -1 : 2, viewMins, viewMaxs, store);
+    }
+
     private static boolean intervalsOverlap(int aMin, int aMax, int bMin, int bMax) {
         return !(aMax < bMin || bMax < aMin);
     }
 
-    private boolean check(Constraint c) {
-        final Variable r = c.result();
-        final Variable a = c.var1();
-        final Variable b = c.var2();
+    /*
+     * Une valeur fixée doit appartenir à l'autre domaine, trous compris.
+     */
+    private static boolean checkEq(int x, int y, DomainStore store) {
+        int[] mins = store.mins;
+        int[] maxs = store.maxs;
+        if (mins[x] == maxs[x]) return store.contains(y, mins[x]);
+        if (mins[y] == maxs[y]) return store.contains(x, mins[y]);
+        return intervalsOverlap(mins[x], maxs[x], mins[y], maxs[y]);
+    }
 
-        switch (c.type()) {
+    private static boolean check(ConstraintType type, int r, int a, int b, int[] mins, int[] maxs, DomainStore store) {
+        switch (type) {
             case EQ: {
-                if (a != null && b != null) {
-                    if (a.isOneValue() && b.isOneValue()) return a.getMin() == b.getMin();
-                    return intervalsOverlap(a.getMin(), a.getMax(), b.getMin(), b.getMax());
-                }
-                if (r != null && a != null) {
-                    if (r.isOneValue() && a.isOneValue()) return r.getMin() == a.getMin();
-                    return intervalsOverlap(r.getMin(), r.getMax(), a.getMin(), a.getMax());
-                }
-                if (r != null && b != null) {
-                    if (r.isOneValue() && b.isOneValue()) return r.getMin() == b.getMin();
-                    return intervalsOverlap(r.getMin(), r.getMax(), b.getMin(), b.getMax());
-                }
+                if (a >= 0 && b >= 0) return checkEq(a, b, store);
+                if (r >= 0 && a >= 0) return checkEq(r, a, store);
+                if (r >= 0 && b >= 0) return checkEq(r, b, store);
                 return true;
             }
 
             case NEQ: {
-                if (a == null || b == null) return true;
-                if (a.isOneValue() && b.isOneValue()) return a.getMin() != b.getMin();
+                if (a < 0 || b < 0) return true;
+                if (mins[a] == maxs[a] && mins[b] == maxs[b]) return mins[a] != mins[b];
                 return true;
             }
 
             case ADD: {
-                if (a == null || b == null || r == null) return true;
-                int sMin = safeAdd(a.getMin(), b.getMin());
-                int sMax = safeAdd(a.getMax(), b.getMax());
-                return intervalsOverlap(r.getMin(), r.getMax(), sMin, sMax);
+                if (a < 0 || b < 0 || r < 0) return true;
+                int sMin = safeAdd(mins[a], mins[b]);
+                int sMax = safeAdd(maxs[a], maxs[b]);
+                return intervalsOverlap(mins[r], maxs[r], sMin, sMax);
             }
 
             case SUB: {
-                if (a == null || b == null || r == null) return true;
-                int dMin = safeSub(a.getMin(), b.getMax());
-                int dMax = safeSub(a.getMax(), b.getMin());
-                return intervalsOverlap(r.getMin(), r.getMax(), dMin, dMax);
+                if (a < 0 || b < 0 || r < 0) return true;
+                int dMin = safeSub(mins[a], maxs[b]);
+                int dMax = safeSub(maxs[a], mins[b]);
+                return intervalsOverlap(mins[r], maxs[r], dMin, dMax);
             }
 
             case MUL: {
-                if (a == null || b == null || r == null) return true;
-                long p1 = 1L * a.getMin() * b.getMin();
-                long p2 = 1L * a.getMin() * b.getMax();
-                long p3 = 1L * a.getMax() * b.getMin();
-                long p4 = 1L * a.getMax() * b.getMax();
+                if (a < 0 || b < 0 || r < 0) return true;
+                long p1 = 1L * mins[a] * mins[b];
+                long p2 = 1L * mins[a] * maxs[b];
+                long p3 = 1L * maxs[a] * mins[b];
+                long p4 = 1L * maxs[a] * maxs[b];
                 long mMin = Math.min(Math.min(p1, p2), Math.min(p3, p4));
                 long mMax = Math.max(Math.max(p1, p2), Math.max(p3, p4));
-                return intervalsOverlap(r.getMin(), r.getMax(), clampToInt(mMin), clampToInt(mMax));
+                return intervalsOverlap(mins[r], maxs[r], clampToInt(mMin), clampToInt(mMax));
             }
 
             case DIV: {
-                if (a == null || b == null || r == null) return true;
+                if (a < 0 || b < 0 || r < 0) return true;
                 // if b can be zero, we can't decide an inconsistency here
-                if (b.contains(0)) return true;
+                if (mins[b] <= 0 && 0 <= maxs[b]) return true;
 
                 // compute rough bounds: a / b  (conservative)
-                int[] q = divBounds(a.getMin(), a.getMax(), b.getMin(), b.getMax());
-                return intervalsOverlap(r.getMin(), r.getMax(), q[0], q[1]);
+                int[] q = divBounds(mins[a], maxs[a], mins[b], maxs[b]);
+                return intervalsOverlap(mins[r], maxs[r], q[0], q[1]);
             }
 
             default:
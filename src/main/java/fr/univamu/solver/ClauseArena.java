@@ -0,0 +1,134 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/*
+ * Clauses sur des littéraux de bornes, rangées à la suite dans un seul tableau d'int.
+ * Un littéral occupe deux int : un code {@code 2·id} pour [x ≥ v] ou {@code 2·id + 1}
+ * pour [x ≤ v], puis la valeur v. Une clause est désignée par l'indice de son en-tête :
+ * sa taille, ses drapeaux et son LBD (nombre de niveaux de décision distincts quand elle
+ * a été apprise), suivis de ses littéraux. Les clauses supprimées restent en place
+ * jusqu'à ce que {@link #compact} recopie les vivantes au début.
+ */
+final class ClauseArena {
+
+    static final int HEADER = 3;
+    static final int LEARNT = 1;
+    static final int DELETED = 2;
+
+    private int[] data = new int[1024];
+    private int top = 0;
+    private int live = 0;
+    private int garbage = 0;
+
+    /*
+     * Ajoute les n premiers littéraux donnés et renvoie la référence de la clause.
+     */
+    int add(int[] codes, int[] values, int n, int flags, int lbd) {
+        int needed = HEADER + 2 * n;
+        if (top + needed > data.length) {
+            data = Arrays.copyOf(data, Math.max(2 * data.length, top + needed));
+        }
+        int ref = top;
+        data[ref] = n;
+        data[ref + 1] = flags;
+        data[ref + 2] = lbd;
+        for (int i = 0; i < n; i++) {
+            data[ref + HEADER + 2 * i] = codes[i];
+            data[ref + HEADER + 2 * i + 1] = values[i];
+        }
+        top += needed;
+        live++;
+        return ref;
+    }
+
+    int size(int ref) {
+        return data[ref];
+    }
+
+    int code(int ref, int i) {
+        return data[ref + HEADER + 2 * i];
+    }
+
+    int value(int ref, int i) {
+        return data[ref + HEADER + 2 * i + 1];
+    }
+
+    void swap(int ref, int i, int j) {
+        int a = ref + HEADER + 2 * i;
+        int b = ref + HEADER + 2 * j;
+        int code = data[a];
+        int value = data[a + 1];
+        data[a] = data[b];
+        data[a + 1] = data[b + 1];
+        data[b] = code;
+        data[b + 1] = value;
+    }
+
+    boolean isLearnt(int ref) {
+        return (data[ref + 1] & LEARNT) != 0;
+    }
+
+    boolean isDeleted(int ref) {
+        return (data[ref + 1] & DELETED) != 0;
+    }
+
+    int lbd(int ref) {
+        return data[ref + 2];
+    }
+
+    void delete(int ref) {
+        if (isDeleted(ref)) return;
+        data[ref + 1] |= DELETED;
+        live--;
+        garbage += HEADER + 2 * size(ref);
+    }
+
+    /* Première clause, ou -1. */
+    int first() {
+        return (top == 0) ? -1 : 0;
+    }
+
+    /* Clause suivante, ou -1. */
+    int next(int ref) {
+        int next = ref + HEADER + 2 * size(ref);
+        return (next >= top) ? -1 : next;
+    }
+
+    int liveCount() {
+        return live;
+    }
+
+    /* Nombre d'int occupés, clauses supprimées comprises. */
+    int footprint() {
+        return top;
+    }
+
+    int garbage() {
+        return garbage;
+    }
+
+    /*
+     * Recopie les clauses vivantes au début du tableau. Renvoie, pour chaque ancienne
+     * référence d'une clause vivante, sa nouvelle référence en {@code forward[old]} ; les
+     * autres cases valent -1.
+     */
+    int[] compact() {
+        int[] forward = new int[top];
+        Arrays.fill(forward, -1);
+        int to = 0;
+        for (int ref = first(); ref >= 0; ) {
+            int length = HEADER + 2 * size(ref);
+            int next = next(ref);       // avant que la copie n'écrase l'en-tête
+            if (!isDeleted(ref)) {
+                forward[ref] = to;
+                System.arraycopy(data, ref, data, to, length);
+                to += length;
+            }
+            ref = next;
+        }
+        top = to;
+        garbage = 0;
+        return forward;
+    }
+}
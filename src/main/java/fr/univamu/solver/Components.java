@@ -0,0 +1,115 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Composantes connexes du graphe variables/contraintes.
+ * Seules les variables non encore fixées sont reliées : une fois une variable fixée,
+ * les contraintes qui passent par elle ne lient plus les autres variables, et le
+ * graphe peut se découper davantage à mesure que la recherche descend.
+ */
+class Components {
+
+    private final DomainStore store;
+    private final int[][] scopes;
+    private int[] parent = new int[0];
+    private int[] rank = new int[0];
+    private int[] slot = new int[0];
+
+    Components(DomainStore store, List<Constraint> constraints) {
+        this.store = store;
+        this.scopes = new int[constraints.size()][];
+        int i = 0;
+        for (Constraint c : constraints) {
+            Variable[] scope = c.scope();
+            int[] ids = new int[scope.length];
+            for (int k = 0; k < scope.length; k++) {
+                ids[k] = scope[k].getId();
+            }
+            scopes[i++] = ids;
+        }
+    }
+
+    /**
+     * Groups the non-fixed variables among {@code ids} by connected component.
+     *
+     * @return one array of ids per component, in the order of {@code ids}.
+     */
+    List<int[]> split(int[] ids) {
+        int n = store.size();
+        if (parent.length < n) {
+            parent = new int[n];
+            Arrays.fill(parent, -1);
+            rank = new int[n];
+            slot = new int[n];
+        }
+        for (int id : ids) {
+            parent[id] = id;
+            rank[id] = 0;
+        }
+        final int[] mins = store.mins;
+        final int[] maxs = store.maxs;
+        for (int[] scope : scopes) {
+            int first = -1;
+            for (int id : scope) {
+                if (mins[id] == maxs[id]) continue;
+                if (parent[id] < 0) continue;   // pas dans les variables considérées
+                if (first < 0) {
+                    first = id;
+                } else {
+                    union(first, id);
+                }
+            }
+        }
+
+        List<int[]> groups = new ArrayList<>();
+        int[] sizes = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (mins[id] == maxs[id]) continue;
+            int root = find(id);
+            if (root == id) {
+                slot[id] = count++;
+            }
+        }
+        for (int id : ids) {
+            if (mins[id] != maxs[id]) sizes[slot[find(id)]]++;
+        }
+        for (int k = 0; k < count; k++) {
+            groups.add(new int[sizes[k]]);
+            sizes[k] = 0;
+        }
+        for (int id : ids) {
+            if (mins[id] == maxs[id]) continue;
+            int k = slot[find(id)];
+            groups.get(k)[sizes[k]++] = id;
+        }
+        for (int id : ids) {
+            parent[id] = -1;
+        }
+        return groups;
+    }
+
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b) return;
+        if (rank[a] < rank[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        if (rank[a] == rank[b]) rank[a]++;
+    }
+}
@@ -1,9 +1,45 @@
 package fr.univamu.solver;
 
-public record Constraint(ConstraintType type, Variable result, Variable var1, Variable var2) {
+import java.util.Arrays;
+
+public record Constraint(ConstraintType type, Variable result, Variable var1, Variable var2, GlobalConstraint global) {
+
+    public Constraint(ConstraintType type, Variable result, Variable var1, Variable var2) {
+        this(type, result, var1, var2, null);
+    }
+
+    public Constraint(GlobalConstraint global) {
+        this(global.getType(), null, null, null, global);
+    }
+
+    /**
+     * Returns the variables of this constraint, without the missing operands.
+     */
+    public Variable[] scope() {
+        if (global != null) {
+            return global.getVariables();
+        }
+        return Arrays.stream(new Variable[]{result, var1, var2})
+                .filter(v -> v != null)
+                .distinct()
+                .toArray(Variable[]::new);
+    }
+
+    public boolean involves(Variable v) {
+        if (global != null) {
+            for (Variable x : global.getVariables()) {
+                if (x == v) return true;
+            }
+            return false;
+        }
+        return result == v || var1 == v || var2 == v;
+    }
 
     @Override
     public String toString() {
+        if (global != null) {
+            return String.format("%s%s", type, Arrays.toString(global.getVariables()));
+        }
         return String.format("%s(%s,%s,%s)", type, result, var1, var2);
     }
 }
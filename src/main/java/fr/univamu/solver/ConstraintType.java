@@ -1,27 +1,48 @@
 package fr.univamu.solver;
 
 public enum ConstraintType {
-    ADD('+'),
-    SUB('-'),
-    MUL('*'),
-    DIV('/'),
-    EQ('='),
-    NEQ('#'), // Not equal (<>)
-    GT('>'),
-    GTE('≥'),
-    LT('<'),
-    LTE('≤');
+    ADD('+', 0),
+    SUB('-', 0),
+    MUL('*', 1),
+    DIV('/', 1),
+    EQ('=', 0),
+    NEQ('#', 0), // Not equal (<>)
+    GT('>', 0),
+    GTE('≥', 0),
+    LT('<', 0),
+    LTE('≤', 0),
+    ALLDIFF('≠', 2),
+    LINEAR('Σ', 1),
+    ASSIGNMENT('A', 2),
+    ELEMENT('[', 1),
+    CUMULATIVE('C', 2),
+    DISJUNCTIVE('D', 2),
+    TABLE('T', 2);
+
+    /** Number of priority levels used by the propagation queue. */
+    public static final int PRIORITIES = 3;
 
     private final char symbol;
+    private final int priority;
 
-    ConstraintType(char symbol) {
+    ConstraintType(char symbol, int priority) {
         this.symbol = symbol;
+        this.priority = priority;
     }
 
     public char getSymbol() {
         return symbol;
     }
 
+    /**
+     * Propagation cost class: 0 for cheap propagators, 1 for MUL/DIV, linear sums and element,
+     * 2 for the other global constraints.
+     * Cheaper classes are run first.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
     @Override
     public String toString() {
         return Character.toString(symbol);
@@ -39,6 +60,13 @@ public enum ConstraintType {
             case '≥' -> GTE;
             case '<' -> LT;
             case '≤' -> LTE;
+            case '≠' -> ALLDIFF;
+            case 'Σ' -> LINEAR;
+            case 'A' -> ASSIGNMENT;
+            case '[' -> ELEMENT;
+            case 'C' -> CUMULATIVE;
+            case 'D' -> DISJUNCTIVE;
+            case 'T' -> TABLE;
             default -> throw new IllegalArgumentException("Unknown constraint type: " + c);
         };
     }
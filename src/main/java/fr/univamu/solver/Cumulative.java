@@ -0,0 +1,189 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale "cumulative" : des tâches de durées et de hauteurs constantes,
+ * dont les débuts sont des variables, ne dépassent jamais la capacité de la ressource.
+ * Le filtrage time-table écarte chaque tâche des instants où les parties obligatoires
+ * des autres ne lui laissent pas de place (voir {@link ResourceProfile}) ; l'edge-finding
+ * sur les intervalles de tâches détecte les tâches qui doivent finir après, ou commencer
+ * avant, un ensemble de tâches dont l'énergie remplit la fenêtre, et les déplace en
+ * conséquence.
+ */
+public class Cumulative extends GlobalConstraint {
+
+    private final int[] durations;
+    private final int[] heights;
+    private final int capacity;
+    private final ResourceProfile profile;
+
+    // bornes de travail, dans un sens puis dans l'autre
+    private final long[] est;
+    private final long[] lct;
+    private final long[] bound;
+
+    public Cumulative(Variable[] starts, int[] durations, int[] heights, int capacity) {
+        super(starts);
+        if (durations.length != starts.length || heights.length != starts.length) {
+            throw new IllegalArgumentException("one duration and one height per task expected");
+        }
+        for (int i = 0; i < starts.length; i++) {
+            if (durations[i] < 0 || heights[i] < 0) {
+                throw new IllegalArgumentException("negative duration or height");
+            }
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity: " + capacity);
+        }
+        this.durations = durations;
+        this.heights = heights;
+        this.capacity = capacity;
+        this.profile = new ResourceProfile(starts, durations, heights, capacity);
+        int n = starts.length;
+        est = new long[n];
+        lct = new long[n];
+        bound = new long[n];
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.CUMULATIVE;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new Cumulative(vars, durations, heights, capacity);
+    }
+
+    public int[] getDurations() {
+        return durations;
+    }
+
+    public int[] getHeights() {
+        return heights;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean reduce() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        boolean modified = false;
+        for (int i = 0; i < vars.length; i++) {
+            // une tâche plus haute que la ressource ne peut pas avoir lieu
+            if (heights[i] > capacity && durations[i] > 0) {
+                vars[i].reduce(1, -1);
+                return true;
+            }
+        }
+        if (profile.update()) {
+            if (profile.overload() != Integer.MAX_VALUE) {
+                vars[0].reduce(1, -1);
+                return true;
+            }
+            for (int i = 0; i < vars.length; i++) {
+                modified = profile.filter(i) || modified;
+                if (vars[i].isEmpty()) return true;
+            }
+        }
+        return edgeFinding() || modified;
+    }
+
+    /*
+     * Edge-finding sur les intervalles de tâches [est_a, lct_b), puis dans le miroir.
+     */
+    private boolean edgeFinding() {
+        boolean modified = false;
+        for (int side = 0; side < 2; side++) {
+            int n = vars.length;
+            for (int i = 0; i < n; i++) {
+                long min = vars[i].getMin();
+                long max = (long) vars[i].getMax() + durations[i];
+                // miroir : le temps est retourné, les fins deviennent des débuts
+                est[i] = (side == 0) ? min : -max;
+                lct[i] = (side == 0) ? max : -min;
+                bound[i] = est[i];
+            }
+            if (!pushAfter()) {
+                vars[0].reduce(1, -1);
+                return true;
+            }
+            for (int i = 0; i < n; i++) {
+                if (bound[i] == est[i]) continue;
+                Variable v = vars[i];
+                boolean changed = (side == 0) ? v.reduce((int) Math.min(bound[i], Integer.MAX_VALUE), v.getMax())
+                        : v.reduce(v.getMin(), (int) Math.max(-bound[i] - durations[i], Integer.MIN_VALUE));
+                modified = changed || modified;
+                if (v.isEmpty()) return true;
+            }
+        }
+        return modified;
+    }
+
+    /*
+     * Pour chaque intervalle Ω = {j : est_j ≥ est_a, lct_j ≤ lct_b} : surcharge si
+     * e(Ω) > C·(lct_b - est_a) ; une tâche i hors de Ω qui finit plus tard et avec
+     * laquelle Ω déborde, e(Ω) + e_i > C·(lct_b - min(est_a, est_i)), finit après Ω,
+     * donc commence au plus tôt à est_a + ⌈(e(Ω) - (C - h_i)·(lct_b - est_a)) / h_i⌉.
+     * Faux en cas de surcharge.
+     */
+    private boolean pushAfter() {
+        int n = vars.length;
+        for (int b = 0; b < n; b++) {
+            for (int a = 0; a < n; a++) {
+                if (est[a] >= lct[b]) continue;
+                long energy = 0;
+                for (int j = 0; j < n; j++) {
+                    if (est[j] >= est[a] && lct[j] <= lct[b]) {
+                        energy += (long) durations[j] * heights[j];
+                    }
+                }
+                if (energy == 0) continue;
+                long window = lct[b] - est[a];
+                if (energy > capacity * window) return false;
+                for (int i = 0; i < n; i++) {
+                    if (lct[i] <= lct[b] || heights[i] == 0 || durations[i] == 0) continue;
+                    if (est[i] >= est[a] && lct[i] <= lct[b]) continue;
+                    long e = (long) durations[i] * heights[i];
+                    if (energy + e <= capacity * (lct[b] - Math.min(est[a], est[i]))) continue;
+                    long rest = energy - (long) (capacity - heights[i]) * window;
+                    if (rest > 0) {
+                        bound[i] = Math.max(bound[i], est[a] + Math.ceilDiv(rest, heights[i]));
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean check() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        // parties obligatoires : balayage de leurs bornes, les fins avant les débuts du même instant
+        int n = vars.length;
+        long[] events = new long[2 * n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int from = vars[i].getMax();
+            int to = vars[i].getMin() + durations[i];
+            if (from >= to || heights[i] == 0) continue;
+            events[count++] = ((long) to << 32) | i;
+            events[count++] = ((long) from << 32) | (1L << 31) | i;
+        }
+        Arrays.sort(events, 0, count);
+        long height = 0;
+        for (int k = 0; k < count; k++) {
+            int i = (int) (events[k] & 0x7FFFFFFF);
+            height += ((events[k] & (1L << 31)) != 0) ? heights[i] : -heights[i];
+            if (height > capacity) return false;
+        }
+        return true;
+    }
+}
@@ -2,6 +2,25 @@ package fr.univamu.solver;
 
 public class DefaultStrategy implements IStrategy {
 
+    private Branching branching;
+
+    /**
+     * Uses {@code branching} to cut the domain of the chosen variable, null to go back
+     * to slices of {@link #step} values.
+     */
+    public void setBranching(Branching branching) {
+        this.branching = branching;
+    }
+
+    public Branching getBranching() {
+        return branching;
+    }
+
+    @Override
+    public int[] branches(Solver solver, Variable v) {
+        return (branching == null) ? null : branching.branches(solver, v);
+    }
+
     @Override
     public boolean before(Solver solver) {
         return true;
@@ -31,14 +50,4 @@ public class DefaultStrategy implements IStrategy {
     public boolean check(Solver solver) {
         return solver.checkConstraints();
     }
-
-    @Override
-    public void backup(Solver solver) {
-
-    }
-
-    @Override
-    public void restore(Solver solver) {
-
-    }
 }
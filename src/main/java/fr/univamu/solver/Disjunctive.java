@@ -0,0 +1,253 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale "disjonctive" : des tâches de durées constantes, dont les débuts
+ * sont des variables, ne se chevauchent pas (ressource de capacité 1).
+ * Le filtrage time-table travaille sur les parties obligatoires comme dans
+ * {@link Cumulative} ; la détection de surcharge et l'edge-finding utilisent le
+ * Θ-Λ-tree de Vilím (2004), en O(n log n) pour chaque sens.
+ */
+public class Disjunctive extends GlobalConstraint {
+
+    private static final long NONE = Long.MIN_VALUE / 4;
+
+    private final int[] durations;
+    private final ResourceProfile profile;
+
+    // bornes de travail, dans un sens puis dans l'autre
+    private final int n;
+    private final long[] est;
+    private final long[] lct;
+    private final long[] bound;
+    private final Integer[] byEst;
+    private final Integer[] byLct;
+    private final int[] leaf;
+
+    // arbre Θ-Λ : feuilles dans l'ordre des débuts au plus tôt, à partir de size
+    private final int size;
+    private final long[] sumP;
+    private final long[] ect;
+    private final long[] sumPBar;
+    private final long[] ectBar;
+    private final int[] respP;
+    private final int[] respEct;
+
+    public Disjunctive(Variable[] starts, int[] durations) {
+        super(starts);
+        if (durations.length != starts.length) {
+            throw new IllegalArgumentException("one duration per task expected");
+        }
+        for (int p : durations) {
+            if (p < 0) throw new IllegalArgumentException("negative duration: " + p);
+        }
+        this.durations = durations;
+        int[] ones = new int[starts.length];
+        Arrays.fill(ones, 1);
+        this.profile = new ResourceProfile(starts, durations, ones, 1);
+        n = starts.length;
+        est = new long[n];
+        lct = new long[n];
+        bound = new long[n];
+        byEst = new Integer[n];
+        byLct = new Integer[n];
+        leaf = new int[n];
+        int s = 1;
+        while (s < Math.max(n, 1)) s *= 2;
+        size = s;
+        sumP = new long[2 * size];
+        ect = new long[2 * size];
+        sumPBar = new long[2 * size];
+        ectBar = new long[2 * size];
+        respP = new int[2 * size];
+        respEct = new int[2 * size];
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.DISJUNCTIVE;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new Disjunctive(vars, durations);
+    }
+
+    public int[] getDurations() {
+        return durations;
+    }
+
+    @Override
+    public boolean reduce() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        boolean modified = false;
+        if (profile.update()) {
+            if (profile.overload() != Integer.MAX_VALUE) {
+                vars[0].reduce(1, -1);
+                return true;
+            }
+            for (int i = 0; i < n; i++) {
+                modified = profile.filter(i) || modified;
+                if (vars[i].isEmpty()) return true;
+            }
+        }
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < n; i++) {
+                long min = vars[i].getMin();
+                long max = (long) vars[i].getMax() + durations[i];
+                // miroir : le temps est retourné, les fins deviennent des débuts
+                est[i] = (side == 0) ? min : -max;
+                lct[i] = (side == 0) ? max : -min;
+                bound[i] = est[i];
+            }
+            if (!edgeFinding()) {
+                vars[0].reduce(1, -1);
+                return true;
+            }
+            for (int i = 0; i < n; i++) {
+                if (bound[i] == est[i]) continue;
+                Variable v = vars[i];
+                boolean changed = (side == 0) ? v.reduce((int) Math.min(bound[i], Integer.MAX_VALUE), v.getMax())
+                        : v.reduce(v.getMin(), (int) Math.max(-bound[i] - durations[i], Integer.MIN_VALUE));
+                modified = changed || modified;
+                if (v.isEmpty()) return true;
+            }
+        }
+        return modified;
+    }
+
+    /*
+     * Θ contient d'abord toutes les tâches ; elles passent dans Λ par fin au plus tard
+     * décroissante. Quand ECT(Θ) dépasse la fin au plus tard de la dernière tâche de Θ,
+     * la ressource est surchargée ; tant que ECT(Θ, Λ) la dépasse, la tâche de Λ qui en
+     * est responsable doit finir après Θ, donc commencer au plus tôt à ECT(Θ).
+     * Faux en cas de surcharge.
+     */
+    private boolean edgeFinding() {
+        for (int i = 0; i < n; i++) {
+            byEst[i] = i;
+            byLct[i] = i;
+        }
+        Arrays.sort(byEst, (a, b) -> Long.compare(est[a], est[b]));
+        Arrays.sort(byLct, (a, b) -> Long.compare(lct[b], lct[a]));
+        for (int node = 1; node < 2 * size; node++) {
+            clear(node);
+        }
+        for (int k = 0; k < n; k++) {
+            int i = byEst[k];
+            leaf[i] = size + k;
+            if (durations[i] > 0) {
+                white(i);
+            }
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            combine(node);
+        }
+        for (int k = 0; k < n; k++) {
+            int j = byLct[k];
+            if (ect[1] > lct[j]) return false;
+            // j quitte Θ pour Λ ; la tâche suivante fixe la nouvelle fin au plus tard de Θ
+            if (durations[j] > 0) {
+                gray(j);
+                update(leaf[j]);
+            }
+            if (k + 1 == n) break;
+            long deadline = lct[byLct[k + 1]];
+            while (ectBar[1] > deadline) {
+                int i = respEct[1];
+                if (i < 0) break;
+                bound[i] = Math.max(bound[i], ect[1]);
+                clear(leaf[i]);
+                update(leaf[i]);
+            }
+        }
+        return true;
+    }
+
+    private void clear(int node) {
+        sumP[node] = 0;
+        ect[node] = NONE;
+        sumPBar[node] = 0;
+        ectBar[node] = NONE;
+        respP[node] = -1;
+        respEct[node] = -1;
+    }
+
+    private void white(int i) {
+        int node = leaf[i];
+        sumP[node] = durations[i];
+        ect[node] = est[i] + durations[i];
+        sumPBar[node] = durations[i];
+        ectBar[node] = est[i] + durations[i];
+        respP[node] = -1;
+        respEct[node] = -1;
+    }
+
+    private void gray(int i) {
+        int node = leaf[i];
+        sumP[node] = 0;
+        ect[node] = NONE;
+        sumPBar[node] = durations[i];
+        ectBar[node] = est[i] + durations[i];
+        respP[node] = i;
+        respEct[node] = i;
+    }
+
+    private void update(int node) {
+        for (node /= 2; node >= 1; node /= 2) {
+            combine(node);
+        }
+    }
+
+    private void combine(int node) {
+        int l = 2 * node;
+        int r = l + 1;
+        sumP[node] = sumP[l] + sumP[r];
+        ect[node] = Math.max(ect[r], ect[l] + sumP[r]);
+        long left = sumPBar[l] + sumP[r];
+        long right = sumP[l] + sumPBar[r];
+        if (left > right || (left == right && respP[l] >= 0)) {
+            sumPBar[node] = left;
+            respP[node] = respP[l];
+        } else {
+            sumPBar[node] = right;
+            respP[node] = respP[r];
+        }
+        // ECT(Θ, Λ) : une tâche de Λ au plus, à droite, au milieu ou à gauche
+        long viaRight = ectBar[r];
+        long viaMiddle = ect[l] + sumPBar[r];
+        long viaLeft = ectBar[l] + sumP[r];
+        long best = Math.max(viaRight, Math.max(viaMiddle, viaLeft));
+        ectBar[node] = best;
+        if (viaRight == best && respEct[r] >= 0) {
+            respEct[node] = respEct[r];
+        } else if (viaMiddle == best && respP[r] >= 0) {
+            respEct[node] = respP[r];
+        } else if (viaLeft == best && respEct[l] >= 0) {
+            respEct[node] = respEct[l];
+        } else {
+            respEct[node] = -1;
+        }
+    }
+
+    @Override
+    public boolean check() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        // deux tâches fixées qui se chevauchent
+        for (int i = 0; i < n; i++) {
+            if (!vars[i].isOneValue() || durations[i] == 0) continue;
+            for (int j = i + 1; j < n; j++) {
+                if (!vars[j].isOneValue() || durations[j] == 0) continue;
+                int a = vars[i].getMin();
+                int b = vars[j].getMin();
+                if (a < b + durations[j] && b < a + durations[i]) return false;
+            }
+        }
+        return true;
+    }
+}
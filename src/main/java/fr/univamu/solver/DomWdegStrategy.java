@@ -0,0 +1,57 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heuristique dom/wdeg (Boussemart et al.).
+ * Chaque contrainte part d'un poids 1 et gagne 1 chaque fois qu'elle vide un domaine
+ * ou se trouve violée ; le score d'une variable est la taille de son domaine divisée
+ * par la somme des poids de ses contraintes, et on choisit le plus petit rapport.
+ */
+public class DomWdegStrategy extends HeuristicStrategy {
+
+    private int[] weights = new int[0];
+    private long[] wdeg = new long[0];
+
+    @Override
+    protected void start(Solver solver) {
+        List<Constraint> constraints = solver.getConstraints();
+        weights = new int[constraints.size()];
+        Arrays.fill(weights, 1);
+        wdeg = new long[solver.getStore().size()];
+        for (Constraint c : constraints) {
+            for (Variable x : c.scope()) {
+                wdeg[x.getId()]++;
+            }
+        }
+    }
+
+    @Override
+    protected double score(Variable v) {
+        return (double) v.getSize() / Math.max(1, wdeg[v.getId()]);
+    }
+
+    @Override
+    protected void learn(Solver solver, boolean consistent, Variable decision,
+                         int[] modified, int count, double[] shrink) {
+        if (consistent) return;
+        int failure = solver.getLastFailure();
+        if (failure < 0 || failure >= weights.length) return;
+        weights[failure]++;
+        for (Variable x : solver.getConstraints().get(failure).scope()) {
+            wdeg[x.getId()]++;
+            update(solver, x.getId());
+        }
+    }
+
+    /** Weight of constraint {@code index} of the model, 0 before the search starts. */
+    public int getWeight(int index) {
+        return (index < weights.length) ? weights[index] : 0;
+    }
+
+    @Override
+    protected HeuristicStrategy fresh() {
+        return new DomWdegStrategy();
+    }
+}
@@ -0,0 +1,281 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stockage dense des domaines.
+ * Chaque variable reçoit un identifiant entier ; ses bornes sont rangées dans les
+ * tableaux {@code mins}/{@code maxs}, avec son nom et ses observateurs ; {@link Variable}
+ * n'est qu'une poignée (stockage, identifiant) sur ces tableaux. Les trous sont gardés dans un bitset créé au premier retrait d'une valeur
+ * intérieure ; les valeurs hors de la plage du bitset sont considérées présentes.
+ */
+public final class DomainStore {
+
+    /** Widest range for which a variable's holes are recorded. */
+    public static final int MAX_BITSET_RANGE = 1 << 16;
+
+    int[] mins;
+    int[] maxs;
+    long[] stamps;
+    long[][] bits;
+    int[] bases;
+    private int[] initMins;
+    private int[] initMaxs;
+    private Variable[] vars;
+    // null pour une variable anonyme
+    private String[] names;
+    // null tant que la variable n'a pas d'observateur
+    private final List<List<Consumer<Variable>>> observers = new ArrayList<>();
+    private int size = 0;
+    private final Trail trail;
+    // nombre d'instantanés chargés : les domaines ont alors changé hors du trail
+    private int generation = 0;
+
+    public DomainStore() {
+        this(16);
+    }
+
+    DomainStore(int capacity) {
+        mins = new int[capacity];
+        maxs = new int[capacity];
+        stamps = new long[capacity];
+        bits = new long[capacity][];
+        bases = new int[capacity];
+        initMins = new int[capacity];
+        initMaxs = new int[capacity];
+        vars = new Variable[capacity];
+        names = new String[capacity];
+        trail = new Trail(this);
+    }
+
+    /**
+     * Registers {@code v} in this store with the given name (null if anonymous) and
+     * bounds, and returns its id.
+     */
+    int register(Variable v, String name, int min, int max) {
+        if (size == mins.length) {
+            int capacity = size * 2;
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+            bits = Arrays.copyOf(bits, capacity);
+            bases = Arrays.copyOf(bases, capacity);
+            initMins = Arrays.copyOf(initMins, capacity);
+            initMaxs = Arrays.copyOf(initMaxs, capacity);
+            vars = Arrays.copyOf(vars, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        mins[size] = min;
+        maxs[size] = max;
+        stamps[size] = -1;
+        bits[size] = null;
+        initMins[size] = min;
+        initMaxs[size] = max;
+        vars[size] = v;
+        names[size] = name;
+        observers.add(null);
+        return size++;
+    }
+
+    /*
+     * Enregistre ici la variable id de from (nom et observateurs compris), avec le
+     * domaine donné.
+     */
+    int moveIn(Variable v, DomainStore from, int id, int min, int max) {
+        int moved = register(v, from.names[id], min, max);
+        observers.set(moved, from.observers.get(id));
+        return moved;
+    }
+
+    String getName(int id) {
+        return (names[id] != null) ? names[id] : "_" + id;
+    }
+
+    boolean isNamed(int id) {
+        return names[id] != null;
+    }
+
+    void addObserver(int id, Consumer<Variable> observer) {
+        if (observers.get(id) == null) {
+            observers.set(id, new ArrayList<>());
+        }
+        observers.get(id).add(observer);
+    }
+
+    void notifyObservers(int id) {
+        List<Consumer<Variable>> list = observers.get(id);
+        if (list == null) return;
+        for (Consumer<Variable> observer : list) {
+            observer.accept(vars[id]);
+        }
+    }
+
+    public Variable get(int id) {
+        return vars[id];
+    }
+
+    /*
+     * Copie de la variable id dans target, avec son nom et son domaine courant. Seules
+     * les variables enregistrées ont un domaine à copier : une vue est recréée sur la
+     * copie de sa base (View.over).
+     */
+    Variable copy(int id, DomainStore target) {
+        return new Variable(target, vars[id]);
+    }
+
+    public int getMin(int id) {
+        return mins[id];
+    }
+
+    public int getMax(int id) {
+        return maxs[id];
+    }
+
+    /** True if {@code value} is in the domain of variable {@code id}. */
+    public boolean contains(int id, int value) {
+        return mins[id] <= value && value <= maxs[id] && isPresent(id, value);
+    }
+
+    /*
+     * Présence d'une valeur dans le bitset, sans tenir compte des bornes.
+     */
+    private boolean isPresent(int id, int value) {
+        long[] words = bits[id];
+        if (words == null) return true;
+        long offset = (long) value - bases[id];
+        if (offset < 0 || offset >= 64L * words.length) return true;
+        return (words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+    }
+
+    /**
+     * Smallest value {@code >= value} that is not a hole, ignoring the bounds.
+     */
+    int nextPresent(int id, int value) {
+        long[] words = bits[id];
+        if (words == null) return value;
+        long offset = (long) value - bases[id];
+        if (offset < 0 || offset >= 64L * words.length) return value;
+        int w = (int) (offset >>> 6);
+        long word = words[w] & (-1L << offset);
+        while (word == 0) {
+            if (++w == words.length) return bases[id] + 64 * words.length;
+            word = words[w];
+        }
+        return bases[id] + 64 * w + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Largest value {@code <= value} that is not a hole, ignoring the bounds.
+     */
+    int prevPresent(int id, int value) {
+        long[] words = bits[id];
+        if (words == null) return value;
+        long offset = (long) value - bases[id];
+        if (offset < 0 || offset >= 64L * words.length) return value;
+        int w = (int) (offset >>> 6);
+        long word = words[w] & (-1L >>> (63 - (offset & 63)));
+        while (word == 0) {
+            if (--w < 0) return bases[id] - 1;
+            word = words[w];
+        }
+        return bases[id] + 64 * w + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /** Number of values in the domain of variable {@code id}. */
+    public int cardinality(int id) {
+        int min = mins[id];
+        int max = maxs[id];
+        if (min > max) return 0;
+        long[] words = bits[id];
+        if (words == null) return max - min + 1;
+        int lo = Math.max(min, bases[id]) - bases[id];
+        int hi = (int) Math.min(max, bases[id] + 64L * words.length - 1) - bases[id];
+        if (lo > hi) return max - min + 1;
+        int count = (max - min + 1) - (hi - lo + 1);
+        for (int w = lo >>> 6; w <= hi >>> 6; w++) {
+            long word = words[w];
+            if (w == lo >>> 6) word &= -1L << lo;
+            if (w == hi >>> 6) word &= -1L >>> (63 - (hi & 63));
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    boolean hasHoles(int id) {
+        return bits[id] != null;
+    }
+
+    /**
+     * Removes an interior value of variable {@code id}; the bounds are left unchanged.
+     *
+     * @return false if the holes of this domain cannot be recorded.
+     */
+    boolean removeValue(int id, int value) {
+        long[] words = bits[id];
+        if (words == null) {
+            int from = initMins[id];
+            int to = initMaxs[id];
+            if ((long) to - from >= MAX_BITSET_RANGE || from > mins[id] || to < maxs[id]) {
+                from = mins[id];
+                to = maxs[id];
+                if ((long) to - from >= MAX_BITSET_RANGE) return false;
+            }
+            words = new long[((to - from) >>> 6) + 1];
+            Arrays.fill(words, -1L);
+            bits[id] = words;
+            bases[id] = from;
+        }
+        long offset = (long) value - bases[id];
+        if (offset < 0 || offset >= 64L * words.length) return false;
+        int w = (int) (offset >>> 6);
+        trail.saveWord(id, w);
+        words[w] &= ~(1L << offset);
+        return true;
+    }
+
+    /**
+     * Domaines de toutes les variables à un instant donné. Un instantané pris dans un
+     * stockage peut être restauré dans tout stockage qui contient une copie du même modèle.
+     */
+    record Snapshot(int[] mins, int[] maxs, long[][] bits, int[] bases) {
+    }
+
+    Snapshot snapshot() {
+        long[][] holes = new long[size][];
+        for (int i = 0; i < size; i++) {
+            if (bits[i] != null) holes[i] = bits[i].clone();
+        }
+        return new Snapshot(Arrays.copyOf(mins, size), Arrays.copyOf(maxs, size), holes, Arrays.copyOf(bases, size));
+    }
+
+    /**
+     * Overwrites every domain with {@code snapshot}, bypassing the trail and the observers.
+     * The generation is incremented, so that constraints keeping state of their own can
+     * tell it no longer follows the domains.
+     */
+    void restore(Snapshot snapshot) {
+        generation++;
+        System.arraycopy(snapshot.mins(), 0, mins, 0, size);
+        System.arraycopy(snapshot.maxs(), 0, maxs, 0, size);
+        System.arraycopy(snapshot.bases(), 0, bases, 0, size);
+        for (int i = 0; i < size; i++) {
+            long[] words = snapshot.bits()[i];
+            bits[i] = (words == null) ? null : words.clone();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    public Trail getTrail() {
+        return trail;
+    }
+}
@@ -0,0 +1,95 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale result = array[index], sur un tableau de constantes.
+ * L'indice ne garde que les positions dont la valeur est encore dans le domaine du
+ * résultat ; le résultat est réduit aux bornes des valeurs à ces positions et, quand
+ * son domaine est assez petit, perd toute valeur qu'aucune position ne supporte.
+ */
+public class Element extends GlobalConstraint {
+
+    /** Above this many values, the result is only reduced to bounds. */
+    static final int MAX_RESULT_VALUES = 1 << 12;
+
+    private final int[] array;
+    private final int[] supported;
+
+    public Element(int[] array, Variable index, Variable result) {
+        super(new Variable[] {index, result});
+        if (array.length == 0) {
+            throw new IllegalArgumentException("empty array");
+        }
+        this.array = array;
+        this.supported = new int[array.length];
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.ELEMENT;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new Element(array, vars[0], vars[1]);
+    }
+
+    public int[] getArray() {
+        return array;
+    }
+
+    public Variable getIndex() {
+        return vars[0];
+    }
+
+    public Variable getResult() {
+        return vars[1];
+    }
+
+    @Override
+    public boolean reduce() {
+        Variable index = vars[0];
+        Variable result = vars[1];
+        if (index.isEmpty() || result.isEmpty()) return false;
+        boolean modified = index.reduce(Math.max(index.getMin(), 0), Math.min(index.getMax(), array.length - 1));
+        if (index.isEmpty()) return true;
+        // positions sans valeur possible du résultat
+        int count = 0;
+        for (int i = index.getMin(); i <= index.getMax(); i = index.next(i)) {
+            if (result.contains(array[i])) {
+                supported[count++] = array[i];
+            } else {
+                modified = index.reduceExcept(i) || modified;
+            }
+        }
+        if (count == 0) {
+            index.reduce(1, -1);
+            return true;
+        }
+        Arrays.sort(supported, 0, count);
+        modified = result.reduce(supported[0], supported[count - 1]) || modified;
+        if (result.getSize() <= MAX_RESULT_VALUES) {
+            int k = 0;
+            for (int r = result.getMin(); r <= result.getMax(); r = result.next(r)) {
+                while (supported[k] < r) k++;
+                if (supported[k] != r) {
+                    modified = result.reduceExcept(r) || modified;
+                }
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean check() {
+        Variable index = vars[0];
+        Variable result = vars[1];
+        if (index.isEmpty() || result.isEmpty()) return false;
+        int first = (index.getMin() >= 0) ? index.getMin() : index.next(-1);
+        for (int i = first; i <= Math.min(index.getMax(), array.length - 1); i = index.next(i)) {
+            if (result.contains(array[i])) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,191 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/*
+ * Raisons des domaines pour le retour arrière intelligent : pour chaque variable,
+ * l'ensemble des niveaux de décision dont son domaine courant dépend. Une décision
+ * ajoute son niveau à la variable qu'elle découpe ; un propagateur qui modifie une
+ * variable ajoute les niveaux de toutes les variables de sa portée, ce qui est
+ * grossier mais toujours correct. Les modifications faites hors d'une décision ou d'un
+ * propagateur (faits de la racine, bornes de l'objectif) n'ajoutent rien. Les ensembles
+ * sont des bitsets de 64 niveaux par mot, sauvegardés sur leur propre pile une fois par
+ * variable et par décision, et restaurés avec les domaines.
+ */
+final class Explanations {
+
+    private final DomainStore store;
+    private int observed = 0;
+    private boolean active = false;
+
+    // reasons[w][id] : niveaux 64·w à 64·w + 63 du domaine de la variable id
+    private long[][] reasons = new long[1][0];
+    private int[] stamps = new int[0];
+    private int stamp = 0;
+    private int stampCounter = 0;
+
+    // pile des mots sauvegardés, marques par niveau de décision
+    private int[] savedIds = new int[64];
+    private int[] savedWords = new int[64];
+    private long[] savedValues = new long[64];
+    private int size = 0;
+    private int[] marks = new int[16];
+    private int level = 0;
+
+    // cause des modifications en cours : décision, ou contrainte en propagation
+    private int decision = 0;
+    private Constraint propagating;
+    private long[] cause = new long[1];
+    private boolean causeReady = false;
+
+    Explanations(DomainStore store) {
+        this.store = store;
+    }
+
+    /*
+     * Suit les variables créées depuis le dernier appel, et repart d'ensembles vides.
+     */
+    void start() {
+        int n = store.size();
+        for (int id = observed; id < n; id++) {
+            store.get(id).addObserver(this::modified);
+        }
+        observed = n;
+        for (int w = 0; w < reasons.length; w++) {
+            reasons[w] = new long[n];
+        }
+        stamps = new int[n];
+        size = 0;
+        level = 0;
+        decision = 0;
+        propagating = null;
+        active = true;
+    }
+
+    void stop() {
+        active = false;
+        propagating = null;
+    }
+
+    /* Nouveau niveau de décision, avant de poser la décision. */
+    void push() {
+        if (level == marks.length) {
+            marks = Arrays.copyOf(marks, level * 2);
+        }
+        marks[level++] = size;
+        if (level > 64 * reasons.length) {
+            int words = reasons.length;
+            reasons = Arrays.copyOf(reasons, words * 2);
+            cause = new long[words * 2];
+            for (int w = words; w < reasons.length; w++) {
+                reasons[w] = new long[observed];
+            }
+        }
+        stamp = ++stampCounter;
+    }
+
+    /* Restaure les ensembles d'avant la décision du niveau courant, qui reste empilé. */
+    void undo() {
+        int mark = marks[level - 1];
+        while (size > mark) {
+            size--;
+            reasons[savedWords[size]][savedIds[size]] = savedValues[size];
+        }
+        stamp = ++stampCounter;
+    }
+
+    void pop() {
+        undo();
+        level--;
+    }
+
+    int getLevel() {
+        return level;
+    }
+
+    /* Les modifications qui suivent viennent de la décision du niveau courant. */
+    void decide() {
+        decision = level;
+    }
+
+    void endDecision() {
+        decision = 0;
+    }
+
+    /* Les modifications qui suivent viennent de c, null en fin de propagation. */
+    void propagating(Constraint c) {
+        propagating = c;
+        causeReady = false;
+    }
+
+    /*
+     * Niveaux dont dépendent les domaines des variables données : ceux d'une contrainte
+     * violée, ou d'une variable vidée.
+     */
+    BitSet reasons(Variable... vars) {
+        BitSet set = new BitSet();
+        for (Variable x : vars) {
+            int id = x.getId();
+            for (int w = 0; w < reasons.length; w++) {
+                long word = reasons[w][id];
+                while (word != 0) {
+                    set.set(64 * w + Long.numberOfTrailingZeros(word) + 1);
+                    word &= word - 1;
+                }
+            }
+        }
+        return set;
+    }
+
+    private void modified(Variable v) {
+        if (!active) return;
+        if (decision > 0) {
+            add(v.getId(), (decision - 1) >>> 6, 1L << ((decision - 1) & 63));
+            return;
+        }
+        if (propagating == null) return;
+        if (!causeReady) {
+            // ensemble calculé à la première modification, avant qu'elle ne compte
+            Arrays.fill(cause, 0L);
+            for (Variable x : propagating.scope()) {
+                for (int w = 0; w < reasons.length; w++) {
+                    cause[w] |= reasons[w][x.getId()];
+                }
+            }
+            causeReady = true;
+        }
+        for (int w = 0; w < reasons.length; w++) {
+            if (cause[w] != 0) {
+                add(v.getId(), w, cause[w]);
+            }
+        }
+    }
+
+    /*
+     * Ajoute des niveaux, le bit b du mot w étant le niveau 64·w + b + 1.
+     */
+    private void add(int id, int w, long bits) {
+        long old = reasons[w][id];
+        if ((old | bits) == old) return;
+        if (stamps[id] != stamp) {
+            stamps[id] = stamp;
+            for (int k = 0; k < reasons.length; k++) {
+                save(id, k);
+            }
+        }
+        reasons[w][id] = old | bits;
+    }
+
+    private void save(int id, int w) {
+        if (size == savedIds.length) {
+            int capacity = size * 2;
+            savedIds = Arrays.copyOf(savedIds, capacity);
+            savedWords = Arrays.copyOf(savedWords, capacity);
+            savedValues = Arrays.copyOf(savedValues, capacity);
+        }
+        savedIds[size] = id;
+        savedWords[size] = w;
+        savedValues[size++] = reasons[w][id];
+    }
+}
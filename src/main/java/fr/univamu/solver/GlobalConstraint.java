@@ -0,0 +1,41 @@
+package fr.univamu.solver;
+
+/**
+ * Contrainte globale portant sur un nombre quelconque de variables.
+ * Elle est enveloppée dans une {@link Constraint} dont la composante {@code global} est
+ * renseignée ; le {@link Reducer} appelle {@link #reduce()} et le {@link Checker}
+ * appelle {@link #check()}.
+ */
+public abstract class GlobalConstraint {
+
+    protected final Variable[] vars;
+
+    protected GlobalConstraint(Variable[] vars) {
+        this.vars = vars;
+    }
+
+    public Variable[] getVariables() {
+        return vars;
+    }
+
+    public abstract ConstraintType getType();
+
+    /**
+     * Returns the same constraint over other variables, given in the same order.
+     */
+    public abstract GlobalConstraint copy(Variable[] vars);
+
+    /**
+     * Reduces the domains of the variables.
+     *
+     * @return true if at least one domain was modified.
+     */
+    public abstract boolean reduce();
+
+    /**
+     * Checks the constraint against the current domains.
+     *
+     * @return false if the constraint can no longer be satisfied.
+     */
+    public abstract boolean check();
+}
@@ -0,0 +1,240 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Choix de variable guidé par ce que la recherche a appris.
+ * Les sous-classes donnent un score à chaque variable, la plus petite étant choisie,
+ * et apprennent de chaque noeud : les variables dont le domaine a changé depuis le
+ * dernier point de choix, la variable qui y a été décidée et la contrainte en échec,
+ * s'il y en a une. Les scores sont rangés dans un tas indexé ; un score ne bouge que
+ * dans le sens qui rend sa variable plus attrayante quand un domaine se réduit ou que
+ * quelque chose est appris, et ces changements sont poussés dans le tas au fil de
+ * l'eau. Les domaines restaurés au retour arrière ne le sont pas : la clé du sommet est
+ * comparée au score réel quand une variable est choisie, et les variables fixées sont
+ * mises de côté jusqu'à ce que la recherche remonte au-dessus du niveau où elles ont
+ * été retirées. Les égalités sont départagées par l'ordre des variables du modèle.
+ */
+public abstract class HeuristicStrategy extends AlwaysReduceStrategy {
+
+    private boolean started = false;
+    private VariableHeap heap;
+    private int[] built;              // variables de branchement pour lesquelles le tas a été construit
+    private int[] ranks = new int[0];
+    // variables fixées retirées du tas, avec le niveau où elles l'ont été
+    private int[] removed = new int[16];
+    private int[] removedLevels = new int[16];
+    private int removedCount = 0;
+    // variable choisie à chaque niveau, -1 si aucune
+    private int[] chosen = new int[16];
+    // variables modifiées depuis le dernier point de choix
+    private int[] modified = new int[16];
+    private double[] shrink = new double[16];
+    private int[] seen = new int[0];
+    private int[] slots = new int[0];
+    private int seenStamp = 0;
+
+    /**
+     * Score of a variable that is not fixed; the smallest score is chosen.
+     */
+    protected abstract double score(Variable v);
+
+    /**
+     * Called once per search, before the first node is learnt from.
+     */
+    protected abstract void start(Solver solver);
+
+    /**
+     * Learns from the node that has just been propagated.
+     *
+     * @param solver     the search.
+     * @param consistent false if the node failed.
+     * @param decision   the variable decided at the parent node, or null at the root.
+     * @param modified   ids of the variables whose bounds or holes changed at this node.
+     * @param count      number of ids in {@code modified}.
+     * @param shrink     for each modified variable, its interval size after the node
+     *                   divided by its size before it.
+     */
+    protected abstract void learn(Solver solver, boolean consistent, Variable decision,
+                                  int[] modified, int count, double[] shrink);
+
+    /**
+     * Pushes the new score of variable {@code id} to the heap. A fixed variable gets
+     * the smallest key, so that it is looked at again before being chosen.
+     */
+    protected final void update(Solver solver, int id) {
+        if (heap != null && heap.contains(id)) {
+            Variable v = solver.getStore().get(id);
+            heap.update(id, (v.isOneValue() || v.isEmpty()) ? Double.NEGATIVE_INFINITY : score(v));
+        }
+    }
+
+    /**
+     * Multiplies every key of the heap by {@code factor > 0}, after all the scores
+     * have been scaled by the same factor.
+     */
+    protected final void rescale(double factor) {
+        if (heap != null) heap.scale(factor);
+    }
+
+    @Override
+    public boolean before(Solver solver) {
+        started = false;
+        heap = null;
+        removedCount = 0;
+        Arrays.fill(chosen, -1);
+        return super.before(solver);
+    }
+
+    @Override
+    public boolean check(Solver solver) {
+        boolean consistent = super.check(solver);
+        if (!started) {
+            start(solver);
+            started = true;
+        }
+        Trail trail = solver.getTrail();
+        int level = trail.getLevel();
+        if (level == 0) {
+            // domaines chargés hors de la pile (recherche parallèle) : on repart de zéro
+            heap = null;
+        }
+        int decision = (level >= 1 && level - 1 < chosen.length) ? chosen[level - 1] : -1;
+        int count = collectModified(solver.getStore(), trail);
+        learn(solver, consistent, (decision < 0) ? null : solver.getStore().get(decision), modified, count, shrink);
+        for (int i = 0; i < count; i++) {
+            update(solver, modified[i]);
+        }
+        return consistent;
+    }
+
+    @Override
+    public Variable chooseVariable(Solver solver) {
+        DomainStore store = solver.getStore();
+        int level = solver.getTrail().getLevel();
+        if (heap == null || built != solver.getSearchIds()) {
+            build(solver, level);
+        }
+        // les variables retirées plus bas dans l'arbre sont peut-être de nouveau libres ;
+        // celles qui restent fixées le sont désormais à ce niveau
+        int first = removedCount;
+        while (first > 0 && removedLevels[first - 1] >= level) {
+            first--;
+        }
+        int kept = first;
+        for (int i = first; i < removedCount; i++) {
+            int id = removed[i];
+            Variable v = store.get(id);
+            if (v.isOneValue() || v.isEmpty()) {
+                removed[kept] = id;
+                removedLevels[kept++] = level;
+            } else {
+                heap.insert(id, score(v), ranks[id]);
+            }
+        }
+        removedCount = kept;
+        while (!heap.isEmpty()) {
+            int id = heap.top();
+            Variable v = store.get(id);
+            if (v.isOneValue() || v.isEmpty()) {
+                remove(heap.pop(), level);
+                continue;
+            }
+            double actual = score(v);
+            if (actual != heap.key(id)) {
+                heap.update(id, actual);
+                continue;
+            }
+            if (level >= chosen.length) {
+                int old = chosen.length;
+                chosen = Arrays.copyOf(chosen, Math.max(level + 1, old * 2));
+                Arrays.fill(chosen, old, chosen.length, -1);
+            }
+            chosen[level] = id;
+            return v;
+        }
+        return null;
+    }
+
+    @Override
+    public IStrategy copy(Function<Variable, Variable> map) {
+        HeuristicStrategy copy = fresh();
+        if (copy != this) {
+            copy.setBranching((getBranching() == null) ? null : getBranching().copy());
+        }
+        return copy;
+    }
+
+    /**
+     * A new strategy of the same kind, without anything learnt.
+     */
+    protected abstract HeuristicStrategy fresh();
+
+    private void build(Solver solver, int level) {
+        DomainStore store = solver.getStore();
+        int[] ids = solver.getSearchIds();
+        built = ids;
+        heap = new VariableHeap(store.size());
+        if (ranks.length < store.size()) {
+            ranks = new int[store.size()];
+        }
+        removedCount = 0;
+        for (int rank = 0; rank < ids.length; rank++) {
+            int id = ids[rank];
+            ranks[id] = rank;
+            Variable v = store.get(id);
+            if (v.isOneValue() || v.isEmpty()) {
+                remove(id, level);
+            } else {
+                heap.insert(id, score(v), rank);
+            }
+        }
+    }
+
+    private void remove(int id, int level) {
+        if (removedCount == removed.length) {
+            removed = Arrays.copyOf(removed, removedCount * 2);
+            removedLevels = Arrays.copyOf(removedLevels, removedCount * 2);
+        }
+        removed[removedCount] = id;
+        removedLevels[removedCount++] = level;
+    }
+
+    /*
+     * Variables sauvegardées dans la pile depuis le dernier point de choix, chacune une
+     * fois, avec le rapport des tailles de leurs intervalles après et avant.
+     */
+    private int collectModified(DomainStore store, Trail trail) {
+        if (seen.length < store.size()) {
+            seen = new int[store.size()];
+            slots = new int[store.size()];
+        }
+        if (++seenStamp == 0) {
+            Arrays.fill(seen, 0);
+            seenStamp = 1;
+        }
+        int count = 0;
+        for (int i = trail.mark(); i < trail.size(); i++) {
+            int saved = trail.savedId(i);
+            int id = (saved >= 0) ? saved : ~saved;
+            if (seen[id] != seenStamp) {
+                seen[id] = seenStamp;
+                if (count == modified.length) {
+                    modified = Arrays.copyOf(modified, count * 2);
+                    shrink = Arrays.copyOf(shrink, count * 2);
+                }
+                slots[id] = count;
+                modified[count] = id;
+                shrink[count++] = 1.0;
+            }
+            // les bornes sont sauvegardées une seule fois par point de choix
+            if (saved >= 0) {
+                double before = (double) trail.savedMax(i) - trail.savedMin(i) + 1;
+                double after = Math.max(0.0, (double) store.maxs[id] - store.mins[id] + 1);
+                shrink[slots[id]] = after / before;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,137 @@
+package fr.univamu.solver;
+
+/**
+ * Intervalle d'entiers vu à travers ses bornes.
+ * L'interface ne porte aucun état : {@link Interval} garde ses bornes dans ses champs,
+ * {@link Variable} les lit dans son {@link DomainStore}. L'arithmétique renvoie de
+ * nouveaux {@link Interval}.
+ */
+public interface IInterval {
+
+	int getMin();
+
+	int getMax();
+
+	/*
+	 * Réduire l'intervalle et renvoyer TRUE si une modification a été faite.
+	 */
+	boolean reduce(int newMin, int newMax);
+
+	default boolean reduce(IInterval i) {
+		return reduce(i.getMin(), i.getMax());
+	}
+
+	default int getSize() {
+		return (getMin() <= getMax()) ? (1 + getMax() - getMin()) : 0;
+	}
+
+	default boolean isOneValue() {
+		return (getMin() == getMax());
+	}
+
+	default boolean isEmpty() {
+		return (getMin() > getMax());
+	}
+
+	default int getSign() {
+		if (getMax() < 0)
+			return -1;
+		if (getMin() > 0)
+			return +1;
+		return 0;
+	}
+
+	default boolean isNotEmpty() {
+		return (getMin() <= getMax());
+	}
+
+	default boolean isInside(IInterval i) {
+		return (i.getMin() <= getMin() && getMin() <= getMax() && getMax() <= i.getMax());
+	}
+
+	default boolean contains(int v) {
+		return (getMin() <= v && v <= getMax());
+	}
+
+	/* Entre les bornes, même si le domaine a un trou en v. */
+	default boolean spans(int v) {
+		return (getMin() <= v && v <= getMax());
+	}
+
+	default Interval add(IInterval i) {
+		if (isEmpty() || i.isEmpty()) {
+			return Interval.empty();
+		}
+		return new Interval(getMin() + i.getMin(), getMax() + i.getMax());
+	}
+
+	default Interval sub(IInterval i) {
+		if (isEmpty() || i.isEmpty()) {
+			return Interval.empty();
+		}
+		return new Interval(getMin() - i.getMax(), getMax() - i.getMin());
+	}
+
+	default Interval mul(IInterval i) {
+		if (isEmpty() || i.isEmpty()) {
+			return Interval.empty();
+		}
+		var minMin = getMin() * i.getMin();
+		var minMax = getMin() * i.getMax();
+		var maxMin = getMax() * i.getMin();
+		var maxMax = getMax() * i.getMax();
+		int min = Math.min(Math.min(Math.min(minMin, minMax), maxMin), maxMax);
+		int max = Math.max(Math.max(Math.max(minMin, minMax), maxMin), maxMax);
+		return new Interval(min, max);
+	}
+
+	default Interval div(IInterval i) {
+		if (isEmpty() || i.isEmpty()) {
+			return Interval.empty();
+		}
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		int aMin = getMin();
+		int aMax = getMax();
+		int[] divisors = { i.getMin(), -1, 1, i.getMax() };
+		for (int divisor : divisors) {
+			if (divisor == 0)
+				continue;
+			if (!i.spans(divisor))
+				continue;
+			// min
+			min = Math.min(min, (aMin / divisor));
+			min = Math.min(min, (aMax / divisor));
+			// max
+			max = Math.max(max, (aMin / divisor));
+			max = Math.max(max, (aMax / divisor));
+		}
+		return new Interval(min, max);
+	}
+
+	default Interval inverseMul(IInterval i) {
+		if (isEmpty() || i.isEmpty() || i.spans(0)) {
+			return Interval.empty();
+		}
+
+		int[] candidates = {
+				getMin() / i.getMin(), getMin() / i.getMax(),
+				getMax() / i.getMin(), getMax() / i.getMax()
+		};
+
+		int newMin = Integer.MAX_VALUE;
+		int newMax = Integer.MIN_VALUE;
+		for (int c : candidates) {
+			newMin = Math.min(newMin, c);
+			newMax = Math.max(newMax, c);
+		}
+
+		return new Interval(newMin, newMax);
+	}
+
+	default Interval inter(IInterval i) {
+		var min = Integer.max(getMin(), i.getMin());
+		var max = Integer.min(getMax(), i.getMax());
+		return new Interval(min, max);
+	}
+}
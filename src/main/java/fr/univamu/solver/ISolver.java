@@ -1,5 +1,9 @@
 package fr.univamu.solver;
 
+import java.util.Iterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
 /**
  * Interface representing a constraint programming solver.
  * This solver allows the definition of integer variables, constraints,
@@ -24,6 +28,7 @@ public interface ISolver {
 
     /**
      * Creates a constant variable with the given value.
+     * Constants are shared: asking twice for the same value returns the same variable.
      *
      * @param value the fixed integer value.
      * @return a {@link Variable} representing this constant.
@@ -38,6 +43,16 @@ public interface ISolver {
      */
     void addAllDiffRelation(Variable... variables);
 
+    /**
+     * Adds an "all-different" constraint with the chosen filtering level.
+     * Bounds consistency (Hall intervals) is the cheaper default; domain consistency
+     * additionally removes every value that belongs to no complete matching.
+     *
+     * @param domainConsistency true for matching-based filtering, false for bounds only.
+     * @param variables         the variables subject to the all-different constraint.
+     */
+    void addAllDiffRelation(boolean domainConsistency, Variable... variables);
+
     /**
      * Adds a relation between a variable and a constant.
      *
@@ -56,16 +71,97 @@ public interface ISolver {
      */
     void addRelation(Variable a, String relation, Variable b);
 
+    /**
+     * Adds an assignment constraint with cost: cells[t][a] is 1 when task t is given to
+     * agent a, each task has exactly one agent, each agent at most one task, and cost is
+     * the sum of costs[t][a] over the cells set to 1. The optimal assignment of the cells
+     * that can still be 1 (Hungarian algorithm) bounds the cost from below, and the cells
+     * whose reduced cost exceeds what the cost can still afford are set to 0.
+     *
+     * @param costs the cost of each task (rows) and agent (columns).
+     * @param cells the 0/1 variables, with the same shape as {@code costs}.
+     * @param cost  the total cost.
+     */
+    void addAssignmentRelation(int[][] costs, Variable[][] cells, Variable cost);
+
+    /**
+     * Adds a cumulative resource: task i starts at starts[i], lasts durations[i] and
+     * uses heights[i] units of the resource, and at no instant do the tasks in
+     * progress use more than the capacity. Propagated by time-table and edge-finding.
+     *
+     * @param starts    the start of each task.
+     * @param durations the duration of each task.
+     * @param heights   the resource usage of each task.
+     * @param capacity  the capacity of the resource.
+     */
+    void addCumulativeRelation(Variable[] starts, int[] durations, int[] heights, int capacity);
+
+    /**
+     * Adds a disjunctive resource: task i starts at starts[i] and lasts durations[i],
+     * and no two tasks overlap. Propagated by time-table, overload checking and
+     * edge-finding.
+     *
+     * @param starts    the start of each task.
+     * @param durations the duration of each task.
+     */
+    void addDisjunctiveRelation(Variable[] starts, int[] durations);
+
+    /**
+     * Adds the relation result = array[index], indices starting at 0.
+     *
+     * @param array  the values, which the constraint keeps a copy of.
+     * @param index  the position in the array.
+     * @param result the value at that position.
+     */
+    void addElementRelation(int[] array, Variable index, Variable result);
+
+    /**
+     * Adds the linear relation Σ coefficients[i]·variables[i] relation constant,
+     * propagated as a single constraint. The coefficients of a repeated variable are
+     * added up; when they all cancel, the relation is 0 relation constant, and either
+     * adds nothing or makes the model infeasible.
+     *
+     * @param coefficients the coefficient of each variable.
+     * @param variables    the variables of the sum.
+     * @param relation     the relation operator ("=", "<", ">", "<=", ">=", "<>").
+     * @param constant     the right-hand side.
+     */
+    void addLinearRelation(int[] coefficients, Variable[] variables, String relation, int constant);
+
+    /**
+     * Adds a table relation: the variables take together the values of one of the
+     * tuples, propagated by compact-table.
+     *
+     * @param variables the variables, in the order of the values of a tuple.
+     * @param tuples    the allowed tuples, packed one after the other; they are compiled
+     *                  into supports and not kept.
+     */
+    void addTableRelation(Variable[] variables, int[] tuples);
+
     /**
      * Creates an expression composed of variables, constants, and operators.
      * The terms can be {@link Variable}, {@link Integer}, or operator {@link String}.
      * For example: <code>expression(x, "+", y, "*", 2)</code>.
+     * Sums over three variables or more, including chains built by successive calls,
+     * are compiled into a single linear constraint.
      *
      * @param terms the components of the expression (variables, constants, operators).
      * @return a {@link Variable} representing the resulting expression.
      */
     Variable expression(Object... terms);
 
+    /**
+     * Returns a view equal to {@code scale·x + offset}. A view reads and reduces the
+     * domain of x directly: it adds no variable and no constraint to the model.
+     * Expressions that add a constant to a variable, or subtract one, return views.
+     *
+     * @param x      the underlying variable.
+     * @param scale  the non-zero factor applied to x.
+     * @param offset the constant added.
+     * @return a variable standing for {@code scale·x + offset}.
+     */
+    Variable view(Variable x, int scale, int offset);
+
     // ---------------------------------------------------------------------
     // Solving
     // ---------------------------------------------------------------------
@@ -78,6 +174,44 @@ public interface ISolver {
      */
     long solve();
 
+    /**
+     * Searches for solutions and hands each one to {@code consumer} as soon as it is
+     * found, without storing it. The search stops when the consumer returns false.
+     * In parallel mode the consumer is called by one worker at a time.
+     *
+     * @param consumer receives each solution; returns false to stop the search.
+     * @return the number of solutions handed to the consumer.
+     */
+    long solve(Predicate<Solutions.Assignment> consumer);
+
+    /**
+     * Counts the solutions without recording or printing them: a leaf of the search
+     * only increments a counter. Works with every strategy and in parallel mode.
+     *
+     * @return the number of solutions.
+     */
+    long countSolutions();
+
+    /**
+     * Returns an iterator over the solutions. The search runs only when the next
+     * solution is requested and pauses after finding it; solutions are not stored.
+     * The search is sequential, and the solver must not be used for anything else
+     * until the iterator is exhausted.
+     *
+     * @return a lazy iterator over the solutions.
+     */
+    Iterator<Solutions.Assignment> iterateSolutions();
+
+    /**
+     * Returns a lazy stream of solutions, backed by {@link #iterateSolutions()}.
+     * Short-circuiting operations such as {@code limit} or {@code findFirst} stop the
+     * search early; close the stream to restore the domains if it is not consumed
+     * to the end.
+     *
+     * @return a sequential stream of solutions.
+     */
+    Stream<Solutions.Assignment> streamSolutions();
+
     // ---------------------------------------------------------------------
     // Solver configuration and monitoring
     // ---------------------------------------------------------------------
@@ -95,6 +229,15 @@ public interface ISolver {
      */
     long getNodesCounter();
 
+    /**
+     * Returns the number of propagator calls made by the reducer so far.
+     * Each constraint is queued at most once per fixpoint, so this counts
+     * actual propagation work.
+     *
+     * @return the number of propagator calls.
+     */
+    long getPropagationsCounter();
+
     /**
      * Sets the maximum number of nodes to explore during the search.
      *
@@ -102,6 +245,148 @@ public interface ISolver {
      */
     void setMaxNodes(long maxNodes);
 
+    /**
+     * Solves the problem with several strategies at once, each on its own copy of the
+     * model and in its own virtual thread. The first run to complete its search wins
+     * and the others are cancelled; its solutions and node count are kept.
+     * Optimization runs share their best objective value.
+     *
+     * @param strategies the strategies to run concurrently.
+     * @return the number of solutions found by the winning run.
+     */
+    long solvePortfolio(IStrategy... strategies);
+
+    /**
+     * Restarts the search from the root each time a run has explored its number of
+     * nodes, the subtrees already explored being recorded as nogoods so that they are
+     * not explored again. Solutions, counts and optima are the same as without
+     * restarts. Works with every strategy; the decomposition is then ignored, and
+     * parallel searches reject it. Iterators and streams of solutions ignore restarts.
+     *
+     * @param restarts the cutoff policy, or null to search without restarts.
+     */
+    void setRestarts(Restarts restarts);
+
+    /**
+     * Returns the number of restarts of the last search.
+     *
+     * @return the number of restarts.
+     */
+    long getRestartsCounter();
+
+    /**
+     * Enables conflict-directed backjumping. Each domain change records the decisions
+     * it depends on; when a node fails, the search goes straight back to the deepest
+     * decision behind the failure instead of the last one. Solutions, counts and
+     * optima are the same as with chronological backtracking. Cannot be combined with
+     * restarts or parallel searches; the decomposition is then ignored.
+     *
+     * @param backjumping true to backjump on failures.
+     */
+    void setBackjumping(boolean backjumping);
+
+    /**
+     * Returns the number of branches the last search skipped by backjumping, each of
+     * which chronological backtracking would have visited at least once.
+     *
+     * @return the number of skipped branches.
+     */
+    long getSkippedBranchesCounter();
+
+    /**
+     * Enables lazy clause generation. Propagation works on bounds and explains each
+     * change by a clause over bound literals [x ≥ v] and [x ≤ v]; a conflict is analysed
+     * into a learnt clause, which prunes the rest of the search, and the search
+     * backjumps to where that clause applies. Solutions, counts and optima are the
+     * same as with the other searches, and the variable ordering is driven by the
+     * conflicts. Supports arithmetic constraints, linear sums and all-different; cannot
+     * be combined with restarts, backjumping or parallel searches.
+     *
+     * @param lazyClauses true to learn clauses from conflicts.
+     */
+    void setLazyClauseGeneration(boolean lazyClauses);
+
+    /**
+     * Returns the number of conflicts of the last search with lazy clause generation.
+     *
+     * @return the number of conflicts.
+     */
+    long getConflictsCounter();
+
+    /**
+     * Replaces branch-and-bound by a large neighborhood search: after a first solution,
+     * the search repeatedly fixes most named variables to their values in the best
+     * solution and looks for a better one among the others, within a node limit. The
+     * solutions are reported as they improve, the last one being the best found; it is
+     * optimal only if the search ended by exploring the whole problem. Needs an
+     * optimization strategy; cannot be combined with restarts, backjumping, lazy
+     * clauses or parallel searches.
+     *
+     * @param neighborhoods how neighborhoods are chosen and searched, null for plain
+     *                      branch-and-bound.
+     */
+    void setNeighborhoods(Neighborhoods neighborhoods);
+
+    /**
+     * Returns the number of neighborhoods the last large neighborhood search explored.
+     *
+     * @return the number of neighborhoods.
+     */
+    long getNeighborhoodsCounter();
+
+    /**
+     * Tells whether the last large neighborhood search ended by exploring the whole
+     * problem without finding better, which proves its best solution optimal. Always
+     * false after any other kind of search.
+     *
+     * @return true if the best solution of the last large neighborhood search is optimal.
+     */
+    boolean isOptimumProved();
+
+    /**
+     * Enables the decomposition of the problem into independent components, that is
+     * groups of non-fixed variables not linked by any constraint. The components are
+     * recomputed at each node of the search.
+     * {@link #countSolutions()} then counts each component separately and multiplies
+     * the counts; with an optimization strategy, components that do not contain the
+     * objective are only solved once. Other searches, and parallel searches, ignore it.
+     *
+     * @param decomposition true to split the problem into components.
+     */
+    void setDecomposition(boolean decomposition);
+
+    /**
+     * Enables the presolve, run by {@link #solve()} before each search. Variables
+     * linked by an equality are merged, the merged model is propagated once, and
+     * constraints that became entailed and unused anonymous variables are dropped.
+     * The search then runs on this reduced model; solutions still list every named
+     * variable of the original model. The model itself is not modified.
+     * Iterators and streams of solutions ignore the presolve.
+     *
+     * @param presolve true to simplify the model before searching.
+     */
+    void setPresolve(boolean presolve);
+
+    /**
+     * Returns what the last presolve removed, or null if none ran.
+     *
+     * @return the statistics of the last presolve.
+     */
+    Presolve.Stats getPresolveStats();
+
+    /**
+     * Sets the number of threads used by {@link #solve()}.
+     * With more than one thread, subtrees are explored as fork/join tasks, each
+     * worker on its own copy of the model; solutions may then be found in any order.
+     * With an optimization strategy the workers share the best value, each one
+     * pruning its subtrees with the latest bound; the solutions reported are then
+     * only those of optimal cost, sorted by their values, so that the result does not
+     * depend on the scheduling of the threads.
+     *
+     * @param parallelism the number of worker threads (1 for a sequential search).
+     */
+    void setParallelism(int parallelism);
+
     /**
      * Enables or disables verbose output during the solving process.
      *
@@ -115,12 +400,34 @@ public interface ISolver {
      * @return a {@link Solutions} instance containing all solutions.
      */
     Solutions getSolutions();
-    /** Snapshot current domains (default: no-op). */
-    default void backup(Solver solver) { }
-
-    /** Restore previously snapshotted domains (default: no-op). */
-    default void restore(Solver solver) { }
 
     void alwaysReduceStrategy();
 
+    /**
+     * Sets how the current strategy cuts the domain of the chosen variable: value
+     * enumeration or bisection, and the order of the branches. Choose the strategy first.
+     *
+     * @param branching the branching, or null for slices of {@link IStrategy#step} values.
+     * @throws IllegalStateException if the current strategy has no branching.
+     */
+    void setBranching(Branching branching);
+
+    /**
+     * Propagates at every node and branches on the variable with the smallest ratio
+     * of domain size to weighted degree, the weight of a constraint counting its failures.
+     */
+    void domWdegStrategy();
+
+    /**
+     * Propagates at every node and branches on the variable whose domain was most
+     * often reduced by propagation recently, relative to its size.
+     */
+    void activityStrategy();
+
+    /**
+     * Propagates at every node and branches on the variable whose decisions removed
+     * the largest part of the search space so far.
+     */
+    void impactStrategy();
+
 }
@@ -1,5 +1,6 @@
 package fr.univamu.solver;
 
+import java.util.function.Function;
 
 public interface IStrategy {
 
@@ -9,9 +10,24 @@ public interface IStrategy {
 
     int step(Variable v);
 
-    boolean check(Solver solver);
+    /**
+     * Branches explored below the current node for variable {@code v}, as consecutive
+     * {@code min, max} pairs in the order they are explored; null to cut the domain in
+     * slices of {@link #step} values.
+     */
+    default int[] branches(Solver solver, Variable v) {
+        return null;
+    }
 
-    void backup(Solver solver);
+    boolean check(Solver solver);
 
-    void restore(Solver solver);
+    /**
+     * Returns the strategy to use on a copy of the model.
+     * Stateless strategies can be shared and return themselves.
+     *
+     * @param map gives the copy of each variable of the original model.
+     */
+    default IStrategy copy(Function<Variable, Variable> map) {
+        return this;
+    }
 }
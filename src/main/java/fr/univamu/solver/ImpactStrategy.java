@@ -0,0 +1,74 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Recherche guidée par l'impact (Refalo).
+ * L'impact d'une décision est la part de l'espace de recherche qu'elle a retirée,
+ * décision et propagation comprises, mesurée sur les intervalles des variables
+ * modifiées ; un échec a un impact de 1. Chaque variable garde une moyenne mobile des
+ * impacts des décisions prises sur elle, partant de l'impact de sa fixation sans
+ * propagation, et on choisit la variable de plus grande moyenne.
+ */
+public class ImpactStrategy extends HeuristicStrategy {
+
+    private final double weight;
+    private double[] impacts = new double[0];
+
+    public ImpactStrategy() {
+        this(0.25);
+    }
+
+    /**
+     * @param weight weight of a new measure in the moving average, in (0, 1].
+     */
+    public ImpactStrategy(double weight) {
+        if (!(weight > 0 && weight <= 1)) {
+            throw new IllegalArgumentException("weight must be in (0, 1]: " + weight);
+        }
+        this.weight = weight;
+    }
+
+    @Override
+    protected void start(Solver solver) {
+        DomainStore store = solver.getStore();
+        impacts = new double[store.size()];
+        Arrays.fill(impacts, Double.NaN);
+    }
+
+    @Override
+    protected double score(Variable v) {
+        int id = v.getId();
+        if (Double.isNaN(impacts[id])) {
+            impacts[id] = 1.0 - 1.0 / v.getSize();
+        }
+        return -impacts[id];
+    }
+
+    @Override
+    protected void learn(Solver solver, boolean consistent, Variable decision,
+                         int[] modified, int count, double[] shrink) {
+        if (decision == null) return;
+        double impact = 1.0;
+        if (consistent) {
+            double remaining = 1.0;
+            for (int i = 0; i < count; i++) {
+                remaining *= shrink[i];
+            }
+            impact = 1.0 - remaining;
+        }
+        int id = decision.getId();
+        double previous = Double.isNaN(impacts[id]) ? impact : impacts[id];
+        impacts[id] = previous + weight * (impact - previous);
+        update(solver, id);
+    }
+
+    public double getImpact(Variable v) {
+        return impacts[v.getId()];
+    }
+
+    @Override
+    protected HeuristicStrategy fresh() {
+        return new ImpactStrategy(weight);
+    }
+}
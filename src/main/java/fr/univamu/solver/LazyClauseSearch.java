@@ -0,0 +1,1158 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Recherche par génération paresseuse de clauses (lazy clause generation).
+ * Les domaines sont gardés sous forme de bornes, et chaque changement de borne est un
+ * littéral [x ≥ v] ou [x ≤ v] empilé sur une trace avec sa raison : la décision qui
+ * l'a posé, une clause apprise, ou la clause qu'un propagateur fournit pour
+ * l'expliquer, construite à partir des bornes qu'il a lues. Les contraintes du modèle
+ * sont propagées par de tels propagateurs explicatifs (ADD, SUB, MUL, DIV, EQ, NEQ,
+ * sommes linéaires, all-different et element ; les affectations comme leurs sommes),
+ * avec le même raisonnement sur les intervalles que le Reducer ; les clauses apprises
+ * sont propagées avec deux littéraux surveillés. Un conflit est analysé jusqu'à son
+ * premier point d'implication unique, la clause apprise est gardée dans une
+ * ClauseArena et la recherche remonte au niveau où elle devient unitaire.
+ * Les clauses apprises de plus fort LBD sont supprimées quand elles sont trop nombreuses.
+ *
+ * Les solutions sont vérifiées et enregistrées par le solveur comme dans les autres
+ * recherches ; une clause les exclut ensuite (toutes leurs valeurs pour une
+ * énumération, la valeur de l'objectif et au-delà pour une optimisation) : les comptes
+ * et les optima sont exacts.
+ */
+final class LazyClauseSearch {
+
+    private static final int OK = -1;           // pas de conflit
+    private static final int DECISION = -1;     // raison d'une décision
+    private static final int WIDE = 64;         // au-delà, les décisions coupent le domaine en deux
+    private static final double DECAY = 0.95;
+
+    private final Solver solver;
+    private final DomainStore store;
+    private final int[] lb;
+    private final int[] ub;
+
+    // pile des bornes : variable, côté (0 borne inférieure, 1 supérieure), valeurs avant
+    // et après, raison, niveau, entrée précédente du même côté de la même variable
+    private int[] tVar = new int[256];
+    private int[] tSide = new int[256];
+    private int[] tOld = new int[256];
+    private int[] tNew = new int[256];
+    private int[] tReason = new int[256];
+    private int[] tLevel = new int[256];
+    private int[] tPrev = new int[256];
+    private int trailSize = 0;
+    private int qhead = 0;
+    private final int[] last;
+    private int level = 0;
+    private int[] explanationMarks = new int[16];
+
+    // explications des propagateurs, [taille, littéraux] à la suite, dépilées avec les niveaux ;
+    // la référence -(i + 2) désigne celle qui commence en i
+    private int[] explanations = new int[1024];
+    private int explanationTop = 0;
+
+    private final ClauseArena clauses = new ClauseArena();
+    private int learnts = 0;
+    private int maxLearnts = 2000;
+    // par code de littéral, paires (clause, valeur) des clauses qui le surveillent
+    private final int[][] watches;
+    private final int[] watchSizes;
+
+    private final List<Propagator> propagators = new ArrayList<>();
+    private final int[][] propagatorsOf;
+    private int[] queue = new int[16];
+    private boolean[] queued = new boolean[0];
+    private int queueHead = 0;
+    private int queueSize = 0;
+
+    // analyse des conflits
+    private int[] seen = new int[256];
+    private int[] need = new int[256];
+    private int stamp = 0;
+    private int[] lower = new int[16];
+    private int[] codes = new int[16];
+    private int[] values = new int[16];
+    private int[] levelSeen = new int[16];
+    private final double[] activity;
+    private double increment = 1;
+
+    private final int[] searchIds;
+    private final OptimizationStrategy optimization;
+    private long conflicts = 0;
+
+    LazyClauseSearch(Solver solver) {
+        this.solver = solver;
+        this.store = solver.getStore();
+        int n = store.size();
+        lb = Arrays.copyOf(store.mins, n);
+        ub = Arrays.copyOf(store.maxs, n);
+        last = new int[2 * n];
+        Arrays.fill(last, -1);
+        watches = new int[2 * n][];
+        watchSizes = new int[2 * n];
+        activity = new double[n];
+        searchIds = solver.getSearchIds();
+        optimization = (solver.getStrategy() instanceof OptimizationStrategy o) ? o : null;
+        List<List<Integer>> of = new ArrayList<>();
+        for (int id = 0; id < n; id++) {
+            of.add(new ArrayList<>());
+        }
+        for (Constraint c : solver.getConstraints()) {
+            compile(c);
+        }
+        for (int p = 0; p < propagators.size(); p++) {
+            for (int id : propagators.get(p).ids()) {
+                of.get(id).add(p);
+            }
+        }
+        propagatorsOf = new int[n][];
+        for (int id = 0; id < n; id++) {
+            propagatorsOf[id] = of.get(id).stream().mapToInt(Integer::intValue).toArray();
+        }
+        queued = new boolean[propagators.size()];
+        queue = new int[Math.max(1, propagators.size())];
+    }
+
+    long getConflicts() {
+        return conflicts;
+    }
+
+    int getLearnts() {
+        return learnts;
+    }
+
+    /*
+     * Le niveau de la racine est déjà empilé et la stratégie préparée par before().
+     */
+    void run() {
+        for (int p = 0; p < propagators.size(); p++) {
+            schedule(p);
+        }
+        if (optimization != null && optimization.getBestValue() < Integer.MAX_VALUE) {
+            Term target = term(optimization.getTarget());
+            if (atMost(target, optimization.getBestValue() - 1L) != OK) return;
+        }
+        while (true) {
+            int conflict = propagate();
+            if (conflict != OK) {
+                if (!resolve(conflict)) return;
+                continue;
+            }
+            int x = pickVariable();
+            if (x < 0) {
+                if (!solution()) return;
+                continue;
+            }
+            solver.countDecision();
+            if (learnts - trailSize > maxLearnts) {
+                reduceLearnts();
+            }
+            decide(x);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // bornes, pile et niveaux
+    // ---------------------------------------------------------------------
+
+    private void push(int x, int side, int value, int reason) {
+        if (trailSize == tVar.length) {
+            int capacity = 2 * trailSize;
+            tVar = Arrays.copyOf(tVar, capacity);
+            tSide = Arrays.copyOf(tSide, capacity);
+            tOld = Arrays.copyOf(tOld, capacity);
+            tNew = Arrays.copyOf(tNew, capacity);
+            tReason = Arrays.copyOf(tReason, capacity);
+            tLevel = Arrays.copyOf(tLevel, capacity);
+            tPrev = Arrays.copyOf(tPrev, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            need = Arrays.copyOf(need, capacity);
+        }
+        int e = trailSize++;
+        tVar[e] = x;
+        tSide[e] = side;
+        tOld[e] = (side == 0) ? lb[x] : ub[x];
+        tNew[e] = value;
+        tReason[e] = reason;
+        tLevel[e] = level;
+        tPrev[e] = last[2 * x + side];
+        seen[e] = 0;
+        last[2 * x + side] = e;
+        if (side == 0) {
+            lb[x] = value;
+        } else {
+            ub[x] = value;
+        }
+    }
+
+    private boolean isTrue(int code, int value) {
+        int x = code >> 1;
+        return ((code & 1) == 0) ? lb[x] >= value : ub[x] <= value;
+    }
+
+    private boolean isFalse(int code, int value) {
+        int x = code >> 1;
+        return ((code & 1) == 0) ? ub[x] < value : lb[x] > value;
+    }
+
+    /*
+     * Rend le littéral vrai avec la raison donnée ; renvoie la raison si le littéral
+     * est faux (conflit), OK sinon.
+     */
+    private int assign(int code, int value, int reason) {
+        if (isTrue(code, value)) return OK;
+        if (isFalse(code, value)) return reason;
+        push(code >> 1, code & 1, value, reason);
+        return OK;
+    }
+
+    private void decide(int x) {
+        level++;
+        if (level >= explanationMarks.length) {
+            explanationMarks = Arrays.copyOf(explanationMarks, 2 * level);
+        }
+        explanationMarks[level] = explanationTop;
+        long size = (long) ub[x] - lb[x] + 1;
+        int value = (size <= WIDE) ? lb[x] : (int) Math.floorDiv((long) lb[x] + ub[x], 2);
+        push(x, 1, value, DECISION);
+    }
+
+    private void backjump(int target) {
+        while (trailSize > 0 && tLevel[trailSize - 1] > target) {
+            int e = --trailSize;
+            int x = tVar[e];
+            if (tSide[e] == 0) {
+                lb[x] = tOld[e];
+            } else {
+                ub[x] = tOld[e];
+            }
+            last[2 * x + tSide[e]] = tPrev[e];
+        }
+        qhead = trailSize;
+        if (target < level) {
+            explanationTop = explanationMarks[target + 1];
+        }
+        level = target;
+        clearQueue();
+    }
+
+    /*
+     * Variable de branchement : la plus active des variables non fixées, à égalité
+     * celle du plus petit domaine. -1 si toutes sont fixées.
+     */
+    private int pickVariable() {
+        int best = -1;
+        for (int x : searchIds) {
+            if (lb[x] >= ub[x]) continue;
+            if (best < 0 || activity[x] > activity[best]
+                    || (activity[x] == activity[best] && (long) ub[x] - lb[x] < (long) ub[best] - lb[best])) {
+                best = x;
+            }
+        }
+        return best;
+    }
+
+    // ---------------------------------------------------------------------
+    // propagation
+    // ---------------------------------------------------------------------
+
+    private int propagate() {
+        while (true) {
+            while (qhead < trailSize) {
+                int e = qhead++;
+                int conflict = propagateWatches(e);
+                if (conflict != OK) {
+                    clearQueue();
+                    return conflict;
+                }
+                for (int p : propagatorsOf[tVar[e]]) {
+                    schedule(p);
+                }
+            }
+            if (queueSize == 0) return OK;
+            int p = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+            queued[p] = false;
+            int conflict = propagators.get(p).propagate(this);
+            if (conflict != OK) {
+                clearQueue();
+                return conflict;
+            }
+        }
+    }
+
+    private void schedule(int p) {
+        if (queued[p]) return;
+        queued[p] = true;
+        queue[(queueHead + queueSize) % queue.length] = p;
+        queueSize++;
+    }
+
+    private void clearQueue() {
+        Arrays.fill(queued, false);
+        queueHead = 0;
+        queueSize = 0;
+    }
+
+    /*
+     * Clauses dont un littéral surveillé vient d'être rendu faux par l'entrée e.
+     */
+    private int propagateWatches(int e) {
+        int x = tVar[e];
+        int from = tOld[e];
+        int to = tNew[e];
+        // une borne inférieure qui monte rend faux les [x ≤ v], v < to ; une borne
+        // supérieure qui descend, les [x ≥ v], v > to
+        int code = (tSide[e] == 0) ? 2 * x + 1 : 2 * x;
+        int[] list = watches[code];
+        int size = watchSizes[code];
+        int i = 0;
+        int j = 0;
+        while (i < size) {
+            int ref = list[i];
+            int value = list[i + 1];
+            i += 2;
+            if (clauses.isDeleted(ref)) continue;
+            boolean falsified = (tSide[e] == 0) ? (value < to && value >= from) : (value > to && value <= from);
+            if (!falsified) {
+                list[j++] = ref;
+                list[j++] = value;
+                continue;
+            }
+            if (clauses.code(ref, 0) == code && clauses.value(ref, 0) == value) {
+                clauses.swap(ref, 0, 1);
+            }
+            if (isTrue(clauses.code(ref, 0), clauses.value(ref, 0))) {
+                list[j++] = ref;
+                list[j++] = value;
+                continue;
+            }
+            int k = 2;
+            int n = clauses.size(ref);
+            while (k < n && isFalse(clauses.code(ref, k), clauses.value(ref, k))) {
+                k++;
+            }
+            if (k < n) {
+                clauses.swap(ref, 1, k);
+                int watched = clauses.code(ref, 1);
+                if (watched == code) {
+                    list[j++] = ref;
+                    list[j++] = clauses.value(ref, 1);
+                } else {
+                    watch(watched, clauses.value(ref, 1), ref);
+                }
+                continue;
+            }
+            list[j++] = ref;
+            list[j++] = value;
+            int conflict = assign(clauses.code(ref, 0), clauses.value(ref, 0), ref);
+            if (conflict != OK) {
+                while (i < size) {
+                    list[j++] = list[i++];
+                }
+                watchSizes[code] = j;
+                return conflict;
+            }
+        }
+        watchSizes[code] = j;
+        return OK;
+    }
+
+    private void watch(int code, int value, int ref) {
+        int[] list = watches[code];
+        int size = watchSizes[code];
+        if (list == null) {
+            list = watches[code] = new int[8];
+        } else if (size + 2 > list.length) {
+            list = watches[code] = Arrays.copyOf(list, 2 * list.length);
+        }
+        list[size] = ref;
+        list[size + 1] = value;
+        watchSizes[code] = size + 2;
+    }
+
+    // ---------------------------------------------------------------------
+    // explications
+    // ---------------------------------------------------------------------
+
+    private static long literal(int code, int value) {
+        return ((long) code << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    long min(Term t) {
+        return (t.scale() > 0) ? (long) t.scale() * lb[t.id()] + t.offset() : (long) t.scale() * ub[t.id()] + t.offset();
+    }
+
+    long max(Term t) {
+        return (t.scale() > 0) ? (long) t.scale() * ub[t.id()] + t.offset() : (long) t.scale() * lb[t.id()] + t.offset();
+    }
+
+    boolean isFixed(Term t) {
+        return lb[t.id()] == ub[t.id()];
+    }
+
+    /* Littéral vrai « t ≥ min(t) », antécédent d'une explication. */
+    long lo(Term t) {
+        return (t.scale() > 0) ? literal(2 * t.id(), lb[t.id()]) : literal(2 * t.id() + 1, ub[t.id()]);
+    }
+
+    /* Littéral vrai « t ≤ max(t) ». */
+    long hi(Term t) {
+        return (t.scale() > 0) ? literal(2 * t.id() + 1, ub[t.id()]) : literal(2 * t.id(), lb[t.id()]);
+    }
+
+    /*
+     * t ≥ v, conséquence des antécédents ; renvoie la clause en conflit, ou OK.
+     */
+    int atLeast(Term t, long v, long... because) {
+        if (v <= min(t)) return OK;
+        int x = t.id();
+        if (t.scale() > 0) {
+            return implied(2 * x, clampLower(x, Math.ceilDiv(v - t.offset(), t.scale())), because);
+        }
+        return implied(2 * x + 1, clampUpper(x, Math.floorDiv(v - t.offset(), t.scale())), because);
+    }
+
+    /* t ≤ v, conséquence des antécédents. */
+    int atMost(Term t, long v, long... because) {
+        if (v >= max(t)) return OK;
+        int x = t.id();
+        if (t.scale() > 0) {
+            return implied(2 * x + 1, clampUpper(x, Math.floorDiv(v - t.offset(), t.scale())), because);
+        }
+        return implied(2 * x, clampLower(x, Math.ceilDiv(v - t.offset(), t.scale())), because);
+    }
+
+    /* Les antécédents sont incompatibles. */
+    int fail(long... because) {
+        int start = explanationTop;
+        reserve(1 + 2 * because.length);
+        explanations[explanationTop++] = because.length;
+        for (long p : because) {
+            addNegation(p);
+        }
+        return -(start + 2);
+    }
+
+    // une borne hors du domaine suffit au conflit, et tient dans un int
+    private int clampLower(int x, long v) {
+        return (int) Math.max(Math.min(v, (long) ub[x] + 1), Integer.MIN_VALUE);
+    }
+
+    private int clampUpper(int x, long v) {
+        return (int) Math.min(Math.max(v, (long) lb[x] - 1), Integer.MAX_VALUE);
+    }
+
+    private int implied(int code, int value, long[] because) {
+        if (isTrue(code, value)) return OK;
+        int start = explanationTop;
+        reserve(3 + 2 * because.length);
+        explanations[explanationTop++] = 1 + because.length;
+        explanations[explanationTop++] = code;
+        explanations[explanationTop++] = value;
+        for (long p : because) {
+            addNegation(p);
+        }
+        return assign(code, value, -(start + 2));
+    }
+
+    private void addNegation(long p) {
+        int code = (int) (p >>> 32);
+        int value = (int) p;
+        // ¬[x ≥ v] = [x ≤ v - 1], ¬[x ≤ v] = [x ≥ v + 1]
+        explanations[explanationTop++] = code ^ 1;
+        explanations[explanationTop++] = ((code & 1) == 0) ? value - 1 : value + 1;
+    }
+
+    private void reserve(int length) {
+        if (explanationTop + length > explanations.length) {
+            explanations = Arrays.copyOf(explanations, Math.max(2 * explanations.length, explanationTop + length));
+        }
+    }
+
+    private int reasonSize(int ref) {
+        return (ref >= 0) ? clauses.size(ref) : explanations[-ref - 2];
+    }
+
+    private int reasonCode(int ref, int i) {
+        return (ref >= 0) ? clauses.code(ref, i) : explanations[-ref - 2 + 1 + 2 * i];
+    }
+
+    private int reasonValue(int ref, int i) {
+        return (ref >= 0) ? clauses.value(ref, i) : explanations[-ref - 2 + 2 + 2 * i];
+    }
+
+    // ---------------------------------------------------------------------
+    // conflits
+    // ---------------------------------------------------------------------
+
+    /*
+     * Apprend du conflit et repart du niveau où la clause apprise est unitaire.
+     * Renvoie false quand le conflit tient à la racine : la recherche est terminée.
+     */
+    private boolean resolve(int conflict) {
+        conflicts++;
+        int deepest = 0;
+        for (int i = 0; i < reasonSize(conflict); i++) {
+            int e = entry(reasonCode(conflict, i), reasonValue(conflict, i));
+            if (e >= 0) deepest = Math.max(deepest, tLevel[e]);
+        }
+        if (deepest == 0) return false;
+        if (deepest < level) {
+            // clause venue d'ailleurs (solution exclue) : on analyse à son niveau
+            backjump(deepest);
+        }
+        int n = analyze(conflict);
+        int target = 0;
+        for (int i = 1; i < n; i++) {
+            int e = entry(codes[i], values[i]);
+            if (e >= 0 && tLevel[e] > target) {
+                target = tLevel[e];
+                // le littéral du niveau le plus haut est surveillé en second
+                swapLiteral(1, i);
+            }
+        }
+        int lbd = lbd(n);
+        backjump(target);
+        int ref = clauses.add(codes, values, n, ClauseArena.LEARNT, lbd);
+        learnts++;
+        if (n >= 2) {
+            watch(codes[0], values[0], ref);
+            watch(codes[1], values[1], ref);
+        }
+        assign(codes[0], values[0], ref);
+        increment /= DECAY;
+        if (increment > 1e100) {
+            for (int x = 0; x < activity.length; x++) {
+                activity[x] *= 1e-100;
+            }
+            increment *= 1e-100;
+        }
+        return true;
+    }
+
+    /*
+     * Entrée de la pile qui a rendu faux le littéral : la plus ancienne qui l'implique,
+     * -1 si le domaine initial suffit (la première entrée part alors d'une borne qui
+     * l'impliquait déjà).
+     */
+    private int entry(int code, int value) {
+        int x = code >> 1;
+        if ((code & 1) == 0) {
+            // [x ≥ v] faux : une borne supérieure ≤ v - 1
+            int e = last[2 * x + 1];
+            if (e < 0 || tNew[e] > value - 1) return -1;
+            while (tPrev[e] >= 0 && tNew[tPrev[e]] <= value - 1) {
+                e = tPrev[e];
+            }
+            return (tOld[e] <= value - 1) ? -1 : e;
+        }
+        int e = last[2 * x];
+        if (e < 0 || tNew[e] < value + 1) return -1;
+        while (tPrev[e] >= 0 && tNew[tPrev[e]] >= value + 1) {
+            e = tPrev[e];
+        }
+        return (tOld[e] >= value + 1) ? -1 : e;
+    }
+
+    /*
+     * Premier point d'implication unique : codes/values reçoivent la clause apprise,
+     * son littéral assertif en tête. Renvoie sa taille.
+     */
+    private int analyze(int conflict) {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        int lowerCount = 0;
+        int pending = 0;
+        int ref = conflict;
+        int from = 0;
+        int index = trailSize - 1;
+        int uip;
+        while (true) {
+            for (int i = from; i < reasonSize(ref); i++) {
+                int code = reasonCode(ref, i);
+                int value = reasonValue(ref, i);
+                int e = entry(code, value);
+                if (e < 0 || tLevel[e] == 0) continue;
+                // seuil du littéral vrai de l'entrée dont on a besoin
+                int threshold = ((code & 1) == 0) ? value - 1 : value + 1;
+                if (seen[e] == stamp) {
+                    // l'entrée doit impliquer les deux littéraux : le plus fort des seuils
+                    need[e] = (tSide[e] == 1) ? Math.min(need[e], threshold) : Math.max(need[e], threshold);
+                    continue;
+                }
+                seen[e] = stamp;
+                need[e] = threshold;
+                activity[tVar[e]] += increment;
+                if (tLevel[e] == level) {
+                    pending++;
+                } else {
+                    if (lowerCount == lower.length) {
+                        lower = Arrays.copyOf(lower, 2 * lowerCount);
+                    }
+                    lower[lowerCount++] = e;
+                }
+            }
+            while (seen[index] != stamp || tLevel[index] != level) {
+                index--;
+            }
+            int e = index--;
+            if (--pending == 0) {
+                uip = e;
+                break;
+            }
+            ref = tReason[e];
+            from = 1;
+        }
+        int n = lowerCount + 1;
+        if (n > codes.length) {
+            codes = Arrays.copyOf(codes, 2 * n);
+            values = Arrays.copyOf(values, 2 * n);
+        }
+        negate(uip, 0);
+        for (int i = 0; i < lowerCount; i++) {
+            negate(lower[i], i + 1);
+        }
+        return n;
+    }
+
+    /* Négation du littéral vrai de l'entrée e au seuil need[e]. */
+    private void negate(int e, int i) {
+        int x = tVar[e];
+        if (tSide[e] == 0) {
+            codes[i] = 2 * x + 1;               // ¬[x ≥ w] = [x ≤ w - 1]
+            values[i] = need[e] - 1;
+        } else {
+            codes[i] = 2 * x;                   // ¬[x ≤ w] = [x ≥ w + 1]
+            values[i] = need[e] + 1;
+        }
+    }
+
+    private void swapLiteral(int i, int j) {
+        int code = codes[i];
+        int value = values[i];
+        codes[i] = codes[j];
+        values[i] = values[j];
+        codes[j] = code;
+        values[j] = value;
+    }
+
+    /* Nombre de niveaux distincts des littéraux de la clause apprise. */
+    private int lbd(int n) {
+        if (levelSeen.length <= level) {
+            levelSeen = new int[2 * level + 1];
+        }
+        int count = 1;
+        levelSeen[level] = stamp;
+        for (int i = 1; i < n; i++) {
+            int e = entry(codes[i], values[i]);
+            int l = (e < 0) ? 0 : tLevel[e];
+            if (levelSeen[l] != stamp) {
+                levelSeen[l] = stamp;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * Retire la moitié des clauses apprises, celles de plus grand LBD, sauf celles qui
+     * servent de raison ; le tableau est compacté quand il est à moitié vide.
+     */
+    private void reduceLearnts() {
+        int[] locked = new int[trailSize];
+        int lockedCount = 0;
+        for (int e = 0; e < trailSize; e++) {
+            if (tReason[e] >= 0) locked[lockedCount++] = tReason[e];
+        }
+        Arrays.sort(locked, 0, lockedCount);
+        List<long[]> candidates = new ArrayList<>();
+        for (int ref = clauses.first(); ref >= 0; ref = clauses.next(ref)) {
+            if (clauses.isLearnt(ref) && !clauses.isDeleted(ref) && clauses.lbd(ref) > 2
+                    && Arrays.binarySearch(locked, 0, lockedCount, ref) < 0) {
+                candidates.add(new long[] {clauses.lbd(ref), ref});
+            }
+        }
+        candidates.sort((a, b) -> Long.compare(b[0], a[0]));
+        for (int k = 0; k < candidates.size() / 2; k++) {
+            clauses.delete((int) candidates.get(k)[1]);
+            learnts--;
+        }
+        maxLearnts += maxLearnts / 10;
+        if (clauses.garbage() * 2 > clauses.footprint()) {
+            int[] forward = clauses.compact();
+            for (int e = 0; e < trailSize; e++) {
+                if (tReason[e] >= 0) tReason[e] = forward[tReason[e]];
+            }
+            Arrays.fill(watchSizes, 0);
+            for (int ref = clauses.first(); ref >= 0; ref = clauses.next(ref)) {
+                if (clauses.size(ref) >= 2) {
+                    watch(clauses.code(ref, 0), clauses.value(ref, 0), ref);
+                    watch(clauses.code(ref, 1), clauses.value(ref, 1), ref);
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // solutions
+    // ---------------------------------------------------------------------
+
+    /*
+     * Toutes les variables sont fixées : le solveur vérifie et enregistre la solution,
+     * puis une clause l'exclut. Renvoie false quand il ne reste rien à explorer.
+     */
+    private boolean solution() {
+        Trail trail = solver.getTrail();
+        long before = solver.getSolutionsCounter();
+        trail.push();
+        try {
+            for (int id = 0; id < lb.length; id++) {
+                if (lb[id] != store.mins[id] || ub[id] != store.maxs[id]) {
+                    store.get(id).init(lb[id], ub[id]);
+                }
+            }
+            solver.visitNode();
+        } finally {
+            trail.pop();
+        }
+        boolean accepted = solver.getSolutionsCounter() != before;
+        if (accepted && optimization != null) {
+            // les solutions suivantes doivent faire mieux
+            Term target = term(optimization.getTarget());
+            long bound = optimization.getBestValue() - 1L;
+            long literal = (target.scale() > 0)
+                    ? literal(2 * target.id() + 1, (int) Math.floorDiv(bound - target.offset(), target.scale()))
+                    : literal(2 * target.id(), (int) Math.ceilDiv(bound - target.offset(), target.scale()));
+            codes[0] = (int) (literal >>> 32);
+            values[0] = (int) literal;
+            int ref = clauses.add(codes, values, 1, 0, 1);
+            backjump(0);
+            return assign(codes[0], values[0], ref) == OK;
+        }
+        // les décisions, propagées, fixent toutes les variables de la recherche : il
+        // suffit d'en nier une, et la clause n'a qu'un littéral par niveau
+        if (level == 0) return false;
+        if (codes.length < level) {
+            codes = new int[level];
+            values = new int[level];
+        }
+        int n = 0;
+        // de la plus récente à la plus ancienne : les deux premières sont surveillées
+        for (int e = trailSize - 1; e >= 0 && n < level; e--) {
+            if (tReason[e] != DECISION) continue;
+            codes[n] = 2 * tVar[e];                  // ¬[x ≤ v] = [x ≥ v + 1]
+            values[n++] = tNew[e] + 1;
+        }
+        int ref = clauses.add(codes, values, n, 0, 0);
+        if (n >= 2) {
+            watch(codes[0], values[0], ref);
+            watch(codes[1], values[1], ref);
+        }
+        return resolve(ref);
+    }
+
+
+
+    // ---------------------------------------------------------------------
+    // propagateurs
+    // ---------------------------------------------------------------------
+
+    /* Opérande a·x + b d'une contrainte, x étant une variable du stockage. */
+    record Term(int id, int scale, int offset) {
+    }
+
+    static Term term(Variable v) {
+        if (v instanceof View view) {
+            return new Term(view.getBase().getId(), view.getScale(), view.getOffset());
+        }
+        return new Term(v.getId(), 1, 0);
+    }
+
+    private static Term term(Variable v, int coef) {
+        Term t = term(v);
+        return new Term(t.id(), Math.multiplyExact(coef, t.scale()), Math.multiplyExact(coef, t.offset()));
+    }
+
+    abstract static class Propagator {
+        final Term[] terms;
+
+        Propagator(Term... terms) {
+            this.terms = terms;
+        }
+
+        int[] ids() {
+            return Arrays.stream(terms).mapToInt(Term::id).distinct().toArray();
+        }
+
+        /* Renvoie la clause en conflit, ou -1. */
+        abstract int propagate(LazyClauseSearch s);
+    }
+
+    private void compile(Constraint c) {
+        if (c.global() instanceof LinearSum sum) {
+            Variable[] vars = sum.getVariables();
+            Term[] terms = new Term[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                terms[i] = term(vars[i], sum.getCoefficients()[i]);
+            }
+            propagators.add(new Linear(terms, sum.getRelation(), sum.getConstant()));
+            return;
+        }
+        if (c.global() instanceof AllDifferent all) {
+            propagators.add(new Different(Arrays.stream(all.getVariables()).map(LazyClauseSearch::term).toArray(Term[]::new)));
+            return;
+        }
+        if (c.global() instanceof Element element) {
+            propagators.add(new ElementOf(element.getArray(), term(element.getIndex()), term(element.getResult())));
+            return;
+        }
+        if (c.global() instanceof AssignmentCost assignment) {
+            decompose(assignment);
+            return;
+        }
+        if (c.global() != null) {
+            throw new IllegalStateException("lazy clause generation does not support " + c.type() + " constraints");
+        }
+        switch (c.type()) {
+            case ADD -> propagators.add(new Add(term(c.result()), term(c.var1()), term(c.var2())));
+            case SUB -> propagators.add(new Sub(term(c.result()), term(c.var1()), term(c.var2())));
+            case MUL -> propagators.add(new Mul(term(c.result()), term(c.var1()), term(c.var2())));
+            case DIV -> propagators.add(new Div(term(c.result()), term(c.var1()), term(c.var2())));
+            case EQ -> {
+                Variable x = (c.var1() != null && c.var2() != null) ? c.var1() : c.result();
+                Variable y = (c.var1() != null && c.var2() != null) ? c.var2() : (c.var1() != null ? c.var1() : c.var2());
+                if (x != null && y != null) {
+                    propagators.add(new Different(true, term(x), term(y)));
+                }
+            }
+            case NEQ -> {
+                if (c.var1() != null && c.var2() != null) {
+                    propagators.add(new Different(term(c.var1()), term(c.var2())));
+                }
+            }
+            default -> throw new IllegalStateException("lazy clause generation does not support " + c.type() + " constraints");
+        }
+    }
+
+    /*
+     * L'affectation avec coût devient ses sommes : une par tâche (= 1), une par agent
+     * (≤ 1) et celle du coût ; sa borne hongroise n'a pas d'explication ici.
+     */
+    private void decompose(AssignmentCost assignment) {
+        Variable[] vars = assignment.getVariables();
+        int[][] costs = assignment.getCosts();
+        int tasks = assignment.getTasks();
+        int agents = assignment.getAgents();
+        for (int t = 0; t < tasks; t++) {
+            Term[] row = new Term[agents];
+            for (int a = 0; a < agents; a++) {
+                row[a] = term(vars[t * agents + a]);
+            }
+            propagators.add(new Linear(row, ConstraintType.EQ, 1));
+        }
+        for (int a = 0; a < agents; a++) {
+            Term[] column = new Term[tasks];
+            for (int t = 0; t < tasks; t++) {
+                column[t] = term(vars[t * agents + a]);
+            }
+            propagators.add(new Linear(column, ConstraintType.LTE, 1));
+        }
+        List<Term> sum = new ArrayList<>();
+        for (int t = 0; t < tasks; t++) {
+            for (int a = 0; a < agents; a++) {
+                if (costs[t][a] != 0) sum.add(term(vars[t * agents + a], costs[t][a]));
+            }
+        }
+        sum.add(term(vars[vars.length - 1], -1));
+        propagators.add(new Linear(sum.toArray(Term[]::new), ConstraintType.EQ, 0));
+    }
+
+    /* r = a + b */
+    private static final class Add extends Propagator {
+        Add(Term r, Term a, Term b) {
+            super(r, a, b);
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            Term r = terms[0], a = terms[1], b = terms[2];
+            int c;
+            if ((c = s.atLeast(r, s.min(a) + s.min(b), s.lo(a), s.lo(b))) != OK) return c;
+            if ((c = s.atMost(r, s.max(a) + s.max(b), s.hi(a), s.hi(b))) != OK) return c;
+            if ((c = s.atLeast(a, s.min(r) - s.max(b), s.lo(r), s.hi(b))) != OK) return c;
+            if ((c = s.atMost(a, s.max(r) - s.min(b), s.hi(r), s.lo(b))) != OK) return c;
+            if ((c = s.atLeast(b, s.min(r) - s.max(a), s.lo(r), s.hi(a))) != OK) return c;
+            return s.atMost(b, s.max(r) - s.min(a), s.hi(r), s.lo(a));
+        }
+    }
+
+    /*
+     * r = array[i] sur les bornes : les positions extrêmes de i sont celles dont la valeur
+     * tombe dans les bornes de r, et r est borné par les valeurs entre elles.
+     */
+    private static final class ElementOf extends Propagator {
+        private final int[] array;
+
+        ElementOf(int[] array, Term i, Term r) {
+            super(i, r);
+            this.array = array;
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            Term i = terms[0], r = terms[1];
+            long lo = Math.max(s.min(i), 0);
+            long hi = Math.min(s.max(i), array.length - 1L);
+            long rMin = s.min(r);
+            long rMax = s.max(r);
+            long first = lo;
+            while (first <= hi && (array[(int) first] < rMin || array[(int) first] > rMax)) first++;
+            if (first > hi) return s.fail(s.lo(i), s.hi(i), s.lo(r), s.hi(r));
+            long last = hi;
+            while (array[(int) last] < rMin || array[(int) last] > rMax) last--;
+            int c;
+            // hors du tableau, une position n'a pas besoin de raison
+            if ((c = s.atLeast(i, first, s.lo(i), s.lo(r), s.hi(r))) != OK) return c;
+            if ((c = s.atMost(i, last, s.hi(i), s.lo(r), s.hi(r))) != OK) return c;
+            long low = Long.MAX_VALUE;
+            long high = Long.MIN_VALUE;
+            for (int k = (int) first; k <= last; k++) {
+                low = Math.min(low, array[k]);
+                high = Math.max(high, array[k]);
+            }
+            if ((c = s.atLeast(r, low, s.lo(i), s.hi(i))) != OK) return c;
+            return s.atMost(r, high, s.lo(i), s.hi(i));
+        }
+    }
+
+    /* r = a - b */
+    private static final class Sub extends Propagator {
+        Sub(Term r, Term a, Term b) {
+            super(r, a, b);
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            Term r = terms[0], a = terms[1], b = terms[2];
+            int c;
+            if ((c = s.atLeast(r, s.min(a) - s.max(b), s.lo(a), s.hi(b))) != OK) return c;
+            if ((c = s.atMost(r, s.max(a) - s.min(b), s.hi(a), s.lo(b))) != OK) return c;
+            if ((c = s.atLeast(a, s.min(r) + s.min(b), s.lo(r), s.lo(b))) != OK) return c;
+            if ((c = s.atMost(a, s.max(r) + s.max(b), s.hi(r), s.hi(b))) != OK) return c;
+            if ((c = s.atLeast(b, s.min(a) - s.max(r), s.lo(a), s.hi(r))) != OK) return c;
+            return s.atMost(b, s.max(a) - s.min(r), s.hi(a), s.lo(r));
+        }
+    }
+
+    /* r = a · b ; l'inverse n'est appliqué que si le diviseur ne contient pas 0 */
+    private static final class Mul extends Propagator {
+        Mul(Term r, Term a, Term b) {
+            super(r, a, b);
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            Term r = terms[0], a = terms[1], b = terms[2];
+            int c;
+            long[] products = {s.min(a) * s.min(b), s.min(a) * s.max(b), s.max(a) * s.min(b), s.max(a) * s.max(b)};
+            long[] because = {s.lo(a), s.hi(a), s.lo(b), s.hi(b)};
+            if ((c = s.atLeast(r, Arrays.stream(products).min().getAsLong(), because)) != OK) return c;
+            if ((c = s.atMost(r, Arrays.stream(products).max().getAsLong(), because)) != OK) return c;
+            if ((c = inverse(s, r, a, b)) != OK) return c;
+            return inverse(s, r, b, a);
+        }
+
+        /* x = r / d quand d ne contient pas 0 : bornes aux coins, arrondies vers l'intérieur */
+        private static int inverse(LazyClauseSearch s, Term r, Term d, Term x) {
+            if (s.min(d) <= 0 && s.max(d) >= 0) return OK;
+            long[] rs = {s.min(r), s.max(r)};
+            long[] ds = {s.min(d), s.max(d)};
+            long low = Long.MAX_VALUE;
+            long high = Long.MIN_VALUE;
+            for (long n : rs) {
+                for (long q : ds) {
+                    low = Math.min(low, Math.ceilDiv(n, q));
+                    high = Math.max(high, Math.floorDiv(n, q));
+                }
+            }
+            long[] because = {s.lo(r), s.hi(r), s.lo(d), s.hi(d)};
+            int c;
+            if ((c = s.atLeast(x, low, because)) != OK) return c;
+            return s.atMost(x, high, because);
+        }
+    }
+
+    /* r = a / b, avec les mêmes règles que le Reducer */
+    private static final class Div extends Propagator {
+        Div(Term r, Term a, Term b) {
+            super(r, a, b);
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            Term r = terms[0], a = terms[1], b = terms[2];
+            if (s.min(b) <= 0 && s.max(b) >= 0) return OK;
+            int c;
+            long[] ab = {s.lo(a), s.hi(a), s.lo(b), s.hi(b)};
+            Interval q = s.interval(a).div(s.interval(b));
+            if ((c = s.atLeast(r, q.getMin(), ab)) != OK) return c;
+            if ((c = s.atMost(r, q.getMax(), ab)) != OK) return c;
+            long[] rb = {s.lo(r), s.hi(r), s.lo(b), s.hi(b)};
+            Interval p = s.interval(r).mul(s.interval(b));
+            if ((c = s.atLeast(a, p.getMin(), rb)) != OK) return c;
+            if ((c = s.atMost(a, p.getMax(), rb)) != OK) return c;
+            if (s.min(r) <= 0 && s.max(r) >= 0) return OK;
+            long[] ar = {s.lo(a), s.hi(a), s.lo(r), s.hi(r)};
+            Interval d = s.interval(a).div(s.interval(r));
+            if ((c = s.atLeast(b, d.getMin(), ar)) != OK) return c;
+            return s.atMost(b, d.getMax(), ar);
+        }
+    }
+
+    private Interval interval(Term t) {
+        return new Interval((int) min(t), (int) max(t));
+    }
+
+    /* Deux à deux différents, ou égaux (EQ) pour une paire. */
+    private static final class Different extends Propagator {
+        private final boolean equal;
+
+        Different(Term... terms) {
+            this(false, terms);
+        }
+
+        Different(boolean equal, Term... terms) {
+            super(terms);
+            this.equal = equal;
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            int c;
+            if (equal) {
+                Term x = terms[0], y = terms[1];
+                if ((c = s.atLeast(x, s.min(y), s.lo(y))) != OK) return c;
+                if ((c = s.atMost(x, s.max(y), s.hi(y))) != OK) return c;
+                if ((c = s.atLeast(y, s.min(x), s.lo(x))) != OK) return c;
+                return s.atMost(y, s.max(x), s.hi(x));
+            }
+            // une valeur fixée est retirée des bornes des autres
+            for (Term fixed : terms) {
+                if (!s.isFixed(fixed)) continue;
+                long v = s.min(fixed);
+                for (Term other : terms) {
+                    if (other == fixed) continue;
+                    if (s.min(other) == v) {
+                        if ((c = s.atLeast(other, v + 1, s.lo(fixed), s.hi(fixed), s.lo(other))) != OK) return c;
+                    }
+                    if (s.max(other) == v) {
+                        if ((c = s.atMost(other, v - 1, s.lo(fixed), s.hi(fixed), s.hi(other))) != OK) return c;
+                    }
+                }
+            }
+            return OK;
+        }
+    }
+
+    /* Σ tᵢ ⊙ constant, les coefficients étant dans les termes */
+    private static final class Linear extends Propagator {
+        private final ConstraintType relation;
+        private final long constant;
+
+        Linear(Term[] terms, ConstraintType relation, int constant) {
+            super(terms);
+            this.relation = relation;
+            this.constant = constant;
+        }
+
+        @Override
+        int propagate(LazyClauseSearch s) {
+            return (relation == ConstraintType.NEQ) ? notEqual(s) : bounds(s);
+        }
+
+        private int bounds(LazyClauseSearch s) {
+            int n = terms.length;
+            int c;
+            if (relation != ConstraintType.GTE) {
+                // chaque terme au plus la constante moins le minimum des autres
+                long lo = 0;
+                for (Term t : terms) lo += s.min(t);
+                for (int i = 0; i < n; i++) {
+                    long upper = constant - (lo - s.min(terms[i]));
+                    if (upper < s.max(terms[i])) {
+                        long[] because = new long[n - 1];
+                        for (int j = 0, k = 0; j < n; j++) {
+                            if (j != i) because[k++] = s.lo(terms[j]);
+                        }
+                        long before = s.min(terms[i]);
+                        if ((c = s.atMost(terms[i], upper, because)) != OK) return c;
+                        lo += s.min(terms[i]) - before;
+                    }
+                }
+            }
+            if (relation != ConstraintType.LTE) {
+                long hi = 0;
+                for (Term t : terms) hi += s.max(t);
+                for (int i = 0; i < n; i++) {
+                    long lower = constant - (hi - s.max(terms[i]));
+                    if (lower > s.min(terms[i])) {
+                        long[] because = new long[n - 1];
+                        for (int j = 0, k = 0; j < n; j++) {
+                            if (j != i) because[k++] = s.hi(terms[j]);
+                        }
+                        long before = s.max(terms[i]);
+                        if ((c = s.atLeast(terms[i], lower, because)) != OK) return c;
+                        hi += s.max(terms[i]) - before;
+                    }
+                }
+            }
+            return OK;
+        }
+
+        /* Seul le dernier terme libre est filtré, à ses bornes. */
+        private int notEqual(LazyClauseSearch s) {
+            int free = -1;
+            long fixed = 0;
+            for (int i = 0; i < terms.length; i++) {
+                if (s.isFixed(terms[i])) {
+                    fixed += s.min(terms[i]);
+                } else if (free < 0) {
+                    free = i;
+                } else {
+                    return OK;
+                }
+            }
+            long[] because = new long[2 * terms.length];
+            int k = 0;
+            for (int j = 0; j < terms.length; j++) {
+                if (j != free) {
+                    because[k++] = s.lo(terms[j]);
+                    because[k++] = s.hi(terms[j]);
+                }
+            }
+            if (free < 0) {
+                return (fixed == constant) ? s.fail(Arrays.copyOf(because, k)) : OK;
+            }
+            Term t = terms[free];
+            long v = constant - fixed;
+            int c;
+            if (s.min(t) == v) {
+                because[k] = s.lo(t);
+                if ((c = s.atLeast(t, v + 1, Arrays.copyOf(because, k + 1))) != OK) return c;
+            }
+            if (s.max(t) == v) {
+                because[k] = s.hi(t);
+                return s.atMost(t, v - 1, Arrays.copyOf(because, k + 1));
+            }
+            return OK;
+        }
+    }
+}
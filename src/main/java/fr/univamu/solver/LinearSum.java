@@ -0,0 +1,176 @@
+package fr.univamu.solver;
+
+/**
+ * Contrainte linéaire Σ aᵢ·xᵢ ⊙ c, où ⊙ est =, ≤, ≥ ou ≠.
+ * La propagation tient à jour le minimum et le maximum de la somme en parcourant les
+ * variables : chaque terme est borné par la constante moins la somme extrême des
+ * autres, et les sommes courantes sont mises à jour dès qu'un terme se réduit ; un
+ * appel coûte donc O(n), quel que soit le nombre de variables modifiées.
+ */
+public class LinearSum extends GlobalConstraint {
+
+    private final int[] coefs;
+    private final ConstraintType relation;
+    private final int constant;
+
+    /**
+     * @param relation one of {@code EQ}, {@code LTE}, {@code GTE} or {@code NEQ}.
+     */
+    public LinearSum(int[] coefs, Variable[] vars, ConstraintType relation, int constant) {
+        super(vars);
+        if (vars.length == 0 || coefs.length != vars.length) {
+            throw new IllegalArgumentException("one coefficient per variable expected");
+        }
+        for (int a : coefs) {
+            if (a == 0) throw new IllegalArgumentException("zero coefficient");
+        }
+        switch (relation) {
+            case EQ, LTE, GTE, NEQ -> { }
+            default -> throw new IllegalArgumentException("bad linear relation: " + relation);
+        }
+        this.coefs = coefs;
+        this.relation = relation;
+        this.constant = constant;
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.LINEAR;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new LinearSum(coefs, vars, relation, constant);
+    }
+
+    public int[] getCoefficients() {
+        return coefs;
+    }
+
+    public ConstraintType getRelation() {
+        return relation;
+    }
+
+    public int getConstant() {
+        return constant;
+    }
+
+    @Override
+    public boolean reduce() {
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i].isEmpty()) return false;
+            lo += termMin(i);
+            hi += termMax(i);
+        }
+        if (relation == ConstraintType.NEQ) {
+            return reduceNotEqual(lo, hi);
+        }
+        if ((relation != ConstraintType.GTE && lo > constant)
+                || (relation != ConstraintType.LTE && hi < constant)) {
+            fail();
+            return true;
+        }
+        boolean modified = false;
+        for (int i = 0; i < vars.length; i++) {
+            long termLo = termMin(i);
+            long termHi = termMax(i);
+            // bornes du terme aᵢ·xᵢ déduites des autres termes
+            long upper = (relation == ConstraintType.GTE) ? Long.MAX_VALUE : constant - (lo - termLo);
+            long lower = (relation == ConstraintType.LTE) ? Long.MIN_VALUE : constant - (hi - termHi);
+            if (lower <= termLo && upper >= termHi) continue;
+            Variable x = vars[i];
+            int a = coefs[i];
+            long newMin = x.getMin();
+            long newMax = x.getMax();
+            if (a > 0) {
+                if (lower > termLo) newMin = Math.ceilDiv(lower, a);
+                if (upper < termHi) newMax = Math.floorDiv(upper, a);
+            } else {
+                if (upper < termHi) newMin = Math.ceilDiv(upper, a);
+                if (lower > termLo) newMax = Math.floorDiv(lower, a);
+            }
+            if (newMin > newMax) {
+                fail();
+                return true;
+            }
+            modified = x.reduce((int) Math.max(newMin, x.getMin()), (int) Math.min(newMax, x.getMax())) || modified;
+            if (x.isEmpty()) return true;
+            lo += termMin(i) - termLo;
+            hi += termMax(i) - termHi;
+        }
+        return modified;
+    }
+
+    /*
+     * Seul le dernier terme libre peut être filtré : sa valeur interdite est retirée.
+     */
+    private boolean reduceNotEqual(long lo, long hi) {
+        int free = -1;
+        long fixed = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i].isOneValue()) {
+                fixed += (long) coefs[i] * vars[i].getMin();
+            } else if (free < 0) {
+                free = i;
+            } else {
+                return false;
+            }
+        }
+        if (free < 0) {
+            if (lo == constant && hi == constant) {
+                fail();
+                return true;
+            }
+            return false;
+        }
+        long rest = constant - fixed;
+        int a = coefs[free];
+        if (rest % a != 0) return false;
+        long value = rest / a;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) return false;
+        return vars[free].reduceExcept((int) value);
+    }
+
+    @Override
+    public boolean check() {
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i].isEmpty()) return false;
+            lo += termMin(i);
+            hi += termMax(i);
+        }
+        return switch (relation) {
+            case EQ -> lo <= constant && constant <= hi;
+            case LTE -> lo <= constant;
+            case GTE -> hi >= constant;
+            default -> lo != hi || lo != constant;
+        };
+    }
+
+    private long termMin(int i) {
+        int a = coefs[i];
+        return (long) a * ((a > 0) ? vars[i].getMin() : vars[i].getMax());
+    }
+
+    private long termMax(int i) {
+        int a = coefs[i];
+        return (long) a * ((a > 0) ? vars[i].getMax() : vars[i].getMin());
+    }
+
+    private void fail() {
+        vars[0].reduce(1, -1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < vars.length; i++) {
+            if (i > 0) sb.append(" + ");
+            sb.append(coefs[i]).append('·').append(vars[i].isNamed() ? vars[i].getName() : vars[i]);
+        }
+        return sb.append(' ').append(relation).append(' ').append(constant).toString();
+    }
+}
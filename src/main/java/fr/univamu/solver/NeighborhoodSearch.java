@@ -0,0 +1,258 @@
+package fr.univamu.solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * Recherche à grands voisinages autour de la meilleure solution.
+ * Chaque voisinage est exploré en profondeur, avec une pile explicite comme dans
+ * RestartSearch, sous son propre niveau de trail : les variables nommées hors du
+ * voisinage sont fixées à leurs valeurs courantes et l'objectif sous la meilleure
+ * valeur. Les solutions trouvées passent par Solver.visitNode, qui les enregistre et
+ * abaisse la meilleure valeur, et la dernière devient la nouvelle solution courante.
+ */
+final class NeighborhoodSearch {
+
+    private static final double GROWTH = 1.25;
+
+    private final Solver solver;
+    private final Trail trail;
+    private final DomainStore store;
+    private final Neighborhoods policy;
+    private final OptimizationStrategy optimization;
+    private final Random random;
+    private final long deadline;
+    private long neighborhoods = 0;
+    private boolean optimal = false;
+
+    // variables que les voisinages relâchent, valeurs dans la meilleure solution
+    private final int[] relaxable;
+    private final int[] incumbent;
+    private boolean hasIncumbent = false;
+    private final boolean[] relaxed;
+    // pour les voisinages structurés : contraintes de chaque variable, hors objectif
+    private int[][] constraintsOf;
+    private int[][] scopes;
+
+    // pile des points de choix : variable, branches et position de la branche courante
+    private Variable[] vars = new Variable[16];
+    private int[][] branches = new int[16][];
+    private int[] positions = new int[16];
+    private int depth = 0;
+
+    NeighborhoodSearch(Solver solver, Neighborhoods policy, OptimizationStrategy optimization) {
+        this.solver = solver;
+        this.trail = solver.getTrail();
+        this.store = solver.getStore();
+        this.policy = policy;
+        this.optimization = optimization;
+        this.random = new Random(policy.getSeed());
+        this.deadline = (policy.getTimeLimit() > 0) ? System.nanoTime() + policy.getTimeLimit() * 1_000_000 : 0;
+        int target = optimization.getTarget().getId();
+        this.relaxable = Arrays.stream(solver.getSearchIds())
+                .filter(id -> id != target && store.get(id).isNamed() && store.mins[id] < store.maxs[id])
+                .toArray();
+        this.incumbent = new int[relaxable.length];
+        this.relaxed = new boolean[relaxable.length];
+        if (policy.isStructured()) {
+            graph(target);
+        }
+    }
+
+    /* Nombre de voisinages explorés. */
+    long getNeighborhoods() {
+        return neighborhoods;
+    }
+
+    /* Vrai si la dernière recherche a prouvé l'optimalité de la meilleure solution. */
+    boolean isOptimal() {
+        return optimal;
+    }
+
+    /*
+     * Le niveau de la racine est déjà empilé et la stratégie préparée par before().
+     */
+    void run() {
+        int rootLevel = trail.getLevel();
+        // première solution, ou preuve qu'il n'y en a pas
+        if (explore(Long.MAX_VALUE, true)) {
+            optimal = true;
+            return;
+        }
+        trail.backtrack(rootLevel);
+        if (!hasIncumbent) return;
+        double fraction = policy.getFraction();
+        int stall = 0;
+        while (stall < policy.getStallLimit() && !timeUp()) {
+            int size = (int) Math.ceil(fraction * relaxable.length);
+            choose(size);
+            neighborhoods++;
+            int best = optimization.getBestValue();
+            trail.push();
+            fix();
+            boolean complete = explore(solver.getNodesCounter() + policy.getNodes(), false);
+            trail.backtrack(rootLevel);
+            if (optimization.getBestValue() < best) {
+                stall = 0;
+                continue;
+            }
+            if (complete && size >= relaxable.length) {
+                // tout le problème a été parcouru sans trouver mieux
+                optimal = true;
+                return;
+            }
+            stall++;
+            if (policy.isAdaptive()) {
+                fraction = complete ? Math.min(1, fraction * GROWTH)
+                        : Math.max(1.0 / Math.max(1, relaxable.length), fraction / GROWTH);
+            }
+        }
+    }
+
+    private boolean timeUp() {
+        return deadline != 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    /* Fixe les variables hors du voisinage et borne l'objectif par la meilleure valeur. */
+    private void fix() {
+        for (int i = 0; i < relaxable.length; i++) {
+            if (!relaxed[i]) {
+                store.get(relaxable[i]).init(incumbent[i], incumbent[i]);
+            }
+        }
+        Variable target = optimization.getTarget();
+        target.reduce(target.getMin(), optimization.getBestValue() - 1);
+    }
+
+    /*
+     * Parcourt l'arbre sous le niveau courant jusqu'à la limite de noeuds, ou jusqu'à la
+     * première solution si firstOnly. Renvoie true si l'arbre a été exploré jusqu'au bout.
+     */
+    private boolean explore(long limit, boolean firstOnly) {
+        depth = 0;
+        boolean visit = true;
+        while (true) {
+            if (visit) {
+                if (solver.getNodesCounter() >= limit || timeUp()) return false;
+                long solutions = solver.getSolutionsCounter();
+                var v = solver.visitNode();
+                if (solver.getSolutionsCounter() != solutions) {
+                    for (int i = 0; i < relaxable.length; i++) {
+                        incumbent[i] = store.mins[relaxable[i]];
+                    }
+                    hasIncumbent = true;
+                    if (firstOnly) return false;
+                }
+                visit = (v != null) && pushChoice(v);
+                continue;
+            }
+            if (depth == 0) return true;
+            int top = depth - 1;
+            trail.undo();
+            int next = positions[top] + 2;
+            if (next < branches[top].length) {
+                positions[top] = next;
+                vars[top].init(branches[top][next], branches[top][next + 1]);
+                visit = true;
+            } else {
+                trail.pop();
+                depth--;
+            }
+        }
+    }
+
+    private boolean pushChoice(Variable v) {
+        int[] choices = solver.branches(v);
+        if (choices.length == 0) {
+            return false;
+        }
+        if (depth == vars.length) {
+            int capacity = depth * 2;
+            vars = Arrays.copyOf(vars, capacity);
+            branches = Arrays.copyOf(branches, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        vars[depth] = v;
+        branches[depth] = choices;
+        positions[depth] = 0;
+        depth++;
+        trail.push();
+        v.init(choices[0], choices[1]);
+        return true;
+    }
+
+    /* Marque les size variables du prochain voisinage. */
+    private void choose(int size) {
+        Arrays.fill(relaxed, false);
+        if (size >= relaxable.length) {
+            Arrays.fill(relaxed, true);
+            return;
+        }
+        if (!policy.isStructured()) {
+            // tirage de Floyd : size indices distincts
+            for (int j = relaxable.length - size; j < relaxable.length; j++) {
+                int i = random.nextInt(j + 1);
+                relaxed[relaxed[i] ? j : i] = true;
+            }
+            return;
+        }
+        int[] position = new int[store.size()];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < relaxable.length; i++) {
+            position[relaxable[i]] = i;
+        }
+        boolean[] reached = new boolean[store.size()];
+        int count = 0;
+        while (count < size) {
+            // nouveau départ au hasard quand la composante est épuisée
+            int start = relaxable[random.nextInt(relaxable.length)];
+            if (reached[start]) continue;
+            var queue = new ArrayDeque<Integer>();
+            queue.add(start);
+            reached[start] = true;
+            while (!queue.isEmpty() && count < size) {
+                int id = queue.poll();
+                if (position[id] >= 0) {
+                    relaxed[position[id]] = true;
+                    count++;
+                }
+                for (int c : constraintsOf[id]) {
+                    for (int other : scopes[c]) {
+                        if (!reached[other]) {
+                            reached[other] = true;
+                            queue.add(other);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /* Graphe des contraintes, sans celles qui portent sur l'objectif. */
+    private void graph(int target) {
+        var constraints = solver.getConstraints();
+        scopes = new int[constraints.size()][];
+        int[] degrees = new int[store.size()];
+        for (int c = 0; c < constraints.size(); c++) {
+            int[] scope = Arrays.stream(constraints.get(c).scope()).mapToInt(Variable::getId).distinct().toArray();
+            if (Arrays.stream(scope).anyMatch(id -> id == target)) {
+                scope = new int[0];
+            }
+            scopes[c] = scope;
+            for (int id : scope) {
+                degrees[id]++;
+            }
+        }
+        constraintsOf = new int[store.size()][];
+        for (int id = 0; id < store.size(); id++) {
+            constraintsOf[id] = new int[degrees[id]];
+        }
+        Arrays.fill(degrees, 0);
+        for (int c = 0; c < scopes.length; c++) {
+            for (int id : scopes[c]) {
+                constraintsOf[id][degrees[id]++] = c;
+            }
+        }
+    }
+}
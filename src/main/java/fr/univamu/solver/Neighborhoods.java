@@ -0,0 +1,135 @@
+package fr.univamu.solver;
+
+/**
+ * Recherche à grands voisinages (LNS) pour une stratégie d'optimisation.
+ * La recherche trouve d'abord une solution, puis fixe à répétition les variables
+ * nommées hors d'un voisinage à leurs valeurs dans la meilleure solution et cherche
+ * dans le voisinage une solution strictement meilleure, dans une limite de noeuds. Les
+ * voisinages sont soit aléatoires, soit étendus par les contraintes à partir d'une
+ * variable tirée au hasard (les contraintes sur l'objectif ne sont pas suivies, elles
+ * relient tout). Avec une taille adaptative, un voisinage exploré jusqu'au bout sans
+ * amélioration agrandit les suivants, et un voisinage arrêté par sa limite de noeuds
+ * les réduit ; quand le problème entier est exploré jusqu'au bout, la meilleure
+ * solution est optimale. La recherche s'arrête alors, après un nombre de voisinages
+ * consécutifs sans amélioration, ou quand son temps est écoulé, la meilleure solution
+ * trouvée étant la dernière rapportée.
+ */
+public final class Neighborhoods {
+
+    private final boolean structured;
+    private final double fraction;
+    private final long nodes;
+    private final long timeLimit;
+    private final int stallLimit;
+    private final boolean adaptive;
+    private final long seed;
+
+    private Neighborhoods(boolean structured, double fraction, long nodes, long timeLimit, int stallLimit,
+            boolean adaptive, long seed) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("fraction must be in (0, 1]: " + fraction);
+        }
+        if (nodes <= 0) {
+            throw new IllegalArgumentException("nodes must be positive: " + nodes);
+        }
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("time limit must not be negative: " + timeLimit);
+        }
+        if (stallLimit <= 0) {
+            throw new IllegalArgumentException("stall limit must be positive: " + stallLimit);
+        }
+        this.structured = structured;
+        this.fraction = fraction;
+        this.nodes = nodes;
+        this.timeLimit = timeLimit;
+        this.stallLimit = stallLimit;
+        this.adaptive = adaptive;
+        this.seed = seed;
+    }
+
+    /**
+     * Neighborhoods of {@code fraction} of the named variables, drawn at random;
+     * 1000 nodes each, adaptive size, no time limit, stop after 100 neighborhoods
+     * without improvement.
+     */
+    public static Neighborhoods random(double fraction) {
+        return new Neighborhoods(false, fraction, 1000, 0, 100, true, 0);
+    }
+
+    /**
+     * Neighborhoods of {@code fraction} of the named variables, linked by the
+     * constraints; same defaults as {@link #random}.
+     */
+    public static Neighborhoods structured(double fraction) {
+        return new Neighborhoods(true, fraction, 1000, 0, 100, true, 0);
+    }
+
+    /**
+     * Nodes allowed to the search of each neighborhood.
+     */
+    public Neighborhoods withNodes(long nodes) {
+        return new Neighborhoods(structured, fraction, nodes, timeLimit, stallLimit, adaptive, seed);
+    }
+
+    /**
+     * Time budget of the whole search in milliseconds, 0 for none.
+     */
+    public Neighborhoods withTimeLimit(long millis) {
+        return new Neighborhoods(structured, fraction, nodes, millis, stallLimit, adaptive, seed);
+    }
+
+    /**
+     * Number of neighborhoods in a row without improvement after which the search stops.
+     */
+    public Neighborhoods withStallLimit(int neighborhoods) {
+        return new Neighborhoods(structured, fraction, nodes, timeLimit, neighborhoods, adaptive, seed);
+    }
+
+    /**
+     * Whether the size of the neighborhoods follows their outcome, or stays the same.
+     */
+    public Neighborhoods withAdaptiveSize(boolean adaptive) {
+        return new Neighborhoods(structured, fraction, nodes, timeLimit, stallLimit, adaptive, seed);
+    }
+
+    /**
+     * Seed of the random choices, so that a search can be replayed.
+     */
+    public Neighborhoods withSeed(long seed) {
+        return new Neighborhoods(structured, fraction, nodes, timeLimit, stallLimit, adaptive, seed);
+    }
+
+    boolean isStructured() {
+        return structured;
+    }
+
+    double getFraction() {
+        return fraction;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    long getTimeLimit() {
+        return timeLimit;
+    }
+
+    int getStallLimit() {
+        return stallLimit;
+    }
+
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return (structured ? "structured " : "random ") + fraction + ", " + nodes + " nodes"
+                + (adaptive ? ", adaptive" : "") + (timeLimit > 0 ? ", " + timeLimit + " ms" : "");
+    }
+}
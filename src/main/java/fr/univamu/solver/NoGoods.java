@@ -0,0 +1,124 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/*
+ * Nogoods appris par une recherche avec redémarrages : conjonctions de littéraux
+ * x ∈ [min, max] qui ne mènent à aucune nouvelle solution. Ils vivent hors des
+ * contraintes du modèle, le temps d'une recherche, et sont propagés par le solveur après
+ * le réducteur : un nogood dont tous les littéraux sont vrais fait échouer le noeud, et
+ * quand tous sauf un le sont, la plage du dernier est retirée de sa variable, si elle
+ * touche une borne ou se réduit à une valeur.
+ */
+final class NoGoods {
+
+    /** Widest interior range removed value by value. */
+    static final int MAX_HOLES = 64;
+
+    private final DomainStore store;
+    // littéraux à plat ; le nogood k occupe les indices starts[k] à starts[k + 1] - 1
+    private int[] ids = new int[64];
+    private int[] mins = new int[64];
+    private int[] maxs = new int[64];
+    private int[] starts = new int[17];
+    private int count = 0;
+
+    NoGoods(DomainStore store) {
+        this.store = store;
+    }
+
+    /*
+     * Ajoute la conjonction des n premiers littéraux donnés.
+     */
+    void add(int[] ids, int[] mins, int[] maxs, int n) {
+        int start = starts[count];
+        if (start + n > this.ids.length) {
+            int capacity = Math.max(2 * this.ids.length, start + n);
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.mins = Arrays.copyOf(this.mins, capacity);
+            this.maxs = Arrays.copyOf(this.maxs, capacity);
+        }
+        if (count + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, 2 * starts.length);
+        }
+        System.arraycopy(ids, 0, this.ids, start, n);
+        System.arraycopy(mins, 0, this.mins, start, n);
+        System.arraycopy(maxs, 0, this.maxs, start, n);
+        starts[++count] = start + n;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    /*
+     * Un passage sur les nogoods : -1 si l'un d'eux est violé, 1 si des domaines ont
+     * été réduits, 0 sinon.
+     */
+    int propagate() {
+        final int[] lows = store.mins;
+        final int[] highs = store.maxs;
+        boolean changed = false;
+        for (int k = 0; k < count; k++) {
+            int free = -1;
+            for (int i = starts[k]; i < starts[k + 1]; i++) {
+                int min = lows[ids[i]];
+                int max = highs[ids[i]];
+                if (max < mins[i] || min > maxs[i]) {
+                    free = -2;          // littéral faux : nogood satisfait
+                    break;
+                }
+                if (min >= mins[i] && max <= maxs[i]) continue;
+                if (free >= 0) {
+                    free = -2;          // deux littéraux indécis
+                    break;
+                }
+                free = i;
+            }
+            if (free == -1) return -1;
+            if (free >= 0) {
+                Variable v = store.get(ids[free]);
+                changed = exclude(v, mins[free], maxs[free]) || changed;
+                if (v.isEmpty()) return -1;
+            }
+        }
+        return changed ? 1 : 0;
+    }
+
+    /*
+     * Faux si toutes les valeurs du noeud courant sont couvertes par un nogood.
+     */
+    boolean check() {
+        final int[] lows = store.mins;
+        final int[] highs = store.maxs;
+        for (int k = 0; k < count; k++) {
+            boolean entailed = true;
+            for (int i = starts[k]; i < starts[k + 1] && entailed; i++) {
+                entailed = lows[ids[i]] >= mins[i] && highs[ids[i]] <= maxs[i];
+            }
+            if (entailed) return false;
+        }
+        return true;
+    }
+
+    private static boolean exclude(Variable v, int min, int max) {
+        if (min <= v.getMin()) {
+            return v.reduce(max + 1, v.getMax());
+        }
+        if (max >= v.getMax()) {
+            return v.reduce(v.getMin(), min - 1);
+        }
+        if (max - min >= MAX_HOLES) {
+            return false;
+        }
+        boolean changed = false;
+        for (int value = min; value <= max; value++) {
+            changed = v.reduceExcept(value) || changed;
+        }
+        return changed;
+    }
+}
@@ -1,34 +1,68 @@
 package fr.univamu.solver;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 
 public class OptimizationStrategy extends AlwaysReduceStrategy {
 
     private final Variable target;
-    private int bestValue = Integer.MAX_VALUE;
+    private final AtomicInteger bestValue;
 
     public OptimizationStrategy(Variable target) {
+        this(target, new AtomicInteger(Integer.MAX_VALUE));
+    }
+
+    /*
+     * Stratégie partageant la meilleure valeur connue avec d'autres recherches.
+     */
+    OptimizationStrategy(Variable target, AtomicInteger bestValue) {
         this.target = target;
+        this.bestValue = bestValue;
     }
 
     @Override
     public boolean before(Solver solver) {
-        solver.reduce();
-        return solver.checkConstraints();
+        return solver.reduce() && solver.checkConstraints();
     }
 
     @Override
     public boolean check(Solver solver) {
-        solver.reduce();
-        if (target.getMin() > bestValue) {
+        // la meilleure valeur borne l'objectif avant la propagation (les égalités restent permises)
+        int best = bestValue.get();
+        if (target.getMax() > best) {
+            target.reduce(target.getMin(), best);
+        }
+        if (!solver.reduce()) {
+            return false;
+        }
+        if (target.getMin() > bestValue.get()) {
             return false;
         }
         return solver.checkConstraints();
     }
 
     public void updateBest(Solver solver) {
-        if (target.isOneValue() && target.getMin() < bestValue) {
-            bestValue = target.getMin();
-            target.reduce(target.getMin(), bestValue);
+        if (target.isOneValue()) {
+            bestValue.accumulateAndGet(target.getMin(), Math::min);
         }
     }
+
+    /**
+     * The copy works on the copied target and shares the best value with this strategy.
+     */
+    @Override
+    public IStrategy copy(Function<Variable, Variable> map) {
+        var copy = new OptimizationStrategy(map.apply(target), bestValue);
+        copy.setBranching((getBranching() == null) ? null : getBranching().copy());
+        return copy;
+    }
+
+    public Variable getTarget() {
+        return target;
+    }
+
+    public int getBestValue() {
+        return bestValue.get();
+    }
 }
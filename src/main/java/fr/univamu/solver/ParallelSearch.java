@@ -0,0 +1,98 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recherche parallèle par vol de tâches.
+ * Une tâche est un noeud de recherche, transporté comme un instantané des domaines.
+ * Chaque thread charge ses tâches dans sa propre copie du modèle : les domaines ne
+ * sont jamais partagés. Un noeud est découpé en une tâche par branche tant que la file
+ * du thread est presque vide ; sinon son sous-arbre est exploré séquentiellement.
+ * Avec une stratégie d'optimisation, les copies partagent la meilleure valeur (voir
+ * OptimizationStrategy#copy) : une borne trouvée par un thread élague les autres à
+ * leur noeud suivant.
+ */
+class ParallelSearch {
+
+    /** Un noeud n'est découpé que si la file locale contient moins de tâches que ce seuil. */
+    private static final int SURPLUS_THRESHOLD = 2;
+
+    private final Solver model;
+    private final int parallelism;
+    private final Queue<Solver> workers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Solver> worker = ThreadLocal.withInitial(this::newWorker);
+
+    ParallelSearch(Solver model, int parallelism) {
+        this.model = model;
+        this.parallelism = parallelism;
+    }
+
+    private Solver newWorker() {
+        Solver copy = model.copyModel();
+        if (model.getStrategy() instanceof OptimizationStrategy) {
+            copy.recordSolutionCosts();
+        }
+        workers.add(copy);
+        return copy;
+    }
+
+    /**
+     * Explores the whole tree below the current domains of the model.
+     */
+    void run() {
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            pool.invoke(new Node(model.getStore().snapshot()));
+        }
+    }
+
+    /** Copies des threads, avec les noeuds et solutions qu'ils ont trouvés. */
+    List<Solver> getWorkers() {
+        return new ArrayList<>(workers);
+    }
+
+    private final class Node extends RecursiveAction {
+
+        // les tâches ne sont jamais sérialisées : elles restent dans le pool qui les exécute
+        private static final long serialVersionUID = 1L;
+
+        private final transient DomainStore.Snapshot state;
+
+        Node(DomainStore.Snapshot state) {
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            Solver solver = worker.get();
+            solver.load(state);
+            Variable v = solver.visitNode();
+            if (v == null) {
+                return;
+            }
+            if (getSurplusQueuedTaskCount() >= SURPLUS_THRESHOLD) {
+                solver.branch(v);
+                return;
+            }
+            invokeAll(split(solver, v));
+        }
+
+        private List<Node> split(Solver solver, Variable v) {
+            List<Node> children = new ArrayList<>();
+            Trail trail = solver.getTrail();
+            int[] branches = solver.branches(v);
+            trail.push();
+            for (int i = 0; i < branches.length; i += 2) {
+                v.init(branches[i], branches[i + 1]);
+                children.add(new Node(solver.getStore().snapshot()));
+                trail.undo();
+            }
+            trail.pop();
+            return children;
+        }
+    }
+}
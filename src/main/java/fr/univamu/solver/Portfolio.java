@@ -0,0 +1,95 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Portefeuille de stratégies.
+ * Chaque stratégie résout sa propre copie du modèle dans un thread virtuel ; la
+ * première qui termine sa recherche gagne et les autres sont annulées. Les stratégies
+ * d'optimisation sont reconstruites autour d'une seule meilleure valeur partagée :
+ * chaque exécution élague avec le meilleur objectif trouvé par l'une d'elles. Les
+ * solutions de toutes les exécutions sont alors gardées, car la meilleure ne vient
+ * pas forcément de la gagnante.
+ */
+public class Portfolio {
+
+    private final Solver model;
+    private final List<IStrategy> strategies = new ArrayList<>();
+    private final AtomicInteger bestValue;
+    private volatile int winner = -1;
+
+    public Portfolio(Solver model, IStrategy... strategies) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("empty portfolio");
+        }
+        this.model = model;
+        AtomicInteger bestValue = null;
+        for (IStrategy strategy : strategies) {
+            if (strategy instanceof OptimizationStrategy optimization) {
+                if (bestValue == null) {
+                    bestValue = new AtomicInteger(optimization.getBestValue());
+                }
+                var shared = new OptimizationStrategy(optimization.getTarget(), bestValue);
+                shared.setBranching(optimization.getBranching());
+                strategy = shared;
+            }
+            this.strategies.add(strategy);
+        }
+        this.bestValue = bestValue;
+    }
+
+    /**
+     * Runs all the strategies and keeps the results of the winner in the model.
+     *
+     * @return the number of solutions found by the winning run.
+     */
+    public long solve() {
+        winner = -1;
+        AtomicBoolean done = new AtomicBoolean(false);
+        List<Solver> copies = new ArrayList<>();
+        List<Callable<Solver>> runs = new ArrayList<>();
+        for (int i = 0; i < strategies.size(); i++) {
+            final int index = i;
+            Solver copy = model.copyModel(strategies.get(i));
+            copy.setCancelled(done);
+            copies.add(copy);
+            runs.add(() -> {
+                copy.solve();
+                if (done.compareAndSet(false, true)) {
+                    winner = index;
+                }
+                return copy;
+            });
+        }
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.invokeAny(runs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("portfolio interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            done.set(true);
+        }
+        Solver result = copies.get(winner);
+        if (bestValue != null) {
+            // le meilleur coût a pu être trouvé par une autre recherche
+            for (Solver copy : copies) {
+                if (copy != result) result.getSolutions().addAllAbsent(copy.getSolutions());
+            }
+        }
+        return model.keepResults(result);
+    }
+
+    /** Index of the strategy that won the last run, or -1. */
+    public int getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,201 @@
+package fr.univamu.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simplification du modèle avant la recherche.
+ * Les variables liées par un {@code EQ} sont fusionnées en une seule (union-find),
+ * avec l'intersection de leurs domaines. Le modèle fusionné est propagé une fois à la
+ * racine, ce qui resserre les bornes et fixe ce qui peut l'être. Les contraintes dont
+ * toutes les variables sont alors fixées sont soit satisfaites, et retirées, soit la
+ * preuve que le modèle est insatisfiable. Les variables anonymes qu'aucune contrainte
+ * restante n'utilise sont retirées aussi. Le modèle réduit rapporte les variables
+ * nommées de l'original : ses solutions se lisent exactement comme celles du modèle
+ * d'origine.
+ */
+public final class Presolve {
+
+    /**
+     * What the presolve removed from the model.
+     *
+     * @param variablesRemoved   variables of the model absent from the reduced one.
+     * @param constraintsRemoved constraints of the model absent from the reduced one.
+     * @param aliases            variables merged into another one by an equality.
+     */
+    public record Stats(int variablesRemoved, int constraintsRemoved, int aliases) {
+    }
+
+    private final Solver model;
+    private int[] parent = new int[0];
+    private Stats stats;
+
+    Presolve(Solver model) {
+        this.model = model;
+    }
+
+    Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * Builds the reduced model.
+     *
+     * @return the reduced model, or null if the presolve proved that the model has no solution.
+     */
+    Solver run() {
+        DomainStore store = model.getStore();
+        int n = store.size();
+        List<Constraint> constraints = model.getConstraints();
+
+        parent = new int[n];
+        for (int id = 0; id < n; id++) {
+            parent[id] = id;
+        }
+        int aliases = 0;
+        for (Constraint c : constraints) {
+            if (isAlias(c) && c.scope().length == 2 && union(c.scope()[0].getId(), c.scope()[1].getId())) {
+                aliases++;
+            }
+        }
+
+        // une variable par classe, domaine = intersection des domaines de la classe
+        Solver merged = new Solver();
+        Variable[] map = new Variable[n];
+        for (int id = 0; id < n; id++) {
+            int rep = find(id);
+            if (map[rep] == null) {
+                map[rep] = store.copy(rep, merged.getStore());
+            }
+            map[id] = map[rep];
+        }
+        boolean empty = false;
+        for (int id = 0; id < n; id++) {
+            intersect(map[id], store.get(id));
+            empty = empty || map[id].isEmpty();
+        }
+        boolean[] added = new boolean[merged.getStore().size()];
+        for (Variable v : model.variables) {
+            Variable m = map[v.getId()];
+            if (!added[m.getId()]) {
+                added[m.getId()] = true;
+                merged.variables.add(m);
+            }
+        }
+        for (Constraint c : constraints) {
+            if (!isAlias(c)) {
+                merged.addConstraint(remap(c, map));
+            }
+        }
+        IStrategy strategy = model.getStrategy().copy(v -> remap(v, map));
+
+        if (empty || !merged.reduce()) {
+            stats = new Stats(model.variables.size(), constraints.size(), aliases);
+            return null;
+        }
+
+        List<Constraint> kept = new ArrayList<>();
+        boolean[] used = new boolean[merged.getStore().size()];
+        for (Constraint c : merged.getConstraints()) {
+            if (allFixed(c)) {
+                if (!new Checker(List.of(c), merged.getStore()).checkAll()) {
+                    stats = new Stats(model.variables.size(), constraints.size(), aliases);
+                    return null;
+                }
+                continue;
+            }
+            kept.add(c);
+            for (Variable v : c.scope()) {
+                used[v.getId()] = true;
+            }
+        }
+        if (strategy instanceof OptimizationStrategy optimization) {
+            used[optimization.getTarget().getId()] = true;
+        }
+        List<Variable> variables = new ArrayList<>();
+        for (Variable v : merged.variables) {
+            if (v.isNamed() || used[v.getId()]) {
+                variables.add(v);
+            }
+        }
+
+        Solver reduced = merged.copyModel(strategy, kept, variables);
+        List<Variable> named = model.variables.stream().filter(Variable::isNamed).toList();
+        reduced.setOutputs(named.stream().map(Variable::getName).toArray(String[]::new),
+                named.stream().mapToInt(v -> map[v.getId()].getId()).toArray());
+        stats = new Stats(model.variables.size() - variables.size(), constraints.size() - kept.size(), aliases);
+        return reduced;
+    }
+
+    /*
+     * Égalité entre deux variables (pas des vues) : les deux ne font plus qu'une.
+     */
+    private static boolean isAlias(Constraint c) {
+        if (c.global() != null || c.type() != ConstraintType.EQ) return false;
+        for (Variable v : c.scope()) {
+            if (v instanceof View) return false;
+        }
+        return true;
+    }
+
+    private static boolean allFixed(Constraint c) {
+        for (Variable v : c.scope()) {
+            if (!v.isOneValue()) return false;
+        }
+        return true;
+    }
+
+    private static Variable remap(Variable v, Variable[] map) {
+        return (v instanceof View view) ? view.over(map[v.getId()]) : map[v.getId()];
+    }
+
+    private static Constraint remap(Constraint c, Variable[] map) {
+        if (c.global() != null) {
+            Variable[] vars = c.global().getVariables().clone();
+            for (int i = 0; i < vars.length; i++) {
+                vars[i] = remap(vars[i], map);
+            }
+            return new Constraint(c.global().copy(vars));
+        }
+        return new Constraint(c.type(),
+                (c.result() == null) ? null : remap(c.result(), map),
+                (c.var1() == null) ? null : remap(c.var1(), map),
+                (c.var2() == null) ? null : remap(c.var2(), map));
+    }
+
+    /*
+     * Restreint target au domaine de member, trous compris.
+     */
+    private static void intersect(Variable target, Variable member) {
+        target.reduce(member.getMin(), member.getMax());
+        if (member.hasHoles() && !target.isEmpty()
+                && target.getMax() - target.getMin() < DomainStore.MAX_BITSET_RANGE) {
+            for (int v = target.getMin(); v <= target.getMax(); v++) {
+                if (!member.contains(v)) target.reduceExcept(v);
+            }
+        }
+    }
+
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /*
+     * Une variable nommée reste représentante de sa classe, pour garder son nom.
+     */
+    private boolean union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b) return false;
+        if (!model.getStore().get(a).isNamed() && model.getStore().get(b).isNamed()) {
+            parent[a] = b;
+        } else {
+            parent[b] = a;
+        }
+        return true;
+    }
+}
@@ -1,27 +1,107 @@
 package fr.univamu.solver;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 
 public class Reducer {
-    private final List<Constraint> constraints;
-    private final Queue<Constraint> toProcess = new LinkedList<>();
+    private final Constraint[] constraints;
     private boolean modified = false;
 
+    // file de propagation : un tampon circulaire par priorité, chaque contrainte au plus une fois
+    private final long[] inQueue;
+    private final int[][] buckets = new int[ConstraintType.PRIORITIES][];
+    private final int[] heads = new int[ConstraintType.PRIORITIES];
+    private final int[] sizes = new int[ConstraintType.PRIORITIES];
+
+    private long lastCalls = 0;
+    private long totalCalls = 0;
+    private long fixpoints = 0;
+    private int lastFailure = -1;
+    // raisons des réductions, pour le retour arrière intelligent
+    private Explanations explanations;
+
 
     public Reducer(List<Constraint> constraints) {
-        this.constraints = constraints;
-        for (Constraint c : constraints) {
-            if (c.var1() != null)
-                c.var1().addObserver(v -> toProcess.add(c));
-            if (c.var2() != null)
-                c.var2().addObserver(v -> toProcess.add(c));
-            if (c.result() != null)
-                c.result().addObserver(v -> toProcess.add(c));
+        this.constraints = constraints.toArray(new Constraint[0]);
+        int n = this.constraints.length;
+        inQueue = new long[(n + 63) >>> 6];
+        for (int p = 0; p < buckets.length; p++) {
+            buckets[p] = new int[Math.max(n, 1)];
+        }
+        for (int i = 0; i < n; i++) {
+            final int index = i;
+            for (Variable x : this.constraints[i].scope()) {
+                x.addObserver(v -> schedule(index));
+            }
+        }
+        scheduleAll();
+    }
+
+    private void schedule(int index) {
+        long bit = 1L << index;
+        int word = index >>> 6;
+        if ((inQueue[word] & bit) != 0) return;
+        inQueue[word] |= bit;
+        int p = constraints[index].type().getPriority();
+        int[] bucket = buckets[p];
+        bucket[(heads[p] + sizes[p]) % bucket.length] = index;
+        sizes[p]++;
+    }
+
+    private int poll() {
+        for (int p = 0; p < buckets.length; p++) {
+            if (sizes[p] > 0) {
+                int index = buckets[p][heads[p]];
+                heads[p] = (heads[p] + 1) % buckets[p].length;
+                sizes[p]--;
+                inQueue[index >>> 6] &= ~(1L << index);
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** Puts every constraint back in the propagation queue. */
+    public final void scheduleAll() {
+        for (int i = 0; i < constraints.length; i++) {
+            schedule(i);
         }
     }
 
+    /** Empties the propagation queue. */
+    public void clear() {
+        Arrays.fill(inQueue, 0L);
+        Arrays.fill(sizes, 0);
+        Arrays.fill(heads, 0);
+    }
+
+    /** Number of propagator calls made by the last {@link #reduceAll} fixpoint. */
+    public long getLastCalls() {
+        return lastCalls;
+    }
+
+    /** Number of propagator calls since this reducer was created. */
+    public long getTotalCalls() {
+        return totalCalls;
+    }
+
+    /**
+     * Index of the constraint that emptied a domain during the last {@link #reduceAll},
+     * or -1 if the fixpoint was reached.
+     */
+    public int getLastFailure() {
+        return lastFailure;
+    }
+
+    /** Number of fixpoints computed since this reducer was created. */
+    public long getFixpoints() {
+        return fixpoints;
+    }
+
+    void setExplanations(Explanations explanations) {
+        this.explanations = explanations;
+    }
+
     public boolean isModified() {
         return modified;
     }
@@ -39,8 +119,14 @@ public class Reducer {
     private void reduceMulConstraint(Constraint c) {
         for (int i = 0; i < 3; i++) {
             modified = c.result().reduce(c.var1().mul(c.var2())) || modified;
-            modified = c.var2().reduce(c.result().inverseMul(c.var1())) || modified;
-            modified = c.var1().reduce(c.result().inverseMul(c.var2())) || modified;
+            // un diviseur qui contient 0 ne dit rien sur l'autre facteur ; les bornes
+            // comptent, un trou en 0 n'empêche pas le quotient de changer de signe
+            if (!c.var1().spans(0)) {
+                modified = c.var2().reduce(c.result().inverseMul(c.var1())) || modified;
+            }
+            if (!c.var2().spans(0)) {
+                modified = c.var1().reduce(c.result().inverseMul(c.var2())) || modified;
+            }
         }
     }
 
@@ -67,14 +153,26 @@ public class Reducer {
 
     private void reduceEqConstraint(Constraint c) {
         if (c.var1() != null && c.var2() != null) {
-            modified = c.var1().reduce(c.var2()) || modified;
-            modified = c.var2().reduce(c.var1()) || modified;
+            reduceEq(c.var1(), c.var2());
         } else if (c.result() != null && c.var1() != null) {
-            modified = c.result().reduce(c.var1()) || modified;
-            modified = c.var1().reduce(c.result()) || modified;
+            reduceEq(c.result(), c.var1());
         } else if (c.result() != null && c.var2() != null) {
-            modified = c.result().reduce(c.var2()) || modified;
-            modified = c.var2().reduce(c.result()) || modified;
+            reduceEq(c.result(), c.var2());
+        }
+    }
+
+    private void reduceEq(Variable x, Variable y) {
+        modified = x.reduce(y) || modified;
+        modified = y.reduce(x) || modified;
+        if (x.isEmpty() || y.isEmpty()) return;
+        if ((x.hasHoles() || y.hasHoles()) && x.getMax() - x.getMin() < DomainStore.MAX_BITSET_RANGE) {
+            // recopier les trous de chaque côté
+            for (int v = x.getMin(); v <= x.getMax(); v++) {
+                if (x.contains(v) != y.contains(v)) {
+                    modified = x.reduceExcept(v) || modified;
+                    modified = y.reduceExcept(v) || modified;
+                }
+            }
         }
     }
 
@@ -89,24 +187,20 @@ public class Reducer {
             return;
         }
         if (y.isOneValue()) {
-            int v = y.getMin();
-            if (x.contains(v)) {
-                if (x.getMin() == v) modified = x.reduce(v + 1, x.getMax()) || modified;
-                else if (x.getMax() == v) modified = x.reduce(x.getMin(), v - 1) || modified;
-            }
+            modified = x.reduceExcept(y.getMin()) || modified;
         }
         if (x.isOneValue()) {
-            int v = x.getMin();
-            if (y.contains(v)) {
-                if (y.getMin() == v) modified = y.reduce(v + 1, y.getMax()) || modified;
-                else if (y.getMax() == v) modified = y.reduce(y.getMin(), v - 1) || modified;
-            }
+            modified = y.reduceExcept(x.getMin()) || modified;
         }
     }
 
 
 
     private void reduce(Constraint c) {
+        if (c.global() != null) {
+            modified = c.global().reduce() || modified;
+            return;
+        }
         switch (c.type()) {
             case ADD -> reduceAddConstraint(c);
             case SUB -> reduceSubConstraint(c);
@@ -118,26 +212,54 @@ public class Reducer {
         }
     }
 
-    public void reduceAll(boolean verbose, List<Variable> variables) {
+    /**
+     * Runs the queued propagators until a fixpoint is reached.
+     *
+     * @return false if a domain became empty, true otherwise.
+     */
+    public boolean reduceAll(boolean verbose, List<Variable> variables) {
         if (verbose) {
             System.out.println("Variables avant réduction :");
             variables.forEach(System.out::println);
         }
 
-        toProcess.addAll(constraints);
-
-        while (!toProcess.isEmpty()) {
-            Constraint c = toProcess.poll();
+        boolean consistent = true;
+        long calls = 0;
+        int index;
+        lastFailure = -1;
+        while ((index = poll()) >= 0) {
+            Constraint c = constraints[index];
             resetModified();
+            if (explanations != null) {
+                explanations.propagating(c);
+            }
             reduce(c);
+            calls++;
+            if (modified && isWipedOut(c)) {
+                lastFailure = index;
+                clear();
+                consistent = false;
+                break;
+            }
         }
-
+        if (explanations != null) {
+            explanations.propagating(null);
+        }
+        lastCalls = calls;
+        totalCalls += calls;
+        fixpoints++;
 
         if (verbose) {
-            System.out.println("Variables après réduction :");
+            System.out.println("Variables après réduction (" + calls + " appels de propagateurs) :");
             variables.forEach(System.out::println);
         }
+        return consistent;
     }
 
-
+    private static boolean isWipedOut(Constraint c) {
+        for (Variable v : c.scope()) {
+            if (v.isEmpty()) return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,127 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/*
+ * Profil des parties obligatoires d'une ressource, instant par instant.
+ * La partie [lst, ect) de chaque tâche est ajoutée une fois et gardée avec la tâche ; à
+ * chaque appel, les parties qui ont changé depuis le précédent sont retirées puis
+ * remises : le profil suit les domaines dans quelque sens qu'ils aient bougé, réduits
+ * par la propagation ou élargis de nouveau quand le trail les restaure au retour
+ * arrière. Au-delà de MAX_HORIZON instants, il n'y a pas de profil et le filtrage
+ * time-table est sauté.
+ */
+final class ResourceProfile {
+
+    static final int MAX_HORIZON = 1 << 16;
+
+    private final Variable[] starts;
+    private final int[] durations;
+    private final int[] heights;
+    private final int capacity;
+
+    // parties obligatoires enregistrées, vides quand lst >= ect
+    private final int[] partStart;
+    private final int[] partEnd;
+    private int origin;
+    private int[] profile = new int[0];
+
+    ResourceProfile(Variable[] starts, int[] durations, int[] heights, int capacity) {
+        this.starts = starts;
+        this.durations = durations;
+        this.heights = heights;
+        this.capacity = capacity;
+        this.partStart = new int[starts.length];
+        this.partEnd = new int[starts.length];
+    }
+
+    /*
+     * Met le profil à jour. Renvoie false si l'horizon est trop grand pour un profil ;
+     * les instants sont alors à ignorer.
+     */
+    boolean update() {
+        int lo = Integer.MAX_VALUE;
+        long hi = Long.MIN_VALUE;
+        for (int i = 0; i < starts.length; i++) {
+            lo = Math.min(lo, starts[i].getMin());
+            hi = Math.max(hi, (long) starts[i].getMax() + durations[i]);
+        }
+        if (hi - lo > MAX_HORIZON) {
+            profile = new int[0];
+            return false;
+        }
+        if (lo < origin || hi - origin > profile.length) {
+            // nouvel horizon : tout est recompté
+            origin = lo;
+            profile = new int[(int) (hi - lo)];
+            Arrays.fill(partStart, 0);
+            Arrays.fill(partEnd, 0);
+        }
+        for (int i = 0; i < starts.length; i++) {
+            int from = starts[i].getMax();
+            int to = starts[i].getMin() + durations[i];
+            if (from >= to) {
+                from = 0;
+                to = 0;
+            }
+            if (from == partStart[i] && to == partEnd[i]) continue;
+            add(partStart[i], partEnd[i], -heights[i]);
+            add(from, to, heights[i]);
+            partStart[i] = from;
+            partEnd[i] = to;
+        }
+        return true;
+    }
+
+    private void add(int from, int to, int height) {
+        for (int t = from; t < to; t++) {
+            profile[t - origin] += height;
+        }
+    }
+
+    /* Hauteur des autres tâches que i à l'instant t. */
+    int othersAt(int i, int t) {
+        int height = profile[t - origin];
+        return (t >= partStart[i] && t < partEnd[i]) ? height - heights[i] : height;
+    }
+
+    /* Premier instant où le profil dépasse la capacité, ou Integer.MAX_VALUE. */
+    int overload() {
+        for (int t = 0; t < profile.length; t++) {
+            if (profile[t] > capacity) return origin + t;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /*
+     * Time-table : la tâche i est repoussée après les instants où elle ne tient pas
+     * au-dessus des autres, et avancée avant ceux de la fin. Renvoie true si une borne
+     * a changé ; le début est vidé quand aucune position ne reste.
+     */
+    boolean filter(int i) {
+        Variable start = starts[i];
+        int p = durations[i];
+        int h = heights[i];
+        if (p == 0 || h == 0) return false;
+        int limit = capacity - h;
+        // plus tôt : première fenêtre [s, s + p) sans dépassement
+        int s = start.getMin();
+        int t = s;
+        while (t < s + p && s <= start.getMax()) {
+            if (othersAt(i, t) > limit) {
+                s = t + 1;
+            }
+            t++;
+        }
+        // plus tard : dernière fenêtre, en partant de la fin
+        int e = start.getMax() + p;
+        t = e - 1;
+        while (t >= e - p && e - p >= s) {
+            if (othersAt(i, t) > limit) {
+                e = t;
+            }
+            t--;
+        }
+        return start.reduce(s, e - p);
+    }
+}
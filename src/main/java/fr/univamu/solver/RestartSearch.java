@@ -0,0 +1,137 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/*
+ * Recherche en profondeur avec redémarrages, pile explicite comme SolutionIterator.
+ * Quand une descente a épuisé ses noeuds, chaque branche déjà explorée sous un point
+ * de choix devient un nogood : les décisions au-dessus, et la plage explorée de sa
+ * variable. La recherche repart alors de la racine, propagée de nouveau avec les
+ * nouveaux nogoods. Les sous-arbres explorés ne sont jamais revisités : chaque solution
+ * est rapportée une fois et les comptes restent exacts ; les limites croissent, et une
+ * descente finit par couvrir ce qui reste de l'arbre.
+ */
+final class RestartSearch {
+
+    private final Solver solver;
+    private final Trail trail;
+    private final Restarts restarts;
+    private final NoGoods noGoods;
+    private int restartsCount = 0;
+
+    // pile des points de choix : variable, branches et position de la branche courante
+    private Variable[] vars = new Variable[16];
+    private int[][] branches = new int[16][];
+    private int[] positions = new int[16];
+    private int depth = 0;
+
+    // littéraux du nogood en construction
+    private int[] ids = new int[16];
+    private int[] mins = new int[16];
+    private int[] maxs = new int[16];
+
+    RestartSearch(Solver solver, Restarts restarts, NoGoods noGoods) {
+        this.solver = solver;
+        this.trail = solver.getTrail();
+        this.restarts = restarts;
+        this.noGoods = noGoods;
+    }
+
+    int getRestartsCount() {
+        return restartsCount;
+    }
+
+    /*
+     * Le niveau de la racine est déjà empilé et la stratégie préparée par before().
+     */
+    void run() {
+        int rootLevel = trail.getLevel();
+        long limit = solver.getNodesCounter() + restarts.cutoff(0);
+        boolean mustVisit = true;
+        while (true) {
+            if (mustVisit) {
+                if (solver.getNodesCounter() >= limit && depth > 0) {
+                    record();
+                    depth = 0;
+                    trail.backtrack(rootLevel);
+                    limit = solver.getNodesCounter() + restarts.cutoff(++restartsCount);
+                    continue;
+                }
+                mustVisit = false;
+                var v = solver.visitNode();
+                if (v != null) {
+                    mustVisit = pushChoice(v);
+                }
+                continue;
+            }
+            if (depth == 0) {
+                return;
+            }
+            int top = depth - 1;
+            trail.undo();
+            int next = positions[top] + 2;
+            if (next < branches[top].length) {
+                positions[top] = next;
+                vars[top].init(branches[top][next], branches[top][next + 1]);
+                mustVisit = true;
+            } else {
+                trail.pop();
+                depth--;
+            }
+        }
+    }
+
+    private boolean pushChoice(Variable v) {
+        int[] choices = solver.branches(v);
+        if (choices.length == 0) {
+            return false;
+        }
+        if (depth == vars.length) {
+            int capacity = depth * 2;
+            vars = Arrays.copyOf(vars, capacity);
+            branches = Arrays.copyOf(branches, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        vars[depth] = v;
+        branches[depth] = choices;
+        positions[depth] = 0;
+        depth++;
+        trail.push();
+        v.init(choices[0], choices[1]);
+        return true;
+    }
+
+    /*
+     * Un nogood par suite de branches explorées et contiguës sous chaque point de
+     * choix de la pile : décisions au-dessus, et l'intervalle qu'elles couvrent.
+     */
+    private void record() {
+        if (depth + 1 > ids.length) {
+            ids = Arrays.copyOf(ids, 2 * depth + 1);
+            mins = Arrays.copyOf(mins, 2 * depth + 1);
+            maxs = Arrays.copyOf(maxs, 2 * depth + 1);
+        }
+        for (int level = 0; level < depth; level++) {
+            int[] choices = branches[level];
+            int i = 0;
+            while (i < positions[level]) {
+                int min = choices[i];
+                int max = choices[i + 1];
+                i += 2;
+                while (i < positions[level] && (choices[i] == max + 1 || choices[i + 1] == min - 1)) {
+                    min = Math.min(min, choices[i]);
+                    max = Math.max(max, choices[i + 1]);
+                    i += 2;
+                }
+                ids[level] = vars[level].getId();
+                mins[level] = min;
+                maxs[level] = max;
+                noGoods.add(ids, mins, maxs, level + 1);
+            }
+            // la branche courante devient une décision du préfixe suivant
+            ids[level] = vars[level].getId();
+            mins[level] = choices[positions[level]];
+            maxs[level] = choices[positions[level] + 1];
+        }
+    }
+}
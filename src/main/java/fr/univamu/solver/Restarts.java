@@ -0,0 +1,76 @@
+package fr.univamu.solver;
+
+/**
+ * Politique de redémarrage : nombre de noeuds accordé à chaque descente.
+ * Quand une descente atteint sa limite, la recherche repart de la racine après avoir
+ * enregistré comme nogoods les sous-arbres entièrement explorés : aucune solution n'est
+ * trouvée deux fois et les solutions restent comptées exactement. Ce que le choix de
+ * variable a appris est gardé d'une descente à l'autre ; les redémarrages paient avec
+ * une stratégie qui apprend (dom/wdeg, activité, impact) ou un ordre de valeurs aléatoire.
+ */
+public final class Restarts {
+
+    private final boolean luby;
+    private final long scale;
+    private final double factor;
+
+    private Restarts(boolean luby, long scale, double factor) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("scale must be positive: " + scale);
+        }
+        if (factor < 1) {
+            throw new IllegalArgumentException("factor must be at least 1: " + factor);
+        }
+        this.luby = luby;
+        this.scale = scale;
+        this.factor = factor;
+    }
+
+    /**
+     * Cutoffs of {@code scale} times the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ...
+     */
+    public static Restarts luby(long scale) {
+        return new Restarts(true, scale, 1);
+    }
+
+    /**
+     * Cutoffs of {@code first}, then each one {@code factor} times the previous one.
+     */
+    public static Restarts geometric(long first, double factor) {
+        return new Restarts(false, first, factor);
+    }
+
+    /**
+     * Number of nodes allowed to run {@code run}, the first run being 0.
+     */
+    public long cutoff(int run) {
+        if (luby) {
+            long unit = term(run + 1);
+            return (unit > Long.MAX_VALUE / scale) ? Long.MAX_VALUE : unit * scale;
+        }
+        double cutoff = scale * Math.pow(factor, run);
+        return (cutoff >= Long.MAX_VALUE) ? Long.MAX_VALUE : Math.max(1, (long) cutoff);
+    }
+
+    /*
+     * i-ème terme de la suite de Luby, i >= 1 : 2^(k-1) si i = 2^k - 1, sinon le terme
+     * i - 2^(k-1) + 1 pour le plus petit k tel que i < 2^k - 1.
+     */
+    static long term(long i) {
+        while (true) {
+            int k = 1;
+            while ((1L << k) - 1 < i) {
+                k++;
+            }
+            if ((1L << k) - 1 == i) {
+                return 1L << (k - 1);
+            }
+            i -= (1L << (k - 1)) - 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return luby ? "luby " + scale : "geometric " + scale + " x" + factor;
+    }
+}
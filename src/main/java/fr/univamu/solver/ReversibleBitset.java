@@ -0,0 +1,93 @@
+package fr.univamu.solver;
+
+/*
+ * Ensemble de bits réversible, dont les mots sont sauvegardés dans le trail quand ils changent.
+ * Les indices des mots non nuls sont gardés en tête de index, avant limit, pour que les
+ * intersections ne visitent qu'eux (le bitset creux de compact-table) ; index et limit
+ * sont sauvegardés comme les mots, d'où les tableaux de long.
+ */
+final class ReversibleBitset {
+
+    private final long[] words;
+    private final long[] index;
+    private final long[] limit = new long[1];
+    private final long[] mask;
+    private final long lastWord;
+
+    /* Ensemble vide de bits bits ; fill() les met tous. */
+    ReversibleBitset(int bits) {
+        int n = (bits + 63) >>> 6;
+        words = new long[n];
+        index = new long[n];
+        mask = new long[n];
+        lastWord = (bits % 64 == 0) ? -1L : (1L << bits) - 1;
+    }
+
+    /* Met tous les bits, en sauvegardant ce qui change. */
+    void fill(Trail trail) {
+        int n = words.length;
+        for (int w = 0; w < n; w++) {
+            set(trail, words, w, (w == n - 1) ? lastWord : -1L);
+            set(trail, index, w, w);
+        }
+        set(trail, limit, 0, n);
+    }
+
+    private static void set(Trail trail, long[] array, int i, long value) {
+        if (array[i] != value) {
+            trail.saveCell(array, i);
+            array[i] = value;
+        }
+    }
+
+    boolean isEmpty() {
+        return limit[0] == 0;
+    }
+
+    /* Vide le masque sur les mots non nuls, les seuls lus ensuite. */
+    void clearMask() {
+        for (int k = 0; k < limit[0]; k++) {
+            mask[(int) index[k]] = 0;
+        }
+    }
+
+    /* Ajoute au masque des mots donnés par leurs positions. */
+    void addToMask(int[] positions, long[] bits) {
+        for (int j = 0; j < positions.length; j++) {
+            mask[positions[j]] |= bits[j];
+        }
+    }
+
+    /*
+     * Intersecte l'ensemble avec le masque ; un mot devenu nul est remplacé, dans index,
+     * par le dernier mot non nul. Renvoie true si un bit a été retiré.
+     */
+    boolean intersectWithMask(Trail trail) {
+        boolean changed = false;
+        for (int k = (int) limit[0] - 1; k >= 0; k--) {
+            int w = (int) index[k];
+            long word = words[w] & mask[w];
+            if (word == words[w]) continue;
+            set(trail, words, w, word);
+            changed = true;
+            if (word == 0) {
+                int top = (int) limit[0] - 1;
+                set(trail, index, k, index[top]);
+                set(trail, limit, 0, top);
+            }
+        }
+        return changed;
+    }
+
+    /*
+     * Position j d'un mot qui rencontre encore l'ensemble, en essayant d'abord residue,
+     * ou -1 ; les mots hors de index sont nuls.
+     */
+    int intersectIndex(int[] positions, long[] bits, int residue) {
+        if ((words[positions[residue]] & bits[residue]) != 0) return residue;
+        for (int j = 0; j < positions.length; j++) {
+            if ((words[positions[j]] & bits[j]) != 0) return j;
+        }
+        return -1;
+    }
+}
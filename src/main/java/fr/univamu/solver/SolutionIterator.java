@@ -0,0 +1,132 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Parcours des solutions à la demande.
+ * C'est la recherche en profondeur de {@link Solver#solve()} avec une pile explicite :
+ * elle peut s'arrêter après chaque solution et reprendre au prochain appel de
+ * {@link #next()}. Les solutions ne sont pas stockées. Tant que l'itérateur est ouvert,
+ * les domaines du solveur sont ceux du noeud courant ; ils sont restaurés à la fin de
+ * la recherche ou par {@link #close()}.
+ */
+class SolutionIterator implements Iterator<Solutions.Assignment>, AutoCloseable {
+
+    private final Solver solver;
+    private final Trail trail;
+    private int rootLevel = -1;
+    private boolean finished = false;
+    private boolean mustVisit = false;
+    private Solutions.Assignment found;
+
+    // pile des points de choix : variable, branches et position de la branche courante
+    private Variable[] vars = new Variable[16];
+    private int[][] branches = new int[16][];
+    private int[] positions = new int[16];
+    private int depth = 0;
+
+    SolutionIterator(Solver solver) {
+        this.solver = solver;
+        this.trail = solver.getTrail();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (found == null && !finished) {
+            advance();
+        }
+        return found != null;
+    }
+
+    @Override
+    public Solutions.Assignment next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var result = found;
+        found = null;
+        return result;
+    }
+
+    /** Abandons the search and restores the solver's domains. */
+    @Override
+    public void close() {
+        if (!finished) {
+            finished = true;
+            if (rootLevel >= 0) {
+                trail.backtrack(rootLevel);
+            }
+            solver.setConsumer(null);
+        }
+    }
+
+    private void start() {
+        solver.reset();
+        solver.setConsumer(assignment -> {
+            found = assignment;
+            return true;
+        });
+        rootLevel = trail.getLevel();
+        trail.push();
+        mustVisit = solver.before();
+    }
+
+    private void advance() {
+        try {
+            if (rootLevel < 0) {
+                start();
+            }
+            while (found == null) {
+                if (mustVisit) {
+                    mustVisit = false;
+                    var v = solver.visitNode();
+                    if (v != null) {
+                        pushChoice(v);
+                    }
+                    continue;
+                }
+                if (depth == 0) {
+                    close();
+                    return;
+                }
+                int top = depth - 1;
+                var v = vars[top];
+                trail.undo();
+                int next = positions[top] + 2;
+                if (next < branches[top].length) {
+                    positions[top] = next;
+                    v.init(branches[top][next], branches[top][next + 1]);
+                    mustVisit = true;
+                } else {
+                    trail.pop();
+                    depth--;
+                }
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void pushChoice(Variable v) {
+        int[] choices = solver.branches(v);
+        if (choices.length == 0) {
+            return;     // toutes les branches ont échoué en les préparant
+        }
+        if (depth == vars.length) {
+            int capacity = depth * 2;
+            vars = Arrays.copyOf(vars, capacity);
+            branches = Arrays.copyOf(branches, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        vars[depth] = v;
+        branches[depth] = choices;
+        positions[depth] = 0;
+        depth++;
+        trail.push();
+        v.init(choices[0], choices[1]);
+        mustVisit = true;
+    }
+}
@@ -30,6 +30,67 @@ public class Solutions {
         }
     }
 
+    /**
+     * Records the current values of the variables {@code ids} of {@code store},
+     * reported under {@code names}.
+     */
+    public void addSolution(DomainStore store, int[] ids, String[] names) {
+        Assignment assignment = toAssignment(store, ids, names);
+        allSolutions.add(assignment);
+
+        if (display) {
+            System.out.println(assignment);
+        }
+    }
+
+    static Assignment toAssignment(DomainStore store, int[] ids, String[] names) {
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            snapshot.put(names[i], store.getMin(ids[i]));
+        }
+        return new Assignment(snapshot);
+    }
+
+    /*
+     * Ordre lexicographique des valeurs, dans l'ordre des noms.
+     */
+    static final Comparator<Assignment> BY_VALUES = (a, b) -> {
+        Iterator<Integer> i = a.values().values().iterator();
+        Iterator<Integer> j = b.values().values().iterator();
+        while (i.hasNext() && j.hasNext()) {
+            int c = Integer.compare(i.next(), j.next());
+            if (c != 0) return c;
+        }
+        return Boolean.compare(i.hasNext(), j.hasNext());
+    };
+
+    void add(Assignment assignment) {
+        allSolutions.add(assignment);
+        if (display) {
+            System.out.println(assignment);
+        }
+    }
+
+    /**
+     * Appends the solutions recorded by {@code other}.
+     */
+    public void addAll(Solutions other) {
+        allSolutions.addAll(other.allSolutions);
+        if (display) {
+            other.allSolutions.forEach(System.out::println);
+        }
+    }
+
+    /*
+     * Ajoute les solutions de {@code other} qui ne sont pas déjà présentes.
+     */
+    void addAllAbsent(Solutions other) {
+        Set<Assignment> known = new HashSet<>(allSolutions);
+        for (Assignment a : other.allSolutions) {
+            if (known.add(a)) allSolutions.add(a);
+        }
+    }
+
     public long count() {
         return allSolutions.size();
     }
@@ -1,138 +1,331 @@
 package fr.univamu.solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class Solver implements ISolver {
 
+    /** Sums over fewer distinct variables keep their ADD/SUB decomposition. */
+    static final int LINEAR_MIN_TERMS = 3;
+
     private final Solutions solutions = new Solutions();
+    private final DomainStore store = new DomainStore();
+    private final Trail trail = store.getTrail();
     private Checker checker;
     private Reducer reducer;
     private IStrategy strategy = new DefaultStrategy();
-    private final List<Constraint> constraints = new LinkedList<>();
-    final List<Variable> variables = new LinkedList<>();
+    private final List<Constraint> constraints = new ArrayList<>();
+    final List<Variable> variables = new ArrayList<>();
+    private int[] searchIds = new int[0];
+    private int[] namedIds = new int[0];
+    private String[] names = new String[0];
     private long solutionsCounter = 0;
     private long nodesCounter = 0;
     private long maxNodes = 1000_000_000L;
     private boolean verbose = false;
-    private boolean modified = false;
+    private int parallelism = 1;
+    private AtomicBoolean cancelled;
+    private Predicate<Solutions.Assignment> consumer;
+    private volatile boolean stopped = false;
+    private boolean countOnly = false;
+    private boolean decomposition = false;
+    private Components components;
+    private boolean presolve = false;
+    private Presolve.Stats presolveStats;
+    private Restarts restarts;
+    // nogoods de la recherche avec redémarrages en cours, null sinon
+    private NoGoods noGoods;
+    private long restartsCounter = 0;
+    private long noGoodsCounter = 0;
+    // contrainte en échec à la dernière propagation ou vérification, -1 sinon
+    private int lastFailure = -1;
+    private boolean backjumping = false;
+    private Explanations explanations;
+    private long backjumpsCounter = 0;
+    private long skippedBranchesCounter = 0;
+    private boolean lazyClauses = false;
+    private long conflictsCounter = 0;
+    private long learntClausesCounter = 0;
+    private Neighborhoods neighborhoods;
+    private long neighborhoodsCounter = 0;
+    private boolean optimumProved = false;
+    // coût de chaque solution d'une recherche parallèle d'optimisation, dans l'ordre
+    private List<Integer> solutionCosts;
+    // variables nommées à rapporter, si elles diffèrent de celles du modèle (après présolution)
+    private String[] outputNames;
+    private int[] outputIds;
+
+    // résultats anonymes des expressions et contrainte qui les définit
+    private final Map<Variable, Constraint> definitions = new HashMap<>();
+    // résultats absorbés par une somme linéaire, remis dans le modèle s'ils resservent
+    private final Map<Variable, Constraint> absorbed = new HashMap<>();
+    // nombre de contraintes posées sur chaque variable
+    private final Map<Variable, Integer> uses = new HashMap<>();
+    // une seule variable par constante
+    private final Map<Integer, Variable> constants = new HashMap<>();
+    // variables anonymes peut-être inutilisées, examinées par simplifyAnonymousVariables
+    private final Set<Variable> unused = new LinkedHashSet<>();
 
     public void reduceAndCheckIntervalsStrategy() {
         this.strategy = new ReduceAndCheckStrategy();
     }
 
 
-    private void reduceAddConstraint(Constraint c) {
-        modified = c.result().reduce(c.var1().add(c.var2())) || modified;
-        modified = c.var1().reduce(c.result().sub(c.var2())) || modified;
-        modified = c.var2().reduce(c.result().sub(c.var1())) || modified;
+    public boolean reduce() {
+        if (reducer == null) {
+            reducer = new Reducer(constraints);
+            reducer.setExplanations(explanations);
+        }
+        boolean consistent = reducer.reduceAll(verbose, variables);
+        while (consistent && noGoods != null) {
+            int status = noGoods.propagate();
+            if (status == 0) break;
+            if (status < 0) {
+                reducer.clear();
+                lastFailure = -1;
+                return false;
+            }
+            consistent = reducer.reduceAll(verbose, variables);
+        }
+        lastFailure = reducer.getLastFailure();
+        return consistent;
     }
 
-    private void reduceMulConstraint(Constraint c) {
-        for (int i = 0; i < 3; i++) {
-            modified = c.result().reduce(c.var1().mul(c.var2())) || modified;
-            modified = c.var2().reduce(c.result().inverseMul(c.var1())) || modified;
-            modified = c.var1().reduce(c.result().inverseMul(c.var2())) || modified;
+
+    boolean checkConstraints() {
+        if (!checker.checkAll()) {
+            lastFailure = checker.getLastFailure();
+            return false;
         }
+        lastFailure = -1;
+        return noGoods == null || noGoods.check();
     }
 
-    private void reduceDivConstraint(Constraint c) {
-        var a = c.var1();
-        var b = c.var2();
-        var r = c.result();
-        if (b.contains(0)) {
-            return;
-        }
-        modified = r.reduce(a.div(b)) || modified;
-        modified = a.reduce(r.mul(b)) || modified;
-        if (!r.contains(0)) {
-            modified = b.reduce(a.div(r)) || modified;
-        }
+
+    /*
+     * Variables de branchement de la recherche en cours (celles d'une composante
+     * pendant une recherche par composantes).
+     */
+    int[] getSearchIds() {
+        return searchIds;
     }
 
+    /*
+     * Indice dans les contraintes du modèle de celle qui a fait échouer la dernière
+     * propagation ou vérification, -1 sinon (ou si c'est un nogood).
+     */
+    int getLastFailure() {
+        return lastFailure;
+    }
 
-    private void reduce(Constraint c) {
-        switch (c.type()) {
-            case SUB :
-                modified = c.result().reduce(c.var1().sub(c.var2())) || modified;
-                modified = c.var1().reduce(c.result().add(c.var2())) || modified;
-                modified = c.var2().reduce(c.var1().sub(c.result())) || modified;
-                break;
-            case ADD:
-                reduceAddConstraint(c);
-                break;
-            case MUL:
-                reduceMulConstraint(c);
-                break;
-            case DIV:
-                reduceDivConstraint(c);
-                break;
-            case EQ:
-                if (c.var1() != null && c.var2() != null) {
-                    modified = c.var1().reduce(c.var2()) || modified;
-                    modified = c.var2().reduce(c.var1()) || modified;
-                } else if (c.result() != null && c.var1() != null) {
-                    modified = c.result().reduce(c.var1()) || modified;
-                    modified = c.var1().reduce(c.result()) || modified;
-                } else if (c.result() != null && c.var2() != null) {
-                    modified = c.result().reduce(c.var2()) || modified;
-                    modified = c.var2().reduce(c.result()) || modified;
-                }
-                break;
-            default:
-                break;
+    Variable findVariable() {
+        final int[] mins = store.mins;
+        final int[] maxs = store.maxs;
+        int best = -1;
+        int bestSize = 0;
+        for (int id : searchIds) {
+            int min = mins[id];
+            int max = maxs[id];
+            if (min == max) continue;
+            int size = (max >= min) ? (max - min + 1) : 0;
+            if (best < 0 || size < bestSize) {
+                best = id;
+                bestSize = size;
+            }
         }
+        return (best < 0) ? null : store.get(best);
     }
 
 
-    public void reduce() {
-        if (reducer == null) {
-            reducer = new Reducer(constraints);
+    /*
+     * Comptage par composantes : le nombre de solutions d'un noeud est le produit
+     * des nombres de solutions de ses composantes indépendantes.
+     */
+    private long countNode() {
+        if (++nodesCounter > maxNodes) {
+            throw new IllegalStateException("too many nodes");
+        }
+        if (!strategy.check(this)) {
+            return 0;
         }
-        reducer.reduceAll(verbose, variables);
+        return countComponents();
     }
 
-
-    boolean checkConstraints() {
-        return checker.checkAll();
+    private long countComponents() {
+        int[] saved = searchIds;
+        long product = 1;
+        try {
+            for (int[] part : components.split(saved)) {
+                searchIds = part;
+                long count = countBranches();
+                if (count == 0) return 0;
+                product = Math.multiplyExact(product, count);
+            }
+        } finally {
+            searchIds = saved;
+        }
+        return product;
     }
 
+    private long countBranches() {
+        var v = strategy.chooseVariable(this);
+        if (v == null) return 1;
+        if (v.getSize() <= 0) return 0;
+        int[] branches = branches(v);
+        long total = 0;
+        trail.push();
+        for (int i = 0; i < branches.length; i += 2) {
+            v.init(branches[i], branches[i + 1]);
+            total = Math.addExact(total, countNode());
+            trail.undo();
+        }
+        trail.pop();
+        return total;
+    }
 
-    Variable findVariable() {
-        Variable best = null;
-        for (Variable v : variables) {
-            if (v.isOneValue()) continue;
-            if (best == null) {
-                best = v;
-            } else if (v.getSize() < best.getSize()) {
-                best = v;
+    /*
+     * Optimisation par composantes : celles qui ne contiennent pas l'objectif n'ont
+     * besoin que d'une solution, gardée pendant l'optimisation du reste.
+     */
+    private void optimizeByComponents(Variable target) {
+        int[] saved = searchIds;
+        try {
+            int[] objective = new int[0];
+            for (int[] part : components.split(saved)) {
+                if (Arrays.stream(part).anyMatch(id -> id == target.getId())) {
+                    objective = part;
+                    continue;
+                }
+                searchIds = part;
+                if (!findFirst()) return;
             }
+            searchIds = objective;
+            findSolutions();
+        } finally {
+            searchIds = saved;
         }
-        return best;
     }
 
+    /*
+     * Cherche une solution et garde ses valeurs ; les niveaux du trail restent empilés
+     * et sont dépilés par solve().
+     */
+    private boolean findFirst() {
+        if (++nodesCounter > maxNodes) {
+            throw new IllegalStateException("too many nodes");
+        }
+        if (!strategy.check(this)) {
+            return false;
+        }
+        var v = strategy.chooseVariable(this);
+        if (v == null) return true;
+        if (v.getSize() <= 0) return false;
+        int[] branches = branches(v);
+        trail.push();
+        for (int i = 0; i < branches.length; i += 2) {
+            v.init(branches[i], branches[i + 1]);
+            if (findFirst()) return true;
+            trail.undo();
+        }
+        trail.pop();
+        return false;
+    }
 
     private void findSolutions() {
+        var v = visitNode();
+        if (v != null) {
+            branch(v);
+        }
+    }
+
+    /*
+     * Compte une décision d'une recherche qui ne passe pas par visitNode.
+     */
+    void countDecision() {
+        if (++nodesCounter > maxNodes) {
+            throw new IllegalStateException("too many nodes");
+        }
+        if (cancelled != null && cancelled.get()) {
+            throw new CancellationException("search cancelled");
+        }
+    }
+
+    /*
+     * Vérifie le noeud courant et enregistre la solution s'il n'y a plus de variable
+     * à choisir. Renvoie la variable de branchement, ou null si le noeud est fermé.
+     */
+    Variable visitNode() {
         if (++nodesCounter > maxNodes) {
             throw new IllegalStateException("too many nodes");
         }
+        if (cancelled != null) {
+            if (cancelled.get()) {
+                throw new CancellationException("search cancelled");
+            }
+            if ((nodesCounter & 0xFF) == 0 && Thread.currentThread().isVirtual()) {
+                // les threads virtuels ne sont pas préemptés : laisser tourner les autres recherches
+                Thread.yield();
+            }
+        }
         if (!strategy.check(this)) {
-            return;
+            return null;
         }
         var v = strategy.chooseVariable(this);
         if (v == null) {
-            solutions.addSolution(variables);
+            if (consumer == null && !countOnly) {
+                solutions.addSolution(store, namedIds, names);
+            }
             if (strategy instanceof OptimizationStrategy optStrategy) {
                 optStrategy.updateBest(this);
+                if (solutionCosts != null) {
+                    solutionCosts.add(optStrategy.getTarget().getMin());
+                }
             }
             solutionsCounter++;
-            return;
+            if (consumer != null && !consumer.test(Solutions.toAssignment(store, namedIds, names))) {
+                stopped = true;
+                if (cancelled != null) {
+                    cancelled.set(true);
+                }
+                throw new CancellationException("search stopped");
+            }
+            return null;
         }
+        return (v.getSize() <= 0) ? null : v;
+    }
+
+    /*
+     * Sous-domaines explorés sous le noeud courant, paires {min, max} dans l'ordre :
+     * ceux de la stratégie, sinon des tranches de branchStep valeurs.
+     */
+    int[] branches(Variable v) {
+        int[] branches = strategy.branches(this, v);
+        return (branches != null) ? branches : Branching.slices(v, branchStep(v));
+    }
+
+    /*
+     * Pas de branchement : 1 pour énumérer les valeurs, sinon largeur des tranches.
+     */
+    private int branchStep(Variable v) {
         int step = strategy.step(v);
         if (step <= 0) step = 1;
-        if (v.getSize() <= 0) return;
         int min = v.getMin();
         int max = v.getMax();
         if (v.getSize() > 1000) {
@@ -143,48 +336,94 @@ public class Solver implements ISolver {
                 step = (1 + mid - min);
             }
         }
-        if (strategy instanceof AlwaysReduceStrategy arStrategy) {
-            arStrategy.backup(this);
-        }
-        for (int value = min; value <= max; value += step) {
-            v.init(value, Math.min(value + step - 1, max));
+        return step;
+    }
+
+    void branch(Variable v) {
+        int[] branches = branches(v);
+        trail.push();
+        for (int i = 0; i < branches.length; i += 2) {
+            v.init(branches[i], branches[i + 1]);
             findSolutions();
-            if (strategy instanceof AlwaysReduceStrategy arStrategy) {
-                arStrategy.restore(this);
-            }
+            trail.undo();
         }
-        v.init(min, max);
+        trail.pop();
     }
 
 
     private Variable newVar(int min, int max) {
-        var v = new Variable();
+        var v = new Variable(store, null, min, max);
         variables.add(v);
-        v.init(min, max);
+        unused.add(v);
         return v;
     }
 
 
     private Variable newVar() {
-        return newVar(Variable.MIN_VALUE, Variable.MAX_VALUE);
+        return newVar(Interval.MIN_VALUE, Interval.MAX_VALUE);
     }
 
 
     public Variable newVar(String name, int min, int max) {
-        var v = new Variable(name);
-        v.init(min, max);
+        var v = new Variable(store, name, min, max);
         variables.add(v);
         return v;
     }
 
 
+    /*
+     * Les constantes sont partagées et restent hors des variables du modèle :
+     * elles sont fixées, la recherche n'a rien à en faire.
+     */
     public Variable newConstant(int value) {
-        return newVar(value, value);
+        return constants.computeIfAbsent(value, k -> new Variable(store, null, k, k));
+    }
+
+
+    private Constraint post(Constraint c) {
+        for (Variable v : c.scope()) {
+            v = base(v);
+            restore(v);
+            uses.merge(v, 1, Integer::sum);
+        }
+        constraints.add(c);
+        return c;
+    }
+
+
+    private void unpost(Constraint c) {
+        // les contraintes retirées sont en général les dernières posées
+        constraints.remove(constraints.lastIndexOf(c));
+        for (Variable v : c.scope()) {
+            v = base(v);
+            if (uses.merge(v, -1, Integer::sum) == 0 && !v.isNamed()) {
+                unused.add(v);
+            }
+        }
+    }
+
+
+    /* Variable dont v lit le domaine : sa base si c'est une vue. */
+    private static Variable base(Variable v) {
+        return (v instanceof View view) ? view.getBase() : v;
+    }
+
+
+    /*
+     * Une variable absorbée par une somme linéaire est de nouveau utilisée :
+     * on remet sa définition.
+     */
+    private void restore(Variable v) {
+        Constraint definition = absorbed.remove(v);
+        if (definition == null) return;
+        variables.add(v);
+        definitions.put(v, definition);
+        post(definition);
     }
 
 
     private void eq(Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.EQ, a, b, null));
+        post(new Constraint(ConstraintType.EQ, a, b, null));
     }
 
 
@@ -210,35 +449,140 @@ public class Solver implements ISolver {
 
 
     public void addAllDiffRelation(Variable... variables) {
-        for (int i = 0; i < variables.length; i++)
-            for (int j = i + 1; j < variables.length; j++) {
-                diff(variables[i], variables[j]);
+        addAllDiffRelation(false, variables);
+    }
+
+
+    public void addAllDiffRelation(boolean domainConsistency, Variable... variables) {
+        post(new Constraint(new AllDifferent(variables.clone(), domainConsistency)));
+    }
+
+
+    public void addAssignmentRelation(int[][] costs, Variable[][] cells, Variable cost) {
+        if (cells.length != costs.length) {
+            throw new IllegalArgumentException("one row of cells per task expected");
+        }
+        Variable[] flat = Arrays.stream(cells).flatMap(Arrays::stream).toArray(Variable[]::new);
+        for (Variable x : flat) {
+            x.reduce(0, 1);
+        }
+        post(new Constraint(new AssignmentCost(costs, flat, cost)));
+    }
+
+
+    public void addCumulativeRelation(Variable[] starts, int[] durations, int[] heights, int capacity) {
+        post(new Constraint(new Cumulative(starts.clone(), durations.clone(), heights.clone(), capacity)));
+    }
+
+
+    public void addDisjunctiveRelation(Variable[] starts, int[] durations) {
+        post(new Constraint(new Disjunctive(starts.clone(), durations.clone())));
+    }
+
+
+    public void addElementRelation(int[] array, Variable index, Variable result) {
+        post(new Constraint(new Element(array.clone(), index, result)));
+    }
+
+
+    public void addLinearRelation(int[] coefficients, Variable[] variables, String relation, int constant) {
+        if (coefficients.length != variables.length) {
+            throw new IllegalArgumentException("one coefficient per variable expected");
+        }
+        Map<Variable, Long> terms = new LinkedHashMap<>();
+        for (int i = 0; i < variables.length; i++) {
+            terms.merge(variables[i], (long) coefficients[i], Long::sum);
+        }
+        terms.values().removeIf(a -> a == 0);
+        if (terms.isEmpty()) {
+            // les coefficients s'annulent : reste 0 relation constant
+            boolean holds = switch (relation) {
+                case "=" -> 0 == constant;
+                case "<=" -> 0 <= constant;
+                case ">=" -> 0 >= constant;
+                case "<>" -> 0 != constant;
+                case "<" -> 0 < constant;
+                case ">" -> 0 > constant;
+                default -> throw new IllegalArgumentException("bad relation: " + relation);
+            };
+            if (!holds) {
+                addRelation(newConstant(0), relation, newConstant(constant));
             }
+            return;
+        }
+        if (linear(terms, relation, constant) == null) {
+            throw new ArithmeticException("linear relation out of int range");
+        }
+        simplifyAnonymousVariables();
     }
 
 
-    private void add(Variable result, Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.ADD, result, a, b));
+    public void addTableRelation(Variable[] variables, int[] tuples) {
+        post(new Constraint(new Table(variables.clone(), tuples)));
     }
 
 
-    private void sub(Variable result, Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.SUB, result, a, b));
+    /*
+     * Pose Σ terms relation constant ; null si un coefficient ou la constante
+     * ne tient pas dans un int.
+     */
+    private Constraint linear(Map<Variable, Long> terms, String relation, long constant) {
+        terms.values().removeIf(a -> a == 0);
+        ConstraintType type = switch (relation) {
+            case "=" -> ConstraintType.EQ;
+            case "<=" -> ConstraintType.LTE;
+            case ">=" -> ConstraintType.GTE;
+            case "<>" -> ConstraintType.NEQ;
+            case "<" -> {
+                constant--;
+                yield ConstraintType.LTE;
+            }
+            case ">" -> {
+                constant++;
+                yield ConstraintType.GTE;
+            }
+            default -> throw new IllegalArgumentException("bad relation: " + relation);
+        };
+        if (terms.isEmpty() || !fitsInt(constant)) return null;
+        int[] coefs = new int[terms.size()];
+        Variable[] vars = new Variable[terms.size()];
+        int i = 0;
+        for (var term : terms.entrySet()) {
+            if (!fitsInt(term.getValue())) return null;
+            vars[i] = term.getKey();
+            coefs[i++] = (int) (long) term.getValue();
+        }
+        return post(new Constraint(new LinearSum(coefs, vars, type, (int) constant)));
     }
 
 
-    private void mul(Variable result, Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.MUL, result, a, b));
+    private static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
     }
 
 
-    private void div(Variable result, Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.DIV, result, a, b));
+    private Constraint add(Variable result, Variable a, Variable b) {
+        return post(new Constraint(ConstraintType.ADD, result, a, b));
+    }
+
+
+    private Constraint sub(Variable result, Variable a, Variable b) {
+        return post(new Constraint(ConstraintType.SUB, result, a, b));
+    }
+
+
+    private Constraint mul(Variable result, Variable a, Variable b) {
+        return post(new Constraint(ConstraintType.MUL, result, a, b));
+    }
+
+
+    private Constraint div(Variable result, Variable a, Variable b) {
+        return post(new Constraint(ConstraintType.DIV, result, a, b));
     }
 
 
     private void diff(Variable a, Variable b) {
-        constraints.add(new Constraint(ConstraintType.NEQ, a, b, null));
+        post(new Constraint(ConstraintType.NEQ, null, a, b));
     }
 
 
@@ -277,7 +621,7 @@ public class Solver implements ISolver {
                 return first;
             }
             Variable result = newVar();
-            mul(result, first, second);
+            definitions.put(result, mul(result, first, second));
             return result;
         }
         if (parseToken("/", terms)) {
@@ -300,8 +644,14 @@ public class Solver implements ISolver {
             if (second.isOneValue() && second.getMin() == 0) {
                 return first;
             }
+            if (isConstant(second) && !isConstant(first)) {
+                return offset(first, 1, second);
+            }
+            if (isConstant(first) && !isConstant(second)) {
+                return offset(second, 1, first);
+            }
             Variable result = newVar();
-            add(result, first, second);
+            definitions.put(result, add(result, first, second));
             return result;
         }
 
@@ -310,29 +660,56 @@ public class Solver implements ISolver {
             if (second.isOneValue() && second.getMin() == 0) {
                 return first;
             }
+            if (isConstant(second) && !isConstant(first)) {
+                return View.of(first, 1, Math.negateExact(second.getMin()));
+            }
+            if (isConstant(first) && !isConstant(second)) {
+                return offset(second, -1, first);
+            }
             Variable result = newVar();
-            Variable neg = newVar();
-            Variable zero = newVar();
-            in(zero, 0, 0);
-            sub(neg, zero, second);
-
-            add(result, first, neg);
+            definitions.put(result, sub(result, first, second));
             return result;
         }
         return first;
     }
 
 
+    /*
+     * x·scale + constante, sous forme de vue.
+     */
+    private Variable offset(Variable x, int scale, Variable constant) {
+        return View.of(x, scale, constant.getMin());
+    }
+
+    public Variable view(Variable x, int scale, int offset) {
+        return View.of(x, scale, offset);
+    }
+
     public void addRelation(Variable a, String relation, int constant) {
         if (checker == null) {
-            checker = new Checker(constraints);
+            checker = new Checker(constraints, store);
         }
         addRelation(a, relation, newConstant(constant));
     }
 
     public void addRelation(Variable a, String relation, Variable b) {
         if (checker == null) {
-            checker = new Checker(constraints);
+            checker = new Checker(constraints, store);
+        }
+        if (isLinearResult(a) || isLinearResult(b)) {
+            Map<Variable, Long> terms = new LinkedHashMap<>();
+            Set<Variable> inlined = new LinkedHashSet<>();
+            try {
+                // a - b relation 0
+                long constant = -Math.addExact(expandResult(a, 1, terms, inlined), expandResult(b, -1, terms, inlined));
+                if (linear(terms, relation, constant) != null) {
+                    absorb(inlined);
+                    simplifyAnonymousVariables();
+                    return;
+                }
+            } catch (ArithmeticException e) {
+                // coefficients trop grands : on garde la décomposition
+            }
         }
         switch (relation) {
             case "=":
@@ -365,28 +742,581 @@ public class Solver implements ISolver {
         if (!termsList.isEmpty()) {
             throw new IllegalArgumentException("bad expression: " + termsList);
         }
+        compileSum(result);
         return result;
     }
 
+    /*
+     * Une chaîne d'additions, de soustractions et de produits par une constante qui
+     * porte sur au moins LINEAR_MIN_TERMS variables devient une seule somme linéaire
+     * définissant le résultat ; les maillons intermédiaires utilisés nulle part
+     * ailleurs disparaissent avec leurs contraintes.
+     */
+    private void compileSum(Variable result) {
+        Constraint definition = definitions.get(result);
+        if (definition == null || !isLinear(definition)) return;
+        Map<Variable, Long> terms = new LinkedHashMap<>();
+        Set<Variable> inlined = new LinkedHashSet<>();
+        long constant;
+        try {
+            constant = expandDefinition(definition, 1, terms, inlined);
+        } catch (ArithmeticException e) {
+            return;
+        }
+        terms.values().removeIf(a -> a == 0);
+        if (terms.size() < LINEAR_MIN_TERMS || terms.containsKey(result)) return;
+        terms.put(result, -1L);
+        Constraint sum = linear(terms, "=", -constant);
+        if (sum == null) return;
+        unpost(definitions.put(result, sum));
+        absorb(inlined);
+    }
+
+    /*
+     * Retire du modèle des résultats intermédiaires développés dans une somme.
+     */
+    private void absorb(Set<Variable> inlined) {
+        for (Variable v : inlined) {
+            Constraint definition = definitions.remove(v);
+            unpost(definition);
+            variables.remove(variables.lastIndexOf(v));
+            unused.remove(v);
+            absorbed.put(v, definition);
+        }
+    }
+
+    private boolean isLinearResult(Variable v) {
+        v = base(v);
+        Constraint definition = definitions.get(v);
+        return definition != null && definition.global() instanceof LinearSum && uses.get(v) == 1;
+    }
+
+    private static boolean isConstant(Variable v) {
+        return !v.isNamed() && v.isOneValue();
+    }
+
+    private static boolean isLinear(Constraint definition) {
+        if (definition.global() != null) return definition.global() instanceof LinearSum;
+        return switch (definition.type()) {
+            case ADD, SUB -> true;
+            case MUL -> isConstant(definition.var1()) || isConstant(definition.var2());
+            default -> false;
+        };
+    }
+
+    /*
+     * Développe coef·v, membre d'une relation, dans terms et renvoie la partie constante.
+     */
+    private long expandResult(Variable v, long coef, Map<Variable, Long> terms, Set<Variable> inlined) {
+        if (v instanceof View view) {
+            return Math.addExact(Math.multiplyExact(coef, view.getOffset()),
+                    expandResult(view.getBase(), Math.multiplyExact(coef, view.getScale()), terms, inlined));
+        }
+        Constraint definition = definitions.get(v);
+        if (definition != null && uses.get(v) == 1 && isLinear(definition)) {
+            inlined.add(v);
+            return expandDefinition(definition, coef, terms, inlined);
+        }
+        return expand(v, coef, terms, inlined);
+    }
+
+    /*
+     * Développe coef·v, opérande d'une définition, dans terms et renvoie la partie
+     * constante. Les résultats anonymes d'expressions linéaires qui ne servent qu'à
+     * cette définition sont remplacés par la leur et ajoutés à inlined.
+     */
+    private long expand(Variable v, long coef, Map<Variable, Long> terms, Set<Variable> inlined) {
+        if (isConstant(v)) {
+            return Math.multiplyExact(coef, v.getMin());
+        }
+        if (v instanceof View view) {
+            return Math.addExact(Math.multiplyExact(coef, view.getOffset()),
+                    expand(view.getBase(), Math.multiplyExact(coef, view.getScale()), terms, inlined));
+        }
+        Constraint definition = definitions.get(v);
+        if (definition != null && isLinear(definition) && (uses.get(v) == 2 || inlined.contains(v))) {
+            inlined.add(v);
+            return expandDefinition(definition, coef, terms, inlined);
+        }
+        terms.merge(v, coef, Math::addExact);
+        return 0;
+    }
+
+    private long expandDefinition(Constraint definition, long coef, Map<Variable, Long> terms, Set<Variable> inlined) {
+        if (definition.global() instanceof LinearSum sum) {
+            // Σ aᵢ·xᵢ - r = c, donc r = Σ aᵢ·xᵢ - c
+            Variable[] vars = sum.getVariables();
+            int[] coefs = sum.getCoefficients();
+            long constant = Math.multiplyExact(-coef, sum.getConstant());
+            for (int i = 0; i < vars.length - 1; i++) {
+                constant += expand(vars[i], Math.multiplyExact(coef, coefs[i]), terms, inlined);
+            }
+            return constant;
+        }
+        Variable a = definition.var1();
+        Variable b = definition.var2();
+        return switch (definition.type()) {
+            case ADD -> expand(a, coef, terms, inlined) + expand(b, coef, terms, inlined);
+            case SUB -> expand(a, coef, terms, inlined) + expand(b, -coef, terms, inlined);
+            default -> isConstant(b)
+                    ? expand(a, Math.multiplyExact(coef, b.getMin()), terms, inlined)
+                    : expand(b, Math.multiplyExact(coef, a.getMin()), terms, inlined);
+        };
+    }
+
     public long solve() {
+        if (parallelism > 1 && (restarts != null || backjumping || lazyClauses || neighborhoods != null)) {
+            throw new IllegalStateException(
+                    "parallel search does not support restarts, backjumping, lazy clauses or neighborhoods");
+        }
+        if ((restarts != null ? 1 : 0) + (backjumping ? 1 : 0) + (lazyClauses ? 1 : 0) + (neighborhoods != null ? 1 : 0) > 1) {
+            throw new IllegalStateException("restarts, backjumping, lazy clauses and neighborhoods cannot be combined");
+        }
+        if (neighborhoods != null && !(strategy instanceof OptimizationStrategy)) {
+            throw new IllegalStateException("large neighborhood search needs an optimization strategy");
+        }
+        if (presolve) {
+            return solvePresolved();
+        }
+        reset();
+        boolean ownFlag = (consumer != null && parallelism > 1 && cancelled == null);
+        if (ownFlag) {
+            cancelled = new AtomicBoolean(false);
+        }
+        int level = trail.getLevel();
+        trail.push();
+        try {
+            if (before()) {
+                if (parallelism > 1) {
+                    var search = new ParallelSearch(this, parallelism);
+                    try {
+                        search.run();
+                    } finally {
+                        for (Solver worker : search.getWorkers()) {
+                            nodesCounter += worker.nodesCounter;
+                            if (worker.solutionCosts == null) {
+                                solutionsCounter += worker.solutionsCounter;
+                                solutions.addAll(worker.solutions);
+                            }
+                        }
+                        if (strategy instanceof OptimizationStrategy optimization) {
+                            keepOptimal(search.getWorkers(), optimization.getBestValue());
+                        }
+                    }
+                } else if (restarts != null) {
+                    noGoods = new NoGoods(store);
+                    var search = new RestartSearch(this, restarts, noGoods);
+                    try {
+                        search.run();
+                    } finally {
+                        restartsCounter = search.getRestartsCount();
+                        noGoodsCounter = noGoods.size();
+                        noGoods = null;
+                    }
+                } else if (backjumping) {
+                    if (explanations == null) {
+                        explanations = new Explanations(store);
+                        if (reducer != null) {
+                            reducer.setExplanations(explanations);
+                        }
+                    }
+                    explanations.start();
+                    var search = new BackjumpSearch(this, explanations);
+                    try {
+                        search.run();
+                    } finally {
+                        explanations.stop();
+                        backjumpsCounter = search.getBackjumps();
+                        skippedBranchesCounter = search.getSkipped();
+                    }
+                } else if (lazyClauses) {
+                    var search = new LazyClauseSearch(this);
+                    try {
+                        search.run();
+                    } finally {
+                        conflictsCounter = search.getConflicts();
+                        learntClausesCounter = search.getLearnts();
+                    }
+                } else if (neighborhoods != null) {
+                    var search = new NeighborhoodSearch(this, neighborhoods, (OptimizationStrategy) strategy);
+                    try {
+                        search.run();
+                    } finally {
+                        neighborhoodsCounter = search.getNeighborhoods();
+                        optimumProved = search.isOptimal();
+                    }
+                } else if (decomposition && countOnly && consumer == null) {
+                    solutionsCounter = countComponents();
+                } else if (decomposition && strategy instanceof OptimizationStrategy optimization) {
+                    optimizeByComponents(optimization.getTarget());
+                } else {
+                    findSolutions();
+                }
+            }
+        } catch (CancellationException e) {
+            if (!stopped) throw e;
+        } finally {
+            trail.backtrack(level);
+            if (ownFlag) {
+                cancelled = null;
+            }
+        }
+        return (consumer == null && !countOnly) ? solutions.count() : solutionsCounter;
+    }
+
+    /*
+     * Les solutions d'un thread d'une recherche parallèle d'optimisation notent leur coût.
+     */
+    void recordSolutionCosts() {
+        solutionCosts = new ArrayList<>();
+    }
+
+    /*
+     * Garde les solutions de coût optimal trouvées par les threads, triées par valeurs :
+     * le résultat ne dépend pas de quel thread a trouvé quoi, ni quand.
+     */
+    private void keepOptimal(List<Solver> workers, int best) {
+        List<Solutions.Assignment> optimal = new ArrayList<>();
+        for (Solver worker : workers) {
+            var all = worker.solutions.getAll();
+            for (int i = 0; i < worker.solutionCosts.size(); i++) {
+                if (worker.solutionCosts.get(i) != best) continue;
+                solutionsCounter++;
+                // rien n'est enregistré en comptage ou avec un consommateur
+                if (i < all.size()) optimal.add(all.get(i));
+            }
+        }
+        optimal.sort(Solutions.BY_VALUES);
+        optimal.forEach(solutions::add);
+    }
+
+    /*
+     * Recherche sur le modèle réduit ; ses solutions portent déjà les noms de ce modèle.
+     */
+    private long solvePresolved() {
+        var presolver = new Presolve(this);
+        Solver reduced = presolver.run();
+        presolveStats = presolver.getStats();
+        solutions.clear();
+        solutionsCounter = 0;
+        nodesCounter = 0;
+        restartsCounter = 0;
+        noGoodsCounter = 0;
+        backjumpsCounter = 0;
+        skippedBranchesCounter = 0;
+        conflictsCounter = 0;
+        learntClausesCounter = 0;
+        neighborhoodsCounter = 0;
+        optimumProved = false;
+        if (reduced == null) {
+            return 0;
+        }
+        reduced.maxNodes = maxNodes;
+        reduced.verbose = verbose;
+        reduced.parallelism = parallelism;
+        reduced.decomposition = decomposition;
+        reduced.restarts = restarts;
+        reduced.backjumping = backjumping;
+        reduced.lazyClauses = lazyClauses;
+        reduced.neighborhoods = neighborhoods;
+        reduced.countOnly = countOnly;
+        reduced.cancelled = cancelled;
+        reduced.consumer = consumer;
+        try {
+            reduced.solve();
+        } finally {
+            nodesCounter = reduced.nodesCounter;
+            solutionsCounter = reduced.solutionsCounter;
+            restartsCounter = reduced.restartsCounter;
+            noGoodsCounter = reduced.noGoodsCounter;
+            backjumpsCounter = reduced.backjumpsCounter;
+            skippedBranchesCounter = reduced.skippedBranchesCounter;
+            conflictsCounter = reduced.conflictsCounter;
+            learntClausesCounter = reduced.learntClausesCounter;
+            neighborhoodsCounter = reduced.neighborhoodsCounter;
+            optimumProved = reduced.optimumProved;
+            solutions.addAll(reduced.solutions);
+        }
+        return (consumer == null && !countOnly) ? solutions.count() : solutionsCounter;
+    }
+
+    public long countSolutions() {
+        countOnly = true;
+        try {
+            return solve();
+        } finally {
+            countOnly = false;
+        }
+    }
+
+    public long solve(Predicate<Solutions.Assignment> consumer) {
+        this.consumer = consumer;
+        try {
+            return solve();
+        } finally {
+            this.consumer = null;
+        }
+    }
+
+    public Iterator<Solutions.Assignment> iterateSolutions() {
+        return new SolutionIterator(this);
+    }
+
+    public Stream<Solutions.Assignment> streamSolutions() {
+        var iterator = new SolutionIterator(this);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /*
+     * Remet à zéro les compteurs et prépare une nouvelle recherche.
+     */
+    void reset() {
         this.solutions.clear();
         this.solutionsCounter = 0;
         this.nodesCounter = 0;
-        this.checker = new Checker(constraints);
-        if (!strategy.before(this)) return 0;
-        findSolutions();
+        this.restartsCounter = 0;
+        this.noGoodsCounter = 0;
+        this.backjumpsCounter = 0;
+        this.skippedBranchesCounter = 0;
+        this.conflictsCounter = 0;
+        this.learntClausesCounter = 0;
+        this.neighborhoodsCounter = 0;
+        this.optimumProved = false;
+        this.stopped = false;
+        prepare();
+        if (reducer != null) {
+            reducer.scheduleAll();
+        }
+    }
+
+    boolean before() {
+        return strategy.before(this);
+    }
+
+    void setConsumer(Predicate<Solutions.Assignment> consumer) {
+        this.consumer = consumer;
+    }
+
+    private void prepare() {
+        this.checker = new Checker(constraints, store);
+        this.searchIds = variables.stream().mapToInt(Variable::getId).toArray();
+        if (outputNames != null) {
+            this.namedIds = outputIds;
+            this.names = outputNames;
+        } else {
+            this.namedIds = variables.stream().filter(Variable::isNamed).mapToInt(Variable::getId).toArray();
+            this.names = variables.stream().filter(Variable::isNamed).map(Variable::getName).toArray(String[]::new);
+        }
+        this.components = decomposition ? new Components(store, constraints) : null;
+    }
+
+    /*
+     * Copie du modèle (variables, contraintes, domaines courants) pour un autre thread.
+     * Les variables gardent leurs identifiants : les instantanés d'un stockage peuvent
+     * donc être chargés dans l'autre.
+     */
+    Solver copyModel() {
+        return copyModel(strategy);
+    }
+
+    Solver copyModel(IStrategy strategy) {
+        return copyModel(strategy, constraints, variables);
+    }
+
+    /*
+     * Copie restreinte aux contraintes et variables données, qui appartiennent à ce modèle.
+     */
+    Solver copyModel(IStrategy strategy, List<Constraint> constraints, List<Variable> variables) {
+        Solver copy = new Solver();
+        copy.maxNodes = maxNodes;
+        copy.cancelled = cancelled;
+        copy.countOnly = countOnly;
+        copy.outputNames = outputNames;
+        copy.outputIds = outputIds;
+        copy.solutions.setDisplay(false);
+        Variable[] map = new Variable[store.size()];
+        for (int id = 0; id < map.length; id++) {
+            map[id] = store.copy(id, copy.store);
+        }
+        copy.store.restore(store.snapshot());
+        for (Variable v : variables) {
+            copy.variables.add(map[v.getId()]);
+        }
+        // une vue partage l'identifiant de sa variable : on la recrée sur la copie
+        Function<Variable, Variable> mapping = v ->
+                (v instanceof View view) ? view.over(map[v.getId()]) : map[v.getId()];
+        for (Constraint c : constraints) {
+            if (c.global() != null) {
+                Variable[] vars = Arrays.stream(c.global().getVariables())
+                        .map(mapping)
+                        .toArray(Variable[]::new);
+                copy.constraints.add(new Constraint(c.global().copy(vars)));
+            } else {
+                copy.constraints.add(new Constraint(c.type(),
+                        (c.result() == null) ? null : mapping.apply(c.result()),
+                        (c.var1() == null) ? null : mapping.apply(c.var1()),
+                        (c.var2() == null) ? null : mapping.apply(c.var2())));
+            }
+        }
+        copy.strategy = strategy.copy(mapping);
+        if (consumer != null) {
+            // un seul appel à la fois, et plus aucun après un refus
+            copy.consumer = assignment -> {
+                synchronized (this) {
+                    if (stopped) return false;
+                    if (consumer.test(assignment)) return true;
+                    stopped = true;
+                    return false;
+                }
+            };
+        }
+        copy.prepare();
+        return copy;
+    }
+
+    /*
+     * Variables nommées rapportées dans les solutions, avec leurs identifiants.
+     */
+    void setOutputs(String[] names, int[] ids) {
+        this.outputNames = names;
+        this.outputIds = ids;
+    }
+
+    List<Constraint> getConstraints() {
+        return constraints;
+    }
+
+    void addConstraint(Constraint c) {
+        constraints.add(c);
+    }
+
+    IStrategy getStrategy() {
+        return strategy;
+    }
+
+    /*
+     * Drapeau partagé qui interrompt la recherche dès qu'il passe à true.
+     */
+    void setCancelled(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long solvePortfolio(IStrategy... strategies) {
+        return new Portfolio(this, strategies).solve();
+    }
+
+    /*
+     * Reprend les solutions et compteurs d'une copie du modèle.
+     */
+    long keepResults(Solver winner) {
+        solutions.clear();
+        solutions.addAll(winner.solutions);
+        nodesCounter = winner.nodesCounter;
+        solutionsCounter = winner.solutionsCounter;
         return solutions.count();
     }
 
+    /*
+     * Remplace tous les domaines par ceux de l'instantané, hors trail.
+     */
+    void load(DomainStore.Snapshot snapshot) {
+        store.restore(snapshot);
+        if (reducer != null) {
+            reducer.scheduleAll();
+        }
+    }
+
+    DomainStore getStore() {
+        return store;
+    }
+
+    Trail getTrail() {
+        return trail;
+    }
+
+
+    long getSolutionsCounter() {
+        return solutionsCounter;
+    }
 
     public long getNodesCounter() {
         return nodesCounter;
     }
 
+    public long getPropagationsCounter() {
+        return (reducer == null) ? 0 : reducer.getTotalCalls();
+    }
+
     public void setMaxNodes(long maxNodes) {
         this.maxNodes = maxNodes;
     }
 
+    public void setPresolve(boolean presolve) {
+        this.presolve = presolve;
+    }
+
+    public Presolve.Stats getPresolveStats() {
+        return presolveStats;
+    }
+
+    public void setRestarts(Restarts restarts) {
+        this.restarts = restarts;
+    }
+
+    public long getRestartsCounter() {
+        return restartsCounter;
+    }
+
+    public long getNoGoodsCounter() {
+        return noGoodsCounter;
+    }
+
+    public void setBackjumping(boolean backjumping) {
+        this.backjumping = backjumping;
+    }
+
+    public long getBackjumpsCounter() {
+        return backjumpsCounter;
+    }
+
+    public long getSkippedBranchesCounter() {
+        return skippedBranchesCounter;
+    }
+
+    public void setLazyClauseGeneration(boolean lazyClauses) {
+        this.lazyClauses = lazyClauses;
+    }
+
+    public long getConflictsCounter() {
+        return conflictsCounter;
+    }
+
+    public long getLearntClausesCounter() {
+        return learntClausesCounter;
+    }
+
+    public void setNeighborhoods(Neighborhoods neighborhoods) {
+        this.neighborhoods = neighborhoods;
+    }
+
+    public long getNeighborhoodsCounter() {
+        return neighborhoodsCounter;
+    }
+
+    public boolean isOptimumProved() {
+        return optimumProved;
+    }
+
+    public void setDecomposition(boolean decomposition) {
+        this.decomposition = decomposition;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     public void setVerbose(boolean verbose) {
         this.verbose = verbose;
     }
@@ -397,49 +1327,66 @@ public class Solver implements ISolver {
     }
 
     public void in(Variable var, int min, int max) {
-        var.init(min, max);
+        restore(var);
+        if (var.getStore() == store) {
+            var.init(min, max);
+            return;
+        }
+        var.attach(store, min, max);
         variables.add(var);
     }
 
 
+    /*
+     * Retire les variables anonymes qu'aucune contrainte n'utilise ; seules les
+     * candidates sont examinées, et la liste n'est parcourue que s'il y a à retirer.
+     */
     private void simplifyAnonymousVariables() {
-        List<Constraint> toRemove = new ArrayList<>();
-        for (Constraint c1 : new ArrayList<>(constraints)) {
-            if (c1.result() == null) continue;
-            Variable result = c1.result();
-            if (result.isNamed()) continue;
-            for (Constraint c2 : new ArrayList<>(constraints)) {
-                if (c2.result() == null) continue;
-
-                if (c2.var1() == result && c2.var2() != null) {
-                    Variable replacement = c2.var2();
-                    Constraint newC = new Constraint(c1.type(), replacement, c1.var1(), c1.var2());
-                    constraints.add(newC);
-                    toRemove.add(c1);
-                    toRemove.add(c2);
-                } else if (c2.var2() == result && c2.var1() != null) {
-                    Variable replacement = c2.var1();
-                    Constraint newC = new Constraint(c1.type(), replacement, c1.var1(), c1.var2());
-                    constraints.add(newC);
-                    toRemove.add(c1);
-                    toRemove.add(c2);
-                }
-            }
+        unused.removeIf(v -> uses.getOrDefault(v, 0) > 0);
+        if (!unused.isEmpty()) {
+            variables.removeIf(unused::contains);
+            unused.clear();
+        }
+    }
+
+    public void setBranching(Branching branching) {
+        switch (strategy) {
+            case AlwaysReduceStrategy s -> s.setBranching(branching);
+            case DefaultStrategy s -> s.setBranching(branching);
+            default -> throw new IllegalStateException("strategy without branching: " + strategy);
         }
-        constraints.removeAll(toRemove);
-        variables.removeIf(v -> !v.isNamed() && constraints.stream()
-                .noneMatch(c -> c.var1() == v || c.var2() == v || c.result() == v));
     }
 
     public void alwaysReduceStrategy() {
         this.strategy = new AlwaysReduceStrategy();
     }
 
+    public void domWdegStrategy() {
+        this.strategy = new DomWdegStrategy();
+    }
+
+    public void activityStrategy() {
+        this.strategy = new ActivityStrategy();
+    }
+
+    public void impactStrategy() {
+        this.strategy = new ImpactStrategy();
+    }
+
     public void optimizationStrategy(Variable target) {
+        restore(target);
         this.strategy = new OptimizationStrategy(target);
     }
 
     public ISolver buildAssignmentProblem(int[][] costs) {
+        return buildAssignmentProblem(costs, false);
+    }
+
+    /**
+     * Same model; with {@code costBound}, an {@link AssignmentCost} constraint is added
+     * over the cells and the cost, whose Hungarian lower bound prunes the search.
+     */
+    public ISolver buildAssignmentProblem(int[][] costs, boolean costBound) {
         var solver = new Solver();
         int nbTasks = costs.length;
         int nbAgents = costs[0].length;
@@ -477,6 +1424,43 @@ public class Solver implements ISolver {
 
         var costVar = solver.newVar("COST", 0, 9999);
         solver.addRelation(costExpr, "=", costVar);
+        if (costBound) {
+            solver.addAssignmentRelation(costs, matrix, costVar);
+        }
+
+        solver.setVerbose(false);
+        solver.optimizationStrategy(costVar);
+
+        return solver;
+    }
+
+    /**
+     * Same problem with one variable per task, the agent it is given: the agents are
+     * all different, and the cost of each task is an element of its row of costs.
+     * Tasks are named T0, T1... and the total cost COST.
+     */
+    public ISolver buildIntegerAssignmentProblem(int[][] costs) {
+        var solver = new Solver();
+        int nbTasks = costs.length;
+        int nbAgents = costs[0].length;
+        Variable[] tasks = new Variable[nbTasks];
+        for (int t = 0; t < nbTasks; t++) {
+            tasks[t] = solver.newVar("T" + t, 0, nbAgents - 1);
+        }
+        solver.addAllDiffRelation(true, tasks);
+
+        Variable[] terms = new Variable[nbTasks + 1];
+        int[] coefs = new int[nbTasks + 1];
+        for (int t = 0; t < nbTasks; t++) {
+            int[] row = costs[t];
+            terms[t] = solver.newVar(Arrays.stream(row).min().orElseThrow(), Arrays.stream(row).max().orElseThrow());
+            solver.addElementRelation(row, tasks[t], terms[t]);
+            coefs[t] = 1;
+        }
+        var costVar = solver.newVar("COST", 0, 9999);
+        terms[nbTasks] = costVar;
+        coefs[nbTasks] = -1;
+        solver.addLinearRelation(coefs, terms, "=", 0);
 
         solver.setVerbose(false);
         solver.optimizationStrategy(costVar);
@@ -484,6 +1468,72 @@ public class Solver implements ISolver {
         return solver;
     }
 
+    /**
+     * Job-shop: job j is the sequence of operations k on machine machines[j][k], lasting
+     * durations[j][k]; a machine does one operation at a time, and the end of the last
+     * operation, named MAKESPAN, is minimized. Operations start at Sj_k. With
+     * {@code disjunctive}, each machine is a disjunctive constraint; otherwise each
+     * pair of operations on a machine gets a 0/1 order variable and two big-M sums.
+     */
+    public ISolver buildJobShopProblem(int[][] machines, int[][] durations, boolean disjunctive) {
+        var solver = new Solver();
+        int horizon = Arrays.stream(durations).flatMapToInt(Arrays::stream).sum();
+        int nbMachines = Arrays.stream(machines).flatMapToInt(Arrays::stream).max().orElse(-1) + 1;
+        List<List<Variable>> starts = new ArrayList<>();
+        List<List<Integer>> lengths = new ArrayList<>();
+        for (int m = 0; m < nbMachines; m++) {
+            starts.add(new ArrayList<>());
+            lengths.add(new ArrayList<>());
+        }
+        List<Variable> lasts = new ArrayList<>();
+        List<Integer> lastDurations = new ArrayList<>();
+        for (int j = 0; j < machines.length; j++) {
+            Variable previous = null;
+            for (int k = 0; k < machines[j].length; k++) {
+                int p = durations[j][k];
+                var start = solver.newVar("S" + j + "_" + k, 0, horizon - p);
+                if (previous != null) {
+                    // l'opération précédente est finie
+                    solver.addLinearRelation(new int[] {1, -1}, new Variable[] {previous, start}, "<=",
+                            -durations[j][k - 1]);
+                }
+                starts.get(machines[j][k]).add(start);
+                lengths.get(machines[j][k]).add(p);
+                previous = start;
+            }
+            if (previous != null) {
+                lasts.add(previous);
+                lastDurations.add(durations[j][machines[j].length - 1]);
+            }
+        }
+        var makespan = solver.newVar("MAKESPAN", 0, horizon);
+        for (int j = 0; j < lasts.size(); j++) {
+            solver.addLinearRelation(new int[] {1, -1}, new Variable[] {lasts.get(j), makespan}, "<=",
+                    -lastDurations.get(j));
+        }
+        for (int m = 0; m < nbMachines; m++) {
+            Variable[] ops = starts.get(m).toArray(new Variable[0]);
+            int[] ps = lengths.get(m).stream().mapToInt(Integer::intValue).toArray();
+            if (disjunctive) {
+                solver.addDisjunctiveRelation(ops, ps);
+                continue;
+            }
+            for (int a = 0; a < ops.length; a++) {
+                for (int b = a + 1; b < ops.length; b++) {
+                    // ordre = 1 : a avant b, sinon b avant a
+                    var order = solver.newVar(0, 1);
+                    solver.addLinearRelation(new int[] {1, -1, horizon}, new Variable[] {ops[a], ops[b], order},
+                            "<=", horizon - ps[a]);
+                    solver.addLinearRelation(new int[] {1, -1, -horizon}, new Variable[] {ops[b], ops[a], order},
+                            "<=", -ps[b]);
+                }
+            }
+        }
+        solver.setVerbose(false);
+        solver.optimizationStrategy(makespan);
+        return solver;
+    }
+
     public ISolver makeQueens(int n) {
         ISolver solver = new Solver();
         var queens = new Variable[n];
@@ -0,0 +1,398 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Contrainte globale "table" : les variables prennent ensemble les valeurs d'un des tuples
+ * autorisés. Propagée par compact-table (Demeulenaere et al., 2016) : un bitset réversible
+ * contient les tuples encore valides ; quand des domaines changent, il est intersecté mot
+ * par mot avec les supports de leurs valeurs restantes, et une valeur dont les supports ne
+ * le rencontrent plus est retirée. Les tuples sont donnés à la suite dans un seul tableau ;
+ * les supports construits à partir d'eux sont partagés par les copies de la contrainte.
+ * Une variable répétée dans la portée garde une seule colonne, et seulement les tuples
+ * qui s'accordent sur elle.
+ */
+public class Table extends GlobalConstraint {
+
+    /** Au-delà de ce nombre de valeurs, celles d'un domaine absentes des tuples ne sont retirées que des bornes. */
+    static final int MAX_SCANNED_VALUES = 1 << 16;
+
+    /*
+     * Supports d'une colonne : ses valeurs distinctes triées et, pour chacune, les mots
+     * non nuls de l'ensemble de ses tuples avec leurs positions.
+     */
+    private record Column(int[] values, int[][] positions, long[][] words) {
+    }
+
+    /* Nombre de tuples et supports de chaque colonne, partagés par les copies. */
+    private record Supports(int count, Column[] columns) {
+    }
+
+    private final int count;
+    private final Column[] columns;
+
+    // tuples encore valides ; min, max et taille de chaque domaine à la dernière réduction
+    private final ReversibleBitset current;
+    private final long[] seen;
+    private int generation = -1;
+
+    private final int[][] residues;
+    private final int[] found;
+    private final long[] scratch;
+    private final long[] union;
+
+    public Table(Variable[] vars, int[] tuples) {
+        this(scope(vars), compile(vars, tuples));
+    }
+
+    private Table(Variable[] vars, Supports supports) {
+        super(vars);
+        this.count = supports.count;
+        this.columns = supports.columns;
+        this.current = new ReversibleBitset(count);
+        this.seen = new long[3 * vars.length];
+        this.residues = new int[vars.length][];
+        int distinct = 0;
+        for (int x = 0; x < vars.length; x++) {
+            // aucune réduction encore : la première remet la table entière
+            seen[3 * x] = Integer.MAX_VALUE;
+            seen[3 * x + 1] = Integer.MIN_VALUE;
+            residues[x] = new int[columns[x].values.length];
+            distinct = Math.max(distinct, columns[x].values.length);
+        }
+        this.found = new int[distinct];
+        this.scratch = new long[(count + 63) >>> 6];
+        this.union = new long[scratch.length];
+    }
+
+    /* Les variables de la portée, chacune une fois, dans l'ordre de leur première colonne. */
+    private static Variable[] scope(Variable[] vars) {
+        Variable[] scope = new Variable[vars.length];
+        int n = 0;
+        for (int x = 0; x < vars.length; x++) {
+            if (first(vars, x) == x) {
+                scope[n++] = vars[x];
+            }
+        }
+        return Arrays.copyOf(scope, n);
+    }
+
+    private static int first(Variable[] vars, int x) {
+        for (int y = 0; y < x; y++) {
+            if (vars[y] == vars[x]) return y;
+        }
+        return x;
+    }
+
+    /*
+     * Une variable répétée ne garde que sa première colonne : seuls restent les tuples
+     * dont toutes ses colonnes portent la même valeur.
+     */
+    private static Supports compile(Variable[] vars, int[] tuples) {
+        int arity = vars.length;
+        if (arity == 0) {
+            throw new IllegalArgumentException("table without variables");
+        }
+        if (tuples.length % arity != 0) {
+            throw new IllegalArgumentException("tuples length " + tuples.length + " is not a multiple of " + arity);
+        }
+        int[] first = new int[arity];
+        int[] kept = new int[arity];
+        int distinct = 0;
+        for (int x = 0; x < arity; x++) {
+            first[x] = first(vars, x);
+            if (first[x] == x) {
+                kept[distinct++] = x;
+            }
+        }
+        if (distinct < arity) {
+            int[] merged = new int[tuples.length / arity * distinct];
+            int n = 0;
+            for (int t = 0; t < tuples.length; t += arity) {
+                boolean agree = true;
+                for (int x = 0; x < arity && agree; x++) {
+                    agree = tuples[t + x] == tuples[t + first[x]];
+                }
+                if (!agree) continue;
+                for (int i = 0; i < distinct; i++) {
+                    merged[n++] = tuples[t + kept[i]];
+                }
+            }
+            tuples = Arrays.copyOf(merged, n);
+            arity = distinct;
+        }
+        Column[] columns = new Column[arity];
+        for (int x = 0; x < arity; x++) {
+            columns[x] = column(tuples, arity, x);
+        }
+        return new Supports(tuples.length / arity, columns);
+    }
+
+    /*
+     * Les tuples arrivent dans l'ordre : un nouveau mot commence pour une valeur quand
+     * l'indice de mot de ses tuples change. Deux passes, pour allouer juste ce qu'il faut.
+     */
+    private static Column column(int[] tuples, int arity, int x) {
+        int count = tuples.length / arity;
+        int[] sorted = new int[count];
+        for (int t = 0; t < count; t++) {
+            sorted[t] = tuples[t * arity + x];
+        }
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int t = 0; t < count; t++) {
+            if (t == 0 || sorted[t] != sorted[t - 1]) {
+                sorted[distinct++] = sorted[t];
+            }
+        }
+        int[] values = Arrays.copyOf(sorted, distinct);
+        // sorted garde maintenant la valeur de chaque tuple, par son rang
+        int[] sizes = new int[distinct];
+        int[] lastWords = new int[distinct];
+        Arrays.fill(lastWords, -1);
+        for (int t = 0; t < count; t++) {
+            int k = Arrays.binarySearch(values, tuples[t * arity + x]);
+            sorted[t] = k;
+            if (lastWords[k] != t >>> 6) {
+                lastWords[k] = t >>> 6;
+                sizes[k]++;
+            }
+        }
+        int[][] positions = new int[distinct][];
+        long[][] words = new long[distinct][];
+        for (int k = 0; k < distinct; k++) {
+            positions[k] = new int[sizes[k]];
+            words[k] = new long[sizes[k]];
+            sizes[k] = 0;
+        }
+        for (int t = 0; t < count; t++) {
+            int k = sorted[t];
+            int n = sizes[k];
+            if (n == 0 || positions[k][n - 1] != t >>> 6) {
+                positions[k][n++] = t >>> 6;
+                sizes[k] = n;
+            }
+            words[k][n - 1] |= 1L << t;
+        }
+        return new Column(values, positions, words);
+    }
+
+    @Override
+    public ConstraintType getType() {
+        return ConstraintType.TABLE;
+    }
+
+    @Override
+    public GlobalConstraint copy(Variable[] vars) {
+        return new Table(vars, new Supports(count, columns));
+    }
+
+    public int getTupleCount() {
+        return count;
+    }
+
+    @Override
+    public boolean reduce() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        DomainStore store = vars[0].getStore();
+        Trail trail = store.getTrail();
+        // un domaine élargi hors du trail (modèle modifié, instantané chargé) : tout est refait
+        boolean reset = (store.getGeneration() != generation);
+        int changed = 0;
+        int last = -1;
+        for (int x = 0; x < vars.length; x++) {
+            Variable v = vars[x];
+            if (v.getMin() < seen[3 * x] || v.getMax() > seen[3 * x + 1]) {
+                reset = true;
+            } else if (v.getSize() != seen[3 * x + 2]) {
+                changed++;
+                last = x;
+            }
+        }
+        if (reset) {
+            generation = store.getGeneration();
+            current.fill(trail);
+        }
+        for (int x = 0; x < vars.length; x++) {
+            if (reset || vars[x].getSize() != seen[3 * x + 2]) {
+                current.clearMask();
+                Column column = columns[x];
+                int n = present(x);
+                for (int i = 0; i < n; i++) {
+                    current.addToMask(column.positions[found[i]], column.words[found[i]]);
+                }
+                current.intersectWithMask(trail);
+                if (current.isEmpty()) {
+                    vars[x].reduce(1, -1);
+                    return true;
+                }
+            }
+        }
+        // une seule variable modifiée garde toutes ses valeurs supportées
+        int skip = (!reset && changed == 1) ? last : -1;
+        boolean modified = false;
+        for (int x = 0; x < vars.length; x++) {
+            if (x == skip) continue;
+            modified = filter(x) || modified;
+        }
+        for (int x = 0; x < vars.length; x++) {
+            Variable v = vars[x];
+            save(trail, 3 * x, v.getMin());
+            save(trail, 3 * x + 1, v.getMax());
+            save(trail, 3 * x + 2, v.getSize());
+        }
+        return modified;
+    }
+
+    private void save(Trail trail, int i, long value) {
+        if (seen[i] != value) {
+            trail.saveCell(seen, i);
+            seen[i] = value;
+        }
+    }
+
+    /*
+     * Range dans found les rangs des valeurs de la colonne x présentes dans son domaine,
+     * en parcourant le plus petit des deux.
+     */
+    private int present(int x) {
+        Variable v = vars[x];
+        int[] values = columns[x].values;
+        int from = Arrays.binarySearch(values, v.getMin());
+        if (from < 0) from = -from - 1;
+        int n = 0;
+        if (v.getSize() < values.length - from) {
+            for (int value = v.getMin(); value <= v.getMax() && from < values.length; value = v.next(value)) {
+                int k = Arrays.binarySearch(values, from, values.length, value);
+                if (k >= 0) {
+                    found[n++] = k;
+                    from = k + 1;
+                } else {
+                    from = -k - 1;
+                }
+            }
+        } else {
+            for (int k = from; k < values.length && values[k] <= v.getMax(); k++) {
+                if (v.contains(values[k])) {
+                    found[n++] = k;
+                }
+            }
+        }
+        return n;
+    }
+
+    /*
+     * Retire de x les valeurs sans tuple valide, puis celles qui n'apparaissent dans
+     * aucun tuple : par les bornes, et une à une pour un domaine assez petit.
+     */
+    private boolean filter(int x) {
+        Variable v = vars[x];
+        Column column = columns[x];
+        int n = present(x);
+        boolean modified = false;
+        int kept = 0;
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int k = found[i];
+            int j = current.intersectIndex(column.positions[k], column.words[k], residues[x][k]);
+            if (j < 0) {
+                modified = v.reduceExcept(column.values[k]) || modified;
+            } else {
+                residues[x][k] = j;
+                kept++;
+                first = Math.min(first, column.values[k]);
+                last = Math.max(last, column.values[k]);
+            }
+        }
+        if (kept == 0) {
+            return v.reduce(1, -1);
+        }
+        modified = v.reduce(first, last) || modified;
+        if (v.getSize() > kept && v.getSize() <= MAX_SCANNED_VALUES) {
+            for (int value = v.getMin(); value <= v.getMax(); value = v.next(value)) {
+                if (Arrays.binarySearch(column.values, value) < 0) {
+                    modified = v.reduceExcept(value) || modified;
+                }
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean check() {
+        for (Variable v : vars) {
+            if (v.isEmpty()) return false;
+        }
+        if (fixed()) {
+            return fixedTupleAllowed();
+        }
+        if (inSync()) {
+            return !current.isEmpty();
+        }
+        // domaines changés depuis la dernière réduction : intersection complète, hors du trail
+        Arrays.fill(scratch, -1L);
+        for (int x = 0; x < vars.length; x++) {
+            Arrays.fill(union, 0);
+            Column column = columns[x];
+            int n = present(x);
+            for (int i = 0; i < n; i++) {
+                int[] positions = column.positions[found[i]];
+                long[] words = column.words[found[i]];
+                for (int j = 0; j < positions.length; j++) {
+                    union[positions[j]] |= words[j];
+                }
+            }
+            for (int w = 0; w < scratch.length; w++) {
+                scratch[w] &= union[w];
+            }
+        }
+        for (long word : scratch) {
+            if (word != 0) return true;
+        }
+        return false;
+    }
+
+    private boolean fixed() {
+        for (Variable v : vars) {
+            if (!v.isOneValue()) return false;
+        }
+        return true;
+    }
+
+    /*
+     * Cherche le tuple des valeurs fixées, mot par mot parmi les tuples de la valeur de la
+     * première variable, sans passer par la table réversible.
+     */
+    private boolean fixedTupleAllowed() {
+        int first = Arrays.binarySearch(columns[0].values, vars[0].getMin());
+        if (first < 0) return false;
+        int[] positions = columns[0].positions[first];
+        long[] words = columns[0].words[first];
+        for (int j = 0; j < positions.length; j++) {
+            long word = words[j];
+            for (int x = 1; x < vars.length && word != 0; x++) {
+                Column column = columns[x];
+                int k = Arrays.binarySearch(column.values, vars[x].getMin());
+                if (k < 0) return false;
+                int p = Arrays.binarySearch(column.positions[k], positions[j]);
+                word = (p < 0) ? 0 : word & column.words[k][p];
+            }
+            if (word != 0) return true;
+        }
+        return false;
+    }
+
+    private boolean inSync() {
+        if (vars[0].getStore().getGeneration() != generation) return false;
+        for (int x = 0; x < vars.length; x++) {
+            Variable v = vars[x];
+            if (v.getMin() != seen[3 * x] || v.getMax() != seen[3 * x + 1] || v.getSize() != seen[3 * x + 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,168 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Pile de sauvegarde des bornes (trail).
+ * Les bornes d'une variable sont sauvegardées au plus une fois par point de choix, et
+ * seulement quand elles changent ; les mots d'un bitset de trous le sont à chaque
+ * retrait. Le retour arrière les restaure directement dans le {@link DomainStore}, sans
+ * prévenir les observateurs. Les cases des structures réversibles des contraintes ont
+ * leur propre pile, restaurée aux mêmes points de choix.
+ */
+public class Trail {
+
+    private final DomainStore store;
+    private int[] ids = new int[64];
+    private int[] mins = new int[64];
+    private int[] maxs = new int[64];
+    private long[] words = new long[64];
+    private int size = 0;
+
+    private int[] marks = new int[16];
+    private int level = 0;
+
+    // cases des structures réversibles des contraintes, dans une pile à part
+    private long[][] cellArrays = new long[16][];
+    private int[] cellPositions = new int[16];
+    private long[] cellValues = new long[16];
+    private int cells = 0;
+    private int[] cellMarks = new int[16];
+
+    private long stamp = 0;
+    private long stampCounter = 0;
+
+    Trail(DomainStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Saves the current bounds of variable {@code id} if they have not been saved
+     * since the last choice point.
+     */
+    void save(int id) {
+        if (level == 0 || store.stamps[id] == stamp) return;
+        ensureCapacity();
+        ids[size] = id;
+        mins[size] = store.mins[id];
+        maxs[size] = store.maxs[id];
+        size++;
+        store.stamps[id] = stamp;
+    }
+
+    /**
+     * Saves word {@code w} of the holes bitset of variable {@code id}.
+     */
+    void saveWord(int id, int w) {
+        if (level == 0) return;
+        ensureCapacity();
+        ids[size] = ~id;
+        mins[size] = w;
+        words[size] = store.bits[id][w];
+        size++;
+    }
+
+    /**
+     * Saves cell {@code i} of {@code array}, owned by a constraint; it is restored with
+     * the bounds on backtrack.
+     */
+    void saveCell(long[] array, int i) {
+        if (level == 0) return;
+        if (cells == cellArrays.length) {
+            int capacity = cells * 2;
+            cellArrays = Arrays.copyOf(cellArrays, capacity);
+            cellPositions = Arrays.copyOf(cellPositions, capacity);
+            cellValues = Arrays.copyOf(cellValues, capacity);
+        }
+        cellArrays[cells] = array;
+        cellPositions[cells] = i;
+        cellValues[cells] = array[i];
+        cells++;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+    }
+
+    /** Records a choice point marker. */
+    public void push() {
+        if (level == marks.length) {
+            marks = Arrays.copyOf(marks, level * 2);
+            cellMarks = Arrays.copyOf(cellMarks, level * 2);
+        }
+        cellMarks[level] = cells;
+        marks[level++] = size;
+        stamp = ++stampCounter;
+    }
+
+    /** Restores all bounds changed since the last choice point, which is kept. */
+    public void undo() {
+        int mark = marks[level - 1];
+        int[] storeMins = store.mins;
+        int[] storeMaxs = store.maxs;
+        while (size > mark) {
+            size--;
+            int id = ids[size];
+            if (id >= 0) {
+                storeMins[id] = mins[size];
+                storeMaxs[id] = maxs[size];
+            } else {
+                store.bits[~id][mins[size]] = words[size];
+            }
+        }
+        int cellMark = cellMarks[level - 1];
+        while (cells > cellMark) {
+            cells--;
+            cellArrays[cells][cellPositions[cells]] = cellValues[cells];
+            cellArrays[cells] = null;
+        }
+        stamp = ++stampCounter;
+    }
+
+    /** Restores all bounds changed since the last choice point and removes it. */
+    public void pop() {
+        undo();
+        level--;
+    }
+
+    /** Pops choice points until only {@code target} of them remain. */
+    public void backtrack(int target) {
+        while (level > target) {
+            pop();
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /** Position of the last choice point, 0 if there is none. */
+    int mark() {
+        return (level == 0) ? 0 : marks[level - 1];
+    }
+
+    /*
+     * Entrée i de la pile : identifiant de la variable, ~id pour un mot de trous.
+     */
+    int savedId(int i) {
+        return ids[i];
+    }
+
+    int savedMin(int i) {
+        return mins[i];
+    }
+
+    int savedMax(int i) {
+        return maxs[i];
+    }
+
+    public int size() {
+        return size;
+    }
+}
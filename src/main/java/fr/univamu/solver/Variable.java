@@ -1,94 +1,200 @@
 package fr.univamu.solver;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
-public class Variable extends Interval {
+/*
+ * Poignée sur une variable d'un DomainStore : domaine, nom et observateurs sont
+ * rangés dans le stockage, à l'indice id.
+ */
+public sealed class Variable implements IInterval permits View {
 
-	private static long anonymousCounter = 0;
-	private final String name;
-	private final boolean named;
-	private int min;
-	private int max;
-	private final List<Consumer<Variable>> observers = new ArrayList<>();
+	private DomainStore store;
+	private int id;
 
 	public static final int MIN_VALUE = -999999;
 	public static final int MAX_VALUE = 999999;
 
 
 	public Variable() {
-		named = false;
-		name = "_" + (++anonymousCounter);
+		this(new DomainStore(1), null, Interval.MIN_VALUE, Interval.MAX_VALUE);
 	}
 
 	public Variable(String name) {
-		named = true;
-		this.name = name;
+		this(new DomainStore(1), name, Interval.MIN_VALUE, Interval.MAX_VALUE);
+	}
+
+	public Variable(String name, Interval domain) {
+		this(new DomainStore(1), name, domain.getMin(), domain.getMax());
+	}
+
+	/*
+	 * Variable créée directement dans le stockage d'un solveur.
+	 */
+	Variable(DomainStore store, String name, int min, int max) {
+		this.store = store;
+		this.id = store.register(this, name, min, max);
+	}
+
+	/*
+	 * Copie d'une variable dans un autre stockage : même nom, domaine courant
+	 * (voir DomainStore.copy).
+	 */
+	Variable(DomainStore store, Variable original) {
+		this.store = store;
+		this.id = store.register(this, original.isNamed() ? original.getName() : null,
+				original.getMin(), original.getMax());
+	}
+
+	/*
+	 * Vue sur une autre variable : même stockage, même identifiant, pas de domaine propre.
+	 */
+	Variable(Variable base) {
+		this.store = base.store;
+		this.id = base.id;
+	}
+
+
+
+	/*
+	 * Rattache la variable au stockage d'un solveur, avec le domaine donné.
+	 */
+	void attach(DomainStore store, int min, int max) {
+		this.id = store.moveIn(this, this.store, id, min, max);
+		this.store = store;
 	}
 
 	public void init(int min, int max) {
-		this.min = min;
-		this.max = max;
+		if (min <= max && store.hasHoles(id)) {
+			min = store.nextPresent(id, min);
+			max = store.prevPresent(id, max);
+			if (min > max) {
+				min = 1;
+				max = -1;
+			}
+		}
+		store.getTrail().save(id);
+		store.mins[id] = min;
+		store.maxs[id] = max;
 		notifyObservers();
 	}
 
-	public Variable(String name, Interval domain) {
-		super(domain.getMin(), domain.getMax());
-		this.named = true;
-		this.name = name;
+	public int getId() {
+		return id;
+	}
+
+	DomainStore getStore() {
+		return store;
+	}
+
+	boolean hasHoles() {
+		return store.hasHoles(id);
+	}
+
+	@Override
+	public int getMin() {
+		return store.mins[id];
+	}
+
+	@Override
+	public int getMax() {
+		return store.maxs[id];
 	}
 
 	public void addObserver(Consumer<Variable> observer) {
-		observers.add(observer);
+		store.addObserver(id, observer);
 	}
 
 	private void notifyObservers() {
-		for (Consumer<Variable> obs : observers) {
-			obs.accept(this);
-		}
+		store.notifyObservers(id);
 	}
 
 	@Override
 	public boolean reduce(int newMin, int newMax) {
-		if (newMin > max || newMax < min) {
-			min = 1; max = -1;            // empty interval
+		int min = store.mins[id];
+		int max = store.maxs[id];
+		if (min > max) return false;
+		if (newMin > max || newMax < min || newMin > newMax) {
+			store.getTrail().save(id);
+			store.mins[id] = 1;            // empty interval
+			store.maxs[id] = -1;
 			notifyObservers();
 			return true;
 		}
-		boolean changed = false;
-		if (newMin > min) { min = newMin; changed = true; }
-		if (newMax < max) { max = newMax; changed = true; }
-		if (changed) notifyObservers();
-		return changed;
+		if (newMin <= min && newMax >= max) return false;
+		newMin = Math.max(newMin, min);
+		newMax = Math.min(newMax, max);
+		if (store.hasHoles(id)) {
+			// les bornes sont toujours des valeurs du domaine
+			newMin = store.nextPresent(id, newMin);
+			newMax = store.prevPresent(id, newMax);
+			if (newMin > newMax) return reduce(1, -1);
+		}
+		store.getTrail().save(id);
+		store.mins[id] = newMin;
+		store.maxs[id] = newMax;
+		notifyObservers();
+		return true;
 	}
 
-	public int getMin() {
-		return min;
+	@Override
+	public boolean contains(int value) {
+		return store.contains(id, value);
 	}
 
-	public int getMax() {
-		return max;
+	@Override
+	public int getSize() {
+		return store.cardinality(id);
 	}
 
-	public int getSize() {
-		return (max >= min) ? (max - min + 1) : 0;
+	/**
+	 * Returns the smallest value of the domain greater than {@code value},
+	 * or {@code getMax() + 1} if there is none.
+	 */
+	public int next(int value) {
+		int max = store.maxs[id];
+		if (value >= max) return max + 1;
+		return Math.min(store.nextPresent(id, Math.max(value + 1, store.mins[id])), max + 1);
 	}
 
-	public boolean contains(int value) {
-		return value >= min && value <= max;
+	/*
+	 * Plus grande valeur du domaine inférieure à value, ou getMin() - 1.
+	 */
+	int prev(int value) {
+		int min = store.mins[id];
+		if (value <= min) return min - 1;
+		return Math.max(store.prevPresent(id, Math.min(value - 1, store.maxs[id])), min - 1);
 	}
+
 	public int getFixedValue() {
 		if (isOneValue()) return getMin();
 		throw new IllegalStateException("variable not fixed: " + this);
 	}
 
+	/*
+	 * Retire une valeur du domaine. Une valeur intérieure devient un trou, sauf si
+	 * l'intervalle est trop large pour un bitset (voir DomainStore.MAX_BITSET_RANGE).
+	 */
 	public boolean reduceExcept(int val) {
 		if (!contains(val)) return false;
-		if (getSize() == 1) return false;
-		if (val == min) return reduce(val + 1, max);
-		if (val == max) return reduce(min, val - 1);
-		return reduce(min, val - 1) || reduce(val + 1, max);
+		if (isOneValue()) return false;
+		if (val == getMin()) return reduce(val + 1, getMax());
+		if (val == getMax()) return reduce(getMin(), val - 1);
+		if (!store.removeValue(id, val)) return false;
+		notifyObservers();
+		return true;
+	}
+
+	/*
+	 * Une variable est identifiée par son instance, pas par son domaine courant.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
 	}
 
 	@Override
@@ -99,10 +205,10 @@ public class Variable extends Interval {
 
 
 	public String getName() {
-		return name;
+		return store.getName(id);
 	}
 
 	public boolean isNamed() {
-		return named;
+		return store.isNamed(id);
 	}
 }
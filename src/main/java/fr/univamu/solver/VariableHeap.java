@@ -0,0 +1,139 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Tas binaire indexé sur les identifiants de variables.
+ * Le sommet est la variable de plus petite clé ; les clés égales sont ordonnées par
+ * rang, de sorte que le choix ne dépend pas de l'histoire du tas. Les clés se
+ * modifient en O(log n) par {@link #update}.
+ */
+class VariableHeap {
+
+    private int[] heap;
+    private int[] positions;   // position dans le tas, -1 si absente
+    private double[] keys;
+    private int[] ranks;
+    private int size = 0;
+
+    VariableHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        keys = new double[capacity];
+        ranks = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int id) {
+        return id < positions.length && positions[id] >= 0;
+    }
+
+    int top() {
+        return heap[0];
+    }
+
+    double key(int id) {
+        return keys[id];
+    }
+
+    void insert(int id, double key, int rank) {
+        if (contains(id)) {
+            update(id, key);
+            return;
+        }
+        if (id >= positions.length) {
+            int capacity = Math.max(id + 1, positions.length * 2);
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, capacity);
+            Arrays.fill(positions, old, capacity, -1);
+            keys = Arrays.copyOf(keys, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(1, size * 2));
+        }
+        keys[id] = key;
+        ranks[id] = rank;
+        heap[size] = id;
+        positions[id] = size++;
+        up(positions[id]);
+    }
+
+    /** Changes the key of {@code id}; ignored if {@code id} is not in the heap. */
+    void update(int id, double key) {
+        if (!contains(id)) return;
+        double old = keys[id];
+        keys[id] = key;
+        if (key < old) {
+            up(positions[id]);
+        } else if (key > old) {
+            down(positions[id]);
+        }
+    }
+
+    int pop() {
+        int id = heap[0];
+        positions[id] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            down(0);
+        }
+        return id;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /** Multiplies every key by {@code factor > 0}, which keeps the order. */
+    void scale(double factor) {
+        for (int i = 0; i < size; i++) {
+            keys[heap[i]] *= factor;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && ranks[a] < ranks[b]);
+    }
+
+    private void up(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(id, heap[parent])) break;
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    private void down(int i) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], id)) break;
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        positions[id] = i;
+    }
+}
@@ -0,0 +1,163 @@
+package fr.univamu.solver;
+
+import java.util.function.Consumer;
+
+/**
+ * Vue a·x + b sur une variable x.
+ * Une vue n'a pas de domaine propre : elle lit et réduit le domaine de x, sans
+ * variable auxiliaire ni contrainte pour rester égale à a·x + b. Elle partage
+ * l'identifiant de x : les structures indexées par identifiant (composantes, copies
+ * du modèle, événements de propagation) voient la variable sous-jacente.
+ */
+final class View extends Variable {
+
+    private final Variable base;
+    private final int scale;
+    private final int offset;
+
+    private View(Variable base, int scale, int offset) {
+        super(base);
+        this.base = base;
+        this.scale = scale;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns a variable equal to {@code scale·x + offset}: x itself for the identity,
+     * otherwise a view on the variable under x.
+     */
+    static Variable of(Variable x, int scale, int offset) {
+        if (scale == 0) {
+            throw new IllegalArgumentException("zero scale");
+        }
+        if (x instanceof View view) {
+            // a·(a'·y + b') + b = (a·a')·y + (a·b' + b)
+            offset = Math.addExact(Math.multiplyExact(scale, view.offset), offset);
+            scale = Math.multiplyExact(scale, view.scale);
+            x = view.base;
+        }
+        if (scale == 1 && offset == 0) return x;
+        return new View(x, scale, offset);
+    }
+
+    Variable getBase() {
+        return base;
+    }
+
+    int getScale() {
+        return scale;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    /** Same view over another variable, e.g. the copy of its base in another model. */
+    View over(Variable base) {
+        return new View(base, scale, offset);
+    }
+
+    private int image(long value) {
+        return clamp(scale * value + offset);
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    @Override
+    public int getMin() {
+        return image((scale > 0) ? base.getMin() : base.getMax());
+    }
+
+    @Override
+    public int getMax() {
+        return image((scale > 0) ? base.getMax() : base.getMin());
+    }
+
+    @Override
+    public void init(int min, int max) {
+        if (min > max) {
+            base.init(1, -1);
+        } else if (scale > 0) {
+            base.init(clamp(Math.ceilDiv((long) min - offset, scale)), clamp(Math.floorDiv((long) max - offset, scale)));
+        } else {
+            base.init(clamp(Math.ceilDiv((long) max - offset, scale)), clamp(Math.floorDiv((long) min - offset, scale)));
+        }
+    }
+
+    @Override
+    public boolean reduce(int newMin, int newMax) {
+        if (newMin > newMax) {
+            return base.reduce(1, -1);
+        }
+        if (scale > 0) {
+            return base.reduce(clamp(Math.ceilDiv((long) newMin - offset, scale)),
+                    clamp(Math.floorDiv((long) newMax - offset, scale)));
+        }
+        return base.reduce(clamp(Math.ceilDiv((long) newMax - offset, scale)),
+                clamp(Math.floorDiv((long) newMin - offset, scale)));
+    }
+
+    @Override
+    public boolean contains(int value) {
+        long q = (long) value - offset;
+        if (q % scale != 0) return false;
+        q /= scale;
+        return q >= Integer.MIN_VALUE && q <= Integer.MAX_VALUE && base.contains((int) q);
+    }
+
+    @Override
+    public int getSize() {
+        return base.getSize();
+    }
+
+    @Override
+    boolean hasHoles() {
+        return base.hasHoles() || (Math.abs(scale) > 1 && base.getMin() < base.getMax());
+    }
+
+    @Override
+    public int next(int value) {
+        long q = (long) value - offset;
+        if (scale > 0) {
+            int t = base.next(clamp(Math.floorDiv(q, scale)));
+            return (t > base.getMax()) ? getMax() + 1 : image(t);
+        }
+        int t = base.prev(clamp(Math.ceilDiv(q, scale)));
+        return (t < base.getMin()) ? getMax() + 1 : image(t);
+    }
+
+    @Override
+    int prev(int value) {
+        long q = (long) value - offset;
+        if (scale > 0) {
+            int t = base.prev(clamp(Math.ceilDiv(q, scale)));
+            return (t < base.getMin()) ? getMin() - 1 : image(t);
+        }
+        int t = base.next(clamp(Math.floorDiv(q, scale)));
+        return (t > base.getMax()) ? getMin() - 1 : image(t);
+    }
+
+    @Override
+    public boolean reduceExcept(int value) {
+        if (!contains(value)) return false;
+        return base.reduceExcept((int) (((long) value - offset) / scale));
+    }
+
+    @Override
+    public void addObserver(Consumer<Variable> observer) {
+        base.addObserver(x -> observer.accept(this));
+    }
+
+    /* Le nom rangé à l'identifiant partagé est celui de la base : une vue est anonyme. */
+    @Override
+    public String getName() {
+        return "_" + getId() + "'";
+    }
+
+    @Override
+    public boolean isNamed() {
+        return false;
+    }
+}
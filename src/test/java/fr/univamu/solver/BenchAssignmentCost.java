@@ -0,0 +1,76 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mesure de la borne hongroise sur les problèmes d'affectation.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchAssignmentCost [maxSize]} ; des
+ * problèmes d'affectation aléatoires de taille croissante (jusqu'à 25 par défaut) sont
+ * résolus à l'optimum avec la contrainte d'affectation, et sans elle, avec le modèle en
+ * matrice 0/1 et avec le modèle entier (coûts par element), tant que cela reste sous la
+ * limite de noeuds ; les noeuds et les temps sont rapportés.
+ */
+public class BenchAssignmentCost {
+
+    private static final long NODE_LIMIT = 2_000_000;
+
+    public static void main(String[] args) {
+        int maxSize = (args.length > 0) ? Integer.parseInt(args[0]) : 25;
+        System.out.printf("%6s %8s %14s %8s %14s %8s %12s %8s%n", "n", "optimum", "decomp. nodes", "ms",
+                "integer nodes", "ms", "bound nodes", "ms");
+        boolean[] running = {true, true};
+        for (int n = 5; n <= maxSize; n += 5) {
+            int[][] costs = costs(n, n);
+            long[] bound = run(costs, 0);
+            String[] columns = new String[4];
+            Arrays.fill(columns, "-");
+            for (int model = 1; model <= 2; model++) {
+                if (!running[model - 1]) continue;
+                long[] result = run(costs, model);
+                if (result == null) {
+                    running[model - 1] = false;
+                    columns[2 * model - 2] = "> " + NODE_LIMIT;
+                    continue;
+                }
+                if (result[0] != bound[0]) {
+                    throw new IllegalStateException("n = " + n + ": optimum " + result[0] + " instead of " + bound[0]);
+                }
+                columns[2 * model - 2] = Long.toString(result[1]);
+                columns[2 * model - 1] = Long.toString(result[2]);
+            }
+            System.out.printf("%6d %8d %14s %8s %14s %8s %12d %8d%n", n, bound[0], columns[0], columns[1], columns[2],
+                    columns[3], bound[1], bound[2]);
+        }
+    }
+
+    /*
+     * Optimum, noeuds et temps, ou null si la limite de noeuds est atteinte ; modèle 0
+     * avec la contrainte d'affectation, 1 matrice seule, 2 entiers.
+     */
+    private static long[] run(int[][] costs, int model) {
+        Solver solver = (Solver) ((model == 2) ? new Solver().buildIntegerAssignmentProblem(costs)
+                : new Solver().buildAssignmentProblem(costs, model == 0));
+        solver.getSolutions().setDisplay(false);
+        solver.setMaxNodes(NODE_LIMIT);
+        long start = System.nanoTime();
+        try {
+            solver.solve();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        return new long[] {((OptimizationStrategy) solver.getStrategy()).getBestValue(), solver.getNodesCounter(), ms};
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(100);
+            }
+        }
+        return costs;
+    }
+}
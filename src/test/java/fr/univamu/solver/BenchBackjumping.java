@@ -0,0 +1,121 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare le retour arrière intelligent au retour arrière chronologique.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchBackjumping} ; chaque modèle est
+ * résolu deux fois, et les noeuds économisés par le retour arrière intelligent sont
+ * rapportés avec les branches sautées et les deux temps. Les comptes et les optima
+ * doivent être identiques.
+ */
+public class BenchBackjumping {
+
+    public static void main(String[] args) {
+        System.out.printf("%-28s %12s %12s %8s %10s %8s %8s%n", "model", "chrono nodes", "bj nodes",
+                "saved %", "skipped", "chrono ms", "bj ms");
+        run("queens 10", () -> (Solver) new Solver().makeQueens(10));
+        run("queens 10 propagated", () -> {
+            Solver solver = (Solver) new Solver().makeQueens(10);
+            solver.alwaysReduceStrategy();
+            return solver;
+        });
+        run("queens 10 dom/wdeg", () -> {
+            Solver solver = (Solver) new Solver().makeQueens(10);
+            solver.domWdegStrategy();
+            return solver;
+        });
+        run("AB + BA = CBC", BenchBackjumping::abc);
+        run("assignment 7x7", () -> (Solver) new Solver().buildAssignmentProblem(costs(7, 3)));
+        run("pigeons 4 in 3, 10 free", () -> pigeons(4, 3, 10));
+        for (int seed = 1; seed <= 3; seed++) {
+            final int s = seed;
+            run("random binary #" + seed, () -> random(new Random(s), 12, 5, 30));
+        }
+    }
+
+    private static void run(String name, Supplier<Solver> model) {
+        long[] nodes = new long[2];
+        long[] ms = new long[2];
+        long[] results = new long[2];
+        long skipped = 0;
+        for (int run = 0; run < 2; run++) {
+            Solver solver = model.get();
+            solver.getSolutions().setDisplay(false);
+            solver.setBackjumping(run == 1);
+            long start = System.nanoTime();
+            results[run] = solver.solve();
+            ms[run] = (System.nanoTime() - start) / 1_000_000;
+            nodes[run] = solver.getNodesCounter();
+            skipped = solver.getSkippedBranchesCounter();
+        }
+        if (results[0] != results[1]) {
+            throw new IllegalStateException(name + ": different results " + results[0] + " / " + results[1]);
+        }
+        System.out.printf("%-28s %12d %12d %8.1f %10d %8d %8d%n", name, nodes[0], nodes[1],
+                100.0 * (nodes[0] - nodes[1]) / Math.max(1, nodes[0]), skipped, ms[0], ms[1]);
+    }
+
+    private static Solver abc() {
+        Solver solver = new Solver();
+        var a = solver.newVar("A", 1, 9);
+        var b = solver.newVar("B", 1, 9);
+        var c = solver.newVar("C", 1, 9);
+        var ab = solver.expression(a, "*", 10, "+", b);
+        var ba = solver.expression(b, "*", 10, "+", a);
+        var cbc = solver.expression(c, "*", 100, "+", b, "*", 10, "+", c);
+        solver.addRelation(solver.expression(ab, "+", ba), "=", cbc);
+        solver.reduceAndCheckIntervalsStrategy();
+        return solver;
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(20);
+            }
+        }
+        return costs;
+    }
+
+    /*
+     * Pigeons deux à deux différents dans trop peu de trous, après des variables libres
+     * choisies avant eux.
+     */
+    private static Solver pigeons(int pigeons, int holes, int free) {
+        Solver solver = new Solver();
+        for (int i = 0; i < free; i++) {
+            solver.newVar("F" + i, 1, 2);
+        }
+        Variable[] ps = new Variable[pigeons];
+        for (int i = 0; i < pigeons; i++) {
+            ps[i] = solver.newVar("P" + i, 1, holes);
+        }
+        for (int i = 0; i < pigeons; i++) {
+            for (int j = i + 1; j < pigeons; j++) {
+                solver.addRelation(ps[i], "<>", ps[j]);
+            }
+        }
+        return solver;
+    }
+
+    private static Solver random(Random random, int n, int size, int relations) {
+        Solver solver = new Solver();
+        Variable[] xs = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = solver.newVar("X" + i, 1, size);
+        }
+        String[] operators = {"<>", "<=", "<", "="};
+        for (int k = 0; k < relations; k++) {
+            var x = xs[random.nextInt(n)];
+            var y = xs[random.nextInt(n)];
+            if (x != y) {
+                solver.addRelation(x, operators[random.nextInt(operators.length)], y);
+            }
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,57 @@
+package fr.univamu.solver;
+
+/**
+ * Compare le comptage seul avec l'enregistrement des solutions sur les n-reines.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchCountSolutions [maxN]} ; les
+ * solutions sont enregistrées sans être affichées : l'écart ne mesure que les allocations.
+ */
+public class BenchCountSolutions {
+
+    public static void main(String[] args) {
+        int maxN = (args.length > 0) ? Integer.parseInt(args[0]) : 12;
+        // chauffe du JIT
+        for (int i = 0; i < 3; i++) {
+            recorded(9);
+            counted(9);
+        }
+
+        System.out.printf("%3s %10s %12s %12s %12s %8s%n", "n", "solutions", "recorded ms", "counted ms", "alloc MB", "ratio");
+        for (int n = 8; n <= maxN; n++) {
+            long start = System.nanoTime();
+            long allocated = allocatedBytes();
+            long count = recorded(n);
+            long recordedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            long recordedBytes = allocatedBytes() - allocated;
+
+            start = System.nanoTime();
+            allocated = allocatedBytes();
+            long counted = counted(n);
+            long countedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            long countedBytes = allocatedBytes() - allocated;
+
+            if (count != counted) {
+                throw new IllegalStateException("different counts: " + count + " / " + counted);
+            }
+            System.out.printf("%3d %10d %12d %12d %5d / %-5d %8.2f%n", n, count, recordedMs, countedMs,
+                    recordedBytes >> 20, countedBytes >> 20, (double) recordedMs / countedMs);
+        }
+    }
+
+    private static long recorded(int n) {
+        ISolver solver = new Solver().makeQueens(n);
+        solver.getSolutions().setDisplay(false);
+        return solver.solve();
+    }
+
+    private static long counted(int n) {
+        return new Solver().makeQueens(n).countSolutions();
+    }
+
+    private static long allocatedBytes() {
+        var bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,105 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare la génération paresseuse de clauses à la recherche avec propagation.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchLazyClauses} ; chaque modèle est
+ * résolu avec la stratégie always-reduce, puis par génération paresseuse de clauses, et
+ * les noeuds, conflits, clauses apprises et temps sont rapportés. Les comptes et les
+ * optima doivent être identiques.
+ */
+public class BenchLazyClauses {
+
+    public static void main(String[] args) {
+        System.out.printf("%-26s %12s %10s %10s %10s %10s %8s%n", "model", "reduce nodes", "lcg nodes",
+                "conflicts", "learnt", "reduce ms", "lcg ms");
+        run("queens 10", () -> (Solver) new Solver().makeQueens(10));
+        run("pigeons 8 in 7", () -> pigeons(8, 7, 0));
+        run("pigeons 6 in 5, 8 free", () -> pigeons(6, 5, 8));
+        run("assignment 7x7", () -> (Solver) new Solver().buildAssignmentProblem(costs(7, 3)));
+        for (int seed = 1; seed <= 3; seed++) {
+            final int s = seed;
+            run("random linear #" + seed, () -> random(new Random(s), 16, 15, 8));
+        }
+    }
+
+    private static void run(String name, Supplier<Solver> model) {
+        long[] nodes = new long[2];
+        long[] ms = new long[2];
+        long[] results = new long[2];
+        long conflicts = 0;
+        long learnt = 0;
+        for (int run = 0; run < 2; run++) {
+            Solver solver = model.get();
+            solver.getSolutions().setDisplay(false);
+            if (!(solver.getStrategy() instanceof OptimizationStrategy)) {
+                solver.alwaysReduceStrategy();
+            }
+            solver.setLazyClauseGeneration(run == 1);
+            long start = System.nanoTime();
+            results[run] = solver.solve();
+            if (solver.getStrategy() instanceof OptimizationStrategy optimization) {
+                results[run] = optimization.getBestValue();
+            }
+            ms[run] = (System.nanoTime() - start) / 1_000_000;
+            nodes[run] = solver.getNodesCounter();
+            conflicts = solver.getConflictsCounter();
+            learnt = solver.getLearntClausesCounter();
+        }
+        if (results[0] != results[1]) {
+            throw new IllegalStateException(name + ": different results " + results[0] + " / " + results[1]);
+        }
+        System.out.printf("%-26s %12d %10d %10d %10d %10d %8d%n", name, nodes[0], nodes[1], conflicts, learnt,
+                ms[0], ms[1]);
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(20);
+            }
+        }
+        return costs;
+    }
+
+    /*
+     * Pigeons deux à deux différents dans trop peu de trous, après des variables libres.
+     */
+    private static Solver pigeons(int pigeons, int holes, int free) {
+        Solver solver = new Solver();
+        for (int i = 0; i < free; i++) {
+            solver.newVar("F" + i, 1, 2);
+        }
+        Variable[] ps = new Variable[pigeons];
+        for (int i = 0; i < pigeons; i++) {
+            ps[i] = solver.newVar("P" + i, 1, holes);
+        }
+        for (int i = 0; i < pigeons; i++) {
+            for (int j = i + 1; j < pigeons; j++) {
+                solver.addRelation(ps[i], "<>", ps[j]);
+            }
+        }
+        return solver;
+    }
+
+    /*
+     * Égalités linéaires aléatoires à trois termes, avec peu de solutions.
+     */
+    private static Solver random(Random random, int n, int size, int sums) {
+        Solver solver = new Solver();
+        Variable[] xs = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = solver.newVar("X" + i, 0, size);
+        }
+        for (int k = 0; k < sums; k++) {
+            int[] coefs = {1 + random.nextInt(3), -1 - random.nextInt(3), 1 + random.nextInt(3)};
+            Variable[] vars = {xs[random.nextInt(n)], xs[random.nextInt(n)], xs[random.nextInt(n)]};
+            solver.addLinearRelation(coefs, vars, "=", random.nextInt(size));
+        }
+        return solver;
+    }
+}
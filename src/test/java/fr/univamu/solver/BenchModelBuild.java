@@ -0,0 +1,47 @@
+package fr.univamu.solver;
+
+/**
+ * Mesure le temps de construction d'un modèle en fonction du nombre de contraintes.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchModelBuild [maxConstraints]} ; le modèle
+ * est une chaîne de relations {@code X(i) + 2·X(i+1) <= 20} et {@code X(i) <> X(i+1) - 1}
+ * écrites avec l'API d'expressions, suivie d'une propagation à la racine. Une construction
+ * linéaire double son temps quand la taille double.
+ */
+public class BenchModelBuild {
+
+    public static void main(String[] args) {
+        int max = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        // chauffe du JIT
+        for (int i = 0; i < 3; i++) {
+            build(10_000);
+        }
+
+        System.out.printf("%10s %10s %10s %10s %10s%n", "constraints", "variables", "build ms", "reduce ms", "us/rel");
+        for (int n = 12_500; n <= max; n *= 2) {
+            long start = System.nanoTime();
+            Solver solver = build(n);
+            long buildMs = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            if (!solver.reduce()) {
+                throw new IllegalStateException("model should be consistent");
+            }
+            long reduceMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%10d %10d %10d %10d %10.2f%n", solver.getConstraints().size(),
+                    solver.variables.size(), buildMs, reduceMs, buildMs * 1000.0 / n);
+        }
+    }
+
+    private static Solver build(int relations) {
+        Solver solver = new Solver();
+        int n = relations / 2 + 1;
+        Variable[] xs = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = solver.newVar("X" + i, 0, 10);
+        }
+        for (int i = 0; i + 1 < n; i++) {
+            solver.addRelation(solver.expression(xs[i], "+", xs[i + 1], "*", 2), "<=", 20);
+            solver.addRelation(xs[i], "<>", solver.expression(xs[i + 1], "-", 1));
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,60 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+
+/**
+ * Compare la recherche à grands voisinages à la séparation et évaluation.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchNeighborhoods [seconds]} ; sur des
+ * problèmes d'affectation aléatoires, chaque politique de voisinage reçoit le budget de
+ * temps (2 s par défaut), puis la séparation et évaluation reçoit autant de noeuds que
+ * la politique aléatoire en a utilisé, et les meilleurs coûts sont rapportés.
+ */
+public class BenchNeighborhoods {
+
+    public static void main(String[] args) {
+        long budget = (args.length > 0) ? Long.parseLong(args[0]) * 1000 : 2000;
+        System.out.printf("%-16s %10s %12s %10s %12s %12s%n", "model", "nodes", "b&b cost", "random", "structured",
+                "neighborhoods");
+        for (int n : new int[] {10, 20, 30}) {
+            int[][] costs = costs(n, n);
+            long[] random = lns(costs, Neighborhoods.random(0.2).withTimeLimit(budget));
+            long[] structured = lns(costs, Neighborhoods.structured(0.2).withTimeLimit(budget));
+            long bnb = branchAndBound(costs, random[1]);
+            System.out.printf("%-16s %10d %12d %10d %12d %12d%n", "assignment " + n + "x" + n, random[1], bnb,
+                    random[0], structured[0], random[2]);
+        }
+    }
+
+    /* Meilleur coût, noeuds et voisinages. */
+    private static long[] lns(int[][] costs, Neighborhoods policy) {
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+        solver.getSolutions().setDisplay(false);
+        solver.setNeighborhoods(policy.withStallLimit(Integer.MAX_VALUE));
+        solver.solve();
+        int best = ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+        return new long[] {best, solver.getNodesCounter(), solver.getNeighborhoodsCounter()};
+    }
+
+    private static long branchAndBound(int[][] costs, long nodes) {
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+        solver.getSolutions().setDisplay(false);
+        solver.setMaxNodes(nodes);
+        try {
+            solver.solve();
+        } catch (IllegalStateException e) {
+            // limite de noeuds atteinte : la meilleure valeur reste connue
+        }
+        return ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(100);
+            }
+        }
+        return costs;
+    }
+}
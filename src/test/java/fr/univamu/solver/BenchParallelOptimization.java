@@ -0,0 +1,59 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+
+/**
+ * Mesure de l'accélération de la séparation et évaluation parallèle.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchParallelOptimization [maxThreads]} ;
+ * affiche, pour des problèmes d'affectation aléatoires, le temps pour prouver l'optimum
+ * avec 1, 2, 4, ... threads. L'optimum ne doit pas dépendre du nombre de threads.
+ */
+public class BenchParallelOptimization {
+
+    public static void main(String[] args) {
+        int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        // chauffe du JIT
+        run(costs(7, 1), maxThreads);
+        run(costs(7, 1), 1);
+
+        System.out.printf("%3s %8s %8s %12s %10s %8s%n", "n", "threads", "optimum", "nodes", "ms", "speedup");
+        for (int n = 7; n <= 10; n++) {
+            int[][] costs = costs(n, n);
+            long reference = 0;
+            int optimum = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long start = System.nanoTime();
+                Solver solver = run(costs, threads);
+                long ms = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                int best = ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+                if (threads == 1) {
+                    reference = ms;
+                    optimum = best;
+                } else if (best != optimum) {
+                    throw new IllegalStateException("n = " + n + ": optimum " + best + " instead of " + optimum);
+                }
+                System.out.printf("%3d %8d %8d %12d %10d %8.2f%n", n, threads, best, solver.getNodesCounter(), ms,
+                        (double) reference / ms);
+            }
+        }
+    }
+
+    private static Solver run(int[][] costs, int threads) {
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+        solver.getSolutions().setDisplay(false);
+        solver.setParallelism(threads);
+        solver.solve();
+        return solver;
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(100);
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,37 @@
+package fr.univamu.solver;
+
+/**
+ * Mesure de l'accélération de la recherche parallèle sur les n-reines.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchParallelSearch [maxThreads]} ;
+ * affiche, pour n = 10..14, le temps et l'accélération avec 1, 2, 4, ... threads.
+ */
+public class BenchParallelSearch {
+
+    public static void main(String[] args) {
+        int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        // chauffe du JIT
+        run(10, maxThreads);
+        run(10, 1);
+
+        System.out.printf("%3s %8s %10s %12s %10s %8s%n", "n", "threads", "solutions", "nodes", "ms", "speedup");
+        for (int n = 10; n <= 14; n++) {
+            long reference = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long start = System.nanoTime();
+                ISolver solver = run(n, threads);
+                long ms = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                if (threads == 1) reference = ms;
+                System.out.printf("%3d %8d %10d %12d %10d %8.2f%n", n, threads, solver.getSolutions().count(),
+                        solver.getNodesCounter(), ms, (double) reference / ms);
+            }
+        }
+    }
+
+    private static ISolver run(int n, int threads) {
+        ISolver solver = new Solver().makeQueens(n);
+        solver.getSolutions().setDisplay(false);
+        solver.setParallelism(threads);
+        solver.solve();
+        return solver;
+    }
+}
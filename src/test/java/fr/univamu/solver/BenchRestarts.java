@@ -0,0 +1,73 @@
+package fr.univamu.solver;
+
+import java.util.Arrays;
+
+/**
+ * Compare la recherche d'une première solution avec et sans redémarrages.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchRestarts [maxNodes]} ; chaque ligne
+ * résout les n-reines, plus petit domaine d'abord et ordre de valeurs aléatoire, pour
+ * plusieurs graines, et rapporte le nombre médian de noeuds et combien de graines ont
+ * épuisé leurs noeuds. Sans redémarrage, un mauvais choix précoce peut coûter tout le
+ * budget ; avec, la descente suivante tire d'autres valeurs.
+ */
+public class BenchRestarts {
+
+    private static final int SEEDS = 9;
+
+    public static void main(String[] args) {
+        long maxNodes = (args.length > 0) ? Long.parseLong(args[0]) : 200_000;
+        System.out.printf("%6s %14s %8s %14s %8s %9s%n", "queens", "plain nodes", "failed",
+                "luby nodes", "failed", "restarts");
+        for (int n = 25; n <= 150; n += 25) {
+            long[] plain = new long[SEEDS];
+            long[] luby = new long[SEEDS];
+            int plainFailed = 0;
+            int lubyFailed = 0;
+            long restarts = 0;
+            for (int seed = 0; seed < SEEDS; seed++) {
+                plain[seed] = run(n, seed, null, maxNodes);
+                if (plain[seed] < 0) plainFailed++;
+                Solver solver = solver(n, seed, Restarts.luby(32), maxNodes);
+                luby[seed] = run(solver);
+                if (luby[seed] < 0) lubyFailed++;
+                restarts += solver.getRestartsCounter();
+            }
+            System.out.printf("%6d %14d %8d %14d %8d %9d%n", n, median(plain), plainFailed,
+                    median(luby), lubyFailed, restarts / SEEDS);
+        }
+    }
+
+    private static long run(int n, int seed, Restarts restarts, long maxNodes) {
+        return run(solver(n, seed, restarts, maxNodes));
+    }
+
+    private static Solver solver(int n, int seed, Restarts restarts, long maxNodes) {
+        Solver solver = (Solver) new Solver().makeQueens(n);
+        solver.alwaysReduceStrategy();
+        solver.setBranching(Branching.enumerate(Branching.Order.RANDOM).withSeed(seed));
+        solver.setRestarts(restarts);
+        solver.setMaxNodes(maxNodes);
+        return solver;
+    }
+
+    /*
+     * Noeuds pour trouver une solution, -1 si la limite est atteinte.
+     */
+    private static long run(Solver solver) {
+        try {
+            solver.solve(assignment -> false);
+            return solver.getNodesCounter();
+        } catch (IllegalStateException e) {
+            return -1;
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 0) sorted[i] = Long.MAX_VALUE;   // échec : pire que tout
+        }
+        Arrays.sort(sorted);
+        return (sorted[sorted.length / 2] == Long.MAX_VALUE) ? -1 : sorted[sorted.length / 2];
+    }
+}
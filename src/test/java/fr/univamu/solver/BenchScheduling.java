@@ -0,0 +1,111 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+
+/**
+ * Compare la contrainte disjonctive à sa décomposition sur des problèmes de job-shop.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchScheduling [maxNodes]} ;
+ * l'instance ft06 de Fisher et Thompson (optimum 55) et des instances carrées
+ * aléatoires sont résolues des deux façons dans la limite de noeuds (un million par
+ * défaut), chaque solution relançant la recherche sous sa durée totale, et les
+ * meilleures durées, les noeuds et les temps sont rapportés. Une durée marquée d'une *
+ * n'est pas prouvée.
+ */
+public class BenchScheduling {
+
+    // ft06 : machine et durée de chaque opération
+    private static final int[][] FT06 = {
+            {2, 1, 0, 3, 1, 6, 3, 7, 5, 3, 4, 6},
+            {1, 8, 2, 5, 4, 10, 5, 10, 0, 10, 3, 4},
+            {2, 5, 3, 4, 5, 8, 0, 9, 1, 1, 4, 7},
+            {1, 5, 0, 5, 2, 5, 3, 3, 4, 8, 5, 9},
+            {2, 9, 1, 3, 4, 5, 5, 4, 0, 3, 3, 1},
+            {1, 3, 3, 3, 5, 9, 0, 10, 4, 4, 2, 1}};
+
+    public static void main(String[] args) {
+        long maxNodes = (args.length > 0) ? Long.parseLong(args[0]) : 1_000_000;
+        System.out.printf("%-14s %12s %12s %10s %12s %12s %10s%n", "instance", "decomp.", "nodes", "ms",
+                "disjunctive", "nodes", "ms");
+        run("ft06", machines(FT06), durations(FT06), maxNodes);
+        for (int n = 4; n <= 8; n += 2) {
+            int[][] instance = random(n, n);
+            run("random " + n + "x" + n, machines(instance), durations(instance), maxNodes);
+        }
+    }
+
+    private static void run(String name, int[][] machines, int[][] durations, long maxNodes) {
+        String[] columns = new String[6];
+        for (int model = 0; model < 2; model++) {
+            long nodes = 0;
+            int best = Integer.MAX_VALUE;
+            boolean proved = true;
+            long start = System.nanoTime();
+            try {
+                // chaque solution relance la recherche sous une borne stricte, sans énumérer les ex aequo
+                while (true) {
+                    Solver solver = (Solver) new Solver().buildJobShopProblem(machines, durations, model == 1);
+                    solver.getSolutions().setDisplay(false);
+                    solver.setMaxNodes(maxNodes - nodes);
+                    Variable makespan = ((OptimizationStrategy) solver.getStrategy()).getTarget();
+                    if (best != Integer.MAX_VALUE) {
+                        makespan.reduce(makespan.getMin(), best - 1);
+                    }
+                    int[] found = {Integer.MAX_VALUE};
+                    try {
+                        solver.solve(solution -> {
+                            found[0] = solution.values().get("MAKESPAN");
+                            return false;
+                        });
+                    } finally {
+                        nodes += solver.getNodesCounter();
+                    }
+                    if (found[0] == Integer.MAX_VALUE) break;
+                    best = found[0];
+                }
+            } catch (IllegalStateException e) {
+                // limite de noeuds : la meilleure valeur trouvée reste connue
+                proved = false;
+            }
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            columns[3 * model] = (best == Integer.MAX_VALUE) ? "-" : best + (proved ? "" : "*");
+            columns[3 * model + 1] = Long.toString(nodes);
+            columns[3 * model + 2] = Long.toString(ms);
+        }
+        System.out.printf("%-14s %12s %12s %10s %12s %12s %10s%n", name, columns[0], columns[1], columns[2],
+                columns[3], columns[4], columns[5]);
+    }
+
+    private static int[][] machines(int[][] instance) {
+        int[][] machines = new int[instance.length][instance[0].length / 2];
+        for (int j = 0; j < instance.length; j++) {
+            for (int k = 0; k < machines[j].length; k++) {
+                machines[j][k] = instance[j][2 * k];
+            }
+        }
+        return machines;
+    }
+
+    private static int[][] durations(int[][] instance) {
+        int[][] durations = new int[instance.length][instance[0].length / 2];
+        for (int j = 0; j < instance.length; j++) {
+            for (int k = 0; k < durations[j].length; k++) {
+                durations[j][k] = instance[j][2 * k + 1];
+            }
+        }
+        return durations;
+    }
+
+    /* Chaque job passe une fois sur chaque machine, dans un ordre et avec des durées au hasard. */
+    private static int[][] random(int jobs, long seed) {
+        Random random = new Random(seed);
+        int[][] instance = new int[jobs][2 * jobs];
+        for (int[] job : instance) {
+            int[] order = random.ints(0, jobs).distinct().limit(jobs).toArray();
+            for (int k = 0; k < jobs; k++) {
+                job[2 * k] = order[k];
+                job[2 * k + 1] = 1 + random.nextInt(10);
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,104 @@
+package fr.univamu.solver;
+
+/**
+ * Compare la contrainte table à une chaîne d'expressions arithmétiques.
+ * Lancer avec {@code java ... fr.univamu.solver.BenchTable [modulus]} ; des chaînes de
+ * variables X[i+2] = (X[i]·X[i+1] + 7) mod m finissant par 0 sont résolues avec une
+ * table par maillon et avec le modèle en expressions, pour m croissant (jusqu'à 40 par
+ * défaut), et les solutions, noeuds et temps sont rapportés ; le modèle en expressions
+ * est abandonné dès qu'il dépasse la limite de noeuds. Une dernière ligne mesure le
+ * chargement d'une table d'un million de tuples et une requête sur elle.
+ */
+public class BenchTable {
+
+    private static final int LENGTH = 8;
+    private static final long NODE_LIMIT = 2_000_000;
+
+    public static void main(String[] args) {
+        int maxModulus = (args.length > 0) ? Integer.parseInt(args[0]) : 40;
+        System.out.printf("%6s %10s %12s %10s %12s %10s%n", "m", "solutions", "expr. nodes", "ms", "table nodes",
+                "ms");
+        boolean running = true;
+        for (int m = 5; m <= maxModulus; m *= 2) {
+            long[] table = run(m, true);
+            String[] columns = {"> " + NODE_LIMIT, "-"};
+            long[] expressions = running ? run(m, false) : null;
+            if (expressions == null) {
+                running = false;
+            } else if (expressions[0] != table[0]) {
+                throw new IllegalStateException("m = " + m + ": " + table[0] + " solutions instead of " + expressions[0]);
+            } else {
+                columns[0] = Long.toString(expressions[1]);
+                columns[1] = Long.toString(expressions[2]);
+            }
+            System.out.printf("%6d %10d %12s %10s %12d %10d%n", m, table[0], columns[0], columns[1], table[1], table[2]);
+        }
+        load(1000);
+    }
+
+    /* Solutions, noeuds et millisecondes ; null au-delà de la limite de noeuds. */
+    private static long[] run(int m, boolean table) {
+        long start = System.nanoTime();
+        Solver solver = new Solver();
+        Variable[] x = new Variable[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            x[i] = solver.newVar("X" + i, 0, m - 1);
+        }
+        int[] tuples = tuples(m);
+        for (int i = 0; i + 2 < LENGTH; i++) {
+            if (table) {
+                solver.addTableRelation(new Variable[] {x[i], x[i + 1], x[i + 2]}, tuples);
+            } else {
+                // le reste par un quotient explicite : a·b + 7 = q·m + c
+                Variable quotient = solver.newVar("Q" + i, 0, m);
+                solver.addRelation(solver.expression(x[i], "*", x[i + 1], "+", 7), "=",
+                        solver.expression(quotient, "*", m, "+", x[i + 2]));
+            }
+        }
+        solver.addRelation(x[LENGTH - 1], "=", 0);
+        solver.getSolutions().setDisplay(false);
+        solver.alwaysReduceStrategy();
+        solver.setMaxNodes(NODE_LIMIT);
+        long solutions;
+        try {
+            solutions = solver.solve();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        return new long[] {solutions, solver.getNodesCounter(), (System.nanoTime() - start) / 1_000_000};
+    }
+
+    /* (a, b, (a·b + 7) mod m), ligne après ligne. */
+    private static int[] tuples(int m) {
+        int[] tuples = new int[3 * m * m];
+        int t = 0;
+        for (int a = 0; a < m; a++) {
+            for (int b = 0; b < m; b++) {
+                tuples[t++] = a;
+                tuples[t++] = b;
+                tuples[t++] = (a * b + 7) % m;
+            }
+        }
+        return tuples;
+    }
+
+    private static void load(int m) {
+        int[] tuples = tuples(m);
+        long start = System.nanoTime();
+        Solver solver = new Solver();
+        Variable a = solver.newVar("A", 0, m - 1);
+        Variable b = solver.newVar("B", 0, m - 1);
+        Variable c = solver.newVar("C", 0, m - 1);
+        solver.addTableRelation(new Variable[] {a, b, c}, tuples);
+        long loaded = System.nanoTime();
+        // a·b + 7 ≡ 0 avec a < 10
+        solver.addRelation(a, "<", 10);
+        solver.addRelation(c, "=", 0);
+        solver.getSolutions().setDisplay(false);
+        solver.alwaysReduceStrategy();
+        long solutions = solver.solve();
+        long end = System.nanoTime();
+        System.out.printf("%d tuples: loaded in %d ms, %d solutions in %d ms and %d nodes%n", m * m,
+                (loaded - start) / 1_000_000, solutions, (end - loaded) / 1_000_000, solver.getNodesCounter());
+    }
+}
@@ -0,0 +1,43 @@
+package fr.univamu.solver;
+
+import java.util.Random;
+
+/*
+ * Petits modèles aléatoires pour comparer deux recherches sur les mêmes problèmes.
+ */
+final class RandomModels {
+
+    private RandomModels() {
+    }
+
+    /*
+     * Entre 5 et 7 variables et autant de relations tirées parmi les kinds premières
+     * sortes : comparaisons, sommes, produits, différences pondérées, sommes linéaires
+     * et différences globales. Avec negative, les domaines peuvent commencer à -1.
+     */
+    static Solver build(Random random, int kinds, boolean negative) {
+        Solver solver = new Solver();
+        int n = 5 + random.nextInt(3);
+        Variable[] xs = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = solver.newVar("X" + i, negative ? random.nextInt(2) - 1 : 0, 1 + random.nextInt(4));
+        }
+        String[] operators = {"<>", "<=", "<", "=", ">="};
+        for (int k = 0; k < n + random.nextInt(n); k++) {
+            var x = xs[random.nextInt(n)];
+            var y = xs[random.nextInt(n)];
+            if (x == y) continue;
+            String op = operators[random.nextInt(operators.length)];
+            switch (kinds > 1 ? random.nextInt(kinds) : 0) {
+                case 0 -> solver.addRelation(x, op, y);
+                case 1 -> solver.addRelation(solver.expression(x, "+", y), op, random.nextInt(7));
+                case 2 -> solver.addRelation(solver.expression(x, "*", y), op, xs[random.nextInt(n)]);
+                case 3 -> solver.addRelation(solver.expression(x, "-", y, "*", 2), op, random.nextInt(5) - 2);
+                case 4 -> solver.addLinearRelation(new int[] {2, -3, 1}, new Variable[] {x, y, xs[random.nextInt(n)]},
+                        op, random.nextInt(5) - 2);
+                default -> solver.addAllDiffRelation(x, y, xs[random.nextInt(n)]);
+            }
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,68 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class TestAllDifferent {
+
+    @Test
+    void testHallInterval() {
+        Variable X = new Variable("X", new Interval(1, 2));
+        Variable Y = new Variable("Y", new Interval(1, 2));
+        Variable Z = new Variable("Z", new Interval(1, 4));
+        Constraint c = new Constraint(new AllDifferent(new Variable[]{X, Y, Z}, false));
+
+        Reducer reducer = new Reducer(List.of(c));
+        assertTrue(reducer.reduceAll(false, List.of(X, Y, Z)));
+        assertEquals("[3,4]", Z.toString());
+        assertEquals("[1,2]", X.toString());
+    }
+
+    @Test
+    void testPigeonHole() {
+        Variable X = new Variable("X", new Interval(1, 2));
+        Variable Y = new Variable("Y", new Interval(1, 2));
+        Variable Z = new Variable("Z", new Interval(1, 2));
+        for (boolean domain : new boolean[]{false, true}) {
+            Constraint c = new Constraint(new AllDifferent(new Variable[]{X, Y, Z}, domain));
+            assertFalse(new Reducer(List.of(c)).reduceAll(false, List.of(X, Y, Z)));
+            X.init(1, 2);
+            Y.init(1, 2);
+            Z.init(1, 2);
+        }
+    }
+
+    @Test
+    void testDomainConsistency() {
+        // X vaut 1 et {Y, Z} occupent {2, 3} : il ne reste que 4 pour W
+        Variable X = new Variable("X", new Interval(1, 1));
+        Variable Y = new Variable("Y", new Interval(2, 3));
+        Variable Z = new Variable("Z", new Interval(2, 3));
+        Variable W = new Variable("W", new Interval(1, 4));
+        Constraint c = new Constraint(new AllDifferent(new Variable[]{X, Y, Z, W}, true));
+
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(X, Y, Z, W)));
+        assertEquals("[4,4]", W.toString());
+    }
+
+    @Test
+    void testQueensDomainConsistency() {
+        Solver solver = new Solver();
+        int n = 8;
+        var queens = new Variable[n];
+        var diagonals1 = new Variable[n];
+        var diagonals2 = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            queens[i] = solver.newVar("Q" + i, 1, n);
+            diagonals1[i] = solver.expression(queens[i], "+", i);
+            diagonals2[i] = solver.expression(queens[i], "-", i);
+        }
+        solver.addAllDiffRelation(true, queens);
+        solver.addAllDiffRelation(true, diagonals1);
+        solver.addAllDiffRelation(true, diagonals2);
+        solver.alwaysReduceStrategy();
+        assertEquals(92, solver.solve());
+    }
+}
@@ -0,0 +1,183 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TestAssignmentCost {
+
+    private static final int[][] COSTS = {{4, 1, 3}, {2, 0, 5}, {3, 2, 2}};
+
+    @Test
+    void testLowerBound() {
+        List<Variable> vars = new ArrayList<>();
+        Variable[] cells = cells(3, 3, vars);
+        Variable cost = new Variable("COST", new Interval(0, 100));
+        vars.add(cost);
+        Constraint c = new Constraint(new AssignmentCost(COSTS, cells, cost));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, vars));
+        assertEquals(5, cost.getMin());
+        assertEquals(100, cost.getMax());
+    }
+
+    @Test
+    void testReducedCostFiltering() {
+        // la seule affectation de coût 5 : T0A1, T1A0, T2A2 ; la suivante coûte 6
+        List<Variable> vars = new ArrayList<>();
+        Variable[] cells = cells(3, 3, vars);
+        Variable cost = new Variable("COST", new Interval(0, 5));
+        vars.add(cost);
+        Constraint c = new Constraint(new AssignmentCost(COSTS, cells, cost));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, vars));
+        int[] expected = {1, 0, 2};
+        for (int t = 0; t < 3; t++) {
+            for (int a = 0; a < 3; a++) {
+                Variable x = cells[t * 3 + a];
+                if (a == expected[t]) {
+                    assertTrue(x.contains(1), x.toString());
+                } else {
+                    assertEquals("[0,0]", x.toString());
+                }
+            }
+        }
+        assertEquals(5, cost.getMin());
+    }
+
+    @Test
+    void testInfeasible() {
+        List<Variable> vars = new ArrayList<>();
+        Variable[] cells = cells(3, 3, vars);
+        Variable cost = new Variable("COST", new Interval(0, 4));
+        vars.add(cost);
+        Constraint c = new Constraint(new AssignmentCost(COSTS, cells, cost));
+        assertFalse(new Reducer(List.of(c)).reduceAll(false, vars));
+
+        // plus de tâches que d'agents
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(new int[][] {{1, 2}, {3, 4}, {5, 6}}, true);
+        solver.getSolutions().setDisplay(false);
+        assertEquals(0, solver.solve());
+    }
+
+    @Test
+    void testSameOptimumFewerNodes() {
+        Random random = new Random(11);
+        for (int k = 0; k < 30; k++) {
+            int tasks = 3 + random.nextInt(4);
+            int agents = tasks + random.nextInt(2);
+            int[][] costs = new int[tasks][agents];
+            for (int[] row : costs) {
+                for (int a = 0; a < agents; a++) {
+                    row[a] = random.nextInt(30);
+                }
+            }
+            long[] nodes = new long[2];
+            int[] best = new int[2];
+            for (int run = 0; run < 2; run++) {
+                Solver solver = (Solver) new Solver().buildAssignmentProblem(costs, run == 1);
+                solver.getSolutions().setDisplay(false);
+                solver.solve();
+                nodes[run] = solver.getNodesCounter();
+                best[run] = ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+            }
+            assertEquals(best[0], best[1], "model " + k);
+            assertTrue(nodes[1] <= nodes[0], () -> "with bound: " + nodes[1] + ", without: " + nodes[0]);
+        }
+    }
+
+    @Test
+    void testSameSolutions() {
+        // toutes les affectations de coût au plus limit, avec et sans la contrainte
+        Random random = new Random(4);
+        for (int k = 0; k < 30; k++) {
+            int tasks = 2 + random.nextInt(3);
+            int agents = tasks + random.nextInt(2);
+            int[][] costs = new int[tasks][agents];
+            for (int[] row : costs) {
+                for (int a = 0; a < agents; a++) {
+                    row[a] = random.nextInt(10);
+                }
+            }
+            int limit = 5 + random.nextInt(10);
+            long[] counts = new long[2];
+            for (int run = 0; run < 2; run++) {
+                Solver solver = new Solver();
+                Variable[][] cells = new Variable[tasks][agents];
+                for (int t = 0; t < tasks; t++) {
+                    for (int a = 0; a < agents; a++) {
+                        cells[t][a] = solver.newVar("T" + t + "A" + a, 0, 1);
+                    }
+                    solver.addLinearRelation(ones(agents), cells[t], "=", 1);
+                }
+                for (int a = 0; a < agents; a++) {
+                    Variable[] column = new Variable[tasks];
+                    for (int t = 0; t < tasks; t++) {
+                        column[t] = cells[t][a];
+                    }
+                    solver.addLinearRelation(ones(tasks), column, "<=", 1);
+                }
+                Variable cost = solver.newVar("COST", 0, limit);
+                Variable[] all = new Variable[tasks * agents + 1];
+                int[] coefs = new int[all.length];
+                for (int t = 0; t < tasks; t++) {
+                    for (int a = 0; a < agents; a++) {
+                        all[t * agents + a] = cells[t][a];
+                        coefs[t * agents + a] = costs[t][a] + 1;
+                    }
+                }
+                all[all.length - 1] = cost;
+                coefs[all.length - 1] = -1;
+                // coûts décalés de 1 : le zéro n'est pas un coefficient
+                solver.addLinearRelation(coefs, all, "=", -tasks);
+                if (run == 1) {
+                    solver.addAssignmentRelation(costs, cells, cost);
+                }
+                solver.alwaysReduceStrategy();
+                solver.getSolutions().setDisplay(false);
+                counts[run] = solver.solve();
+            }
+            assertEquals(counts[0], counts[1], "model " + k);
+        }
+    }
+
+    @Test
+    void testOtherSearches() {
+        int[][] costs = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3}, {2, 5, 6, 7, 8}};
+        Solver reference = (Solver) new Solver().buildAssignmentProblem(costs);
+        reference.getSolutions().setDisplay(false);
+        reference.solve();
+        int optimum = ((OptimizationStrategy) reference.getStrategy()).getBestValue();
+        for (int mode = 0; mode < 4; mode++) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(costs, true);
+            solver.getSolutions().setDisplay(false);
+            switch (mode) {
+                case 0 -> solver.setLazyClauseGeneration(true);
+                case 1 -> solver.setBackjumping(true);
+                case 2 -> solver.setRestarts(Restarts.luby(2));
+                default -> solver.setParallelism(2);
+            }
+            solver.solve();
+            assertEquals(optimum, ((OptimizationStrategy) solver.getStrategy()).getBestValue(), "mode " + mode);
+        }
+    }
+
+    private static int[] ones(int n) {
+        int[] ones = new int[n];
+        Arrays.fill(ones, 1);
+        return ones;
+    }
+
+    private static Variable[] cells(int tasks, int agents, List<Variable> vars) {
+        Variable[] cells = new Variable[tasks * agents];
+        for (int t = 0; t < tasks; t++) {
+            for (int a = 0; a < agents; a++) {
+                cells[t * agents + a] = new Variable("T" + t + "A" + a, new Interval(0, 1));
+                vars.add(cells[t * agents + a]);
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,95 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class TestBackjumping {
+
+    @Test
+    void testCountsUnchanged() {
+        for (Consumer<Solver> setup : strategies()) {
+            Solver solver = (Solver) new Solver().makeQueens(8);
+            setup.accept(solver);
+            solver.setBackjumping(true);
+            solver.getSolutions().setDisplay(false);
+            assertEquals(92, solver.solve());
+            assertEquals(92, solver.countSolutions());
+        }
+    }
+
+    @Test
+    void testJumpsOverIndependentDecisions() {
+        long[] nodes = new long[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = new Solver();
+            for (int i = 0; i < 6; i++) {
+                solver.newVar("X" + i, 1, 2);
+            }
+            // trois variables deux à deux différentes sur deux valeurs
+            var a = solver.newVar("A", 1, 2);
+            var b = solver.newVar("B", 1, 2);
+            var c = solver.newVar("C", 1, 2);
+            solver.addRelation(a, "<>", b);
+            solver.addRelation(b, "<>", c);
+            solver.addRelation(a, "<>", c);
+            solver.setBackjumping(run == 1);
+            assertEquals(0, solver.solve());
+            nodes[run] = solver.getNodesCounter();
+            if (run == 1) {
+                assertTrue(solver.getSkippedBranchesCounter() > 0);
+            }
+        }
+        assertTrue(nodes[1] * 10 < nodes[0], () -> "backjumping: " + nodes[1] + ", chronological: " + nodes[0]);
+    }
+
+    @Test
+    void testRandomModels() {
+        Random random = new Random(11);
+        for (int model = 0; model < 40; model++) {
+            long seed = random.nextLong();
+            var strategies = strategies();
+            for (int s = 0; s < strategies.size(); s++) {
+                long[] counts = new long[2];
+                for (int run = 0; run < 2; run++) {
+                    // sans propagation, les résultats des expressions seraient énumérés
+                    Solver solver = RandomModels.build(new Random(seed), (s > 0) ? 3 : 1, false);
+                    strategies.get(s).accept(solver);
+                    solver.setBackjumping(run == 1);
+                    counts[run] = solver.countSolutions();
+                }
+                assertEquals(counts[0], counts[1], "model " + model);
+            }
+        }
+    }
+
+    @Test
+    void testOptimumUnchanged() {
+        int[][] costs = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3}, {2, 5, 6, 7, 8}};
+        int[] best = new int[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+            solver.getSolutions().setDisplay(false);
+            solver.setBackjumping(run == 1);
+            solver.solve();
+            var all = solver.getSolutions().getAll();
+            best[run] = all.get(all.size() - 1).values().get("COST");
+        }
+        assertEquals(best[0], best[1]);
+    }
+
+    @Test
+    void testRestartsRejected() {
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.setBackjumping(true);
+        solver.setRestarts(Restarts.luby(4));
+        assertThrows(IllegalStateException.class, solver::solve);
+    }
+
+    private static List<Consumer<Solver>> strategies() {
+        return List.of(solver -> { }, Solver::alwaysReduceStrategy, Solver::domWdegStrategy);
+    }
+}
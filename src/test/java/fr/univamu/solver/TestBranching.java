@@ -0,0 +1,100 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+public class TestBranching {
+
+    @Test
+    void testValueOrders() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 1, 6);
+        x.reduceExcept(4);
+        assertEquals("[1, 1, 2, 2, 3, 3, 5, 5, 6, 6]",
+                Arrays.toString(Branching.enumerate(Branching.Order.MIN).branches(solver, x)));
+        assertEquals("[6, 6, 5, 5, 3, 3, 2, 2, 1, 1]",
+                Arrays.toString(Branching.enumerate(Branching.Order.MAX).branches(solver, x)));
+        assertEquals("[3, 3, 5, 5, 2, 2, 6, 6, 1, 1]",
+                Arrays.toString(Branching.enumerate(Branching.Order.MEDIAN).branches(solver, x)));
+        assertEquals("[1, 3, 4, 6]",
+                Arrays.toString(Branching.bisect(Branching.Order.MIN).branches(solver, x)));
+        assertEquals("[4, 6, 1, 3]",
+                Arrays.toString(Branching.bisect(Branching.Order.MAX).branches(solver, x)));
+        // même graine, même ordre
+        var random = Branching.enumerate(Branching.Order.RANDOM).withSeed(42);
+        int[] first = random.branches(solver, x);
+        assertEquals(Arrays.toString(first), Arrays.toString(random.copy().branches(solver, x)));
+        int[] sorted = first.clone();
+        Arrays.sort(sorted);
+        assertEquals("[1, 1, 2, 2, 3, 3, 5, 5, 6, 6]", Arrays.toString(sorted));
+    }
+
+    @Test
+    void testWideDomainsAreBisected() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", -5000, 5000);
+        assertEquals("[-5000, 0, 1, 5000]",
+                Arrays.toString(Branching.enumerate(Branching.Order.MIN).branches(solver, x)));
+    }
+
+    @Test
+    void testSolutionsUnchanged() {
+        for (Branching.Order order : Branching.Order.values()) {
+            for (Branching branching : new Branching[] {Branching.enumerate(order), Branching.bisect(order)}) {
+                Solver solver = (Solver) new Solver().makeQueens(8);
+                solver.setBranching(branching);
+                assertEquals(92, solver.countSolutions(), branching.toString());
+            }
+        }
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.setBranching(Branching.bisect(Branching.Order.MEDIAN));
+        long count = 0;
+        try (var solutions = solver.streamSolutions()) {
+            count = solutions.count();
+        }
+        assertEquals(4, count);
+    }
+
+    @Test
+    void testBisectionOnWideArithmetic() {
+        long[] nodes = new long[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = new Solver();
+            var x = solver.newVar("X", 0, 40000);
+            var y = solver.newVar("Y", 0, 40000);
+            // X² + Y² = 2222² + 1111²
+            solver.addRelation(solver.expression(solver.expression(x, "*", x), "+", solver.expression(y, "*", y)),
+                    "=", 2222 * 2222 + 1111 * 1111);
+            solver.addRelation(x, ">=", y);
+            solver.alwaysReduceStrategy();
+            if (run == 1) {
+                solver.setBranching(Branching.bisect(Branching.Order.MIN));
+            }
+            assertEquals(3, solver.solve());
+            nodes[run] = solver.getNodesCounter();
+        }
+        assertTrue(nodes[1] * 10 < nodes[0], () -> "bisection: " + nodes[1] + ", slices: " + nodes[0]);
+    }
+
+    @Test
+    void testObjectiveGuidedFindsBestFirst() {
+        int[][] costs = {{9, 2, 7, 8}, {6, 4, 3, 7}, {5, 8, 1, 8}, {7, 6, 9, 4}};
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+        solver.getSolutions().setDisplay(false);
+        solver.solve();
+        var all = solver.getSolutions().getAll();
+        int best = all.stream().mapToInt(a -> a.values().get("COST")).min().orElseThrow();
+
+        // nouveau modèle : la meilleure valeur connue est gardée d'une résolution à l'autre
+        solver = (Solver) new Solver().buildAssignmentProblem(costs);
+        solver.getSolutions().setDisplay(false);
+        solver.setBranching(Branching.enumerate(Branching.Order.OBJECTIVE));
+        solver.solve();
+        var guided = solver.getSolutions().getAll();
+        assertEquals(best, guided.get(guided.size() - 1).values().get("COST"));
+        assertTrue(guided.size() < all.size());
+        assertTrue(guided.get(0).values().get("COST") < all.get(0).values().get("COST"));
+    }
+}
@@ -0,0 +1,63 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestComponents {
+
+    @Test
+    void testIndependentVariables() {
+        Solver solver = new Solver();
+        solver.newVar("X", 0, 9);
+        solver.newVar("Y", 0, 9);
+        solver.setDecomposition(true);
+        assertEquals(100, solver.countSolutions());
+        assertTrue(solver.getNodesCounter() <= 21, () -> "nodes: " + solver.getNodesCounter());
+    }
+
+    @Test
+    void testCountsMultiplied() {
+        for (boolean decomposition : new boolean[]{false, true}) {
+            Solver solver = new Solver();
+            var x = solver.newVar("X", 0, 10);
+            var y = solver.newVar("Y", 0, 10);
+            var z = solver.newVar("Z", 0, 4);
+            var w = solver.newVar("W", 0, 4);
+            solver.addRelation(solver.expression(x, "+", y), "=", 10);
+            solver.addRelation(z, "<>", w);
+            solver.alwaysReduceStrategy();
+            solver.setDecomposition(decomposition);
+            assertEquals(11 * 20, solver.countSolutions());
+            assertEquals("[0,10]", x.toString());
+        }
+    }
+
+    @Test
+    void testQueens() {
+        ISolver solver = new Solver().makeQueens(8);
+        solver.setDecomposition(true);
+        assertEquals(92, solver.countSolutions());
+    }
+
+    @Test
+    void testOptimizationSolvesOtherComponentsOnce() {
+        Solver solver = new Solver();
+        var a = solver.newVar("A", 0, 5);
+        var b = solver.newVar("B", 0, 5);
+        var cost = solver.newVar("C", 0, 10);
+        var p = solver.newVar("P", 1, 3);
+        var q = solver.newVar("Q", 1, 3);
+        solver.addRelation(solver.expression(a, "+", b), "=", cost);
+        solver.addRelation(a, ">=", 2);
+        solver.addRelation(p, "<>", q);
+        solver.optimizationStrategy(cost);
+        solver.setDecomposition(true);
+        solver.solve();
+
+        var solutions = solver.getSolutions().getAll();
+        var best = solutions.get(solutions.size() - 1).values();
+        assertEquals(2, best.get("C"));
+        assertNotEquals(best.get("P"), best.get("Q"));
+        assertTrue(solutions.stream().allMatch(s -> s.values().get("P") == 1 && s.values().get("Q") == 2));
+    }
+}
@@ -0,0 +1,111 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class TestElement {
+
+    private static final int[] ARRAY = {5, 3, 8, 3, 1};
+
+    @Test
+    void testIndexAndResult() {
+        Variable I = new Variable("I", new Interval(-2, 9));
+        Variable R = new Variable("R", new Interval(3, 6));
+        Constraint c = new Constraint(new Element(ARRAY, I, R));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(I, R)));
+        // positions 0, 1 et 3 ; valeurs 5 et 3
+        assertEquals(0, I.getMin());
+        assertEquals(3, I.getMax());
+        assertFalse(I.contains(2));
+        assertEquals(3, R.getMin());
+        assertEquals(5, R.getMax());
+        assertFalse(R.contains(4));
+    }
+
+    @Test
+    void testFixedIndex() {
+        Variable I = new Variable("I", new Interval(2, 2));
+        Variable R = new Variable("R", new Interval(0, 100));
+        Constraint c = new Constraint(new Element(ARRAY, I, R));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(I, R)));
+        assertEquals("[8,8]", R.toString());
+
+        Variable J = new Variable("J", new Interval(0, 4));
+        Variable S = new Variable("S", new Interval(10, 20));
+        c = new Constraint(new Element(ARRAY, J, S));
+        assertFalse(new Reducer(List.of(c)).reduceAll(false, List.of(J, S)));
+    }
+
+    @Test
+    void testSolutions() {
+        Random random = new Random(8);
+        for (int k = 0; k < 40; k++) {
+            int[] array = new int[1 + random.nextInt(8)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = random.nextInt(10) - 3;
+            }
+            int iMin = random.nextInt(4) - 2;
+            int iMax = iMin + random.nextInt(10);
+            int rMin = random.nextInt(8) - 4;
+            int rMax = rMin + random.nextInt(8);
+            long expected = 0;
+            for (int i = Math.max(iMin, 0); i <= Math.min(iMax, array.length - 1); i++) {
+                if (array[i] >= rMin && array[i] <= rMax) expected++;
+            }
+            for (boolean lazy : new boolean[] {false, true}) {
+                Solver solver = new Solver();
+                Variable index = solver.newVar("I", iMin, iMax);
+                Variable result = solver.newVar("R", rMin, rMax);
+                solver.addElementRelation(array, index, result);
+                solver.getSolutions().setDisplay(false);
+                if (lazy) {
+                    solver.setLazyClauseGeneration(true);
+                } else {
+                    solver.alwaysReduceStrategy();
+                }
+                assertEquals(expected, solver.solve(), "model " + k + (lazy ? ", lazy" : ""));
+                for (var solution : solver.getSolutions().getAll()) {
+                    assertEquals(array[solution.values().get("I")], (int) solution.values().get("R"));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testIntegerAssignmentProblem() {
+        Random random = new Random(3);
+        for (int k = 0; k < 15; k++) {
+            int tasks = 2 + random.nextInt(4);
+            int agents = tasks + random.nextInt(2);
+            int[][] costs = new int[tasks][agents];
+            for (int[] row : costs) {
+                for (int a = 0; a < agents; a++) {
+                    row[a] = random.nextInt(30);
+                }
+            }
+            Solver matrix = (Solver) new Solver().buildAssignmentProblem(costs);
+            matrix.getSolutions().setDisplay(false);
+            matrix.solve();
+            int optimum = ((OptimizationStrategy) matrix.getStrategy()).getBestValue();
+            for (boolean lazy : new boolean[] {false, true}) {
+                Solver solver = (Solver) new Solver().buildIntegerAssignmentProblem(costs);
+                solver.getSolutions().setDisplay(false);
+                solver.setLazyClauseGeneration(lazy);
+                solver.solve();
+                assertEquals(optimum, ((OptimizationStrategy) solver.getStrategy()).getBestValue(), "model " + k);
+                var all = solver.getSolutions().getAll();
+                var best = all.get(all.size() - 1).values();
+                // une variable par tâche, plus le coût
+                assertEquals(tasks + 1, best.size());
+                int sum = 0;
+                for (int t = 0; t < tasks; t++) {
+                    sum += costs[t][best.get("T" + t)];
+                }
+                assertEquals(optimum, sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public class TestHeuristics {
+
+    @Test
+    void testHeapOrder() {
+        var heap = new VariableHeap(4);
+        heap.insert(3, 2.0, 0);
+        heap.insert(1, 1.0, 2);
+        heap.insert(7, 1.0, 1);
+        heap.insert(5, 3.0, 3);
+        // à clé égale, le rang départage
+        assertEquals(7, heap.top());
+        heap.update(5, 0.5);
+        assertEquals(5, heap.pop());
+        assertEquals(7, heap.pop());
+        assertEquals(1, heap.pop());
+        heap.update(1, 0.0);        // absente : ignorée
+        assertEquals(3, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testSolutionsUnchanged() {
+        for (Supplier<IStrategy> strategy : strategies()) {
+            Solver solver = (Solver) new Solver().makeQueens(8);
+            assertEquals(92, solver.solvePortfolio(strategy.get()));
+        }
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.domWdegStrategy();
+        solver.setParallelism(2);
+        assertEquals(4, solver.solve());
+    }
+
+    @Test
+    void testHeapAgreesWithScan() {
+        int[] choices = new int[1];
+        for (HeuristicStrategy strategy : checkedStrategies(choices)) {
+            choices[0] = 0;
+            Solver solver = (Solver) new Solver().makeQueens(10);
+            assertEquals(724, solver.solvePortfolio(strategy));
+            assertTrue(choices[0] > 100);
+        }
+    }
+
+    @Test
+    void testDeterministic() {
+        for (Supplier<IStrategy> strategy : strategies()) {
+            long[] nodes = new long[2];
+            for (int run = 0; run < 2; run++) {
+                Solver solver = (Solver) new Solver().makeQueens(9);
+                solver.solvePortfolio(strategy.get());
+                nodes[run] = solver.getNodesCounter();
+            }
+            assertEquals(nodes[0], nodes[1]);
+        }
+    }
+
+    @Test
+    void testWeightsGrowOnFailures() {
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.domWdegStrategy();
+        solver.solve();
+        var strategy = (DomWdegStrategy) solver.getStrategy();
+        long total = 0;
+        for (int i = 0; i < solver.getConstraints().size(); i++) {
+            total += strategy.getWeight(i);
+        }
+        assertTrue(total > solver.getConstraints().size());
+    }
+
+    private static List<Supplier<IStrategy>> strategies() {
+        return List.of(DomWdegStrategy::new, ActivityStrategy::new, ImpactStrategy::new);
+    }
+
+    /*
+     * Stratégies qui vérifient à chaque noeud que le tas donne la variable qu'un
+     * parcours complet choisirait.
+     */
+    private static HeuristicStrategy[] checkedStrategies(int[] choices) {
+        return new HeuristicStrategy[] {
+                new DomWdegStrategy() {
+                    @Override
+                    public Variable chooseVariable(Solver solver) {
+                        return verify(this, solver, super.chooseVariable(solver), choices);
+                    }
+
+                    @Override
+                    protected HeuristicStrategy fresh() {
+                        return this;
+                    }
+                },
+                new ActivityStrategy() {
+                    @Override
+                    public Variable chooseVariable(Solver solver) {
+                        return verify(this, solver, super.chooseVariable(solver), choices);
+                    }
+
+                    @Override
+                    protected HeuristicStrategy fresh() {
+                        return this;
+                    }
+                },
+                new ImpactStrategy() {
+                    @Override
+                    public Variable chooseVariable(Solver solver) {
+                        return verify(this, solver, super.chooseVariable(solver), choices);
+                    }
+
+                    @Override
+                    protected HeuristicStrategy fresh() {
+                        return this;
+                    }
+                }
+        };
+    }
+
+    private static Variable verify(HeuristicStrategy strategy, Solver solver, Variable chosen, int[] choices) {
+        Variable expected = null;
+        double best = 0;
+        for (int id : solver.getSearchIds()) {
+            Variable v = solver.getStore().get(id);
+            if (v.isOneValue() || v.isEmpty()) continue;
+            double score = strategy.score(v);
+            if (expected == null || score < best) {
+                expected = v;
+                best = score;
+            }
+        }
+        assertSame(expected, chosen);
+        choices[0]++;
+        return chosen;
+    }
+}
@@ -0,0 +1,117 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class TestLazyClauses {
+
+    @Test
+    void testQueens() {
+        Solver solver = (Solver) new Solver().makeQueens(8);
+        solver.setLazyClauseGeneration(true);
+        solver.getSolutions().setDisplay(false);
+        assertEquals(92, solver.solve());
+        assertEquals(92, solver.countSolutions());
+        assertTrue(solver.getConflictsCounter() > 0);
+    }
+
+    @Test
+    void testRandomModels() {
+        Random random = new Random(19);
+        for (int model = 0; model < 60; model++) {
+            long seed = random.nextLong();
+            long[] counts = new long[2];
+            for (int run = 0; run < 2; run++) {
+                Solver solver = RandomModels.build(new Random(seed), 6, true);
+                solver.alwaysReduceStrategy();
+                solver.setLazyClauseGeneration(run == 1);
+                counts[run] = solver.countSolutions();
+            }
+            assertEquals(counts[0], counts[1], "model " + model);
+        }
+    }
+
+    @Test
+    void testSolutionsAreChecked() {
+        Solver solver = new Solver();
+        var a = solver.newVar("A", 1, 9);
+        var b = solver.newVar("B", 1, 9);
+        var c = solver.newVar("C", 1, 9);
+        var ab = solver.expression(a, "*", 10, "+", b);
+        var ba = solver.expression(b, "*", 10, "+", a);
+        var cbc = solver.expression(c, "*", 100, "+", b, "*", 10, "+", c);
+        solver.addRelation(solver.expression(ab, "+", ba), "=", cbc);
+        solver.setLazyClauseGeneration(true);
+        solver.getSolutions().setDisplay(false);
+        assertEquals(1, solver.solve());
+        var values = solver.getSolutions().getAll().get(0).values();
+        assertEquals(9, values.get("A"));
+        assertEquals(2, values.get("B"));
+        assertEquals(1, values.get("C"));
+    }
+
+    @Test
+    void testOptimumUnchanged() {
+        int[][] costs = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3}, {2, 5, 6, 7, 8}};
+        int[] best = new int[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+            solver.getSolutions().setDisplay(false);
+            solver.setLazyClauseGeneration(run == 1);
+            solver.solve();
+            var all = solver.getSolutions().getAll();
+            best[run] = all.get(all.size() - 1).values().get("COST");
+        }
+        assertEquals(best[0], best[1]);
+    }
+
+    @Test
+    void testPigeonsLearnt() {
+        Solver solver = new Solver();
+        Variable[] ps = new Variable[7];
+        for (int i = 0; i < ps.length; i++) {
+            ps[i] = solver.newVar("P" + i, 1, ps.length - 1);
+        }
+        for (int i = 0; i < ps.length; i++) {
+            for (int j = i + 1; j < ps.length; j++) {
+                solver.addRelation(ps[i], "<>", ps[j]);
+            }
+        }
+        solver.setLazyClauseGeneration(true);
+        assertEquals(0, solver.solve());
+        assertTrue(solver.getLearntClausesCounter() > 0);
+    }
+
+    @Test
+    void testArenaCompaction() {
+        ClauseArena arena = new ClauseArena();
+        int[] codes = {0, 3, 4};
+        int[] values = {1, 2, 3};
+        int first = arena.add(codes, values, 3, ClauseArena.LEARNT, 2);
+        int second = arena.add(codes, values, 2, 0, 1);
+        int third = arena.add(codes, values, 1, ClauseArena.LEARNT, 1);
+        arena.delete(first);
+        assertEquals(2, arena.liveCount());
+        assertEquals(ClauseArena.HEADER + 6, arena.garbage());
+        int[] forward = arena.compact();
+        assertEquals(-1, forward[first]);
+        assertEquals(0, forward[second]);
+        assertEquals(ClauseArena.HEADER + 4, forward[third]);
+        assertEquals(0, arena.garbage());
+        assertEquals(2, arena.size(forward[second]));
+        assertEquals(3, arena.code(forward[second], 1));
+        assertEquals(2, arena.value(forward[second], 1));
+        assertTrue(arena.isLearnt(forward[third]));
+        assertEquals(-1, arena.next(forward[third]));
+    }
+
+    @Test
+    void testCombinationsRejected() {
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.setLazyClauseGeneration(true);
+        solver.setBackjumping(true);
+        assertThrows(IllegalStateException.class, solver::solve);
+    }
+}
@@ -0,0 +1,156 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLinearSum {
+
+    @Test
+    void testBoundsPropagation() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 10);
+        var y = solver.newVar("Y", 0, 10);
+        var z = solver.newVar("Z", 0, 10);
+        // 2X + 3Y - Z = 30
+        var sum = new LinearSum(new int[]{2, 3, -1}, new Variable[]{x, y, z}, ConstraintType.EQ, 30);
+        assertTrue(sum.reduce());
+        assertEquals("[0,10]", x.toString());
+        assertEquals("[4,10]", y.toString());
+        assertEquals("[0,10]", z.toString());
+        x.reduce(10, 10);
+        sum.reduce();
+        assertEquals("[4,6]", y.toString());
+        z.reduce(2, 2);
+        sum.reduce();
+        assertEquals("[4,4]", y.toString());
+        assertTrue(sum.check());
+    }
+
+    @Test
+    void testRelationsAgainstEnumeration() {
+        String[] relations = {"=", "<=", ">=", "<", ">", "<>"};
+        for (String relation : relations) {
+            Solver solver = new Solver();
+            var x = solver.newVar("X", -3, 4);
+            var y = solver.newVar("Y", 0, 5);
+            var z = solver.newVar("Z", 1, 3);
+            solver.addLinearRelation(new int[]{3, -2, 1}, new Variable[]{x, y, z}, relation, 2);
+            solver.alwaysReduceStrategy();
+            long expected = 0;
+            for (int a = -3; a <= 4; a++) {
+                for (int b = 0; b <= 5; b++) {
+                    for (int c = 1; c <= 3; c++) {
+                        int s = 3 * a - 2 * b + c;
+                        boolean ok = switch (relation) {
+                            case "=" -> s == 2;
+                            case "<=" -> s <= 2;
+                            case ">=" -> s >= 2;
+                            case "<" -> s < 2;
+                            case ">" -> s > 2;
+                            default -> s != 2;
+                        };
+                        if (ok) expected++;
+                    }
+                }
+            }
+            assertEquals(expected, solver.countSolutions(), relation);
+        }
+    }
+
+    @Test
+    void testCancelledCoefficients() {
+        String[] relations = {"=", "<=", ">=", "<", ">", "<>"};
+        for (String relation : relations) {
+            for (int constant = -1; constant <= 1; constant++) {
+                boolean holds = switch (relation) {
+                    case "=" -> 0 == constant;
+                    case "<=" -> 0 <= constant;
+                    case ">=" -> 0 >= constant;
+                    case "<" -> 0 < constant;
+                    case ">" -> 0 > constant;
+                    default -> 0 != constant;
+                };
+                for (boolean reduce : new boolean[] {false, true}) {
+                    Solver solver = new Solver();
+                    var x = solver.newVar("X", 0, 2);
+                    var y = solver.newVar("Y", 0, 3);
+                    // X - X, puis 2X + Y - 2X - Y : il reste 0 relation constant
+                    solver.addLinearRelation(new int[] {1, -1}, new Variable[] {x, x}, relation, constant);
+                    solver.addLinearRelation(new int[] {2, 1, -2, -1}, new Variable[] {x, y, x, y}, relation, constant);
+                    if (reduce) {
+                        solver.alwaysReduceStrategy();
+                    }
+                    String message = "0 " + relation + " " + constant;
+                    assertEquals(holds ? 12 : 0, solver.countSolutions(), message);
+                    if (holds) {
+                        assertTrue(solver.getConstraints().isEmpty(), message);
+                    }
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            Solver solver = new Solver();
+            var x = solver.newVar("X", 0, 2);
+            solver.addLinearRelation(new int[] {1, -1}, new Variable[] {x, x}, "==", 0);
+        });
+    }
+
+    @Test
+    void testExpressionChainCompiled() {
+        Solver solver = new Solver();
+        var xs = new Variable[6];
+        var sum = solver.newConstant(0);
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = solver.newVar("X" + i, 0, 1);
+            sum = solver.expression(sum, "+", xs[i], "*", i + 1);
+        }
+        solver.addRelation(sum, "=", 7);
+        // une seule contrainte, plus aucune variable auxiliaire
+        assertEquals(xs.length, solver.variables.size());
+        solver.alwaysReduceStrategy();
+        // sous-ensembles de {1..6} de somme 7 : 16, 25, 34, 124
+        assertEquals(4, solver.countSolutions());
+    }
+
+    @Test
+    void testShortSumsKeepDecomposition() {
+        Solver solver = new Solver();
+        var a = solver.newVar("A", 1, 9);
+        var b = solver.newVar("B", 1, 9);
+        var ab = solver.expression(a, "*", 10, "+", b);
+        var ba = solver.expression(b, "*", 10, "+", a);
+        solver.addRelation(solver.expression(ab, "+", ba), "=", 121);
+        assertTrue(solver.variables.size() > 2);
+        solver.alwaysReduceStrategy();
+        assertEquals(8, solver.countSolutions());
+    }
+
+    @Test
+    void testAbsorbedLinkReused() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 5);
+        var y = solver.newVar("Y", 0, 5);
+        var z = solver.newVar("Z", 0, 5);
+        var xy = solver.expression(x, "+", y);
+        var xyz = solver.expression(xy, "-", z);
+        solver.addRelation(xyz, "=", 2);
+        // X + Y reste contraint alors qu'il a été développé dans la somme
+        solver.addRelation(xy, "=", 4);
+        solver.alwaysReduceStrategy();
+        assertEquals(5, solver.solve());
+        for (var solution : solver.getSolutions().getAll()) {
+            assertEquals(4, solution.values().get("X") + solution.values().get("Y"));
+        }
+    }
+
+    @Test
+    void testAssignmentProblem() {
+        int[][] costs = {{4, 1, 3}, {2, 0, 5}, {3, 2, 2}};
+        ISolver solver = new Solver().buildAssignmentProblem(costs);
+        solver.solve();
+        int best = solver.getSolutions().getAll().stream()
+                .mapToInt(a -> a.values().get("COST"))
+                .min().orElseThrow();
+        assertEquals(5, best);
+    }
+}
@@ -0,0 +1,48 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestModelBuild {
+
+    @Test
+    void testConstantsShared() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 9);
+        assertSame(solver.newConstant(5), solver.newConstant(5));
+        solver.addRelation(x, "<=", 5);
+        solver.addRelation(x, "<>", 5);
+        // les constantes ne sont pas des variables du modèle
+        assertTrue(solver.variables.stream().noneMatch(Variable::isOneValue));
+        solver.alwaysReduceStrategy();
+        assertEquals(5, solver.solve());
+    }
+
+    @Test
+    void testProductWithZeroFactor() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 10);
+        var y = solver.newVar("Y", -3, 10);
+        solver.addRelation(solver.expression(x, "+", y, "*", 2), "<=", 4);
+        assertTrue(solver.reduce());
+        assertEquals("[0,10]", x.toString());
+        assertEquals("[-3,2]", y.toString());
+    }
+
+    @Test
+    void testLargeChain() {
+        Solver solver = new Solver();
+        int n = 20_000;
+        Variable[] xs = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = solver.newVar("X" + i, 0, 3);
+        }
+        for (int i = 0; i + 1 < n; i++) {
+            solver.addRelation(xs[i], "<=", solver.expression(xs[i + 1], "+", 2));
+        }
+        // une variable d'écart par relation, aucune variable anonyme inutile
+        assertEquals(2 * n - 1, solver.variables.size());
+        assertTrue(solver.reduce());
+        assertEquals("[0,3]", xs[0].toString());
+    }
+}
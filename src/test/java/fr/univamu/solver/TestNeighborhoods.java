@@ -0,0 +1,96 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class TestNeighborhoods {
+
+    private static final int[][] COSTS = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3},
+            {2, 5, 6, 7, 8}};
+
+    @Test
+    void testFindsOptimum() {
+        Solver reference = (Solver) new Solver().buildAssignmentProblem(COSTS);
+        reference.getSolutions().setDisplay(false);
+        reference.solve();
+        int optimum = ((OptimizationStrategy) reference.getStrategy()).getBestValue();
+        for (Neighborhoods policy : new Neighborhoods[] {Neighborhoods.random(0.3), Neighborhoods.structured(0.3)}) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(COSTS);
+            solver.getSolutions().setDisplay(false);
+            solver.setNeighborhoods(policy);
+            solver.solve();
+            var all = solver.getSolutions().getAll();
+            assertEquals(optimum, (int) all.get(all.size() - 1).values().get("COST"), policy.toString());
+            assertTrue(solver.getNeighborhoodsCounter() > 0);
+            // le voisinage adaptatif finit par couvrir tout le problème et prouve l'optimum
+            assertTrue(solver.isOptimumProved(), policy.toString());
+        }
+        assertFalse(reference.isOptimumProved());
+    }
+
+    @Test
+    void testSolutionsImprove() {
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs(12, 5));
+        solver.getSolutions().setDisplay(false);
+        solver.setNeighborhoods(Neighborhoods.random(0.2).withNodes(200).withStallLimit(30));
+        solver.solve();
+        var all = solver.getSolutions().getAll();
+        assertFalse(all.isEmpty());
+        // comme en séparation et évaluation, une solution peut égaler la précédente
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i).values().get("COST") <= all.get(i - 1).values().get("COST"));
+        }
+        assertTrue(all.get(all.size() - 1).values().get("COST") < all.get(0).values().get("COST"));
+    }
+
+    @Test
+    void testReplayedWithSeed() {
+        long[] neighborhoods = new long[2];
+        int[] best = new int[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(costs(10, 2));
+            solver.getSolutions().setDisplay(false);
+            solver.setNeighborhoods(Neighborhoods.structured(0.2).withNodes(100).withStallLimit(20).withSeed(42));
+            solver.solve();
+            neighborhoods[run] = solver.getNeighborhoodsCounter();
+            best[run] = ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+        }
+        assertEquals(neighborhoods[0], neighborhoods[1]);
+        assertEquals(best[0], best[1]);
+    }
+
+    @Test
+    void testTimeLimit() {
+        Solver solver = (Solver) new Solver().buildAssignmentProblem(costs(25, 9));
+        solver.getSolutions().setDisplay(false);
+        solver.setNeighborhoods(Neighborhoods.random(0.2).withTimeLimit(300).withStallLimit(Integer.MAX_VALUE));
+        long start = System.nanoTime();
+        solver.solve();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(ms < 5000, () -> "took " + ms + " ms");
+        assertFalse(solver.getSolutions().getAll().isEmpty());
+        assertFalse(solver.isOptimumProved());
+    }
+
+    @Test
+    void testInvalidUse() {
+        assertThrows(IllegalArgumentException.class, () -> Neighborhoods.random(0));
+        assertThrows(IllegalArgumentException.class, () -> Neighborhoods.random(0.5).withNodes(0));
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.setNeighborhoods(Neighborhoods.random(0.5));
+        assertThrows(IllegalStateException.class, solver::solve);
+    }
+
+    private static int[][] costs(int n, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[n][n];
+        for (int[] row : costs) {
+            for (int j = 0; j < n; j++) {
+                row[j] = 1 + random.nextInt(50);
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,75 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class TestParallelSearch {
+
+    @Test
+    void testQueensSameAsSequential() {
+        ISolver sequential = new Solver().makeQueens(8);
+        ISolver parallel = new Solver().makeQueens(8);
+        parallel.setParallelism(4);
+
+        assertEquals(92, sequential.solve());
+        assertEquals(92, parallel.solve());
+        assertEquals(sequential.getNodesCounter(), parallel.getNodesCounter());
+        assertEquals(new HashSet<>(sequential.getSolutions().getAll()),
+                new HashSet<>(parallel.getSolutions().getAll()));
+    }
+
+    @Test
+    void testDefaultStrategy() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 20);
+        var y = solver.newVar("Y", 0, 20);
+        solver.addRelation(solver.expression(x, "+", y), "=", 20);
+        solver.addRelation(x, "<>", y);
+        solver.setParallelism(3);
+        assertEquals(20, solver.solve());
+        assertEquals("[0,20]", x.toString());
+    }
+
+    @Test
+    void testOptimizationSameOptimum() {
+        int[][] costs = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3}, {2, 5, 6, 7, 8}};
+        Solver sequential = (Solver) new Solver().buildAssignmentProblem(costs);
+        sequential.getSolutions().setDisplay(false);
+        sequential.solve();
+        int optimum = ((OptimizationStrategy) sequential.getStrategy()).getBestValue();
+        Solver parallel = (Solver) new Solver().buildAssignmentProblem(costs);
+        parallel.getSolutions().setDisplay(false);
+        parallel.setParallelism(4);
+        parallel.solve();
+        assertEquals(optimum, ((OptimizationStrategy) parallel.getStrategy()).getBestValue());
+        for (var solution : parallel.getSolutions().getAll()) {
+            assertEquals(optimum, (int) solution.values().get("COST"));
+        }
+    }
+
+    @Test
+    void testOptimizationDeterministic() {
+        List<Solutions.Assignment> first = null;
+        for (int run = 0; run < 5; run++) {
+            // plusieurs solutions optimales : X + Y = 3
+            Solver solver = new Solver();
+            var x = solver.newVar("X", 0, 5);
+            var y = solver.newVar("Y", 0, 5);
+            var sum = solver.expression(x, "+", y);
+            solver.addRelation(sum, ">=", 3);
+            solver.optimizationStrategy(sum);
+            solver.getSolutions().setDisplay(false);
+            solver.setParallelism(3);
+            assertEquals(4, solver.solve());
+            var all = solver.getSolutions().getAll();
+            assertEquals(List.of(0, 1, 2, 3), all.stream().map(a -> a.values().get("X")).toList());
+            if (first == null) {
+                first = all;
+            }
+            assertEquals(first, all);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPortfolio {
+
+    @Test
+    void testQueens() {
+        Solver solver = (Solver) new Solver().makeQueens(7);
+        long count = solver.solvePortfolio(new DefaultStrategy(), new AlwaysReduceStrategy(), new ReduceAndCheckStrategy());
+        assertEquals(40, count);
+        assertEquals(40, solver.getSolutions().count());
+        assertTrue(solver.getNodesCounter() > 0);
+    }
+
+    @Test
+    void testWinnerIsReported() {
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        var portfolio = new Portfolio(solver, new AlwaysReduceStrategy(), new DefaultStrategy());
+        assertEquals(4, portfolio.solve());
+        assertTrue(portfolio.getWinner() == 0 || portfolio.getWinner() == 1);
+    }
+
+    @Test
+    void testSharedObjective() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 9);
+        var y = solver.newVar("Y", 0, 9);
+        var cost = solver.newVar("C", 0, 18);
+        solver.addRelation(solver.expression(x, "+", y), "=", cost);
+        solver.addRelation(solver.expression(x, "-", y), ">=", 3);
+
+        solver.solvePortfolio(new OptimizationStrategy(cost), new OptimizationStrategy(cost));
+        int best = solver.getSolutions().getAll().stream()
+                .mapToInt(a -> a.values().get("C"))
+                .min().orElseThrow();
+        assertEquals(3, best);
+        assertEquals("[0,18]", cost.toString());
+    }
+}
@@ -0,0 +1,89 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+public class TestPresolve {
+
+    private static Solver chainModel() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 9);
+        var y = solver.newVar("Y", 2, 12);
+        var z = solver.newVar("Z", -5, 7);
+        var w = solver.newVar("W", 0, 9);
+        solver.addRelation(x, "=", y);
+        solver.addRelation(z, "=", y);
+        solver.addRelation(solver.expression(x, "+", w), "=", 10);
+        solver.alwaysReduceStrategy();
+        return solver;
+    }
+
+    @Test
+    void testAliasing() {
+        Solver solver = chainModel();
+        long expected = solver.solve();
+        var reference = new ArrayList<>(solver.getSolutions().getAll());
+
+        solver.setPresolve(true);
+        assertEquals(expected, solver.solve());
+        assertEquals(reference, solver.getSolutions().getAll());
+        // Y, Z et la constante 10, confondue avec X + W ; les constantes ne sont pas
+        // des variables du modèle, seules Y et Z en disparaissent
+        assertEquals(3, solver.getPresolveStats().aliases());
+        assertEquals(2, solver.getPresolveStats().variablesRemoved());
+        for (var solution : solver.getSolutions().getAll()) {
+            assertEquals(solution.values().get("X"), solution.values().get("Z"));
+        }
+    }
+
+    @Test
+    void testModelUnchanged() {
+        Solver solver = chainModel();
+        solver.setPresolve(true);
+        solver.solve();
+        solver.setPresolve(false);
+        assertEquals(6, solver.solve());
+    }
+
+    @Test
+    void testEntailedConstraintsDropped() {
+        Solver solver = new Solver();
+        var a = solver.newVar("A", 0, 9);
+        var b = solver.newVar("B", 0, 9);
+        var c = solver.newVar("C", 0, 9);
+        solver.addRelation(a, "=", 4);
+        solver.addRelation(b, "=", solver.expression(a, "*", 2));
+        solver.addRelation(c, "<>", b);
+        solver.setPresolve(true);
+        assertEquals(9, solver.countSolutions());
+        // A = 4 et B = A * 2 sont satisfaites une fois A et B fixés
+        assertTrue(solver.getPresolveStats().constraintsRemoved() >= 2);
+    }
+
+    @Test
+    void testInfeasible() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 4);
+        var y = solver.newVar("Y", 5, 9);
+        solver.newVar("Z", 0, 9);
+        solver.addRelation(x, "=", y);
+        solver.setPresolve(true);
+        assertEquals(0, solver.solve());
+        assertEquals(0, solver.getNodesCounter());
+    }
+
+    @Test
+    void testOptimization() {
+        int[][] costs = {{4, 1, 3}, {2, 0, 5}, {3, 2, 2}};
+        ISolver solver = new Solver().buildAssignmentProblem(costs);
+        solver.setPresolve(true);
+        solver.solve();
+        int best = solver.getSolutions().getAll().stream()
+                .mapToInt(s -> s.values().get("COST"))
+                .min().orElseThrow();
+        assertEquals(5, best);
+        assertEquals(10, solver.getSolutions().getAll().getFirst().values().size());
+    }
+}
@@ -31,4 +31,33 @@ public class TestReducer {
 
         assertTrue(R.getMin() >= 6 && R.getMax() <= 20);
     }
+
+    @Test
+    void testMulDivisorWithHoleAtZero() {
+        Variable A = new Variable("A", new Interval(-5, 5));
+        Variable X = new Variable("X", new Interval(-1, 2));
+        Variable R = new Variable("R", new Interval(-1, -1));
+        X.reduceExcept(0);
+
+        // X ne contient pas 0 mais -1 / X change de signe : A = 1 ou A = -1
+        Constraint c = new Constraint(ConstraintType.MUL, R, A, X);
+        Reducer reducer = new Reducer(List.of(c));
+        assertTrue(reducer.reduceAll(false, List.of(A, X, R)));
+        assertTrue(A.contains(-1) && A.contains(1));
+    }
+
+    @Test
+    void testConstraintQueuedOnce() {
+        Variable X = new Variable("X", new Interval(0, 10));
+        Variable Y = new Variable("Y", new Interval(5, 20));
+        Constraint c = new Constraint(ConstraintType.EQ, null, X, Y);
+
+        Reducer reducer = new Reducer(List.of(c));
+        assertTrue(reducer.reduceAll(false, List.of(X, Y)));
+
+        assertEquals("[5,10]", X.toString());
+        assertEquals("[5,10]", Y.toString());
+        // X et Y modifiés : la contrainte n'est remise qu'une fois dans la file
+        assertEquals(2, reducer.getLastCalls());
+    }
 }
@@ -42,4 +42,30 @@ public class TestReducerDiff {
 
         assertTrue(X.isEmpty() && Y.isEmpty(), "Les deux domaines doivent être vides");
     }
+
+    @Test
+    void testDiffInteriorValue() {
+        Variable X = new Variable("X", new Interval(10, 20));
+        Variable Y = new Variable("Y", new Interval(15, 15));
+        Constraint c = new Constraint(ConstraintType.NEQ, null, X, Y);
+
+        Reducer reducer = new Reducer(List.of(c));
+        reducer.reduceAll(false, List.of(X, Y));
+
+        assertEquals("[10,20]", X.toString());
+        assertFalse(X.contains(15), "15 doit être un trou de X");
+        assertEquals(10, X.getSize());
+    }
+
+    @Test
+    void testHolesNotEnumerated() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 1, 9);
+        for (int v = 2; v <= 8; v++) {
+            solver.addRelation(x, "<>", v);
+        }
+        solver.alwaysReduceStrategy();
+        assertEquals(2, solver.solve());
+        assertEquals(3, solver.getNodesCounter());
+    }
 }
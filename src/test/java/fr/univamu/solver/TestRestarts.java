@@ -0,0 +1,114 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TestRestarts {
+
+    @Test
+    void testCutoffs() {
+        var luby = Restarts.luby(3);
+        StringBuilder sequence = new StringBuilder();
+        for (int run = 0; run < 15; run++) {
+            sequence.append(luby.cutoff(run) / 3).append(' ');
+        }
+        assertEquals("1 1 2 1 1 2 4 1 1 2 1 1 2 4 8", sequence.toString().trim());
+        var geometric = Restarts.geometric(10, 1.5);
+        assertEquals(10, geometric.cutoff(0));
+        assertEquals(15, geometric.cutoff(1));
+        assertEquals(22, geometric.cutoff(2));
+        assertThrows(IllegalArgumentException.class, () -> Restarts.geometric(10, 0.5));
+    }
+
+    @Test
+    void testNoGoodPropagation() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 1, 5);
+        var y = solver.newVar("Y", 1, 5);
+        var noGoods = new NoGoods(solver.getStore());
+        noGoods.add(new int[] {x.getId(), y.getId()}, new int[] {1, 3}, new int[] {2, 3}, 2);
+        noGoods.add(new int[] {x.getId()}, new int[] {5}, new int[] {5}, 1);
+        assertEquals(1, noGoods.propagate());
+        assertEquals(4, x.getMax());
+        assertEquals(0, noGoods.propagate());
+        x.reduce(1, 2);
+        assertEquals(1, noGoods.propagate());
+        assertFalse(y.contains(3));
+        assertEquals(4, y.getSize());
+        y.reduce(4, 5);
+        assertTrue(noGoods.check());
+        noGoods.add(new int[] {y.getId()}, new int[] {4}, new int[] {5}, 1);
+        assertFalse(noGoods.check());
+        assertEquals(-1, noGoods.propagate());
+    }
+
+    @Test
+    void testCountsUnchanged() {
+        for (Consumer<Solver> setup : strategies()) {
+            Solver solver = (Solver) new Solver().makeQueens(8);
+            setup.accept(solver);
+            solver.setRestarts(Restarts.luby(8));
+            solver.getSolutions().setDisplay(false);
+            assertEquals(92, solver.solve());
+            assertTrue(solver.getRestartsCounter() > 0);
+            assertTrue(solver.getNoGoodsCounter() > 0);
+            var distinct = new HashSet<>();
+            solver.getSolutions().getAll().forEach(a -> distinct.add(a.values()));
+            assertEquals(92, distinct.size());
+
+            solver = (Solver) new Solver().makeQueens(9);
+            setup.accept(solver);
+            solver.setRestarts(Restarts.geometric(20, 1.3));
+            assertEquals(352, solver.countSolutions());
+        }
+    }
+
+    @Test
+    void testFirstSolution() {
+        Solver solver = (Solver) new Solver().makeQueens(30);
+        solver.domWdegStrategy();
+        solver.setBranching(Branching.enumerate(Branching.Order.RANDOM).withSeed(7));
+        solver.setRestarts(Restarts.luby(16));
+        assertEquals(1, solver.solve(assignment -> false));
+    }
+
+    @Test
+    void testOptimumUnchanged() {
+        int[][] costs = {{9, 2, 7, 8, 6}, {6, 4, 3, 7, 5}, {5, 8, 1, 8, 4}, {7, 6, 9, 4, 3}, {2, 5, 6, 7, 8}};
+        int[] best = new int[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = (Solver) new Solver().buildAssignmentProblem(costs);
+            solver.getSolutions().setDisplay(false);
+            if (run == 1) {
+                solver.setRestarts(Restarts.luby(2));
+            }
+            solver.solve();
+            var all = solver.getSolutions().getAll();
+            best[run] = all.get(all.size() - 1).values().get("COST");
+        }
+        assertEquals(best[0], best[1]);
+    }
+
+    @Test
+    void testParallelRejected() {
+        Solver solver = (Solver) new Solver().makeQueens(6);
+        solver.setRestarts(Restarts.luby(4));
+        solver.setParallelism(2);
+        assertThrows(IllegalStateException.class, solver::solve);
+    }
+
+    private static List<Consumer<Solver>> strategies() {
+        return List.of(
+                solver -> { },
+                Solver::alwaysReduceStrategy,
+                Solver::domWdegStrategy,
+                solver -> {
+                    solver.activityStrategy();
+                    solver.setBranching(Branching.bisect(Branching.Order.RANDOM).withSeed(3));
+                });
+    }
+}
@@ -0,0 +1,127 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class TestScheduling {
+
+    @Test
+    void testDisjunctiveEdgeFinding() {
+        // A et B remplissent [0, 8) à une unité près : C passe après eux
+        Variable A = new Variable("A", new Interval(0, 4));
+        Variable B = new Variable("B", new Interval(0, 5));
+        Variable C = new Variable("C", new Interval(0, 20));
+        Constraint c = new Constraint(new Disjunctive(new Variable[] {A, B, C}, new int[] {4, 3, 5}));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(A, B, C)));
+        assertEquals(7, C.getMin());
+        assertEquals(20, C.getMax());
+    }
+
+    @Test
+    void testDisjunctiveOverload() {
+        Variable A = new Variable("A", new Interval(0, 5));
+        Variable B = new Variable("B", new Interval(0, 5));
+        Variable C = new Variable("C", new Interval(0, 5));
+        Constraint c = new Constraint(new Disjunctive(new Variable[] {A, B, C}, new int[] {3, 3, 3}));
+        assertFalse(new Reducer(List.of(c)).reduceAll(false, List.of(A, B, C)));
+    }
+
+    @Test
+    void testCumulativeTimeTable() {
+        // A occupe toute la capacité sur [1, 5) quoi qu'il arrive
+        Variable A = new Variable("A", new Interval(0, 1));
+        Variable B = new Variable("B", new Interval(0, 10));
+        Constraint c = new Constraint(new Cumulative(new Variable[] {A, B}, new int[] {5, 3}, new int[] {2, 1}, 2));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(A, B)));
+        assertEquals(5, B.getMin());
+    }
+
+    @Test
+    void testCumulativeEdgeFinding() {
+        // A et B remplissent [0, 4) sans partie obligatoire : C commence après
+        Variable A = new Variable("A", new Interval(0, 2));
+        Variable B = new Variable("B", new Interval(0, 2));
+        Variable C = new Variable("C", new Interval(0, 10));
+        Constraint c = new Constraint(new Cumulative(new Variable[] {A, B, C}, new int[] {2, 2, 2},
+                new int[] {2, 2, 1}, 2));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(A, B, C)));
+        assertEquals(4, C.getMin());
+    }
+
+    @Test
+    void testSolutionsCounted() {
+        Random random = new Random(6);
+        for (int k = 0; k < 60; k++) {
+            int n = 2 + random.nextInt(3);
+            int[] durations = new int[n];
+            int[] heights = new int[n];
+            int[] mins = new int[n];
+            int[] maxs = new int[n];
+            for (int i = 0; i < n; i++) {
+                durations[i] = random.nextInt(4);
+                heights[i] = 1 + random.nextInt(2);
+                mins[i] = random.nextInt(3);
+                maxs[i] = mins[i] + random.nextInt(6);
+            }
+            int capacity = 1 + random.nextInt(3);
+            boolean disjunctive = k % 2 == 0;
+            long expected = count(durations, disjunctive ? null : heights, capacity, mins, maxs, new int[n], 0);
+            Solver solver = new Solver();
+            Variable[] starts = new Variable[n];
+            for (int i = 0; i < n; i++) {
+                starts[i] = solver.newVar("S" + i, mins[i], maxs[i]);
+            }
+            if (disjunctive) {
+                solver.addDisjunctiveRelation(starts, durations);
+            } else {
+                solver.addCumulativeRelation(starts, durations, heights, capacity);
+            }
+            solver.alwaysReduceStrategy();
+            solver.getSolutions().setDisplay(false);
+            assertEquals(expected, solver.solve(), "model " + k);
+        }
+    }
+
+    /* Dénombrement direct ; heights null pour une ressource disjonctive. */
+    private static long count(int[] durations, int[] heights, int capacity, int[] mins, int[] maxs, int[] starts,
+            int i) {
+        if (i == starts.length) {
+            for (int t = -10; t < 30; t++) {
+                int used = 0;
+                for (int j = 0; j < starts.length; j++) {
+                    if (starts[j] <= t && t < starts[j] + durations[j]) {
+                        used += (heights == null) ? 1 : heights[j];
+                    }
+                }
+                if (used > ((heights == null) ? 1 : capacity)) return 0;
+            }
+            return 1;
+        }
+        long total = 0;
+        for (int s = mins[i]; s <= maxs[i]; s++) {
+            starts[i] = s;
+            total += count(durations, heights, capacity, mins, maxs, starts, i + 1);
+        }
+        return total;
+    }
+
+    @Test
+    void testJobShop() {
+        int[][] machines = {{0, 1, 2}, {1, 0, 2}, {2, 1, 0}};
+        int[][] durations = {{3, 2, 2}, {2, 4, 1}, {4, 3, 2}};
+        int[] best = new int[2];
+        long[] nodes = new long[2];
+        for (int run = 0; run < 2; run++) {
+            Solver solver = (Solver) new Solver().buildJobShopProblem(machines, durations, run == 1);
+            solver.getSolutions().setDisplay(false);
+            solver.solve();
+            best[run] = ((OptimizationStrategy) solver.getStrategy()).getBestValue();
+            nodes[run] = solver.getNodesCounter();
+        }
+        assertEquals(best[0], best[1]);
+        assertTrue(nodes[1] < nodes[0], () -> "disjunctive: " + nodes[1] + ", decomposition: " + nodes[0]);
+    }
+}
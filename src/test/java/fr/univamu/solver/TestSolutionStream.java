@@ -0,0 +1,75 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSolutionStream {
+
+    @Test
+    void testConsumerSeesAllSolutions() {
+        ISolver solver = new Solver().makeQueens(8);
+        List<Solutions.Assignment> seen = new ArrayList<>();
+        assertEquals(92, solver.solve(a -> seen.add(a)));
+        assertEquals(92, seen.size());
+        assertEquals(0, solver.getSolutions().count(), "rien ne doit être stocké");
+    }
+
+    @Test
+    void testConsumerStopsSearch() {
+        ISolver solver = new Solver().makeQueens(8);
+        int[] calls = {0};
+        assertEquals(3, solver.solve(a -> ++calls[0] < 3));
+        assertEquals(3, calls[0]);
+        assertEquals(92, solver.solve());
+    }
+
+    @Test
+    void testParallelConsumerStops() {
+        ISolver solver = new Solver().makeQueens(8);
+        solver.setParallelism(3);
+        int[] calls = {0};
+        solver.solve(a -> ++calls[0] < 5);
+        assertEquals(5, calls[0]);
+    }
+
+    @Test
+    void testIteratorMatchesSolve() {
+        ISolver solver = new Solver().makeQueens(6);
+        solver.solve();
+        var expected = new ArrayList<>(solver.getSolutions().getAll());
+        var it = solver.iterateSolutions();
+        List<Solutions.Assignment> actual = new ArrayList<>();
+        it.forEachRemaining(actual::add);
+        assertEquals(expected, actual);
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testStreamEarlyTermination() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 1000);
+        var y = solver.newVar("Y", 0, 1000);
+        solver.addRelation(x, "<", y);
+        solver.alwaysReduceStrategy();
+        try (var stream = solver.streamSolutions()) {
+            assertEquals(10, stream.limit(10).count());
+        }
+        assertTrue(solver.getNodesCounter() < 100);
+        assertEquals("[0,1000]", x.toString());
+    }
+
+    @Test
+    void testCountOnly() {
+        ISolver solver = new Solver().makeQueens(8);
+        assertEquals(92, solver.countSolutions());
+        assertEquals(0, solver.getSolutions().count());
+
+        ISolver parallel = new Solver().makeQueens(8);
+        parallel.setParallelism(3);
+        assertEquals(92, parallel.countSolutions());
+        assertEquals(0, parallel.getSolutions().count());
+    }
+}
@@ -0,0 +1,166 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class TestTable {
+
+    // (X, Y, Z) : 3 tuples, l'un sans valeur possible pour Z
+    private static final int[] TUPLES = {1, 2, 3, 1, 4, 5, 2, 2, 9, 3, 4, 3};
+
+    @Test
+    void testSupports() {
+        Variable X = new Variable("X", new Interval(0, 10));
+        Variable Y = new Variable("Y", new Interval(0, 10));
+        Variable Z = new Variable("Z", new Interval(3, 5));
+        Constraint c = new Constraint(new Table(new Variable[] {X, Y, Z}, TUPLES));
+        assertTrue(new Reducer(List.of(c)).reduceAll(false, List.of(X, Y, Z)));
+        assertEquals("[1,3]", X.toString());
+        assertFalse(X.contains(2));
+        assertEquals("[2,4]", Y.toString());
+        assertFalse(Y.contains(3));
+        assertEquals("[3,5]", Z.toString());
+        assertFalse(Z.contains(4));
+    }
+
+    @Test
+    void testNoTuple() {
+        Variable X = new Variable("X", new Interval(0, 10));
+        Variable Y = new Variable("Y", new Interval(5, 10));
+        Variable Z = new Variable("Z", new Interval(0, 10));
+        Constraint c = new Constraint(new Table(new Variable[] {X, Y, Z}, TUPLES));
+        assertFalse(new Reducer(List.of(c)).reduceAll(false, List.of(X, Y, Z)));
+        assertThrows(IllegalArgumentException.class, () -> new Table(new Variable[] {X, Y}, new int[] {1, 2, 3}));
+    }
+
+    @Test
+    void testSolutions() {
+        Random random = new Random(11);
+        for (int k = 0; k < 60; k++) {
+            int arity = 1 + random.nextInt(3);
+            int[] tuples = new int[arity * random.nextInt(80)];
+            for (int i = 0; i < tuples.length; i++) {
+                tuples[i] = random.nextInt(6);
+            }
+            int[] mins = new int[arity];
+            int[] maxs = new int[arity];
+            for (int x = 0; x < arity; x++) {
+                mins[x] = random.nextInt(4) - 1;
+                maxs[x] = mins[x] + random.nextInt(6);
+            }
+            // les tuples distincts dans les domaines, et une relation de plus sur les deux premières variables
+            long expected = 0;
+            for (int t = 0; t < tuples.length; t += arity) {
+                boolean valid = arity < 2 || tuples[t] != tuples[t + 1];
+                for (int x = 0; x < arity; x++) {
+                    valid &= tuples[t + x] >= mins[x] && tuples[t + x] <= maxs[x];
+                }
+                for (int u = 0; u < t && valid; u += arity) {
+                    boolean same = true;
+                    for (int x = 0; x < arity; x++) {
+                        same &= tuples[u + x] == tuples[t + x];
+                    }
+                    valid = !same;
+                }
+                if (valid) expected++;
+            }
+            for (int parallelism = 1; parallelism <= 2; parallelism++) {
+                Solver solver = new Solver();
+                Variable[] vars = new Variable[arity];
+                for (int x = 0; x < arity; x++) {
+                    vars[x] = solver.newVar("V" + x, mins[x], maxs[x]);
+                }
+                solver.addTableRelation(vars, tuples);
+                if (arity >= 2) {
+                    solver.addRelation(vars[0], "<>", vars[1]);
+                }
+                solver.getSolutions().setDisplay(false);
+                solver.setParallelism(parallelism);
+                assertEquals(expected, solver.solve(), "model " + k + ", parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    void testDomainWidened() {
+        Solver solver = new Solver();
+        Variable x = solver.newVar("X", 0, 1);
+        Variable y = solver.newVar("Y", 0, 9);
+        solver.addTableRelation(new Variable[] {x, y}, new int[] {0, 5, 1, 6, 2, 7, 3, 8});
+        solver.getSolutions().setDisplay(false);
+        assertEquals(2, solver.solve());
+        // le domaine élargi entre deux résolutions retrouve ses tuples
+        solver.in(x, 0, 3);
+        assertEquals(4, solver.solve());
+    }
+
+    @Test
+    void testPackedTuples() {
+        // a + b ≡ c (mod 100) : 10 000 tuples
+        int[] tuples = new int[3 * 100 * 100];
+        int t = 0;
+        for (int a = 0; a < 100; a++) {
+            for (int b = 0; b < 100; b++) {
+                tuples[t++] = a;
+                tuples[t++] = b;
+                tuples[t++] = (a + b) % 100;
+            }
+        }
+        Solver solver = new Solver();
+        Variable a = solver.newVar("A", 0, 99);
+        Variable b = solver.newVar("B", 10, 19);
+        Variable c = solver.newVar("C", 0, 4);
+        solver.addTableRelation(new Variable[] {a, b, c}, tuples);
+        solver.getSolutions().setDisplay(false);
+        assertEquals(50, solver.solve());
+        for (var solution : solver.getSolutions().getAll()) {
+            var values = solution.values();
+            assertEquals((values.get("A") + values.get("B")) % 100, (int) values.get("C"));
+        }
+    }
+
+    @Test
+    void testRepeatedVariable() {
+        // X, X, Y : seuls comptent les tuples dont les deux premières valeurs s'accordent
+        Solver solver = new Solver();
+        Variable x = solver.newVar("X", 0, 4);
+        Variable y = solver.newVar("Y", 3, 3);
+        solver.addTableRelation(new Variable[] {x, x, y}, new int[] {2, 1, 3, 1, 1, 4, 0, 2, 3});
+        solver.alwaysReduceStrategy();
+        solver.getSolutions().setDisplay(false);
+        assertEquals(0, solver.solve());
+
+        Random random = new Random(5);
+        for (int k = 0; k < 40; k++) {
+            int[] tuples = new int[3 * random.nextInt(60)];
+            for (int i = 0; i < tuples.length; i++) {
+                tuples[i] = random.nextInt(4);
+            }
+            // portée (A, B, A) : tuples distincts avec t0 = t2
+            long expected = 0;
+            for (int t = 0; t < tuples.length; t += 3) {
+                boolean valid = tuples[t] == tuples[t + 2];
+                for (int u = 0; u < t && valid; u += 3) {
+                    valid = tuples[u] != tuples[t] || tuples[u + 1] != tuples[t + 1] || tuples[u + 2] != tuples[t + 2];
+                }
+                if (valid) expected++;
+            }
+            for (int mode = 0; mode < 3; mode++) {
+                Solver model = new Solver();
+                Variable a = model.newVar("A", 0, 3);
+                Variable b = model.newVar("B", 0, 3);
+                model.addTableRelation(new Variable[] {a, b, a}, tuples);
+                model.getSolutions().setDisplay(false);
+                if (mode == 1) {
+                    model.alwaysReduceStrategy();
+                } else if (mode == 2) {
+                    model.impactStrategy();
+                }
+                assertEquals(expected, model.solve(), "model " + k + ", mode " + mode);
+            }
+        }
+    }
+}
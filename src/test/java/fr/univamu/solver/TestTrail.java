@@ -0,0 +1,100 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTrail {
+
+    @Test
+    void testUndoRestoresBounds() {
+        DomainStore store = new DomainStore();
+        Trail trail = store.getTrail();
+        Variable x = new Variable(store, "X", 0, 10);
+
+        trail.push();
+        x.reduce(2, 8);
+        x.reduce(3, 5);
+        assertEquals(1, trail.size(), "une seule sauvegarde par point de choix");
+
+        trail.push();
+        x.init(4, 4);
+        trail.pop();
+        assertEquals("[3,5]", x.toString());
+
+        trail.pop();
+        assertEquals("[0,10]", x.toString());
+        assertEquals(0, trail.size());
+    }
+
+    @Test
+    void testRestoreDoesNotNotify() {
+        DomainStore store = new DomainStore();
+        Trail trail = store.getTrail();
+        Variable x = new Variable(store, "X", 0, 10);
+        int[] notifications = {0};
+        x.addObserver(v -> notifications[0]++);
+
+        trail.push();
+        x.reduce(1, 9);
+        trail.undo();
+        assertEquals(1, notifications[0]);
+        assertEquals("[0,10]", x.toString());
+    }
+
+    @Test
+    void testSolveRestoresDomains() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 9);
+        solver.addRelation(x, ">", 4);
+        solver.alwaysReduceStrategy();
+        assertEquals(5, solver.solve());
+        assertEquals("[0,9]", x.toString());
+        assertEquals(5, solver.solve());
+    }
+
+    @Test
+    void testUndoRestoresHoles() {
+        DomainStore store = new DomainStore();
+        Trail trail = store.getTrail();
+        Variable x = new Variable(store, "X", 0, 100);
+
+        trail.push();
+        x.reduceExcept(40);
+        x.reduceExcept(70);
+        assertFalse(x.contains(40));
+        x.reduce(40, 70);
+        assertEquals("[41,69]", x.toString());
+
+        trail.pop();
+        assertEquals("[0,100]", x.toString());
+        assertTrue(x.contains(40) && x.contains(70));
+        assertEquals(101, x.getSize());
+    }
+
+    @Test
+    void testCellsRestored() {
+        DomainStore store = new DomainStore();
+        Trail trail = store.getTrail();
+        Variable x = new Variable(store, "X", 0, 10);
+        long[] cells = {7, 8};
+
+        trail.saveCell(cells, 0);
+        cells[0] = 1;
+        trail.push();
+        trail.saveCell(cells, 0);
+        cells[0] = 2;
+        trail.push();
+        trail.saveCell(cells, 1);
+        cells[1] = 3;
+        x.reduce(2, 4);
+        trail.pop();
+        assertEquals(2, cells[0]);
+        assertEquals(8, cells[1]);
+        assertEquals("[0,10]", x.toString());
+
+        trail.pop();
+        // hors de tout point de choix, rien n'est sauvegardé
+        assertEquals(1, cells[0]);
+        assertEquals(0, trail.size());
+    }
+}
@@ -0,0 +1,102 @@
+package fr.univamu.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestView {
+
+    @Test
+    void testReadsAndReducesBase() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 10);
+        var y = solver.view(x, -3, 5); // Y = 5 - 3X
+        assertEquals("[-25,5]", y.toString());
+        assertTrue(y.reduce(-10, 0));
+        assertEquals("[2,5]", x.toString());
+        assertEquals("[-10,-1]", y.toString());
+        assertTrue(y.contains(-4));
+        assertFalse(y.contains(-5));
+        assertEquals(4, y.getSize());
+    }
+
+    @Test
+    void testEnumeratesHoles() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 5);
+        x.reduceExcept(2);
+        var y = solver.view(x, -2, 0); // Y = -2X : -10, -8, -6, -2, 0
+        assertEquals(-8, y.next(-10));
+        assertEquals(-2, y.next(-6));
+        assertEquals(1, y.next(0));
+        assertTrue(y.reduceExcept(-8));
+        assertFalse(x.contains(4));
+        assertEquals(-6, y.next(-10));
+    }
+
+    @Test
+    void testComposition() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 10);
+        var y = solver.view(solver.view(x, 2, 1), -1, 3); // 3 - (2X + 1) = 2 - 2X
+        assertEquals("[-18,2]", y.toString());
+        assertSame(x, solver.view(solver.view(x, 1, 4), 1, -4));
+    }
+
+    @Test
+    void testExpressionOffsets() {
+        Solver solver = new Solver();
+        var x = solver.newVar("X", 0, 9);
+        var y = solver.newVar("Y", 0, 9);
+        solver.addRelation(solver.expression(x, "+", 3), "=", solver.expression(10, "-", y));
+        // pas de variable auxiliaire
+        assertEquals(2, solver.variables.size());
+        solver.alwaysReduceStrategy();
+        assertEquals(8, solver.solve());
+    }
+
+    @Test
+    void testQueensWithoutAuxiliaries() {
+        Solver solver = (Solver) new Solver().makeQueens(8);
+        assertEquals(8, solver.variables.size());
+        assertEquals(92, solver.countSolutions());
+        solver.setParallelism(2);
+        assertEquals(92, solver.countSolutions());
+    }
+
+    @Test
+    void testSumUsedThroughView() {
+        // R = A + B + C n'est utilisé que par la vue R + 1 : R = 4 ne doit pas l'absorber
+        for (int model = 0; model < 4; model++) {
+            for (boolean reduce : new boolean[] {false, true}) {
+                Solver solver = new Solver();
+                var a = solver.newVar("A", 0, 3);
+                var b = solver.newVar("B", 0, 3);
+                var c = solver.newVar("C", 0, 3);
+                var d = solver.newVar("D", 0, 10);
+                var r = solver.expression(a, "+", b, "+", c);
+                if (model >= 2) {
+                    // dans l'autre ordre, la vue posée après l'absorption remet la définition
+                    solver.addRelation(r, "=", 4);
+                }
+                if (model % 2 == 0) {
+                    solver.addAllDiffRelation(solver.expression(r, "+", 1), d);
+                } else {
+                    solver.addLinearRelation(new int[] {1, -1}, new Variable[] {solver.expression(r, "+", 1), d}, "<>", 0);
+                }
+                if (model < 2) {
+                    solver.addRelation(r, "=", 4);
+                }
+                if (reduce) {
+                    solver.alwaysReduceStrategy();
+                }
+                solver.getSolutions().setDisplay(false);
+                String message = "model " + model + ", reduce " + reduce;
+                // 12 triplets de somme 4, et D ≠ 5
+                assertEquals(120, solver.solve(), message);
+                for (var solution : solver.getSolutions().getAll()) {
+                    assertNotEquals(5, (int) solution.values().get("D"), message);
+                }
+            }
+        }
+    }
+}